@@ -0,0 +1,126 @@
+#!/usr/bin/env bash
+# Measures time to the first successful GET on a database-backed endpoint and the resident memory right after it.
+#
+#   scripts/startup-benchmark.sh [jvm|fast|native] [runs] [-- extra application arguments]
+#
+#   jvm     the regular fat jar (./mvnw package)
+#   fast    exploded jar with the fast-startup profile, AOT-processed context and a class-data-sharing
+#           archive (./mvnw package -Pfast-startup); the archive is trained on the first run
+#   native  the native executable (./mvnw -Pnative native:compile)
+#
+# Environment: PORT (default 8080), PROBE_PATH (default /api/v1/students), JAVA_OPTS,
+# THROUGHPUT_REQUESTS (default 0) to also measure steady-state requests per second after a warm-up of the same size.
+set -euo pipefail
+
+MODE=${1:-jvm}
+RUNS=${2:-5}
+shift $(( $# > 2 ? 2 : $# ))
+[[ "${1:-}" == "--" ]] && shift
+# admission control would rate limit the throughput phase, which fires every request from one client
+APP_ARGS=(--school.admission.enabled=false "$@")
+
+PORT=${PORT:-8080}
+PROBE_PATH=${PROBE_PATH:-/api/v1/students}
+THROUGHPUT_REQUESTS=${THROUGHPUT_REQUESTS:-0}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+JAR=$(ls "$ROOT"/target/school-*.jar 2>/dev/null | grep -v original | head -n 1 || true)
+NATIVE_BINARY="$ROOT/target/school"
+EXPLODED="$ROOT/target/exploded"
+CDS_ARCHIVE="$ROOT/target/school.jsa"
+URL="http://localhost:$PORT$PROBE_PATH"
+
+now_ms() { date +%s%3N; }
+
+build_command() {
+  local java_opts
+  read -r -a java_opts <<< "${JAVA_OPTS:-}"
+  case "$MODE" in
+    jvm)
+      CMD=(java "${java_opts[@]}" -jar "$JAR" --server.port="$PORT")
+      ;;
+    fast)
+      # class-data-sharing only accepts jars on the classpath, so the application classes are re-jarred
+      if [[ ! -d "$EXPLODED" ]]; then
+        mkdir -p "$EXPLODED" && (cd "$EXPLODED" && jar -xf "$JAR")
+        jar -cf "$EXPLODED/application.jar" -C "$EXPLODED/BOOT-INF/classes" .
+      fi
+      local cds="-XX:SharedArchiveFile=$CDS_ARCHIVE"
+      [[ -f "$CDS_ARCHIVE" ]] || cds="-XX:ArchiveClassesAtExit=$CDS_ARCHIVE"
+      CMD=(java "${java_opts[@]}" "$cds" -Dspring.aot.enabled=true -XX:TieredStopAtLevel=1
+        -cp "$EXPLODED/application.jar:$EXPLODED/BOOT-INF/lib/*" gabriel.moraes.school.SchoolApplication
+        --spring.profiles.active=fast-startup --server.port="$PORT")
+      ;;
+    native)
+      CMD=("$NATIVE_BINARY" --server.port="$PORT")
+      ;;
+    *)
+      echo "unknown mode: $MODE" >&2
+      exit 1
+      ;;
+  esac
+}
+
+start_app() {
+  build_command
+  "${CMD[@]}" "${APP_ARGS[@]}" > "$ROOT/target/startup-benchmark.log" 2>&1 &
+  APP_PID=$!
+  until curl -sf -o /dev/null "$URL"; do
+    if ! kill -0 "$APP_PID" 2>/dev/null; then
+      echo "application exited, see target/startup-benchmark.log" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+}
+
+stop_app() {
+  kill "$APP_PID" && wait "$APP_PID" 2>/dev/null || true
+}
+
+run_once() {
+  local start ready rss
+  start=$(now_ms)
+  start_app
+  ready=$(( $(now_ms) - start ))
+  rss=$(( $(ps -o rss= -p "$APP_PID") / 1024 ))
+  stop_app
+  echo "$ready $rss"
+}
+
+fire_requests() {
+  local config="$ROOT/target/startup-benchmark.curl"
+  for (( i = 0; i < $1; i++ )); do
+    printf 'url = "%s"\noutput = /dev/null\n' "$URL"
+  done > "$config"
+  curl -s --fail --parallel --parallel-max 16 -K "$config" 2> /dev/null
+}
+
+measure_throughput() {
+  local start elapsed rss
+  start_app
+  fire_requests "$THROUGHPUT_REQUESTS"
+  start=$(now_ms)
+  fire_requests "$THROUGHPUT_REQUESTS"
+  elapsed=$(( $(now_ms) - start ))
+  rss=$(( $(ps -o rss= -p "$APP_PID") / 1024 ))
+  stop_app
+  echo "$MODE steady state: $(( THROUGHPUT_REQUESTS * 1000 / elapsed )) requests/s over $THROUGHPUT_REQUESTS requests, RSS ${rss} MB"
+}
+
+if [[ "$MODE" == "fast" && ! -f "$CDS_ARCHIVE" ]]; then
+  echo "training class-data-sharing archive..."
+  run_once > /dev/null
+fi
+
+total_ready=0
+total_rss=0
+for run in $(seq 1 "$RUNS"); do
+  read -r ready rss < <(run_once)
+  echo "run $run: first successful request after ${ready} ms, RSS ${rss} MB"
+  total_ready=$(( total_ready + ready ))
+  total_rss=$(( total_rss + rss ))
+done
+echo "$MODE average over $RUNS runs: $(( total_ready / RUNS )) ms, RSS $(( total_rss / RUNS )) MB"
+if (( THROUGHPUT_REQUESTS > 0 )); then
+  measure_throughput
+fi
@@ -0,0 +1,37 @@
+package gabriel.moraes.school.Model;
+
+import gabriel.moraes.school.cache.CachedEntity;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Data
+@NoArgsConstructor
+@Table(indexes = @Index(name = "idx_cache_invalidation_event_created_at", columnList = "createdAt"))
+public class CacheInvalidationEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private CachedEntity entityType;
+
+    private Long entityId;
+
+    @Column(length = 64)
+    private String origin;
+
+    private Instant createdAt;
+
+    public CacheInvalidationEvent(CachedEntity entityType, Long entityId, String origin, Instant createdAt) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.origin = origin;
+        this.createdAt = createdAt;
+    }
+}
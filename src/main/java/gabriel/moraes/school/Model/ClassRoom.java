@@ -19,6 +19,8 @@ import java.util.List;
         generator = ObjectIdGenerators.PropertyGenerator.class,
         property = "id"
 )
+@Table(indexes = {@Index(name = "idx_class_room_status", columnList = "status"),
+        @Index(name = "idx_class_room_program", columnList = "program")})
 public class ClassRoom {
 
     @Id
@@ -28,22 +30,29 @@ public class ClassRoom {
     private String name;
     private ClassStatus status;
 
+    // shard key: the class, its students and its squads live on the shard of this program
+    @Column(length = 64)
+    private String program;
+
     @ManyToMany(cascade = CascadeType.ALL)
     @JoinTable(name = "classroom_coordinators",
             joinColumns = @JoinColumn(name = "classroom_id"),
-            inverseJoinColumns = @JoinColumn(name = "coordinator_id"))
+            inverseJoinColumns = @JoinColumn(name = "coordinator_id"),
+            indexes = @Index(name = "idx_classroom_coordinators_coordinator_id", columnList = "coordinator_id"))
     private List<Coordinator> coordinators = new ArrayList<>();
 
     @ManyToMany(cascade = CascadeType.ALL)
     @JoinTable(name = "classroom_scrum_masters",
             joinColumns = @JoinColumn(name = "classroom_id"),
-            inverseJoinColumns = @JoinColumn(name = "scrum_master_id"))
+            inverseJoinColumns = @JoinColumn(name = "scrum_master_id"),
+            indexes = @Index(name = "idx_classroom_scrum_masters_scrum_master_id", columnList = "scrum_master_id"))
     private List<ScrumMaster> scrumMasters = new ArrayList<>();
 
     @ManyToMany(cascade = CascadeType.ALL)
     @JoinTable(name = "classroom_instructors",
             joinColumns = @JoinColumn(name = "classroom_id"),
-            inverseJoinColumns = @JoinColumn(name = "instructor_id"))
+            inverseJoinColumns = @JoinColumn(name = "instructor_id"),
+            indexes = @Index(name = "idx_classroom_instructors_instructor_id", columnList = "instructor_id"))
     private List<Instructor> instructors = new ArrayList<>();
 
     @OneToMany(mappedBy = "classRoom", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
@@ -0,0 +1,36 @@
+package gabriel.moraes.school.Model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Data
+@NoArgsConstructor
+@Table(indexes = @Index(name = "idx_class_room_change_class_room_id", columnList = "classRoomId, id"))
+public class ClassRoomChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long classRoomId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private ClassRoomChangeType changeType;
+
+    private Long entityId;
+    private String detail;
+    private Instant changedAt;
+
+    public ClassRoomChange(Long classRoomId, ClassRoomChangeType changeType, Long entityId, String detail, Instant changedAt) {
+        this.classRoomId = classRoomId;
+        this.changeType = changeType;
+        this.entityId = entityId;
+        this.detail = detail;
+        this.changedAt = changedAt;
+    }
+}
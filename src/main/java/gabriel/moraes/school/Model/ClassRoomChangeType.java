@@ -0,0 +1,10 @@
+package gabriel.moraes.school.Model;
+
+public enum ClassRoomChangeType {
+    CLASS_CREATED,
+    CLASS_STATUS_CHANGED,
+    STUDENT_ENROLLED,
+    STUDENT_REMOVED,
+    SQUAD_CREATED,
+    SQUAD_RENAMED;
+}
@@ -2,36 +2,29 @@ package gabriel.moraes.school.Model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
 import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Data
-@AllArgsConstructor
-@NoArgsConstructor
-public class Coordinator{
-
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-    private String firstName;
-    private String lastName;
-    private String email;
-    private String phone;
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@DiscriminatorValue("COORDINATOR")
+public class Coordinator extends Person {
 
     @ManyToMany(mappedBy = "coordinators")
     @JsonBackReference(value = "classRoom-coordinators")
     private List<ClassRoom> classRooms = new ArrayList<>();
 
-    public Coordinator(Long id, String firstname, String lastname, String email, String phone) {
-        this.id = id;
-        this.email = email;
-        this.firstName = firstname;
-        this.lastName = lastname;
-        this.phone = phone;
+    public Coordinator() {
+        super(PersonRole.COORDINATOR);
+    }
+
+    public Coordinator(Long id, String firstName, String lastName, String email, String phone) {
+        super(PersonRole.COORDINATOR, id, firstName, lastName, email, phone);
     }
 }
@@ -0,0 +1,10 @@
+package gabriel.moraes.school.Model;
+
+public enum DomainEventType {
+    STUDENTS_ENROLLED,
+    CLASS_STARTED,
+    CLASS_FINISHED,
+    SQUADS_CREATED,
+    ENROLLMENT_REJECTED,
+    STUDENTS_WAITLISTED;
+}
@@ -0,0 +1,19 @@
+package gabriel.moraes.school.Model.DtoRequest;
+
+import gabriel.moraes.school.constants.ClassRoomConstants;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeleteStudentsDtoRequest {
+    @NotEmpty(message = "At least one student is required")
+    @Size(max = ClassRoomConstants.MAX_BULK_DELETE, message = "At most 1000 students can be deleted at once")
+    List<Long> students;
+}
@@ -0,0 +1,18 @@
+package gabriel.moraes.school.Model.DtoResponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedDtoResponse {
+
+    private List<ClassRoomChangeDtoResponse> changes = new ArrayList<>();
+    private Long nextCursor;
+    private boolean hasMore;
+}
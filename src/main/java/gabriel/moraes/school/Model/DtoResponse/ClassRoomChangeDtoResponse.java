@@ -0,0 +1,23 @@
+package gabriel.moraes.school.Model.DtoResponse;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import gabriel.moraes.school.Model.ClassRoomChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ClassRoomChangeDtoResponse {
+
+    private Long id;
+    private Long classRoomId;
+    private ClassRoomChangeType changeType;
+    private Long entityId;
+    private String detail;
+    private Instant changedAt;
+}
@@ -16,6 +16,7 @@ public class ClassRoomDtoResponse {
     private Long id;
     private String name;
     private ClassStatus status;
+    private String program;
     private List<Coordinator> coordinators = new ArrayList<>();
     private List<ScrumMaster> scrumMasters = new ArrayList<>();
     private List<Instructor> instructors = new ArrayList<>();
@@ -0,0 +1,29 @@
+package gabriel.moraes.school.Model.DtoResponse;
+
+import gabriel.moraes.school.Model.ClassStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardDtoResponse {
+
+    private Map<ClassStatus, Long> classesByStatus = new EnumMap<>(ClassStatus.class);
+    private int minClassSize;
+    private int maxClassSize;
+    private double averageClassSize;
+    private double averageFill;
+    private long classesReadyToStart;
+    private long enrolledStudents;
+    private long unassignedStudents;
+    private long squads;
+    private double averageSquadsPerClass;
+    private long cursor;
+    private Instant recomputedAt;
+}
@@ -0,0 +1,17 @@
+package gabriel.moraes.school.Model.DtoResponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeleteStudentsDtoResponse {
+
+    private int deleted;
+    private List<Long> notFound = new ArrayList<>();
+}
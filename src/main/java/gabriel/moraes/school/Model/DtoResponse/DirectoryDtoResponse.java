@@ -0,0 +1,19 @@
+package gabriel.moraes.school.Model.DtoResponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectoryDtoResponse {
+
+    private List<PersonDtoResponse> people = new ArrayList<>();
+    private int page;
+    private int size;
+    private boolean hasMore;
+}
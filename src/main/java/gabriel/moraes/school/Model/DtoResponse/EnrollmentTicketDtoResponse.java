@@ -0,0 +1,24 @@
+package gabriel.moraes.school.Model.DtoResponse;
+
+import gabriel.moraes.school.Model.EnrollmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentTicketDtoResponse {
+
+    private Long id;
+    private Long classRoomId;
+    private List<Long> studentIds = new ArrayList<>();
+    private EnrollmentStatus status;
+    private String reason;
+    private Instant createdAt;
+    private Instant completedAt;
+}
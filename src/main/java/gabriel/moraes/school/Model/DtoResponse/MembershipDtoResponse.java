@@ -0,0 +1,18 @@
+package gabriel.moraes.school.Model.DtoResponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MembershipDtoResponse {
+
+    private long count;
+    private List<Long> studentIds = new ArrayList<>();
+    private boolean hasMore;
+}
@@ -0,0 +1,33 @@
+package gabriel.moraes.school.Model.DtoResponse;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import gabriel.moraes.school.Model.PersonRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonDtoResponse {
+
+    private Long id;
+    private PersonRole role;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String phone;
+
+    // only set when sharding is enabled; ids are unique per shard
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String shard;
+
+    public PersonDtoResponse(Long id, PersonRole role, String firstName, String lastName, String email, String phone) {
+        this.id = id;
+        this.role = role;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.phone = phone;
+    }
+}
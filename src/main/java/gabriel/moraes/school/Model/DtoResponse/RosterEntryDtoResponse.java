@@ -0,0 +1,24 @@
+package gabriel.moraes.school.Model.DtoResponse;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import gabriel.moraes.school.Model.ClassStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RosterEntryDtoResponse {
+
+    private Long classRoomId;
+    private String className;
+    private ClassStatus classStatus;
+    private Long studentId;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private Long squadId;
+    private String squadName;
+}
@@ -0,0 +1,19 @@
+package gabriel.moraes.school.Model.DtoResponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistPositionDtoResponse {
+
+    private Long classRoomId;
+    private Long studentId;
+    private long position;
+    private long waiting;
+    private Instant joinedAt;
+}
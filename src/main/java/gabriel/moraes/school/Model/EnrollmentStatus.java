@@ -0,0 +1,8 @@
+package gabriel.moraes.school.Model;
+
+public enum EnrollmentStatus {
+    QUEUED,
+    ACCEPTED,
+    REJECTED,
+    WAITLISTED;
+}
@@ -0,0 +1,49 @@
+package gabriel.moraes.school.Model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Entity
+@Data
+@NoArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_enrollment_ticket_class_room_id", columnList = "classRoomId, status, id"),
+        @Index(name = "idx_enrollment_ticket_status", columnList = "status, createdAt")})
+public class EnrollmentTicket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long classRoomId;
+
+    @Convert(converter = StudentIdsConverter.class)
+    @Column(length = 4000)
+    private List<Long> studentIds;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private EnrollmentStatus status;
+
+    private String reason;
+    private Instant createdAt;
+    private Instant completedAt;
+
+    public EnrollmentTicket(Long classRoomId, List<Long> studentIds, Instant createdAt) {
+        this.classRoomId = classRoomId;
+        this.studentIds = studentIds;
+        this.status = EnrollmentStatus.QUEUED;
+        this.createdAt = createdAt;
+    }
+
+    public void complete(EnrollmentStatus status, String reason, Instant completedAt) {
+        this.status = status;
+        this.reason = reason;
+        this.completedAt = completedAt;
+    }
+}
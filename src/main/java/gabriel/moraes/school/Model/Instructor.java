@@ -2,36 +2,29 @@ package gabriel.moraes.school.Model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
 import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Data
-@AllArgsConstructor
-@NoArgsConstructor
-public class Instructor{
-
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-    private String firstName;
-    private String lastName;
-    private String email;
-    private String phone;
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@DiscriminatorValue("INSTRUCTOR")
+public class Instructor extends Person {
 
     @ManyToMany(mappedBy = "instructors")
     @JsonBackReference(value = "classRoom-instructors")
     private List<ClassRoom> classRooms = new ArrayList<>();
 
+    public Instructor() {
+        super(PersonRole.INSTRUCTOR);
+    }
+
     public Instructor(Long id, String firstName, String lastName, String email, String phone) {
-        this.id = id;
-        this.firstName = firstName;
-        this.lastName = lastName;
-        this.email = email;
-        this.phone = phone;
+        super(PersonRole.INSTRUCTOR, id, firstName, lastName, email, phone);
     }
 }
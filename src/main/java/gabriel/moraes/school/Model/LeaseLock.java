@@ -0,0 +1,21 @@
+package gabriel.moraes.school.Model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaseLock {
+
+    @Id
+    private String name;
+    private String owner;
+    private Instant lockedUntil;
+}
@@ -0,0 +1,40 @@
+package gabriel.moraes.school.Model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Data
+@NoArgsConstructor
+@Table(indexes = @Index(name = "idx_outbox_event_dispatched_at", columnList = "dispatchedAt, id"))
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private DomainEventType eventType;
+
+    private Long classRoomId;
+
+    @Column(length = 4000)
+    private String payload;
+
+    private Instant createdAt;
+    private Instant dispatchedAt;
+    private Instant parkedAt;
+    private int attempts;
+    private String lastError;
+
+    public OutboxEvent(DomainEventType eventType, Long classRoomId, String payload, Instant createdAt) {
+        this.eventType = eventType;
+        this.classRoomId = classRoomId;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+}
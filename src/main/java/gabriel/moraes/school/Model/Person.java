@@ -0,0 +1,67 @@
+package gabriel.moraes.school.Model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Where;
+
+import java.time.Instant;
+
+/**
+ * Common base of every role. All roles share the {@code person} table and are told apart by the {@code role}
+ * discriminator, so a lookup across roles is a single indexed query. Deleted people keep their row, marked with
+ * {@code deletedAt}, until they are purged; every query leaves them out.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Inheritance(strategy = InheritanceType.SINGLE_TABLE)
+@DiscriminatorColumn(name = "role", discriminatorType = DiscriminatorType.STRING, length = 16)
+@Where(clause = "deleted_at is null")
+@Table(indexes = {
+        @Index(name = "idx_person_email", columnList = "email"),
+        @Index(name = "idx_person_role_last_name", columnList = "role, lastName"),
+        @Index(name = "idx_person_first_name", columnList = "firstName"),
+        @Index(name = "idx_person_last_name", columnList = "lastName"),
+        @Index(name = "idx_person_classroom_id", columnList = "classroom_id"),
+        @Index(name = "idx_person_squad_id", columnList = "squad_id"),
+        @Index(name = "idx_person_deleted_at", columnList = "deletedAt"),
+        @Index(name = "idx_person_legacy_id", columnList = "legacyId")
+})
+public abstract class Person {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String phone;
+
+    // Read-only view of the discriminator, so it can be filtered and returned like any other column
+    @JsonIgnore
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role", insertable = false, updatable = false)
+    private PersonRole role;
+
+    @JsonIgnore
+    private Instant deletedAt;
+
+    // Id a coordinator, instructor or scrum master had before all roles moved into this table
+    @JsonIgnore
+    private Long legacyId;
+
+    protected Person(PersonRole role) {
+        this.role = role;
+    }
+
+    protected Person(PersonRole role, Long id, String firstName, String lastName, String email, String phone) {
+        this.role = role;
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.phone = phone;
+    }
+}
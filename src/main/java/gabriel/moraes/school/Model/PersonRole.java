@@ -0,0 +1,8 @@
+package gabriel.moraes.school.Model;
+
+public enum PersonRole {
+    STUDENT,
+    COORDINATOR,
+    INSTRUCTOR,
+    SCRUM_MASTER;
+}
@@ -0,0 +1,6 @@
+package gabriel.moraes.school.Model;
+
+public enum RosterFormat {
+    CSV,
+    NDJSON;
+}
@@ -2,37 +2,29 @@ package gabriel.moraes.school.Model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
 import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Data
-@AllArgsConstructor
-@NoArgsConstructor
-public class ScrumMaster{
-
-
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-    private String firstName;
-    private String lastName;
-    private String email;
-    private String phone;
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@DiscriminatorValue("SCRUM_MASTER")
+public class ScrumMaster extends Person {
 
     @ManyToMany(mappedBy = "scrumMasters")
     @JsonBackReference(value = "classRoom-scrum-masters")
     private List<ClassRoom> classRooms = new ArrayList<>();
 
+    public ScrumMaster() {
+        super(PersonRole.SCRUM_MASTER);
+    }
+
     public ScrumMaster(Long id, String firstName, String lastName, String email, String phone) {
-        this.id = id;
-        this.firstName = firstName;
-        this.lastName = lastName;
-        this.email = email;
-        this.phone = phone;
+        super(PersonRole.SCRUM_MASTER, id, firstName, lastName, email, phone);
     }
 }
@@ -19,6 +19,7 @@ import java.util.List;
         generator = ObjectIdGenerators.PropertyGenerator.class,
         property = "id"
 )
+@Table(indexes = @Index(name = "idx_squad_classroom_id", columnList = "classroom_id"))
 public class Squad {
 
     @Id
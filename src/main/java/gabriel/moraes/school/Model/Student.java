@@ -2,23 +2,16 @@ package gabriel.moraes.school.Model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
 import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Entity
 @Data
-@AllArgsConstructor
-@NoArgsConstructor
-public class Student {
-
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-    private String firstName;
-    private String lastName;
-    private String email;
-    private String phone;
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@DiscriminatorValue("STUDENT")
+public class Student extends Person {
 
     @ManyToOne
     @JoinColumn(name = "classroom_id")
@@ -30,15 +23,16 @@ public class Student {
     @JsonBackReference(value = "squad-student")
     private Squad squad;
 
+    public Student() {
+        super(PersonRole.STUDENT);
+    }
+
     public Student(Long id, String firstName, String lastName, String email, String phone) {
-        this.id = id;
-        this.firstName = firstName;
-        this.lastName = lastName;
-        this.email = email;
-        this.phone = phone;
+        super(PersonRole.STUDENT, id, firstName, lastName, email, phone);
     }
 
     public Student(Long studentId) {
-        this.id = studentId;
+        this();
+        setId(studentId);
     }
 }
@@ -0,0 +1,36 @@
+package gabriel.moraes.school.Model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Data
+@NoArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_waitlist_entry_class_room_student",
+        columnNames = {"classRoomId", "studentId"}),
+        indexes = {
+                @Index(name = "idx_waitlist_entry_class_room_id", columnList = "classRoomId, id"),
+                @Index(name = "idx_waitlist_entry_student_id", columnList = "studentId")})
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long classRoomId;
+
+    @Column(nullable = false)
+    private Long studentId;
+
+    private Instant joinedAt;
+
+    public WaitlistEntry(Long classRoomId, Long studentId, Instant joinedAt) {
+        this.classRoomId = classRoomId;
+        this.studentId = studentId;
+        this.joinedAt = joinedAt;
+    }
+}
@@ -1,9 +1,12 @@
 package gabriel.moraes.school;
 
+import gabriel.moraes.school.config.SchoolRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(SchoolRuntimeHints.class)
 public class SchoolApplication {
 
 	public static void main(String[] args) {
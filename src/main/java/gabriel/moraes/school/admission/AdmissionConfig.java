@@ -0,0 +1,42 @@
+package gabriel.moraes.school.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+@ConditionalOnProperty(prefix = "school.admission", name = "enabled", havingValue = "true")
+public class AdmissionConfig {
+
+    // ahead of the other application filters, so refused requests do no work at all
+    private static final int FILTER_ORDER = 0;
+
+    @Bean
+    public FilterRegistrationBean<AdmissionFilter> admissionFilter(AdmissionProperties properties,
+                                                                   ObjectMapper objectMapper,
+                                                                   MeterRegistry meterRegistry) {
+        AdmissionProperties.RateLimit rateLimit = properties.getRateLimit();
+        ClientRateLimiter rateLimiter = rateLimit.isEnabled()
+                ? new ClientRateLimiter(rateLimit.getCapacity(), rateLimit.getRefillPerSecond(),
+                rateLimit.getMaxClients(), System::nanoTime)
+                : null;
+        List<Bulkhead> bulkheads = properties.getBulkheads().stream()
+                .map(bulkhead -> new Bulkhead(bulkhead.getName(), bulkhead.getMaxConcurrent(), bulkhead.getMaxWait(),
+                        bulkhead.getMethods(), bulkhead.getPaths()))
+                .toList();
+
+        FilterRegistrationBean<AdmissionFilter> registration = new FilterRegistrationBean<>(new AdmissionFilter(
+                rateLimiter, bulkheads, properties.getLongLivedPaths(), properties.getClientHeader(),
+                properties.getTrustedProxies(), objectMapper, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(FILTER_ORDER);
+        return registration;
+    }
+}
@@ -0,0 +1,149 @@
+package gabriel.moraes.school.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gabriel.moraes.school.exception.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits a request only if its client still has rate-limit tokens and the bulkhead for its kind of request has a
+ * free slot. Otherwise it is answered at once with 429 or 503 and a Retry-After, before it can wait for a database
+ * connection. A client is the authenticated user if there is one, else the remote address; the client header is only
+ * believed when the request comes from a trusted proxy, so a caller cannot dodge its limit by making up ids.
+ */
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private static final PathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final ClientRateLimiter rateLimiter;
+    private final List<Bulkhead> bulkheads;
+    private final List<String> longLivedPaths;
+    private final String clientHeader;
+    private final Set<String> trustedProxies;
+    private final ObjectMapper objectMapper;
+    private final Counter rateLimited;
+    private final Map<String, Counter> bulkheadRejections = new HashMap<>();
+
+    public AdmissionFilter(ClientRateLimiter rateLimiter, List<Bulkhead> bulkheads, List<String> longLivedPaths,
+                           String clientHeader, Collection<String> trustedProxies, ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.bulkheads = List.copyOf(bulkheads);
+        this.longLivedPaths = List.copyOf(longLivedPaths);
+        this.clientHeader = clientHeader;
+        this.trustedProxies = Set.copyOf(trustedProxies);
+        this.objectMapper = objectMapper;
+        this.rateLimited = Counter.builder("school.admission.rejected")
+                .description("Requests refused by admission control")
+                .tag("reason", "rate-limit")
+                .register(meterRegistry);
+        if (rateLimiter != null) {
+            Gauge.builder("school.admission.clients", rateLimiter, ClientRateLimiter::trackedClients)
+                    .description("Clients with a rate-limit bucket")
+                    .register(meterRegistry);
+        }
+        for (Bulkhead bulkhead : this.bulkheads) {
+            Gauge.builder("school.admission.bulkhead.active", bulkhead, Bulkhead::getActive)
+                    .description("Requests running inside the bulkhead")
+                    .tag("bulkhead", bulkhead.getName())
+                    .register(meterRegistry);
+            Gauge.builder("school.admission.bulkhead.limit", bulkhead, Bulkhead::getMaxConcurrent)
+                    .description("Maximum concurrent requests allowed by the bulkhead")
+                    .tag("bulkhead", bulkhead.getName())
+                    .register(meterRegistry);
+            bulkheadRejections.put(bulkhead.getName(), Counter.builder("school.admission.rejected")
+                    .description("Requests refused by admission control")
+                    .tag("reason", "bulkhead-" + bulkhead.getName())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (rateLimiter != null) {
+            long waitNanos = rateLimiter.tryAcquire(clientOf(request));
+            if (waitNanos > 0) {
+                rateLimited.increment();
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds(waitNanos),
+                        "Rate limit exceeded, slow down");
+                return;
+            }
+        }
+
+        Bulkhead bulkhead = bulkheadFor(request);
+        if (bulkhead == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!bulkhead.tryEnter()) {
+            bulkheadRejections.get(bulkhead.getName()).increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Server is busy, try again later");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkhead.exit();
+        }
+    }
+
+    private Bulkhead bulkheadFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (longLivedPaths.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path))) {
+            return null;
+        }
+        return bulkheads.stream()
+                .filter(bulkhead -> bulkhead.matches(request.getMethod(), path))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "user:" + principal.getName();
+        }
+        String remoteAddress = request.getRemoteAddr();
+        String clientId = request.getHeader(clientHeader);
+        if (StringUtils.hasText(clientId) && trustedProxies.contains(remoteAddress)) {
+            return "client:" + clientId;
+        }
+        return remoteAddress;
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(status.value(), LocalDateTime.now(), message));
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,39 @@
+package gabriel.moraes.school.admission;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "school.admission")
+public class AdmissionProperties {
+
+    private boolean enabled;
+    private String clientHeader = "X-Client-Id";
+    // remote addresses, such as the API gateway, whose client header is believed; everyone else is their address
+    private List<String> trustedProxies = new ArrayList<>();
+    // held open for a long time (event streams): rate limited, but never take a bulkhead permit
+    private List<String> longLivedPaths = new ArrayList<>();
+    private RateLimit rateLimit = new RateLimit();
+    private List<Bulkhead> bulkheads = new ArrayList<>();
+
+    @Data
+    public static class RateLimit {
+        private boolean enabled = true;
+        private int capacity = 50;
+        private double refillPerSecond = 20;
+        private int maxClients = 10_000;
+    }
+
+    @Data
+    public static class Bulkhead {
+        private String name;
+        private int maxConcurrent = 10;
+        private Duration maxWait = Duration.ZERO;
+        private List<String> methods = new ArrayList<>();
+        private List<String> paths = new ArrayList<>();
+    }
+}
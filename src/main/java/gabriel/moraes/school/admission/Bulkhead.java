@@ -0,0 +1,70 @@
+package gabriel.moraes.school.admission;
+
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Caps how many requests of one kind run at the same time, so a flood of one kind cannot take every database
+ * connection from the others. A request that finds no free permit within the configured wait is refused rather
+ * than queued.
+ */
+public class Bulkhead {
+
+    private static final PathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final String name;
+    private final int maxConcurrent;
+    private final Duration maxWait;
+    private final Set<String> methods;
+    private final List<String> paths;
+    private final Semaphore permits;
+
+    public Bulkhead(String name, int maxConcurrent, Duration maxWait, List<String> methods, List<String> paths) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWait = maxWait;
+        this.methods = methods.stream().map(String::toUpperCase).collect(Collectors.toSet());
+        this.paths = List.copyOf(paths);
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    public boolean matches(String method, String path) {
+        return (methods.isEmpty() || methods.contains(method))
+                && paths.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path));
+    }
+
+    public boolean tryEnter() {
+        if (maxWait.isZero()) {
+            return permits.tryAcquire();
+        }
+        try {
+            return permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public void exit() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+}
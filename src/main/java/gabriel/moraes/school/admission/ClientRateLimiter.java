@@ -0,0 +1,77 @@
+package gabriel.moraes.school.admission;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * One token bucket per client. Buckets refill lazily when they are used, so idle clients cost nothing but their map
+ * entry. The map is bounded: once it is full, the bucket of the least recently seen client is dropped to make room,
+ * in constant time. A client coming back after that starts with a full bucket, which it would have had by then
+ * anyway unless it was evicted within seconds of draining it.
+ */
+public class ClientRateLimiter {
+
+    private final Map<String, TokenBucket> buckets;
+    private final double capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoTime;
+
+    public ClientRateLimiter(int capacity, double refillPerSecond, int maxClients, LongSupplier nanoTime) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.nanoTime = nanoTime;
+        this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                return size() > maxClients;
+            }
+        };
+    }
+
+    /**
+     * Takes a token for the client and returns 0, or returns how many nanoseconds until the next token if the
+     * bucket is empty.
+     */
+    public long tryAcquire(String clientId) {
+        long now = nanoTime.getAsLong();
+        return bucketOf(clientId, now).tryConsume(now);
+    }
+
+    public int trackedClients() {
+        synchronized (buckets) {
+            return buckets.size();
+        }
+    }
+
+    private TokenBucket bucketOf(String clientId, long now) {
+        synchronized (buckets) {
+            return buckets.computeIfAbsent(clientId, key -> new TokenBucket(now));
+        }
+    }
+
+    private final class TokenBucket {
+
+        private double tokens = capacity;
+        private long refilledAt;
+
+        private TokenBucket(long now) {
+            this.refilledAt = now;
+        }
+
+        private synchronized long tryConsume(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+        }
+    }
+}
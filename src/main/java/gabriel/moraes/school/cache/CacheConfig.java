@@ -0,0 +1,89 @@
+package gabriel.moraes.school.cache;
+
+import gabriel.moraes.school.config.NodeIdentity;
+import gabriel.moraes.school.repository.CacheInvalidationEventRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local caches of classes and staff, kept within a bounded staleness window by the {@link CacheInvalidationBus}.
+ * Caching runs outside the transactions of the cached methods, so a hit does not take a connection.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig implements CachingConfigurer {
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties properties, MeterRegistry meterRegistry) {
+        if (!properties.isEnabled()) {
+            return new NoOpCacheManager();
+        }
+        List<ExpiringCache> caches = new ArrayList<>();
+        for (CachedEntity entity : CachedEntity.values()) {
+            ExpiringCache cache = new ExpiringCache(entity.getCacheName(), properties.getMaxEntries(),
+                    properties.getTtl(), Clock.systemUTC());
+            Gauge.builder("school.cache.size", cache, ExpiringCache::size)
+                    .description("Entries held by a local cache")
+                    .tag("cache", cache.getName())
+                    .register(meterRegistry);
+            FunctionCounter.builder("school.cache.gets", cache, ExpiringCache::hits)
+                    .description("Local cache lookups by whether they found an entry")
+                    .tags("cache", cache.getName(), "result", "hit")
+                    .register(meterRegistry);
+            FunctionCounter.builder("school.cache.gets", cache, ExpiringCache::misses)
+                    .description("Local cache lookups by whether they found an entry")
+                    .tags("cache", cache.getName(), "result", "miss")
+                    .register(meterRegistry);
+            caches.add(cache);
+        }
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(caches);
+        return cacheManager;
+    }
+
+    @Override
+    public KeyGenerator keyGenerator() {
+        return new ShardAwareKeyGenerator();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "school.cache", name = "transport", havingValue = "loopback")
+    public CacheInvalidationTransport loopbackInvalidationTransport() {
+        return new LoopbackInvalidationTransport();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "school.cache", name = "transport", havingValue = "database",
+            matchIfMissing = true)
+    public CacheInvalidationTransport databaseInvalidationTransport(CacheInvalidationEventRepository repository,
+                                                                    PlatformTransactionManager transactionManager,
+                                                                    NodeIdentity nodeIdentity,
+                                                                    CacheProperties properties) {
+        return new DatabaseInvalidationTransport(repository, transactionManager, nodeIdentity.getId(),
+                Clock.systemUTC(), properties.getSettleDelay(), properties.getRetention());
+    }
+
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(CacheManager cacheManager, CacheInvalidationTransport transport,
+                                                     MeterRegistry meterRegistry) {
+        return new CacheInvalidationBus(cacheManager, transport, meterRegistry);
+    }
+}
@@ -0,0 +1,7 @@
+package gabriel.moraes.school.cache;
+
+/**
+ * One entity changed by a committed transaction. The shard is null when sharding is disabled.
+ */
+public record CacheInvalidation(CachedEntity entity, String shard, Long id) {
+}
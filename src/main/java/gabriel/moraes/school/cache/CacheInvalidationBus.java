@@ -0,0 +1,113 @@
+package gabriel.moraes.school.cache;
+
+import gabriel.moraes.school.config.ShardContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Tells every node which cached entities a transaction changed. Invalidations raised inside a transaction are
+ * collected and published once, after it commits, so no node evicts before the change is visible and a rolled back
+ * transaction publishes nothing. Each node evicts the entries it receives from its local caches, this one included.
+ */
+public class CacheInvalidationBus {
+
+    private final CacheManager cacheManager;
+    private final CacheInvalidationTransport transport;
+    private final Counter published;
+    private final Counter received;
+
+    public CacheInvalidationBus(CacheManager cacheManager, CacheInvalidationTransport transport,
+                                MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.transport = transport;
+        this.published = Counter.builder("school.cache.invalidations")
+                .description("Cache invalidations by whether this node published or received them")
+                .tag("direction", "published")
+                .register(meterRegistry);
+        this.received = Counter.builder("school.cache.invalidations")
+                .description("Cache invalidations by whether this node published or received them")
+                .tag("direction", "received")
+                .register(meterRegistry);
+        transport.subscribe(this::evict);
+    }
+
+    /**
+     * Key of an entity in its cache. Ids are only unique within a shard, so the shard is part of the key.
+     */
+    public static Object key(String shard, Long id) {
+        return new ShardKey(shard, id);
+    }
+
+    public void invalidate(CachedEntity entity, Long id) {
+        invalidate(entity, List.of(id));
+    }
+
+    public void invalidate(CachedEntity entity, Collection<Long> ids) {
+        String shard = ShardContext.currentShard();
+        List<CacheInvalidation> invalidations = ids.stream()
+                .filter(Objects::nonNull)
+                .map(id -> new CacheInvalidation(entity, shard, id))
+                .toList();
+        if (invalidations.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(invalidations);
+            return;
+        }
+        pending().invalidations.addAll(invalidations);
+    }
+
+    private Pending pending() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Pending pending && pending.bus() == this) {
+                return pending;
+            }
+        }
+        Pending pending = new Pending();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private void publish(List<CacheInvalidation> invalidations) {
+        published.increment(invalidations.size());
+        transport.publish(invalidations);
+    }
+
+    private void evict(List<CacheInvalidation> invalidations) {
+        received.increment(invalidations.size());
+        for (CacheInvalidation invalidation : invalidations) {
+            Cache cache = cacheManager.getCache(invalidation.entity().getCacheName());
+            if (cache != null) {
+                cache.evict(key(invalidation.shard(), invalidation.id()));
+            }
+        }
+    }
+
+    private record ShardKey(String shard, Long id) {
+    }
+
+    private class Pending implements TransactionSynchronization {
+
+        private final Set<CacheInvalidation> invalidations = new LinkedHashSet<>();
+
+        private CacheInvalidationBus bus() {
+            return CacheInvalidationBus.this;
+        }
+
+        @Override
+        public void afterCommit() {
+            publish(List.copyOf(invalidations));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package gabriel.moraes.school.cache;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Carries invalidations from the node that committed a change to every node, itself included. Delivery is at least
+ * once: evicting an entry twice is harmless, missing one leaves it stale until it expires.
+ */
+public interface CacheInvalidationTransport {
+
+    void publish(List<CacheInvalidation> invalidations);
+
+    void subscribe(Consumer<List<CacheInvalidation>> subscriber);
+}
@@ -0,0 +1,16 @@
+package gabriel.moraes.school.cache;
+
+/**
+ * Cache names, as constants so {@code @Cacheable} can refer to them.
+ */
+public final class CacheNames {
+
+    public static final String CLASS_ROOMS = "classRooms";
+    public static final String COORDINATORS = "coordinators";
+    public static final String INSTRUCTORS = "instructors";
+    public static final String SCRUM_MASTERS = "scrumMasters";
+    public static final String STUDENTS = "students";
+
+    private CacheNames() {
+    }
+}
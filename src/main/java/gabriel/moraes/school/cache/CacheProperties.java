@@ -0,0 +1,23 @@
+package gabriel.moraes.school.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "school.cache")
+public class CacheProperties {
+
+    public enum Transport {
+        LOOPBACK, DATABASE
+    }
+
+    private boolean enabled = true;
+    private Duration ttl = Duration.ofMinutes(10);
+    private int maxEntries = 10_000;
+    private Transport transport = Transport.DATABASE;
+    private Duration pollInterval = Duration.ofSeconds(1);
+    private Duration settleDelay = Duration.ofSeconds(5);
+    private Duration retention = Duration.ofHours(1);
+}
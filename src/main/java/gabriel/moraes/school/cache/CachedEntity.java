@@ -0,0 +1,23 @@
+package gabriel.moraes.school.cache;
+
+/**
+ * The entities nodes keep in their local caches, each in a cache of its own.
+ */
+public enum CachedEntity {
+
+    CLASS_ROOM(CacheNames.CLASS_ROOMS),
+    COORDINATOR(CacheNames.COORDINATORS),
+    INSTRUCTOR(CacheNames.INSTRUCTORS),
+    SCRUM_MASTER(CacheNames.SCRUM_MASTERS),
+    STUDENT(CacheNames.STUDENTS);
+
+    private final String cacheName;
+
+    CachedEntity(String cacheName) {
+        this.cacheName = cacheName;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+}
@@ -0,0 +1,131 @@
+package gabriel.moraes.school.cache;
+
+import gabriel.moraes.school.Model.CacheInvalidationEvent;
+import gabriel.moraes.school.config.RunOnEachShard;
+import gabriel.moraes.school.config.ShardContext;
+import gabriel.moraes.school.repository.CacheInvalidationEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Shares invalidations through a table every node polls, so it needs nothing but the database the nodes already
+ * use. The publishing node applies its own invalidations at once; the others see them within one poll interval.
+ * <p>
+ * Rows are written by their own short transaction, with the publishing node's clock, and may commit out of id order,
+ * so each poll reads again everything written since its previous poll minus the settle delay and skips the rows it
+ * has already applied. Clock skew between nodes must stay below the settle delay; an invalidation that is missed
+ * anyway leaves an entry stale until it expires.
+ */
+public class DatabaseInvalidationTransport implements CacheInvalidationTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseInvalidationTransport.class);
+
+    private final CacheInvalidationEventRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+    private final Clock clock;
+    private final Duration settleDelay;
+    private final Duration retention;
+    private final List<Consumer<List<CacheInvalidation>>> subscribers = new CopyOnWriteArrayList<>();
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final Instant startedAt;
+
+    public DatabaseInvalidationTransport(CacheInvalidationEventRepository repository,
+                                         PlatformTransactionManager transactionManager, String nodeId, Clock clock,
+                                         Duration settleDelay, Duration retention) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.nodeId = nodeId;
+        this.clock = clock;
+        this.settleDelay = settleDelay;
+        this.retention = retention;
+        // a node only needs what changes after it starts, its caches are empty before
+        this.startedAt = clock.instant();
+    }
+
+    @Override
+    public void publish(List<CacheInvalidation> invalidations) {
+        Instant now = clock.instant();
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.saveAll(invalidations.stream()
+                    .map(invalidation -> new CacheInvalidationEvent(invalidation.entity(), invalidation.id(),
+                            nodeId, now))
+                    .toList()));
+        } catch (RuntimeException e) {
+            log.warn("Could not share {} cache invalidations, other nodes keep them until they expire",
+                    invalidations.size(), e);
+        }
+        deliver(invalidations);
+    }
+
+    @Override
+    public void subscribe(Consumer<List<CacheInvalidation>> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @Scheduled(fixedDelayString = "${school.cache.poll-interval:PT1S}",
+            initialDelayString = "${school.cache.poll-interval:PT1S}")
+    @RunOnEachShard
+    public void poll() {
+        String shard = ShardContext.currentShard();
+        Window window = windows.computeIfAbsent(windowKey(shard), key -> new Window(startedAt));
+        Instant now = clock.instant();
+        List<CacheInvalidation> fresh = new ArrayList<>();
+        for (CacheInvalidationEvent event : repository.findByCreatedAtAfterOrderByIdAsc(
+                window.polledAt.minus(settleDelay))) {
+            if (window.applied.putIfAbsent(event.getId(), event.getCreatedAt()) == null
+                    && !nodeId.equals(event.getOrigin())) {
+                fresh.add(new CacheInvalidation(event.getEntityType(), shard, event.getEntityId()));
+            }
+        }
+        // the next poll starts after now minus the settle delay and never sees older rows again
+        window.applied.values().removeIf(createdAt -> !createdAt.isAfter(now.minus(settleDelay)));
+        window.polledAt = now;
+        if (!fresh.isEmpty()) {
+            deliver(fresh);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${school.cache.retention:PT1H}",
+            initialDelayString = "${school.cache.retention:PT1H}")
+    @RunOnEachShard
+    public void purge() {
+        int purged = repository.deleteCreatedBefore(clock.instant().minus(retention));
+        log.debug("Purged {} cache invalidations", purged);
+    }
+
+    private void deliver(List<CacheInvalidation> invalidations) {
+        subscribers.forEach(subscriber -> subscriber.accept(invalidations));
+    }
+
+    private static String windowKey(String shard) {
+        return Objects.toString(shard, "");
+    }
+
+    private static final class Window {
+
+        private Instant polledAt;
+        private final Map<Long, Instant> applied = new HashMap<>();
+
+        private Window(Instant polledAt) {
+            this.polledAt = polledAt;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package gabriel.moraes.school.cache;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, in-memory cache whose entries share one time to live, kept in insertion order so expiry and the size bound
+ * only ever look at the head of the map. The time to live is the backstop for an invalidation that never arrives.
+ * <p>
+ * Every eviction moves the cache to a new generation, and a value loaded through {@link #get(Object, Callable)} is
+ * only stored if no eviction happened while it was loading, so a load that raced a committed change cannot put the
+ * old state back after the change was invalidated.
+ */
+public class ExpiringCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Map<Object, Entry> entries = new LinkedHashMap<>();
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Clock clock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private long generation;
+
+    public ExpiringCache(String name, int maxEntries, Duration ttl, Clock clock) {
+        super(false);
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return entries;
+    }
+
+    @Override
+    protected synchronized Object lookup(Object key) {
+        evictExpired();
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * Loads a missing value outside the lock, so concurrent misses on the same key may load it more than once.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        long loadGeneration;
+        synchronized (this) {
+            Object cached = lookup(key);
+            if (cached != null) {
+                return (T) fromStoreValue(cached);
+            }
+            loadGeneration = generation;
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        synchronized (this) {
+            if (generation == loadGeneration && value != null) {
+                store(key, value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public synchronized void put(Object key, Object value) {
+        if (value != null) {
+            store(key, value);
+        }
+    }
+
+    @Override
+    public synchronized void evict(Object key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    @Override
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    private void store(Object key, Object value) {
+        evictExpired();
+        // re-inserted at the tail, so the head stays the entry that expires first
+        entries.remove(key);
+        entries.put(key, new Entry(toStoreValue(value), clock.instant().plus(ttl)));
+        Iterator<Entry> oldest = entries.values().iterator();
+        while (entries.size() > maxEntries) {
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    private void evictExpired() {
+        Instant now = clock.instant();
+        Iterator<Entry> oldest = entries.values().iterator();
+        while (oldest.hasNext() && oldest.next().expiresAt.isBefore(now)) {
+            oldest.remove();
+        }
+    }
+
+    private record Entry(Object value, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,24 @@
+package gabriel.moraes.school.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers invalidations to the subscribers of this JVM only, on the publishing thread. Enough for a single node and
+ * for tests.
+ */
+public class LoopbackInvalidationTransport implements CacheInvalidationTransport {
+
+    private final List<Consumer<List<CacheInvalidation>>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(List<CacheInvalidation> invalidations) {
+        subscribers.forEach(subscriber -> subscriber.accept(invalidations));
+    }
+
+    @Override
+    public void subscribe(Consumer<List<CacheInvalidation>> subscriber) {
+        subscribers.add(subscriber);
+    }
+}
@@ -0,0 +1,21 @@
+package gabriel.moraes.school.cache;
+
+import gabriel.moraes.school.config.ShardContext;
+import org.springframework.cache.interceptor.KeyGenerator;
+
+import java.lang.reflect.Method;
+
+/**
+ * Keys a cached lookup by id the same way the {@link CacheInvalidationBus} evicts it: by the shard the call runs on
+ * and the id.
+ */
+public class ShardAwareKeyGenerator implements KeyGenerator {
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        if (params.length != 1 || !(params[0] instanceof Long id)) {
+            throw new IllegalStateException("Only lookups by a single id can be cached: " + method);
+        }
+        return CacheInvalidationBus.key(ShardContext.currentShard(), id);
+    }
+}
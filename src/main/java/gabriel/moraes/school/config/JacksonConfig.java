@@ -0,0 +1,35 @@
+package gabriel.moraes.school.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import gabriel.moraes.school.Model.DtoResponse.*;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(prefix = "school.json", name = "optimized", havingValue = "true")
+public class JacksonConfig {
+
+    private static final List<Class<?>> RESPONSE_TYPES = List.of(
+            ClassRoomDtoResponse.class,
+            StudentDtoResponse.class,
+            SquadDtoResponse.class,
+            CoordinatorDtoResponse.class,
+            InstructorDtoResponse.class,
+            ScrumMasterDtoResponse.class);
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    public ApplicationRunner jsonSerializerWarmUp(ObjectMapper objectMapper) {
+        return args -> RESPONSE_TYPES.forEach(objectMapper::canSerialize);
+    }
+}
@@ -0,0 +1,29 @@
+package gabriel.moraes.school.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Makes the reads of {@link ReadFromPrimary} methods on the primary. It runs outside their transaction, so the
+ * connection goes to the primary whenever the transaction fetches it.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PrimaryReadAspect {
+
+    @Around("@annotation(gabriel.moraes.school.config.ReadFromPrimary)")
+    public Object readFromPrimary(ProceedingJoinPoint read) throws Throwable {
+        if (PrimaryReads.isRequired()) {
+            return read.proceed();
+        }
+        PrimaryReads.require();
+        try {
+            return read.proceed();
+        } finally {
+            PrimaryReads.clear();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package gabriel.moraes.school.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Reads on the current thread that must go to the primary even in a read-only transaction. What is loaded into the
+ * caches and the in-memory indexes is kept well past the request, so a load from a lagging replica would keep being
+ * served after the replica caught up.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> CURRENT = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static boolean isRequired() {
+        return CURRENT.get() != null;
+    }
+
+    public static void require() {
+        CURRENT.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static <T> T call(Supplier<T> task) {
+        if (isRequired()) {
+            return task.get();
+        }
+        require();
+        try {
+            return task.get();
+        } finally {
+            clear();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package gabriel.moraes.school.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps reads of a client on the primary for a short window after that client wrote, so it does not observe
+ * replica lag on its own changes. The client of the current thread is bound by {@link ReadYourWritesFilter}.
+ */
+public class ReadYourWritesTracker {
+
+    private static final ThreadLocal<RequestState> CURRENT = new ThreadLocal<>();
+
+    private final Duration window;
+    private final Clock clock;
+    private final Map<String, Instant> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(Duration window) {
+        this(window, Clock.systemUTC());
+    }
+
+    ReadYourWritesTracker(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    public boolean isEnabled() {
+        return !window.isZero() && !window.isNegative();
+    }
+
+    public void bind(String clientId) {
+        CURRENT.set(new RequestState(clientId));
+    }
+
+    public void unbind() {
+        RequestState state = CURRENT.get();
+        CURRENT.remove();
+        if (state != null && state.wrote) {
+            lastWrites.put(state.clientId, clock.instant());
+        }
+    }
+
+    public boolean isCurrentClientPinned() {
+        RequestState state = CURRENT.get();
+        if (!isEnabled() || state == null) {
+            return false;
+        }
+        if (state.wrote) {
+            return true;
+        }
+        Instant lastWrite = lastWrites.get(state.clientId);
+        return lastWrite != null && lastWrite.plus(window).isAfter(clock.instant());
+    }
+
+    public void markCurrentClientWrote() {
+        RequestState state = CURRENT.get();
+        if (state != null) {
+            state.wrote = true;
+        }
+    }
+
+    public void evictExpired() {
+        Instant threshold = clock.instant().minus(window);
+        lastWrites.values().removeIf(lastWrite -> lastWrite.isBefore(threshold));
+    }
+
+    int trackedClients() {
+        return lastWrites.size();
+    }
+
+    private static final class RequestState {
+        private final String clientId;
+        private boolean wrote;
+
+        private RequestState(String clientId) {
+            this.clientId = clientId;
+        }
+    }
+}
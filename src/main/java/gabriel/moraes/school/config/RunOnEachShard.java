@@ -0,0 +1,17 @@
+package gabriel.moraes.school.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a background job that works on the data of one database. With sharding enabled it runs once per shard,
+ * taking its lease on that shard; otherwise it runs as usual.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RunOnEachShard {
+}
@@ -0,0 +1,61 @@
+package gabriel.moraes.school.config;
+
+import gabriel.moraes.school.Model.*;
+import gabriel.moraes.school.Model.DtoRequest.*;
+import gabriel.moraes.school.Model.DtoResponse.*;
+import gabriel.moraes.school.cache.CachedEntity;
+import gabriel.moraes.school.event.DomainEvent;
+import gabriel.moraes.school.exception.ErrorResponse;
+import gabriel.moraes.school.exception.validation.ValidationError;
+import gabriel.moraes.school.exception.validation.ValidationErrorResponse;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+public class SchoolRuntimeHints implements RuntimeHintsRegistrar {
+
+    // ModelMapper and Jackson reach these through reflection on getters, setters, fields and constructors,
+    // including the entities that are nested inside the response DTOs
+    private static final List<Class<?>> MAPPED_TYPES = List.of(
+            ClassRoom.class, Student.class, Squad.class, Coordinator.class, Instructor.class, ScrumMaster.class,
+            ClassStatus.class, LeaseLock.class, ClassRoomChange.class, ClassRoomChangeType.class,
+            OutboxEvent.class, DomainEventType.class, DomainEvent.class, Person.class, PersonRole.class,
+            CacheInvalidationEvent.class, CachedEntity.class, EnrollmentTicket.class, EnrollmentStatus.class,
+            AddStudentsDtoRequest.class, ClassRoomDtoRequest.class, CoordinatorDtoRequest.class,
+            InstructorDtoRequest.class, ScrumMasterDtoRequest.class, StudentDtoRequest.class,
+            UpdateSquadNameRequest.class, DeleteStudentsDtoRequest.class,
+            ClassRoomDtoResponse.class, CoordinatorDtoResponse.class, InstructorDtoResponse.class,
+            ScrumMasterDtoResponse.class, SquadDtoResponse.class, StudentDtoResponse.class,
+            ClassRoomChangeDtoResponse.class, ChangeFeedDtoResponse.class,
+            PersonDtoResponse.class, DirectoryDtoResponse.class, DeleteStudentsDtoResponse.class,
+            DashboardDtoResponse.class, RosterEntryDtoResponse.class, RosterFormat.class, MembershipDtoResponse.class,
+            EnrollmentTicketDtoResponse.class, StudentIdsConverter.class, WaitlistEntry.class,
+            WaitlistPositionDtoResponse.class,
+            ErrorResponse.class, ValidationError.class, ValidationErrorResponse.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> type : MAPPED_TYPES) {
+            hints.reflection().registerType(type,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS,
+                    MemberCategory.DECLARED_FIELDS);
+        }
+
+        // JDK proxies created by the SQL tracing data source
+        hints.proxies().registerJdkProxy(Connection.class);
+        hints.proxies().registerJdkProxy(Statement.class);
+        hints.proxies().registerJdkProxy(PreparedStatement.class);
+        hints.proxies().registerJdkProxy(CallableStatement.class);
+        hints.proxies().registerJdkProxy(ResultSet.class);
+
+        hints.resources().registerPattern("db/migration/*.sql");
+    }
+}
@@ -0,0 +1,50 @@
+package gabriel.moraes.school.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Program and shard of the work running on the current thread. Nothing is bound when sharding is disabled, and the
+ * routing data source then uses its default shard.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Binding> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static String currentProgram() {
+        Binding binding = CURRENT.get();
+        return binding == null ? null : binding.program();
+    }
+
+    public static String currentShard() {
+        Binding binding = CURRENT.get();
+        return binding == null ? null : binding.shard();
+    }
+
+    public static void bind(String program, String shard) {
+        CURRENT.set(new Binding(program, shard));
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static <T> T callOn(String shard, Supplier<T> task) {
+        Binding previous = CURRENT.get();
+        CURRENT.set(new Binding(previous == null ? null : previous.program(), shard));
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    private record Binding(String program, String shard) {
+    }
+}
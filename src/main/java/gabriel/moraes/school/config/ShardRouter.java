@@ -0,0 +1,75 @@
+package gabriel.moraes.school.config;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Maps programs to shards. A program without an explicit mapping lives on the default shard, so a new program only
+ * needs configuration once it gets a database of its own.
+ */
+public class ShardRouter {
+
+    private final List<String> shards;
+    private final String defaultShard;
+    private final Map<String, String> programs;
+    private final Executor fanOutExecutor;
+
+    public ShardRouter(List<String> shards, String defaultShard, Map<String, String> programs,
+                       Executor fanOutExecutor) {
+        if (!shards.contains(defaultShard)) {
+            throw new IllegalArgumentException("Default shard " + defaultShard + " is not one of " + shards);
+        }
+        programs.forEach((program, shard) -> {
+            if (!shards.contains(shard)) {
+                throw new IllegalArgumentException("Program " + program + " is mapped to unknown shard " + shard);
+            }
+        });
+        this.shards = List.copyOf(shards);
+        this.defaultShard = defaultShard;
+        this.programs = Map.copyOf(programs);
+        this.fanOutExecutor = fanOutExecutor;
+    }
+
+    public List<String> getShards() {
+        return shards;
+    }
+
+    public String getDefaultShard() {
+        return defaultShard;
+    }
+
+    public boolean isShard(String shard) {
+        return shards.contains(shard);
+    }
+
+    public String shardFor(String program) {
+        return program == null ? defaultShard : programs.getOrDefault(program, defaultShard);
+    }
+
+    /**
+     * Runs the task on every shard at once and returns the results by shard, in shard order. The first failure is
+     * rethrown once all shards answered.
+     */
+    public <T> Map<String, T> fanOut(Supplier<T> task) {
+        Map<String, CompletableFuture<T>> futures = new LinkedHashMap<>();
+        for (String shard : shards) {
+            futures.put(shard, CompletableFuture.supplyAsync(() -> ShardContext.callOn(shard, task), fanOutExecutor));
+        }
+        try {
+            CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+        Map<String, T> results = new LinkedHashMap<>();
+        futures.forEach((shard, future) -> results.put(shard, future.join()));
+        return results;
+    }
+}
@@ -0,0 +1,15 @@
+package gabriel.moraes.school.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Hands out connections of the shard bound to the current thread. Must sit behind a LazyConnectionDataSourceProxy,
+ * so that a transaction takes its connection from the shard that is bound when it first runs a statement.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.currentShard();
+    }
+}
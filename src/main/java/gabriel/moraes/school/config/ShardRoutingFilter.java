@@ -0,0 +1,46 @@
+package gabriel.moraes.school.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the shard of the request before any transaction starts: the explicit shard header if present, which is
+ * how callers follow a directory result, otherwise the shard of the program header.
+ */
+public class ShardRoutingFilter extends OncePerRequestFilter {
+
+    private final ShardRouter shardRouter;
+    private final String programHeader;
+    private final String shardHeader;
+
+    public ShardRoutingFilter(ShardRouter shardRouter, String programHeader, String shardHeader) {
+        this.shardRouter = shardRouter;
+        this.programHeader = programHeader;
+        this.shardHeader = shardHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String program = request.getHeader(programHeader);
+        program = StringUtils.hasText(program) ? program.trim() : null;
+        String shard = request.getHeader(shardHeader);
+        if (StringUtils.hasText(shard) && !shardRouter.isShard(shard.trim())) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unknown shard " + shard);
+            return;
+        }
+        ShardContext.bind(program, StringUtils.hasText(shard) ? shard.trim() : shardRouter.shardFor(program));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ShardContext.clear();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package gabriel.moraes.school.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@Aspect
+public class ShardedJobAspect {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedJobAspect.class);
+
+    private final ShardRouter shardRouter;
+
+    public ShardedJobAspect(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Around("@annotation(gabriel.moraes.school.config.RunOnEachShard)")
+    public Object runOnEachShard(ProceedingJoinPoint job) {
+        for (String shard : shardRouter.getShards()) {
+            ShardContext.bind(null, shard);
+            try {
+                job.proceed();
+            } catch (Throwable ex) {
+                // one unreachable shard must not hold the job back on the others
+                log.error("{} failed on shard {}", job.getSignature().toShortString(), shard, ex);
+            } finally {
+                ShardContext.clear();
+            }
+        }
+        return null;
+    }
+}
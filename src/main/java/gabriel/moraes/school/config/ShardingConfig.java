@@ -0,0 +1,134 @@
+package gabriel.moraes.school.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Splits the data by program over several databases. Each shard holds complete classes with their students and
+ * squads, and has the full schema, migrated by Flyway one shard after the other.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(prefix = "school.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    private final ShardingProperties shardingProperties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+    private final ExecutorService fanOutExecutor;
+
+    public ShardingConfig(ShardingProperties shardingProperties, ObjectProvider<MeterRegistry> meterRegistry,
+                          @Value("${school.datasource.routing.enabled:false}") boolean replicaRouting,
+                          @Value("${school.dashboard.enabled:false}") boolean dashboard,
+                          @Value("${school.events.enabled:false}") boolean events) {
+        if (replicaRouting) {
+            throw new IllegalStateException(
+                    "school.sharding and school.datasource.routing cannot be enabled together");
+        }
+        // both tail a single change feed with one cursor, and change ids are only ordered within a shard
+        if (dashboard || events) {
+            throw new IllegalStateException(
+                    "school.sharding cannot be enabled together with school.dashboard or school.events");
+        }
+        if (shardingProperties.getShards().isEmpty()) {
+            throw new IllegalStateException("school.sharding.shards must list at least one shard");
+        }
+        this.shardingProperties = shardingProperties;
+        this.meterRegistry = meterRegistry;
+        AtomicInteger threads = new AtomicInteger();
+        this.fanOutExecutor = Executors.newFixedThreadPool(shardingProperties.getShards().size(), task -> {
+            Thread thread = new Thread(task, "shard-fan-out-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Bean
+    public ShardRouter shardRouter() {
+        List<String> names = new ArrayList<>();
+        shardingProperties.getShards().forEach(shard -> names.add(shard.getName()));
+        String defaultShard = shardingProperties.getDefaultShard() != null
+                ? shardingProperties.getDefaultShard() : names.get(0);
+        return new ShardRouter(names, defaultShard, shardingProperties.getPrograms(), fanOutExecutor);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ShardRoutingFilter> shardRoutingFilter(ShardRouter shardRouter) {
+        FilterRegistrationBean<ShardRoutingFilter> registration = new FilterRegistrationBean<>(
+                new ShardRoutingFilter(shardRouter, shardingProperties.getProgramHeader(),
+                        shardingProperties.getShardHeader()));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    @Bean
+    public ShardedJobAspect shardedJobAspect(ShardRouter shardRouter) {
+        return new ShardedJobAspect(shardRouter);
+    }
+
+    @Bean(destroyMethod = "")
+    @Primary
+    public DataSource dataSource(ShardRouter shardRouter) {
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        for (ShardingProperties.Shard shard : shardingProperties.getShards()) {
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .driverClassName(shard.getDriverClassName())
+                    .build();
+            pool.setMaximumPoolSize(shard.getMaximumPoolSize());
+            pool.setPoolName("shard-" + shard.getName());
+            meterRegistry.ifAvailable(registry ->
+                    pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            pools.put(shard.getName(), pool);
+            targets.put(shard.getName(), pool);
+        }
+
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(pools.get(shardRouter.getDefaultShard()));
+        routing.setLenientFallback(false);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public FlywayMigrationStrategy shardedMigrationStrategy() {
+        return flyway -> pools.forEach((name, pool) -> Flyway.configure()
+                .configuration(flyway.getConfiguration())
+                .dataSource(pool)
+                .load()
+                .migrate());
+    }
+
+    @PreDestroy
+    public void close() {
+        fanOutExecutor.shutdown();
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
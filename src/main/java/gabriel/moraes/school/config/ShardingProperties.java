@@ -0,0 +1,31 @@
+package gabriel.moraes.school.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "school.sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+    private String programHeader = "X-Program";
+    private String shardHeader = "X-Shard";
+    private String defaultShard;
+    private List<Shard> shards = new ArrayList<>();
+    private Map<String, String> programs = new LinkedHashMap<>();
+
+    @Data
+    public static class Shard {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -4,4 +4,8 @@ public class ClassRoomConstants {
     public static final int MIN_STUDENTS = 15;
     public static final int MAX_STUDENTS = 30;
     public static final int MAX_INSTRUCTORS = 3;
+    public static final int MAX_CHANGE_FEED_PAGE = 1000;
+    public static final int MAX_DIRECTORY_PAGE = 100;
+    public static final int MAX_BULK_DELETE = 1000;
+    public static final int MAX_MEMBERSHIP_PAGE = 10000;
 }
@@ -0,0 +1,32 @@
+package gabriel.moraes.school.controller;
+
+import gabriel.moraes.school.Model.DtoResponse.ChangeFeedDtoResponse;
+import gabriel.moraes.school.service.ChangeFeedService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/classes")
+public class ClassRoomChangeController {
+    private final ChangeFeedService changeFeedService;
+
+    public ClassRoomChangeController(ChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeFeedDtoResponse> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                            @RequestParam(defaultValue = "100") int limit) {
+        ChangeFeedDtoResponse feed = changeFeedService.getChanges(since, limit);
+        return new ResponseEntity<>(feed, HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}/changes")
+    public ResponseEntity<ChangeFeedDtoResponse> getClassChanges(@PathVariable Long id,
+                                                                 @RequestParam(defaultValue = "0") long since,
+                                                                 @RequestParam(defaultValue = "100") int limit) {
+        ChangeFeedDtoResponse feed = changeFeedService.getChangesForClass(id, since, limit);
+        return new ResponseEntity<>(feed, HttpStatus.OK);
+    }
+}
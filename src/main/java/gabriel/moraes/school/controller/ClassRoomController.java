@@ -2,27 +2,65 @@ package gabriel.moraes.school.controller;
 
 import gabriel.moraes.school.Model.DtoRequest.AddStudentsDtoRequest;
 import gabriel.moraes.school.Model.DtoRequest.ClassRoomDtoRequest;
+import gabriel.moraes.school.Model.ClassStatus;
 import gabriel.moraes.school.Model.DtoResponse.ClassRoomDtoResponse;
+import gabriel.moraes.school.Model.DtoResponse.EnrollmentTicketDtoResponse;
+import gabriel.moraes.school.Model.RosterFormat;
+import gabriel.moraes.school.service.ClassRoomReadCoalescer;
 import gabriel.moraes.school.service.ClassRoomService;
+import gabriel.moraes.school.service.EnrollmentOutcome;
+import gabriel.moraes.school.service.EnrollmentQueueService;
+import gabriel.moraes.school.service.RosterExportService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/classes")
 public class ClassRoomController {
-    private final ClassRoomService classService;
+    private static final String SMILE_VALUE = "application/x-jackson-smile";
+    private static final List<MediaType> PRODUCIBLE = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR,
+            MediaType.valueOf(SMILE_VALUE));
+    private static final String RESPOND_ASYNC = "respond-async";
 
-    public ClassRoomController(ClassRoomService classService){
+    private final ClassRoomService classService;
+    private final ClassRoomReadCoalescer classReadCoalescer;
+    private final RosterExportService rosterExportService;
+    private final EnrollmentQueueService enrollmentQueueService;
+    private final boolean asyncEnrollment;
+
+    public ClassRoomController(ClassRoomService classService, ClassRoomReadCoalescer classReadCoalescer,
+                               RosterExportService rosterExportService, EnrollmentQueueService enrollmentQueueService,
+                               @Value("${school.enrollment-queue.enabled:true}") boolean asyncEnrollment){
         this.classService = classService;
+        this.classReadCoalescer = classReadCoalescer;
+        this.rosterExportService = rosterExportService;
+        this.enrollmentQueueService = enrollmentQueueService;
+        this.asyncEnrollment = asyncEnrollment;
     }
 
 
-    @GetMapping("/{id}")
-    public ResponseEntity<ClassRoomDtoResponse> getClassById(@PathVariable Long id){
-        ClassRoomDtoResponse dto = classService.getClassById(id);
-        return new ResponseEntity<>(dto, HttpStatus.OK);
+    @GetMapping(value = "/{id:\\d+}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            SMILE_VALUE})
+    public ResponseEntity<byte[]> getClassById(@PathVariable Long id,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept){
+        MediaType mediaType = responseType(accept);
+        byte[] body = classReadCoalescer.getClassById(id, mediaType);
+        return ResponseEntity.ok().contentType(mediaType).body(body);
     }
 
 
@@ -41,14 +79,38 @@ public class ClassRoomController {
     }
 
 
+    // with Prefer: respond-async the enrollment is queued and answered with its ticket
     @PatchMapping("/{id}/add-students")
-    public ResponseEntity<ClassRoomDtoResponse> addStudentsToClass(
+    public ResponseEntity<?> addStudentsToClass(
             @PathVariable Long id,
-            @Valid @RequestBody AddStudentsDtoRequest addStudentsDtoRequest) {
-
-        ClassRoomDtoResponse response = classService.addStudentsToClass(id, addStudentsDtoRequest);
+            @Valid @RequestBody AddStudentsDtoRequest addStudentsDtoRequest,
+            @RequestHeader(value = "Prefer", required = false) String prefer) {
+
+        if (asyncEnrollment && prefer != null && prefer.contains(RESPOND_ASYNC)) {
+            EnrollmentTicketDtoResponse ticket = enrollmentQueueService.submit(id, addStudentsDtoRequest);
+            URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/api/v1/classes/{id}/enrollment-tickets/{ticketId}")
+                    .buildAndExpand(id, ticket.getId())
+                    .toUri();
+            return ResponseEntity.accepted()
+                    .location(location)
+                    .header("Preference-Applied", RESPOND_ASYNC)
+                    .body(ticket);
+        }
+
+        EnrollmentOutcome outcome = classService.addStudentsToClass(id, addStudentsDtoRequest);
+        // a full class waitlists the students instead of refusing them
+        if (outcome.isWaitlisted()) {
+            return ResponseEntity.accepted().body(outcome.waitlistPositions());
+        }
+
+        return new ResponseEntity<>(outcome.classRoom(), HttpStatus.OK);
+    }
 
-        return new ResponseEntity<>(response, HttpStatus.OK);
+    @GetMapping("/{id}/enrollment-tickets/{ticketId}")
+    public ResponseEntity<EnrollmentTicketDtoResponse> getEnrollmentTicket(@PathVariable Long id,
+                                                                           @PathVariable Long ticketId) {
+        return ResponseEntity.ok(enrollmentQueueService.getTicket(id, ticketId));
     }
 
     @PatchMapping("/{id}/finish")
@@ -59,4 +121,48 @@ public class ClassRoomController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    @GetMapping("/roster")
+    public void exportRosters(@RequestParam(required = false) List<Long> ids,
+                              @RequestParam(required = false) ClassStatus status,
+                              @RequestParam(defaultValue = "CSV") RosterFormat format,
+                              HttpServletResponse response) throws IOException {
+        prepareExport(response, format);
+        rosterExportService.export(ids, status, format, response.getOutputStream());
+    }
+
+    @GetMapping("/{id}/roster")
+    public void exportRoster(@PathVariable Long id, @RequestParam(defaultValue = "CSV") RosterFormat format,
+                             HttpServletResponse response) throws IOException {
+        rosterExportService.checkClassExists(id);
+        prepareExport(response, format);
+        rosterExportService.export(List.of(id), null, format, response.getOutputStream());
+    }
+
+    private static void prepareExport(HttpServletResponse response, RosterFormat format) {
+        boolean csv = format == RosterFormat.CSV;
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"roster." + (csv ? "csv" : "ndjson") + "\"");
+    }
+
+    private static MediaType responseType(String accept) {
+        List<MediaType> accepted = new ArrayList<>(StringUtils.hasText(accept)
+                ? MediaType.parseMediaTypes(accept)
+                : List.of(MediaType.ALL));
+        MimeTypeUtils.sortBySpecificity(accepted);
+        // quality first, the sort being stable keeps the most specific type first among equal qualities
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType acceptedType : accepted) {
+            if (acceptedType.getQualityValue() == 0) {
+                break;
+            }
+            for (MediaType producible : PRODUCIBLE) {
+                if (acceptedType.isCompatibleWith(producible)) {
+                    return producible;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
 }
@@ -0,0 +1,29 @@
+package gabriel.moraes.school.controller;
+
+import gabriel.moraes.school.event.ClassRoomEventBroadcaster;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@ConditionalOnProperty(prefix = "school.events", name = "enabled", havingValue = "true")
+@RequestMapping("/api/v1/classes")
+public class ClassRoomEventController {
+    private final ClassRoomEventBroadcaster broadcaster;
+
+    public ClassRoomEventController(ClassRoomEventBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return broadcaster.subscribe(null, lastEventId);
+    }
+
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamClassEvents(@PathVariable Long id,
+                                        @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return broadcaster.subscribe(id, lastEventId);
+    }
+}
@@ -0,0 +1,27 @@
+package gabriel.moraes.school.controller;
+
+import gabriel.moraes.school.Model.DtoResponse.DashboardDtoResponse;
+import gabriel.moraes.school.service.DashboardService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@ConditionalOnProperty(prefix = "school.dashboard", name = "enabled", havingValue = "true")
+@RequestMapping("/api/v1/dashboard")
+public class DashboardController {
+    private final DashboardService dashboardService;
+
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    @GetMapping
+    public ResponseEntity<DashboardDtoResponse> getDashboard() {
+        DashboardDtoResponse dashboard = dashboardService.getDashboard();
+        return new ResponseEntity<>(dashboard, HttpStatus.OK);
+    }
+}
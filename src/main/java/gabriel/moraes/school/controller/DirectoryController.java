@@ -0,0 +1,30 @@
+package gabriel.moraes.school.controller;
+
+import gabriel.moraes.school.Model.DtoResponse.DirectoryDtoResponse;
+import gabriel.moraes.school.Model.PersonRole;
+import gabriel.moraes.school.service.DirectoryService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/people")
+public class DirectoryController {
+    private final DirectoryService directoryService;
+
+    public DirectoryController(DirectoryService directoryService) {
+        this.directoryService = directoryService;
+    }
+
+    @GetMapping
+    public ResponseEntity<DirectoryDtoResponse> search(@RequestParam(required = false) String query,
+                                                       @RequestParam(required = false) PersonRole role,
+                                                       @RequestParam(defaultValue = "0") int page,
+                                                       @RequestParam(defaultValue = "20") int size) {
+        DirectoryDtoResponse directory = directoryService.search(query, role, page, size);
+        return new ResponseEntity<>(directory, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,48 @@
+package gabriel.moraes.school.controller;
+
+import gabriel.moraes.school.Model.DtoResponse.MembershipDtoResponse;
+import gabriel.moraes.school.membership.MembershipIndex;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/membership")
+public class MembershipController {
+    private final MembershipIndex membershipIndex;
+
+    public MembershipController(MembershipIndex membershipIndex) {
+        this.membershipIndex = membershipIndex;
+    }
+
+    @GetMapping("/students/unassigned")
+    public ResponseEntity<MembershipDtoResponse> getUnassignedStudents(@RequestParam(defaultValue = "0") long after,
+                                                                       @RequestParam(defaultValue = "1000") int limit) {
+        return new ResponseEntity<>(membershipIndex.getUnassignedStudents(after, limit), HttpStatus.OK);
+    }
+
+    @GetMapping("/classes/{id}/students")
+    public ResponseEntity<MembershipDtoResponse> getClassStudents(@PathVariable Long id,
+                                                                  @RequestParam(defaultValue = "0") long after,
+                                                                  @RequestParam(defaultValue = "1000") int limit) {
+        return new ResponseEntity<>(membershipIndex.getClassStudents(id, after, limit), HttpStatus.OK);
+    }
+
+    @GetMapping("/classes/{id}/students/without-squad")
+    public ResponseEntity<MembershipDtoResponse> getClassStudentsWithoutSquad(
+            @PathVariable Long id, @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return new ResponseEntity<>(membershipIndex.getClassStudentsWithoutSquad(id, after, limit), HttpStatus.OK);
+    }
+
+    @GetMapping("/squads/{id}/students")
+    public ResponseEntity<MembershipDtoResponse> getSquadStudents(@PathVariable Long id,
+                                                                  @RequestParam(defaultValue = "0") long after,
+                                                                  @RequestParam(defaultValue = "1000") int limit) {
+        return new ResponseEntity<>(membershipIndex.getSquadStudents(id, after, limit), HttpStatus.OK);
+    }
+}
@@ -1,6 +1,8 @@
 package gabriel.moraes.school.controller;
 
+import gabriel.moraes.school.Model.DtoRequest.DeleteStudentsDtoRequest;
 import gabriel.moraes.school.Model.DtoRequest.StudentDtoRequest;
+import gabriel.moraes.school.Model.DtoResponse.DeleteStudentsDtoResponse;
 import gabriel.moraes.school.Model.DtoResponse.StudentDtoResponse;
 import gabriel.moraes.school.service.StudentService;
 import jakarta.validation.Valid;
@@ -46,4 +48,11 @@ public class StudentController {
         studentService.deleteStudentById(id);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<DeleteStudentsDtoResponse> deleteStudents(
+            @Valid @RequestBody DeleteStudentsDtoRequest deleteStudentsDtoRequest) {
+        DeleteStudentsDtoResponse response = studentService.deleteStudents(deleteStudentsDtoRequest.getStudents());
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
 }
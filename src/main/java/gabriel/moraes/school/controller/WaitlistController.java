@@ -0,0 +1,26 @@
+package gabriel.moraes.school.controller;
+
+import gabriel.moraes.school.Model.DtoResponse.WaitlistPositionDtoResponse;
+import gabriel.moraes.school.service.WaitlistService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/classes/{id}/waitlist")
+public class WaitlistController {
+    private final WaitlistService waitlistService;
+
+    public WaitlistController(WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+
+    @GetMapping("/{studentId}")
+    public ResponseEntity<WaitlistPositionDtoResponse> getPosition(@PathVariable Long id,
+                                                                   @PathVariable Long studentId) {
+        return new ResponseEntity<>(waitlistService.getPosition(id, studentId), HttpStatus.OK);
+    }
+}
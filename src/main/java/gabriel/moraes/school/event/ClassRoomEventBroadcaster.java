@@ -0,0 +1,278 @@
+package gabriel.moraes.school.event;
+
+import gabriel.moraes.school.Model.DtoResponse.ChangeFeedDtoResponse;
+import gabriel.moraes.school.Model.DtoResponse.ClassRoomChangeDtoResponse;
+import gabriel.moraes.school.constants.ClassRoomConstants;
+import gabriel.moraes.school.exception.TooManySubscribersException;
+import gabriel.moraes.school.service.ChangeFeedService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans roster changes out to Server-Sent Events subscribers. Publishing never touches a socket: every subscriber
+ * has a bounded queue that a small pool of sender threads drains, so an idle subscriber costs no thread and a
+ * subscriber that falls a full queue behind is disconnected instead of slowing the others down. A reconnecting
+ * client resumes from its Last-Event-ID, which is the change feed sequence. The missed changes are read from the
+ * feed without holding up publishing, and at most one queue of them is replayed: a client further behind gets a
+ * {@code RESET} event instead, carrying the current sequence, and should reload what it shows.
+ */
+@Component
+@ConditionalOnProperty(prefix = "school.events", name = "enabled", havingValue = "true")
+public class ClassRoomEventBroadcaster {
+
+    static final String RESET_EVENT = "RESET";
+
+    private final ChangeFeedService changeFeedService;
+    private final ExecutorService sender;
+    private final int queueCapacity;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final Set<Subscriber> globalSubscribers = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Subscriber>> classSubscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Counter sent;
+    private final Counter evicted;
+    private long cursor = -1;
+
+    @Autowired
+    public ClassRoomEventBroadcaster(ChangeFeedService changeFeedService, MeterRegistry meterRegistry,
+                                     @Value("${school.events.sender-threads:4}") int senderThreads,
+                                     @Value("${school.events.queue-capacity:256}") int queueCapacity,
+                                     @Value("${school.events.max-subscribers:10000}") int maxSubscribers,
+                                     @Value("${school.events.timeout:PT30M}") Duration timeout) {
+        this(changeFeedService, meterRegistry, Executors.newFixedThreadPool(senderThreads, new SenderThreadFactory()),
+                queueCapacity, maxSubscribers, timeout);
+    }
+
+    ClassRoomEventBroadcaster(ChangeFeedService changeFeedService, MeterRegistry meterRegistry, ExecutorService sender,
+                              int queueCapacity, int maxSubscribers, Duration timeout) {
+        this.changeFeedService = changeFeedService;
+        this.sender = sender;
+        this.queueCapacity = queueCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+        Gauge.builder("school.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Connected class event stream subscribers")
+                .register(meterRegistry);
+        this.sent = Counter.builder("school.events.sent")
+                .description("Events written to class event stream subscribers")
+                .register(meterRegistry);
+        this.evicted = Counter.builder("school.events.evicted")
+                .description("Subscribers disconnected for falling behind")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long classRoomId, Long lastEventId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new TooManySubscribersException("Too many event stream subscribers, try again later");
+        }
+        Subscriber subscriber = new Subscriber(classRoomId, new SseEmitter(timeoutMillis));
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(error -> remove(subscriber));
+
+        // replays in rounds until no change was published meanwhile, then joins the live events under the lock
+        long replayedTo = lastEventId == null ? Long.MAX_VALUE : lastEventId;
+        int replayed = 0;
+        while (!subscriber.closed.get()) {
+            long upTo;
+            synchronized (this) {
+                if (cursor < 0 || replayedTo >= cursor) {
+                    register(subscriber);
+                    break;
+                }
+                upTo = cursor;
+            }
+            List<SseEventBuilder> missed = missed(subscriber, replayedTo, upTo, queueCapacity - replayed);
+            if (missed == null) {
+                synchronized (this) {
+                    subscriber.offer(SseEmitter.event().id(String.valueOf(cursor)).name(RESET_EVENT)
+                            .data("Too many missed changes to replay, reload and resume from here"));
+                    register(subscriber);
+                }
+                break;
+            }
+            missed.forEach(subscriber::offer);
+            replayed += missed.size();
+            replayedTo = upTo;
+        }
+        return subscriber.emitter;
+    }
+
+    public synchronized long getCursor() {
+        return cursor;
+    }
+
+    public synchronized void startFrom(long sequence) {
+        if (cursor < 0) {
+            cursor = sequence;
+        }
+    }
+
+    public synchronized void publish(List<ClassRoomChangeDtoResponse> changes) {
+        for (ClassRoomChangeDtoResponse change : changes) {
+            SseEventBuilder event = toEvent(change);
+            globalSubscribers.forEach(subscriber -> subscriber.offer(event));
+            Set<Subscriber> subscribers = classSubscribers.get(change.getClassRoomId());
+            if (subscribers != null) {
+                subscribers.forEach(subscriber -> subscriber.offer(event));
+            }
+            cursor = change.getId();
+        }
+    }
+
+    public void heartbeat() {
+        SseEventBuilder heartbeat = SseEmitter.event().comment("heartbeat");
+        globalSubscribers.forEach(subscriber -> subscriber.offer(heartbeat));
+        classSubscribers.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.offer(heartbeat)));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        globalSubscribers.forEach(subscriber -> subscriber.emitter.complete());
+        classSubscribers.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        sender.shutdown();
+    }
+
+    /**
+     * Events for the changes of the subscriber after {@code since} up to {@code upTo}, or {@code null} when there are
+     * more than {@code limit}.
+     */
+    private List<SseEventBuilder> missed(Subscriber subscriber, long since, long upTo, int limit) {
+        int pageSize = Math.min(limit + 1, ClassRoomConstants.MAX_CHANGE_FEED_PAGE);
+        List<SseEventBuilder> missed = new ArrayList<>();
+        ChangeFeedDtoResponse feed;
+        do {
+            if (subscriber.closed.get()) {
+                return List.of();
+            }
+            feed = subscriber.classRoomId == null
+                    ? changeFeedService.getChanges(since, pageSize)
+                    : changeFeedService.getChangesForClass(subscriber.classRoomId, since, pageSize);
+            for (ClassRoomChangeDtoResponse change : feed.getChanges()) {
+                if (change.getId() > upTo) {
+                    return missed;
+                }
+                if (missed.size() == limit) {
+                    return null;
+                }
+                missed.add(toEvent(change));
+            }
+            since = feed.getNextCursor();
+        } while (feed.isHasMore());
+        return missed;
+    }
+
+    private void register(Subscriber subscriber) {
+        subscribersOf(subscriber.classRoomId).add(subscriber);
+        // disconnected before it was added
+        if (subscriber.closed.get()) {
+            remove(subscriber);
+        }
+    }
+
+    private Set<Subscriber> subscribersOf(Long classRoomId) {
+        return classRoomId == null
+                ? globalSubscribers
+                : classSubscribers.computeIfAbsent(classRoomId, id -> ConcurrentHashMap.newKeySet());
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscriber.closed.compareAndSet(false, true)) {
+            subscriberCount.decrementAndGet();
+        }
+        if (subscriber.classRoomId == null) {
+            globalSubscribers.remove(subscriber);
+        } else {
+            classSubscribers.computeIfPresent(subscriber.classRoomId, (id, subscribers) -> {
+                subscribers.remove(subscriber);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+    }
+
+    private static SseEventBuilder toEvent(ClassRoomChangeDtoResponse change) {
+        return SseEmitter.event()
+                .id(String.valueOf(change.getId()))
+                .name(change.getChangeType().name())
+                .data(change, MediaType.APPLICATION_JSON);
+    }
+
+    private final class Subscriber {
+
+        private final Long classRoomId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEventBuilder> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(Long classRoomId, SseEmitter emitter) {
+            this.classRoomId = classRoomId;
+            this.emitter = emitter;
+        }
+
+        private void offer(SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                evicted.increment();
+                remove(this);
+                emitter.complete();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                SseEventBuilder event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    try {
+                        emitter.send(event);
+                        sent.increment();
+                    } catch (IOException | IllegalStateException e) {
+                        remove(this);
+                        emitter.completeWithError(e);
+                        return;
+                    }
+                }
+                draining.set(false);
+            } while (!closed.get() && !queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+
+    private static final class SenderThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "class-events-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
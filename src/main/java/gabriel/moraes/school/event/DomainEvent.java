@@ -0,0 +1,21 @@
+package gabriel.moraes.school.event;
+
+import gabriel.moraes.school.Model.DomainEventType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class DomainEvent {
+
+    private final Long id;
+    private final DomainEventType type;
+    private final Long classRoomId;
+    private final Map<String, Object> payload;
+    private final Instant occurredAt;
+}
@@ -0,0 +1,10 @@
+package gabriel.moraes.school.event;
+
+/**
+ * In-process consumer of the events relayed from the outbox. Delivery is at-least-once and in outbox order, so an
+ * implementation must tolerate seeing the same event id again after a failure or a relay restart.
+ */
+public interface DomainEventSubscriber {
+
+    void onEvent(DomainEvent event);
+}
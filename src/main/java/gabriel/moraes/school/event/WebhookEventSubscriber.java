@@ -0,0 +1,42 @@
+package gabriel.moraes.school.event;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Posts every relayed domain event as JSON to the endpoint configured under {@code school.outbox.webhook.url}, which
+ * is how systems outside this service hear about enrollments, class lifecycle changes and new squads. A failed or
+ * non-2xx call throws, so the relay retries the event and eventually parks it. Receivers see an event again after a
+ * retry and should deduplicate on its id.
+ */
+@Component
+@ConditionalOnProperty(prefix = "school.outbox.webhook", name = "url")
+public class WebhookEventSubscriber implements DomainEventSubscriber {
+
+    private final RestTemplate restTemplate;
+    private final URI url;
+
+    @Autowired
+    public WebhookEventSubscriber(RestTemplateBuilder restTemplateBuilder,
+                                  @Value("${school.outbox.webhook.url}") URI url,
+                                  @Value("${school.outbox.webhook.timeout:PT5S}") Duration timeout) {
+        this(restTemplateBuilder.setConnectTimeout(timeout).setReadTimeout(timeout).build(), url);
+    }
+
+    WebhookEventSubscriber(RestTemplate restTemplate, URI url) {
+        this.restTemplate = restTemplate;
+        this.url = url;
+    }
+
+    @Override
+    public void onEvent(DomainEvent event) {
+        restTemplate.postForEntity(url, event, Void.class);
+    }
+}
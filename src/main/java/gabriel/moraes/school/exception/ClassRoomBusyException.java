@@ -0,0 +1,7 @@
+package gabriel.moraes.school.exception;
+
+public class ClassRoomBusyException extends RuntimeException{
+    public ClassRoomBusyException(String message){
+        super(message);
+    }
+}
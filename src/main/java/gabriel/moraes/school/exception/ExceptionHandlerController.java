@@ -2,7 +2,9 @@ package gabriel.moraes.school.exception;
 
 import gabriel.moraes.school.exception.validation.ValidationError;
 import gabriel.moraes.school.exception.validation.ValidationErrorResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -106,4 +108,28 @@ public class ExceptionHandlerController {
                 ex.getMessage());
         return new ResponseEntity<>(message, HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(TooManySubscribersException.class)
+    public ResponseEntity<ErrorResponse> tooManySubscribersException(TooManySubscribersException ex) {
+        ErrorResponse message = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                timestamp,
+                ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(message);
+    }
+
+    @ExceptionHandler(ClassRoomBusyException.class)
+    public ResponseEntity<ErrorResponse> classRoomBusyException(ClassRoomBusyException ex) {
+        ErrorResponse message = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                timestamp,
+                ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(message);
+    }
 }
@@ -0,0 +1,7 @@
+package gabriel.moraes.school.exception;
+
+public class TooManySubscribersException extends RuntimeException{
+    public TooManySubscribersException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package gabriel.moraes.school.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "school.idempotency")
+public class IdempotencyProperties {
+
+    private boolean enabled;
+    private String header = "Idempotency-Key";
+    private Duration ttl = Duration.ofHours(24);
+    private int maxEntries = 10_000;
+    private DataSize maxResponseSize = DataSize.ofKilobytes(64);
+    private Duration inFlightTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,101 @@
+package gabriel.moraes.school.idempotency;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Bounded, in-memory record of the requests seen per idempotency key. Entries are kept in claim order and share one
+ * time to live, so the oldest entry is always the next to expire and both expiry and the size bound only ever look
+ * at the head of the map.
+ */
+public class IdempotencyStore {
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Clock clock;
+
+    public IdempotencyStore(int maxEntries, Duration ttl, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the entry for the key, creating it when there is none. Only the caller that created the entry owns it
+     * and must either complete or abandon it; everyone else waits on its result.
+     */
+    public synchronized Claim claim(String key, String fingerprint) {
+        evictExpired();
+        Entry existing = entries.get(key);
+        if (existing != null) {
+            return new Claim(existing, false);
+        }
+        Entry entry = new Entry(fingerprint, clock.instant().plus(ttl));
+        entries.put(key, entry);
+        Iterator<Entry> oldest = entries.values().iterator();
+        while (entries.size() > maxEntries) {
+            oldest.next();
+            oldest.remove();
+        }
+        return new Claim(entry, true);
+    }
+
+    public void complete(Entry entry, StoredResponse response) {
+        entry.result.complete(response);
+    }
+
+    /**
+     * Forgets an entry whose request should not be replayed, such as a server error. Waiting duplicates are released
+     * with no response and claim the key again.
+     */
+    public void abandon(String key, Entry entry) {
+        synchronized (this) {
+            entries.remove(key, entry);
+        }
+        entry.result.complete(null);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evictExpired() {
+        Instant now = clock.instant();
+        Iterator<Entry> oldest = entries.values().iterator();
+        while (oldest.hasNext() && oldest.next().expiresAt.isBefore(now)) {
+            oldest.remove();
+        }
+    }
+
+    public record Claim(Entry entry, boolean owner) {
+    }
+
+    public record StoredResponse(int status, String contentType, String location, byte[] body) {
+    }
+
+    public static final class Entry {
+
+        private final String fingerprint;
+        private final Instant expiresAt;
+        private final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+
+        private Entry(String fingerprint, Instant expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public CompletableFuture<StoredResponse> getResult() {
+            return result;
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package gabriel.moraes.school.membership;
+
+import gabriel.moraes.school.Model.DtoResponse.MembershipDtoResponse;
+import gabriel.moraes.school.cache.CacheInvalidation;
+import gabriel.moraes.school.cache.CacheInvalidationTransport;
+import gabriel.moraes.school.cache.CachedEntity;
+import gabriel.moraes.school.config.PrimaryReads;
+import gabriel.moraes.school.config.ShardContext;
+import gabriel.moraes.school.config.ShardRouter;
+import gabriel.moraes.school.constants.ClassRoomConstants;
+import gabriel.moraes.school.exception.ObjectNotFoundException;
+import gabriel.moraes.school.repository.ClassRoomRepository;
+import gabriel.moraes.school.repository.SquadRepository;
+import gabriel.moraes.school.repository.SquadRepository.SquadPlacement;
+import gabriel.moraes.school.repository.StudentRepository;
+import gabriel.moraes.school.repository.StudentRepository.StudentMembership;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Which students are in which class and squad, held in compressed bitmaps so membership questions and their counts
+ * are answered from memory. Each node keeps its own copy per shard, built from three queries on first use and again
+ * by the rebuild job.
+ * <p>
+ * The changes made on this node are applied when their transaction commits. The classes and students changed on any
+ * node reach every node as cache invalidations; they are marked stale and reloaded by the refresh job, one query per
+ * kind, so the other nodes catch up within a refresh interval.
+ */
+@Service
+public class MembershipIndex {
+
+    private static final String DEFAULT_SHARD = "default";
+
+    private final StudentRepository studentRepository;
+    private final ClassRoomRepository classRoomRepository;
+    private final SquadRepository squadRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String defaultShard;
+    private final Timer rebuildTimer;
+    private final Timer refreshTimer;
+    private final Map<String, ShardIndex> shards = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MembershipIndex(StudentRepository studentRepository, ClassRoomRepository classRoomRepository,
+                           SquadRepository squadRepository, PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry, ObjectProvider<ShardRouter> shardRouter,
+                           ObjectProvider<CacheInvalidationTransport> invalidationTransport) {
+        this(studentRepository, classRoomRepository, squadRepository, transactionManager, meterRegistry,
+                shardRouter.getIfAvailable(), invalidationTransport.getIfAvailable());
+    }
+
+    MembershipIndex(StudentRepository studentRepository, ClassRoomRepository classRoomRepository,
+                    SquadRepository squadRepository, PlatformTransactionManager transactionManager,
+                    MeterRegistry meterRegistry, ShardRouter shardRouter,
+                    CacheInvalidationTransport invalidationTransport) {
+        this.studentRepository = studentRepository;
+        this.classRoomRepository = classRoomRepository;
+        this.squadRepository = squadRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.defaultShard = shardRouter != null ? shardRouter.getDefaultShard() : DEFAULT_SHARD;
+        this.rebuildTimer = Timer.builder("school.membership.rebuild")
+                .description("Time to rebuild the membership index of a shard from the database")
+                .register(meterRegistry);
+        this.refreshTimer = Timer.builder("school.membership.refresh")
+                .description("Time to reload the classes and students changed since the last refresh")
+                .register(meterRegistry);
+        if (invalidationTransport != null) {
+            invalidationTransport.subscribe(this::markStale);
+        }
+    }
+
+    public MembershipDtoResponse getUnassignedStudents(long after, int limit) {
+        return query(memberships -> page(memberships.unassigned, after, limit));
+    }
+
+    public MembershipDtoResponse getClassStudents(Long classRoomId, long after, int limit) {
+        return query(memberships -> page(memberships.classStudents(classRoomId), after, limit),
+                memberships -> memberships.byClass.containsKey(classRoomId), () -> loadClass(classRoomId),
+                "Class room not found with id: " + classRoomId);
+    }
+
+    public MembershipDtoResponse getClassStudentsWithoutSquad(Long classRoomId, long after, int limit) {
+        return query(memberships -> page(memberships.classStudents(classRoomId).and(memberships.withoutSquad),
+                        after, limit),
+                memberships -> memberships.byClass.containsKey(classRoomId), () -> loadClass(classRoomId),
+                "Class room not found with id: " + classRoomId);
+    }
+
+    public MembershipDtoResponse getSquadStudents(Long squadId, long after, int limit) {
+        return query(memberships -> page(memberships.bySquad.get(squadId), after, limit),
+                memberships -> memberships.bySquad.containsKey(squadId), () -> loadSquad(squadId),
+                "Squad not found with id: " + squadId);
+    }
+
+    /**
+     * The given students this node knows to be in a class. Answers nothing until the index is built, and a student
+     * enrolled on another node shows up after the next refresh, so callers must keep their own check.
+     */
+    public List<Long> findAssigned(Collection<Long> studentIds) {
+        ShardIndex shard = shard();
+        shard.lock.readLock().lock();
+        try {
+            Memberships memberships = shard.memberships;
+            if (memberships == null) {
+                return List.of();
+            }
+            return studentIds.stream()
+                    .filter(Objects::nonNull)
+                    .filter(id -> memberships.students.contains(id) && !memberships.unassigned.contains(id))
+                    .distinct()
+                    .toList();
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+    }
+
+    public void classCreated(Long classRoomId) {
+        onCommit(memberships -> memberships.byClass.putIfAbsent(classRoomId, new IdBitmap()));
+    }
+
+    public void studentsEnrolled(Long classRoomId, Collection<Long> studentIds) {
+        onCommit(memberships -> studentIds.forEach(id -> memberships.place(id, classRoomId, null)));
+    }
+
+    public void squadsCreated(Long classRoomId, Map<Long, List<Long>> studentIdsBySquad) {
+        onCommit(memberships -> studentIdsBySquad.forEach((squadId, studentIds) -> {
+            memberships.addSquad(squadId, classRoomId);
+            studentIds.forEach(id -> memberships.place(id, classRoomId, squadId));
+        }));
+    }
+
+    public void studentCreated(Long studentId) {
+        onCommit(memberships -> memberships.place(studentId, null, null));
+    }
+
+    public void studentsDeleted(Collection<StudentMembership> deleted) {
+        onCommit(memberships -> deleted.forEach(membership -> memberships.remove(membership.getId(),
+                membership.getClassRoomId(), membership.getSquadId())));
+    }
+
+    /**
+     * Reloads everything of the current shard and replaces its index.
+     */
+    public void rebuild() {
+        ShardIndex shard = shard();
+        synchronized (shard) {
+            shard.tracking = true;
+            shard.staleClasses.clear();
+            shard.staleStudents.clear();
+            Memberships rebuilt = rebuildTimer.record(this::load);
+            shard.lock.writeLock().lock();
+            try {
+                shard.memberships = rebuilt;
+            } finally {
+                shard.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Reloads the classes and students of the current shard that changed since the last refresh, on this node or on
+     * another.
+     */
+    public void refreshStale() {
+        ShardIndex shard = shard();
+        synchronized (shard) {
+            if (shard.memberships == null || (shard.staleClasses.isEmpty() && shard.staleStudents.isEmpty())) {
+                return;
+            }
+            Set<Long> classIds = drain(shard.staleClasses);
+            Set<Long> studentIds = drain(shard.staleStudents);
+            refreshTimer.record(() -> reload(shard, classIds, studentIds));
+        }
+    }
+
+    private void reload(ShardIndex shard, Set<Long> classIds, Set<Long> studentIds) {
+        Reload reload = read(status -> new Reload(
+                classIds.isEmpty() ? List.of() : classRoomRepository.findExistingIds(classIds),
+                classIds.isEmpty() ? List.of() : squadRepository.findPlacementsByClassRoomIdIn(classIds),
+                classIds.isEmpty() ? List.of() : studentRepository.findMembershipsByClassRoomIdIn(classIds),
+                studentIds.isEmpty() ? List.of() : studentRepository.findMembershipsByIdIn(studentIds)));
+        shard.lock.writeLock().lock();
+        try {
+            Memberships memberships = shard.memberships;
+            for (Long classRoomId : classIds) {
+                memberships.clearClass(classRoomId);
+            }
+            reload.classIds.forEach(id -> memberships.byClass.put(id, new IdBitmap()));
+            reload.squads.forEach(squad -> memberships.addSquad(squad.getId(), squad.getClassRoomId()));
+            reload.classStudents.forEach(memberships::place);
+
+            Set<Long> missing = new HashSet<>(studentIds);
+            for (StudentMembership student : reload.students) {
+                missing.remove(student.getId());
+                memberships.place(student);
+            }
+            missing.forEach(id -> memberships.remove(id, null, null));
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+    }
+
+    // from the primary: what a lagging replica answers would be kept until the class changes again or the rebuild
+    private <T> T read(TransactionCallback<T> reads) {
+        return PrimaryReads.call(() -> transactionTemplate.execute(reads));
+    }
+
+    private Memberships load() {
+        return read(status -> {
+            Memberships loaded = new Memberships();
+            classRoomRepository.findAllIds().forEach(id -> loaded.byClass.put(id, new IdBitmap()));
+            squadRepository.findPlacements().forEach(squad -> loaded.addSquad(squad.getId(), squad.getClassRoomId()));
+            try (Stream<StudentMembership> students = studentRepository.streamMemberships()) {
+                students.forEach(loaded::place);
+            }
+            return loaded;
+        });
+    }
+
+    private void loadClass(Long classRoomId) {
+        shard().staleClasses.add(classRoomId);
+        refreshStale();
+    }
+
+    private void loadSquad(Long squadId) {
+        read(status -> squadRepository.findPlacementsByIdIn(List.of(squadId))).stream()
+                .map(SquadPlacement::getClassRoomId)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .ifPresent(this::loadClass);
+    }
+
+    private MembershipDtoResponse query(Function<Memberships, MembershipDtoResponse> answer) {
+        return query(answer, memberships -> true, () -> {
+        }, null);
+    }
+
+    /**
+     * Answers from the index of the current shard, building it first if needed. A class or squad the index does not
+     * know may have been created on another node since the last refresh, so it is loaded once before giving up.
+     */
+    private MembershipDtoResponse query(Function<Memberships, MembershipDtoResponse> answer,
+                                        Function<Memberships, Boolean> known, Runnable load, String notFound) {
+        ShardIndex shard = shard();
+        if (shard.memberships == null) {
+            synchronized (shard) {
+                if (shard.memberships == null) {
+                    rebuild();
+                }
+            }
+        }
+        for (int attempt = 0; attempt < 2; attempt++) {
+            shard.lock.readLock().lock();
+            try {
+                if (known.apply(shard.memberships)) {
+                    return answer.apply(shard.memberships);
+                }
+            } finally {
+                shard.lock.readLock().unlock();
+            }
+            if (attempt == 0) {
+                load.run();
+            }
+        }
+        throw new ObjectNotFoundException(notFound);
+    }
+
+    private static MembershipDtoResponse page(IdBitmap bitmap, long after, int limit) {
+        if (bitmap == null) {
+            return new MembershipDtoResponse(0, List.of(), false);
+        }
+        int pageSize = Math.max(1, Math.min(limit, ClassRoomConstants.MAX_MEMBERSHIP_PAGE));
+        List<Long> ids = bitmap.ids(after, pageSize + 1);
+        boolean hasMore = ids.size() > pageSize;
+        return new MembershipDtoResponse(bitmap.cardinality(), hasMore ? ids.subList(0, pageSize) : ids, hasMore);
+    }
+
+    private void onCommit(Consumer<Memberships> change) {
+        ShardIndex shard = shard();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            shard.apply(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                shard.apply(change);
+            }
+        });
+    }
+
+    private void markStale(List<CacheInvalidation> invalidations) {
+        for (CacheInvalidation invalidation : invalidations) {
+            ShardIndex shard = shards.get(shardKey(invalidation.shard()));
+            if (shard == null || !shard.tracking) {
+                continue;
+            }
+            if (invalidation.entity() == CachedEntity.CLASS_ROOM) {
+                shard.staleClasses.add(invalidation.id());
+            } else if (invalidation.entity() == CachedEntity.STUDENT) {
+                shard.staleStudents.add(invalidation.id());
+            }
+        }
+    }
+
+    private ShardIndex shard() {
+        return shards.computeIfAbsent(shardKey(ShardContext.currentShard()), key -> new ShardIndex());
+    }
+
+    private String shardKey(String shard) {
+        return shard != null ? shard : defaultShard;
+    }
+
+    private static Set<Long> drain(Set<Long> stale) {
+        Set<Long> drained = new HashSet<>(stale);
+        stale.removeAll(drained);
+        return drained;
+    }
+
+    private record Reload(List<Long> classIds, List<SquadPlacement> squads, List<StudentMembership> classStudents,
+                          List<StudentMembership> students) {
+    }
+
+    private static final class ShardIndex {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Set<Long> staleClasses = ConcurrentHashMap.newKeySet();
+        private final Set<Long> staleStudents = ConcurrentHashMap.newKeySet();
+        private volatile Memberships memberships;
+        // set when the first build starts, so changes committed while it loads are refreshed afterwards
+        private volatile boolean tracking;
+
+        private void apply(Consumer<Memberships> change) {
+            lock.writeLock().lock();
+            try {
+                if (memberships != null) {
+                    change.accept(memberships);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private static final class Memberships {
+
+        private final IdBitmap students = new IdBitmap();
+        private final IdBitmap unassigned = new IdBitmap();
+        private final IdBitmap withoutSquad = new IdBitmap();
+        private final Map<Long, IdBitmap> byClass = new HashMap<>();
+        private final Map<Long, IdBitmap> bySquad = new HashMap<>();
+        private final Map<Long, Set<Long>> squadsByClass = new HashMap<>();
+
+        private IdBitmap classStudents(Long classRoomId) {
+            return byClass.getOrDefault(classRoomId, new IdBitmap());
+        }
+
+        private void addSquad(Long squadId, Long classRoomId) {
+            bySquad.putIfAbsent(squadId, new IdBitmap());
+            if (classRoomId != null) {
+                squadsByClass.computeIfAbsent(classRoomId, id -> new HashSet<>()).add(squadId);
+            }
+        }
+
+        private void place(StudentMembership student) {
+            place(student.getId(), student.getClassRoomId(), student.getSquadId());
+        }
+
+        private void place(Long studentId, Long classRoomId, Long squadId) {
+            students.add(studentId);
+            if (classRoomId == null) {
+                unassigned.add(studentId);
+                return;
+            }
+            unassigned.remove(studentId);
+            byClass.computeIfAbsent(classRoomId, id -> new IdBitmap()).add(studentId);
+            if (squadId == null) {
+                withoutSquad.add(studentId);
+            } else {
+                withoutSquad.remove(studentId);
+                addSquad(squadId, classRoomId);
+                bySquad.get(squadId).add(studentId);
+            }
+        }
+
+        private void remove(Long studentId, Long classRoomId, Long squadId) {
+            students.remove(studentId);
+            unassigned.remove(studentId);
+            withoutSquad.remove(studentId);
+            if (classRoomId != null && byClass.containsKey(classRoomId)) {
+                byClass.get(classRoomId).remove(studentId);
+            }
+            if (squadId != null && bySquad.containsKey(squadId)) {
+                bySquad.get(squadId).remove(studentId);
+            }
+        }
+
+        /**
+         * Forgets the class with its squads, before it is loaded again. Its students stay known; a student that left
+         * the class was deleted and is reloaded as a changed student.
+         */
+        private void clearClass(Long classRoomId) {
+            IdBitmap classStudents = byClass.remove(classRoomId);
+            if (classStudents != null) {
+                withoutSquad.removeAll(classStudents);
+            }
+            for (Long squadId : squadsByClass.getOrDefault(classRoomId, Set.of())) {
+                bySquad.remove(squadId);
+            }
+            squadsByClass.remove(classRoomId);
+        }
+    }
+}
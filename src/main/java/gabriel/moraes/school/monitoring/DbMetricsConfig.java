@@ -0,0 +1,59 @@
+package gabriel.moraes.school.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics below the service layer: every SQL statement and JDBC batch by repository, Hibernate's session factory
+ * statistics, and entity loads, collection fetches and flushes by repository. The connection pools report their
+ * own {@code hikaricp.connections.*} metrics, tagged by pool.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "school.db-metrics", name = "enabled", havingValue = "true")
+public class DbMetricsConfig implements SmartInitializingSingleton {
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public DbMetricsConfig(ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                           ObjectProvider<MeterRegistry> meterRegistry) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public RepositoryMetricsRecorder repositoryMetricsRecorder(MeterRegistry meterRegistry) {
+        return new RepositoryMetricsRecorder(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateStatisticsCustomizer() {
+        return properties -> properties.put(AvailableSettings.GENERATE_STATISTICS, "true");
+    }
+
+    /**
+     * Binds the Hibernate metrics once every singleton exists, as the session factory itself may need the meter
+     * registry while it is built.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        EntityManagerFactory factory = entityManagerFactory.getIfAvailable();
+        if (registry == null || factory == null) {
+            return;
+        }
+        SessionFactoryImplementor sessionFactory = factory.unwrap(SessionFactoryImplementor.class);
+        new HibernateStatisticsMetrics(sessionFactory.getStatistics()).bindTo(registry);
+        new RepositoryHibernateListener(registry)
+                .register(sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class));
+    }
+}
@@ -0,0 +1,67 @@
+package gabriel.moraes.school.monitoring;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.stat.Statistics;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Exposes the session factory statistics Hibernate collects when {@code hibernate.generate_statistics} is on. They
+ * cover the whole session factory; {@link RepositoryHibernateListener} splits the entity and collection loads and
+ * the flushes by repository.
+ */
+public class HibernateStatisticsMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsMetrics(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "school.hibernate.entities", "Entities loaded",
+                Statistics::getEntityLoadCount, "event", "load");
+        counter(registry, "school.hibernate.entities", "Entities fetched by a separate select",
+                Statistics::getEntityFetchCount, "event", "fetch");
+        counter(registry, "school.hibernate.collections", "Collections loaded",
+                Statistics::getCollectionLoadCount, "event", "load");
+        counter(registry, "school.hibernate.collections", "Collections fetched by a separate select",
+                Statistics::getCollectionFetchCount, "event", "fetch");
+        counter(registry, "school.hibernate.second.level.cache", "Second-level cache lookups that found the entry",
+                Statistics::getSecondLevelCacheHitCount, "result", "hit");
+        counter(registry, "school.hibernate.second.level.cache", "Second-level cache lookups that missed",
+                Statistics::getSecondLevelCacheMissCount, "result", "miss");
+        counter(registry, "school.hibernate.second.level.cache", "Entries put in the second-level cache",
+                Statistics::getSecondLevelCachePutCount, "result", "put");
+        counter(registry, "school.hibernate.flushes", "Session flushes",
+                Statistics::getFlushCount);
+        counter(registry, "school.hibernate.statements", "JDBC statements prepared by Hibernate",
+                Statistics::getPrepareStatementCount);
+        counter(registry, "school.hibernate.query.plan.cache", "Query plan cache lookups that found the plan",
+                Statistics::getQueryPlanCacheHitCount, "result", "hit");
+        counter(registry, "school.hibernate.query.plan.cache", "Query plan cache lookups that compiled the query",
+                Statistics::getQueryPlanCacheMissCount, "result", "miss");
+        Gauge.builder("school.hibernate.query.plan.cache.hit.ratio", statistics,
+                        HibernateStatisticsMetrics::queryPlanCacheHitRatio)
+                .description("Share of query plan cache lookups that found the plan")
+                .register(registry);
+    }
+
+    static double queryPlanCacheHitRatio(Statistics statistics) {
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long lookups = hits + statistics.getQueryPlanCacheMissCount();
+        return lookups == 0 ? Double.NaN : (double) hits / lookups;
+    }
+
+    private void counter(MeterRegistry registry, String name, String description,
+                         ToDoubleFunction<Statistics> count, String... tags) {
+        FunctionCounter.builder(name, statistics, count)
+                .description(description)
+                .tags(tags)
+                .register(registry);
+    }
+}
@@ -0,0 +1,100 @@
+package gabriel.moraes.school.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+
+/**
+ * Counts entity loads, lazy collection fetches and flushes by the repository running on the thread when Hibernate
+ * performs them. Work done outside a repository call, such as a lazy collection read while mapping a response or
+ * the flush at commit, is tagged {@code repository=none}.
+ */
+public class RepositoryHibernateListener implements PostLoadEventListener, InitializeCollectionEventListener,
+        FlushEventListener, AutoFlushEventListener {
+
+    private final MeterRegistry meterRegistry;
+
+    public RepositoryHibernateListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * The collection listener runs before Hibernate's own so it can tell whether the collection is fetched now; the
+     * others run after it.
+     */
+    public void register(EventListenerRegistry registry) {
+        registry.appendListeners(EventType.POST_LOAD, this);
+        registry.prependListeners(EventType.INIT_COLLECTION, this);
+        registry.appendListeners(EventType.FLUSH, this);
+        registry.appendListeners(EventType.AUTO_FLUSH, this);
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        Counter.builder("school.hibernate.repository.entity.loads")
+                .description("Entities loaded, by repository and entity")
+                .tags("repository", currentRepository(), "entity", unqualify(event.getPersister().getEntityName()))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) {
+        if (event.getCollection().wasInitialized()) {
+            return;
+        }
+        Counter.builder("school.hibernate.repository.collection.fetches")
+                .description("Lazy collections fetched, by repository and collection")
+                .tags("repository", currentRepository(), "collection", collectionName(event))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Override
+    public void onFlush(FlushEvent event) {
+        flushed("full");
+    }
+
+    @Override
+    public void onAutoFlush(AutoFlushEvent event) {
+        if (event.isFlushRequired()) {
+            flushed("auto");
+        }
+    }
+
+    private void flushed(String type) {
+        Counter.builder("school.hibernate.repository.flushes")
+                .description("Session flushes, by repository; auto flushes run before a query that needs them")
+                .tags("repository", currentRepository(), "type", type)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String currentRepository() {
+        return RepositoryMetricsRecorder.repositoryTag(SqlCallerContext.currentRepository());
+    }
+
+    static String collectionName(InitializeCollectionEvent event) {
+        String role = event.getCollection().getRole();
+        String owner = event.getAffectedOwnerEntityName();
+        if (role == null) {
+            return "unknown";
+        }
+        return owner != null && role.startsWith(owner + ".")
+                ? unqualify(owner) + role.substring(owner.length())
+                : role;
+    }
+
+    private static String unqualify(String name) {
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+}
@@ -0,0 +1,68 @@
+package gabriel.moraes.school.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records every SQL statement against the repository that issued it: execution time and rows by statement kind,
+ * and the size of each JDBC batch sent. Statements run outside a repository call, such as the inserts and updates
+ * Hibernate flushes at commit, are tagged {@code repository=none}.
+ */
+public class RepositoryMetricsRecorder implements SqlStatementListener {
+
+    static final String NO_REPOSITORY = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsRecorder(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    static String repositoryTag(String repository) {
+        return repository != null ? repository : NO_REPOSITORY;
+    }
+
+    @Override
+    public void afterStatement(SqlStatementEvent event) {
+        String repository = repositoryTag(SqlCallerContext.repositoryOf(event.getRepository()));
+        Meters statementMeters = meters.computeIfAbsent(repository + "|" + event.getKind(),
+                key -> new Meters(repository, event.getKind()));
+        statementMeters.statements.record(event.getElapsedNanos(), TimeUnit.NANOSECONDS);
+        statementMeters.rows.record(event.getRowCount());
+        if (event.getKind() != SqlStatementKind.QUERY) {
+            statementMeters.batchSize.record(event.getBatchSize());
+        }
+    }
+
+    private final class Meters {
+
+        private final Timer statements;
+        private final DistributionSummary rows;
+        private final DistributionSummary batchSize;
+
+        private Meters(String repository, SqlStatementKind kind) {
+            String kindTag = kind.name().toLowerCase(Locale.ROOT);
+            this.statements = Timer.builder("school.jdbc.statements")
+                    .description("SQL statement execution time, by issuing repository and statement kind")
+                    .tags("repository", repository, "kind", kindTag)
+                    .register(meterRegistry);
+            this.rows = DistributionSummary.builder("school.jdbc.rows")
+                    .description("Rows read by a query or changed by an update, by issuing repository")
+                    .baseUnit("rows")
+                    .tags("repository", repository, "kind", kindTag)
+                    .register(meterRegistry);
+            this.batchSize = DistributionSummary.builder("school.jdbc.batch.size")
+                    .description("Statements sent per JDBC execution, 1 when the update was not batched")
+                    .baseUnit("statements")
+                    .tags("repository", repository)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package gabriel.moraes.school.monitoring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+public class SlowQueryLogger implements SqlStatementListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLogger.class);
+
+    private final long thresholdNanos;
+
+    public SlowQueryLogger(Duration threshold) {
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    @Override
+    public void afterStatement(SqlStatementEvent event) {
+        if (event.getElapsedNanos() >= thresholdNanos) {
+            log.warn("Slow SQL ({} ms, {} rows, batch {}) at {} via {}: {}",
+                    event.getElapsedNanos() / 1_000_000, event.getRowCount(), event.getBatchSize(),
+                    event.getCaller(), event.getRepository(), event.getSql());
+        }
+    }
+}
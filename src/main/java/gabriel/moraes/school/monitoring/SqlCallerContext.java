@@ -0,0 +1,57 @@
+package gabriel.moraes.school.monitoring;
+
+import java.util.Optional;
+
+/**
+ * Resolves which repository method and which application method issued the statement running on this thread.
+ */
+public final class SqlCallerContext {
+
+    private static final String APPLICATION_PACKAGE = "gabriel.moraes.school.";
+    private static final String MONITORING_PACKAGE = SqlCallerContext.class.getPackageName() + ".";
+    private static final ThreadLocal<String> CURRENT_REPOSITORY_METHOD = new ThreadLocal<>();
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private SqlCallerContext() {
+    }
+
+    static String enterRepository(String repositoryMethod) {
+        String previous = CURRENT_REPOSITORY_METHOD.get();
+        CURRENT_REPOSITORY_METHOD.set(repositoryMethod);
+        return previous;
+    }
+
+    static void exitRepository(String previous) {
+        if (previous == null) {
+            CURRENT_REPOSITORY_METHOD.remove();
+        } else {
+            CURRENT_REPOSITORY_METHOD.set(previous);
+        }
+    }
+
+    public static String currentRepositoryMethod() {
+        return CURRENT_REPOSITORY_METHOD.get();
+    }
+
+    public static String currentRepository() {
+        return repositoryOf(CURRENT_REPOSITORY_METHOD.get());
+    }
+
+    static String repositoryOf(String repositoryMethod) {
+        if (repositoryMethod == null) {
+            return null;
+        }
+        int dot = repositoryMethod.indexOf('.');
+        return dot < 0 ? repositoryMethod : repositoryMethod.substring(0, dot);
+    }
+
+    public static String currentApplicationMethod() {
+        Optional<StackWalker.StackFrame> frame = STACK_WALKER.walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith(APPLICATION_PACKAGE))
+                .filter(f -> !f.getClassName().startsWith(MONITORING_PACKAGE))
+                .filter(f -> !f.getClassName().contains("$$"))
+                .findFirst());
+        return frame.map(f -> f.getClassName().substring(f.getClassName().lastIndexOf('.') + 1) + "." + f.getMethodName())
+                .orElse(null);
+    }
+}
@@ -0,0 +1,37 @@
+package gabriel.moraes.school.monitoring;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the data source in a {@link TracingDataSource} and tracks repository calls whenever a feature needs the
+ * statement events: SQL tracing or the database metrics.
+ */
+@Configuration
+@ConditionalOnExpression("${school.sql-trace.enabled:false} or ${school.db-metrics.enabled:false}")
+public class SqlInstrumentationConfig {
+
+    @Bean
+    public static BeanPostProcessor tracingDataSourcePostProcessor(ObjectProvider<SqlStatementListener> listeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                        && !(bean instanceof TracingDataSource)) {
+                    return new TracingDataSource(dataSource, listeners);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public static RepositoryInvocationTracker repositoryInvocationTracker() {
+        return new RepositoryInvocationTracker();
+    }
+}
@@ -0,0 +1,17 @@
+package gabriel.moraes.school.monitoring;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SqlStatementEvent {
+
+    private final String sql;
+    private final SqlStatementKind kind;
+    private final long elapsedNanos;
+    private final long rowCount;
+    private final int batchSize;
+    private final String caller;
+    private final String repository;
+}
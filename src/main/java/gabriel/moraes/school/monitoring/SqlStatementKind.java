@@ -0,0 +1,7 @@
+package gabriel.moraes.school.monitoring;
+
+public enum SqlStatementKind {
+    QUERY,
+    UPDATE,
+    BATCH
+}
@@ -0,0 +1,6 @@
+package gabriel.moraes.school.monitoring;
+
+public interface SqlStatementListener {
+
+    void afterStatement(SqlStatementEvent event);
+}
@@ -0,0 +1,28 @@
+package gabriel.moraes.school.monitoring;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(SqlTraceProperties.class)
+@ConditionalOnProperty(prefix = "school.sql-trace", name = "enabled", havingValue = "true")
+public class SqlTraceConfig {
+
+    @Bean
+    public SqlTraceContext sqlTraceContext() {
+        return new SqlTraceContext();
+    }
+
+    @Bean
+    public SlowQueryLogger slowQueryLogger(SqlTraceProperties properties) {
+        return new SlowQueryLogger(properties.getSlowThreshold());
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlTraceFilter> sqlTraceFilter() {
+        return new FilterRegistrationBean<>(new SqlTraceFilter());
+    }
+}
@@ -0,0 +1,42 @@
+package gabriel.moraes.school.monitoring;
+
+public final class SqlTraceContext implements SqlStatementListener {
+
+    private static final ThreadLocal<Summary> CURRENT = new ThreadLocal<>();
+
+    public static void begin() {
+        CURRENT.set(new Summary());
+    }
+
+    public static Summary end() {
+        Summary summary = CURRENT.get();
+        CURRENT.remove();
+        return summary;
+    }
+
+    public static Summary current() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public void afterStatement(SqlStatementEvent event) {
+        Summary summary = CURRENT.get();
+        if (summary != null) {
+            summary.queryCount++;
+            summary.totalNanos += event.getElapsedNanos();
+        }
+    }
+
+    public static final class Summary {
+        private int queryCount;
+        private long totalNanos;
+
+        public int getQueryCount() {
+            return queryCount;
+        }
+
+        public long getTotalMillis() {
+            return totalNanos / 1_000_000;
+        }
+    }
+}
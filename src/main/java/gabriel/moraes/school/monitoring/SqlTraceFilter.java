@@ -0,0 +1,31 @@
+package gabriel.moraes.school.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+public class SqlTraceFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlTraceFilter.class);
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlTraceContext.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlTraceContext.Summary summary = SqlTraceContext.end();
+            if (log.isDebugEnabled()) {
+                log.debug("{} {}: {} queries, {} ms in database", request.getMethod(), request.getRequestURI(),
+                        summary.getQueryCount(), summary.getTotalMillis());
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package gabriel.moraes.school.monitoring;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "school.sql-trace")
+public class SqlTraceProperties {
+
+    private boolean enabled;
+    private Duration slowThreshold = Duration.ofMillis(200);
+    private boolean responseHeaders;
+}
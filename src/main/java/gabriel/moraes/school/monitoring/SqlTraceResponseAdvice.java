@@ -0,0 +1,38 @@
+package gabriel.moraes.school.monitoring;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the SQL summary of the request to the response headers just before the body is written.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(prefix = "school.sql-trace", name = {"enabled", "response-headers"}, havingValue = "true")
+public class SqlTraceResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String QUERY_COUNT_HEADER = "X-Sql-Query-Count";
+    public static final String QUERY_TIME_HEADER = "X-Sql-Time-Ms";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlTraceContext.Summary summary = SqlTraceContext.current();
+        if (summary != null) {
+            response.getHeaders().set(QUERY_COUNT_HEADER, String.valueOf(summary.getQueryCount()));
+            response.getHeaders().set(QUERY_TIME_HEADER, String.valueOf(summary.getTotalMillis()));
+        }
+        return body;
+    }
+}
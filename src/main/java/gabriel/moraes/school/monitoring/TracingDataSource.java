@@ -0,0 +1,178 @@
+package gabriel.moraes.school.monitoring;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Arrays;
+
+/**
+ * Wraps connections, statements and result sets in JDK proxies that time every execution and report it to the
+ * registered {@link SqlStatementListener}s. Query events are published when their result set is closed so the
+ * number of rows actually read is known.
+ */
+public class TracingDataSource extends DelegatingDataSource {
+
+    private final ObjectProvider<SqlStatementListener> listeners;
+
+    public TracingDataSource(DataSource target, ObjectProvider<SqlStatementListener> listeners) {
+        super(target);
+        this.listeners = listeners;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection(username, password)));
+    }
+
+    private void publish(String sql, SqlStatementKind kind, long elapsedNanos, long rowCount, int batchSize,
+                         String caller, String repository) {
+        SqlStatementEvent event =
+                new SqlStatementEvent(sql, kind, elapsedNanos, rowCount, batchSize, caller, repository);
+        listeners.orderedStream().forEach(listener -> listener.afterStatement(event));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(TracingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("unwrap") || method.getName().equals("isWrapperFor")) {
+                return TracingDataSource.invoke(target, method, args);
+            }
+            Object result = TracingDataSource.invoke(target, method, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+            return switch (method.getName()) {
+                case "createStatement" -> proxy(Statement.class, new StatementHandler((Statement) result, sql));
+                case "prepareStatement" ->
+                        proxy(PreparedStatement.class, new StatementHandler((Statement) result, sql));
+                case "prepareCall" -> proxy(CallableStatement.class, new StatementHandler((Statement) result, sql));
+                default -> result;
+            };
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private String sql;
+        private int batchSize;
+        private ResultSetHandler openResultSet;
+
+        private StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("addBatch")) {
+                batchSize++;
+                if (args != null && args.length == 1 && sql == null) {
+                    sql = (String) args[0];
+                }
+                return TracingDataSource.invoke(target, method, args);
+            }
+            if (name.equals("close") && openResultSet != null) {
+                openResultSet.publishOnce();
+            }
+            if (!name.startsWith("execute")) {
+                return TracingDataSource.invoke(target, method, args);
+            }
+
+            String statementSql = args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+            String caller = SqlCallerContext.currentApplicationMethod();
+            String repository = SqlCallerContext.currentRepositoryMethod();
+            long start = System.nanoTime();
+            Object result = TracingDataSource.invoke(target, method, args);
+            long elapsed = System.nanoTime() - start;
+
+            if (result instanceof ResultSet resultSet) {
+                openResultSet = new ResultSetHandler(resultSet, statementSql, elapsed, caller, repository);
+                return proxy(ResultSet.class, openResultSet);
+            }
+            if (result instanceof int[] counts) {
+                publish(statementSql, SqlStatementKind.BATCH, elapsed,
+                        Arrays.stream(counts).filter(c -> c > 0).asLongStream().sum(), counts.length,
+                        caller, repository);
+                batchSize = 0;
+            } else if (result instanceof long[] counts) {
+                publish(statementSql, SqlStatementKind.BATCH, elapsed, Arrays.stream(counts).filter(c -> c > 0).sum(),
+                        counts.length, caller, repository);
+                batchSize = 0;
+            } else if (result instanceof Number count) {
+                publish(statementSql, SqlStatementKind.UPDATE, elapsed, count.longValue(), 1, caller, repository);
+            } else {
+                publish(statementSql, SqlStatementKind.UPDATE, elapsed, Math.max(target.getUpdateCount(), 0), 1,
+                        caller, repository);
+            }
+            return result;
+        }
+    }
+
+    private final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+        private final String sql;
+        private final long executionNanos;
+        private final String caller;
+        private final String repository;
+        private long rows;
+        private boolean published;
+
+        private ResultSetHandler(ResultSet target, String sql, long executionNanos, String caller, String repository) {
+            this.target = target;
+            this.sql = sql;
+            this.executionNanos = executionNanos;
+            this.caller = caller;
+            this.repository = repository;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = TracingDataSource.invoke(target, method, args);
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                rows++;
+            } else if (method.getName().equals("close")) {
+                publishOnce();
+            }
+            return result;
+        }
+
+        private void publishOnce() {
+            if (!published) {
+                published = true;
+                publish(sql, SqlStatementKind.QUERY, executionNanos, rows, 1, caller, repository);
+            }
+        }
+    }
+}
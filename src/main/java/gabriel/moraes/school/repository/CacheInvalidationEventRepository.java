@@ -0,0 +1,23 @@
+package gabriel.moraes.school.repository;
+
+import gabriel.moraes.school.Model.CacheInvalidationEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface CacheInvalidationEventRepository extends JpaRepository<CacheInvalidationEvent, Long> {
+
+    List<CacheInvalidationEvent> findByCreatedAtAfterOrderByIdAsc(Instant createdAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from CacheInvalidationEvent e where e.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,26 @@
+package gabriel.moraes.school.repository;
+
+import gabriel.moraes.school.Model.ClassRoomChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ClassRoomChangeRepository extends JpaRepository<ClassRoomChange, Long> {
+
+    Optional<ClassRoomChange> findTopByChangedAtBeforeOrderByIdDesc(Instant horizon);
+
+    List<ClassRoomChange> findByIdGreaterThanAndChangedAtBeforeOrderByIdAsc(Long id, Instant horizon, Pageable pageable);
+
+    @Query("select c.id from ClassRoomChange c where c.id > :id")
+    List<Long> findIdsGreaterThan(@Param("id") Long id);
+
+    List<ClassRoomChange> findByClassRoomIdAndIdGreaterThanAndChangedAtBeforeOrderByIdAsc(Long classRoomId, Long id,
+                                                                                          Instant horizon, Pageable pageable);
+}
@@ -1,9 +1,78 @@
 package gabriel.moraes.school.repository;
 
 import gabriel.moraes.school.Model.ClassRoom;
+import gabriel.moraes.school.Model.ClassStatus;
+import gabriel.moraes.school.Model.DtoResponse.RosterEntryDtoResponse;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface ClassRoomRepository extends JpaRepository<ClassRoom, Long> {
+
+    String ROSTER_SELECT = "select new gabriel.moraes.school.Model.DtoResponse.RosterEntryDtoResponse(" +
+            "c.id, c.name, c.status, s.id, s.firstName, s.lastName, s.email, sq.id, sq.name) " +
+            "from ClassRoom c left join c.students s left join s.squad sq ";
+    String ROSTER_ORDER = " order by c.id, s.lastName, s.firstName, s.id";
+
+    @Query("select c.id from ClassRoom c where c.status = :status " +
+            "and size(c.students) between :minStudents and :maxStudents order by c.id")
+    List<Long> findIdsByStatusAndStudentCountBetween(@Param("status") ClassStatus status,
+                                                     @Param("minStudents") int minStudents,
+                                                     @Param("maxStudents") int maxStudents,
+                                                     Pageable pageable);
+
+    @Query("select c.id from ClassRoom c where c.status = :status and size(c.students) < :maxStudents " +
+            "and exists (select w.id from WaitlistEntry w where w.classRoomId = c.id) order by c.id")
+    List<Long> findIdsByStatusWithWaitlistAndStudentCountBelow(@Param("status") ClassStatus status,
+                                                              @Param("maxStudents") int maxStudents,
+                                                              Pageable pageable);
+
+    @Query("select c.id from ClassRoom c")
+    List<Long> findAllIds();
+
+    @Query("select c.id from ClassRoom c where c.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // a locking read sees the latest committed rows, not the snapshot of the transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from ClassRoom c where c.id in :ids order by c.id")
+    List<ClassRoom> lockAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select c.id as id, c.status as status, size(c.students) as students, size(c.squads) as squads " +
+            "from ClassRoom c")
+    List<ClassRoomSummary> findSummaries();
+
+    // one row per student, or one row without a student for an empty class; must be consumed in a transaction
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query(ROSTER_SELECT + "where (:status is null or c.status = :status)" + ROSTER_ORDER)
+    Stream<RosterEntryDtoResponse> streamRoster(@Param("status") ClassStatus status);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query(ROSTER_SELECT + "where c.id in :ids and (:status is null or c.status = :status)" + ROSTER_ORDER)
+    Stream<RosterEntryDtoResponse> streamRosterByIdIn(@Param("ids") Collection<Long> ids,
+                                                      @Param("status") ClassStatus status);
+
+    interface ClassRoomSummary {
+        Long getId();
+
+        ClassStatus getStatus();
+
+        Integer getStudents();
+
+        Integer getSquads();
+    }
 }
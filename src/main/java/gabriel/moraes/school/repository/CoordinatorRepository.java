@@ -1,10 +1,9 @@
 package gabriel.moraes.school.repository;
 
 import gabriel.moraes.school.Model.Coordinator;
-import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface CoordinatorRepository extends JpaRepository<Coordinator, Long> {
+public interface CoordinatorRepository extends StaffRepository<Coordinator> {
 
 }
\ No newline at end of file
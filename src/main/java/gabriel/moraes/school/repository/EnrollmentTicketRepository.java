@@ -0,0 +1,33 @@
+package gabriel.moraes.school.repository;
+
+import gabriel.moraes.school.Model.EnrollmentStatus;
+import gabriel.moraes.school.Model.EnrollmentTicket;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EnrollmentTicketRepository extends JpaRepository<EnrollmentTicket, Long> {
+
+    List<EnrollmentTicket> findByClassRoomIdAndStatusOrderByIdAsc(Long classRoomId, EnrollmentStatus status,
+                                                                  Pageable pageable);
+
+    Optional<EnrollmentTicket> findByIdAndClassRoomId(Long id, Long classRoomId);
+
+    @Query("select distinct t.classRoomId from EnrollmentTicket t where t.status = :status and t.createdAt < :before")
+    List<Long> findClassRoomIdsByStatusCreatedBefore(@Param("status") EnrollmentStatus status,
+                                                     @Param("before") Instant before);
+
+    @Transactional
+    @Modifying
+    @Query("delete from EnrollmentTicket t where t.completedAt < :cutoff")
+    int deleteCompletedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -1,9 +1,8 @@
 package gabriel.moraes.school.repository;
 
 import gabriel.moraes.school.Model.Instructor;
-import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface InstructorRepository extends JpaRepository<Instructor, Long> {
+public interface InstructorRepository extends StaffRepository<Instructor> {
 }
@@ -0,0 +1,24 @@
+package gabriel.moraes.school.repository;
+
+import gabriel.moraes.school.Model.LeaseLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface LeaseLockRepository extends JpaRepository<LeaseLock, String> {
+
+    @Modifying
+    @Query("update LeaseLock l set l.owner = :owner, l.lockedUntil = :lockedUntil " +
+            "where l.name = :name and (l.lockedUntil < :now or l.owner = :owner)")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+                @Param("lockedUntil") Instant lockedUntil, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update LeaseLock l set l.lockedUntil = :now where l.name = :name and l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now);
+}
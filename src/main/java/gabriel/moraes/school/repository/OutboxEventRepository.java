@@ -0,0 +1,43 @@
+package gabriel.moraes.school.repository;
+
+import gabriel.moraes.school.Model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    List<OutboxEvent> findByDispatchedAtIsNullAndParkedAtIsNullOrderByIdAsc(Pageable pageable);
+
+    Optional<OutboxEvent> findFirstByDispatchedAtIsNullAndParkedAtIsNullOrderByIdAsc();
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.dispatchedAt = :dispatchedAt where e.id in :ids")
+    int markDispatched(@Param("ids") List<Long> ids, @Param("dispatchedAt") Instant dispatchedAt);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.attempts = e.attempts + 1, e.lastError = :error where e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.attempts = e.attempts + 1, e.lastError = :error, e.parkedAt = :parkedAt "
+            + "where e.id = :id")
+    int markParked(@Param("id") Long id, @Param("error") String error, @Param("parkedAt") Instant parkedAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxEvent e where e.dispatchedAt < :cutoff")
+    int deleteDispatchedBefore(@Param("cutoff") Instant cutoff);
+}
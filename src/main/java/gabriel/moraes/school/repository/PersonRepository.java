@@ -0,0 +1,28 @@
+package gabriel.moraes.school.repository;
+
+import gabriel.moraes.school.Model.Person;
+import gabriel.moraes.school.Model.PersonRole;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PersonRepository extends JpaRepository<Person, Long> {
+
+    @Query("select p from Person p where (:role is null or p.role = :role) order by p.lastName, p.firstName, p.id")
+    Slice<Person> findByRoleInDirectoryOrder(@Param("role") PersonRole role, Pageable pageable);
+
+    // One prefix range scan per indexed column instead of an OR that no single index can serve. LIKE escapes with a
+    // backslash by default on MySQL and H2, so the escaped prefix needs no ESCAPE clause.
+    @Query(nativeQuery = true, value = "select p.* from ("
+            + "select id from person where email like :prefix "
+            + "union select id from person where first_name like :prefix "
+            + "union select id from person where last_name like :prefix) matched "
+            + "join person p on p.id = matched.id "
+            + "where p.deleted_at is null and (:role is null or p.role = :role) "
+            + "order by p.last_name, p.first_name, p.id")
+    Slice<Person> searchByPrefix(@Param("role") String role, @Param("prefix") String prefix, Pageable pageable);
+}
@@ -1,9 +1,8 @@
 package gabriel.moraes.school.repository;
 
 import gabriel.moraes.school.Model.ScrumMaster;
-import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ScrumMasterRepository extends JpaRepository<ScrumMaster, Long> {
+public interface ScrumMasterRepository extends StaffRepository<ScrumMaster> {
 }
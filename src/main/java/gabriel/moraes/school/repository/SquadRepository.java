@@ -2,7 +2,28 @@ package gabriel.moraes.school.repository;
 
 import gabriel.moraes.school.Model.Squad;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface SquadRepository extends JpaRepository<Squad, Long> {
+
+    @Query("select s.id as id, s.classRoom.id as classRoomId from Squad s")
+    List<SquadPlacement> findPlacements();
+
+    @Query("select s.id as id, s.classRoom.id as classRoomId from Squad s where s.id in :ids")
+    List<SquadPlacement> findPlacementsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select s.id as id, s.classRoom.id as classRoomId from Squad s where s.classRoom.id in :classRoomIds")
+    List<SquadPlacement> findPlacementsByClassRoomIdIn(@Param("classRoomIds") Collection<Long> classRoomIds);
+
+    interface SquadPlacement {
+        Long getId();
+
+        Long getClassRoomId();
+    }
 }
@@ -0,0 +1,25 @@
+package gabriel.moraes.school.repository;
+
+import gabriel.moraes.school.Model.Person;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lookups of coordinators, instructors and scrum masters by the id they have now or the one they had before all roles
+ * moved into the person table. The migration put every staff id above every old id, so the two never clash.
+ */
+@NoRepositoryBean
+public interface StaffRepository<T extends Person> extends JpaRepository<T, Long> {
+
+    @Query("select p from #{#entityName} p where p.id = :id or p.legacyId = :id")
+    Optional<T> findByIdOrLegacyId(@Param("id") Long id);
+
+    @Query("select p from #{#entityName} p where p.id in :ids or p.legacyId in :ids")
+    List<T> findAllByIdOrLegacyIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -1,9 +1,60 @@
 package gabriel.moraes.school.repository;
 
 import gabriel.moraes.school.Model.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
+
+    String MEMBERSHIP_SELECT =
+            "select s.id as id, s.classRoom.id as classRoomId, s.squad.id as squadId from Student s ";
+
+    @Query(MEMBERSHIP_SELECT + "where s.id in :ids")
+    List<StudentMembership> findMembershipsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(MEMBERSHIP_SELECT + "where s.classRoom.id in :classRoomIds")
+    List<StudentMembership> findMembershipsByClassRoomIdIn(@Param("classRoomIds") Collection<Long> classRoomIds);
+
+    // must be consumed in a transaction
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query(MEMBERSHIP_SELECT)
+    Stream<StudentMembership> streamMemberships();
+
+    long countByClassRoomIsNull();
+
+    @Modifying
+    @Query("update Student s set s.deletedAt = :deletedAt, s.classRoom = null, s.squad = null " +
+            "where s.id in :ids and s.deletedAt is null")
+    int softDeleteByIdIn(@Param("ids") Collection<Long> ids, @Param("deletedAt") Instant deletedAt);
+
+    // native: the entity queries never see deleted rows
+    @Query(value = "select id from person where role = 'STUDENT' and deleted_at < :cutoff order by deleted_at, id " +
+            "limit :limit", nativeQuery = true)
+    List<Long> findIdsDeletedBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "delete from person where role = 'STUDENT' and deleted_at is not null and id in (:ids)",
+            nativeQuery = true)
+    int purgeByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface StudentMembership {
+        Long getId();
+
+        Long getClassRoomId();
+
+        Long getSquadId();
+    }
 }
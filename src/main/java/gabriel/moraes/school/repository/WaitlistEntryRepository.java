@@ -0,0 +1,42 @@
+package gabriel.moraes.school.repository;
+
+import gabriel.moraes.school.Model.ClassStatus;
+import gabriel.moraes.school.Model.WaitlistEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    boolean existsByClassRoomId(Long classRoomId);
+
+    long countByClassRoomId(Long classRoomId);
+
+    long countByClassRoomIdAndIdLessThanEqual(Long classRoomId, Long id);
+
+    List<WaitlistEntry> findByClassRoomIdOrderByIdAsc(Long classRoomId, Pageable pageable);
+
+    List<WaitlistEntry> findByClassRoomIdAndStudentIdIn(Long classRoomId, Collection<Long> studentIds);
+
+    Optional<WaitlistEntry> findByClassRoomIdAndStudentId(Long classRoomId, Long studentId);
+
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.studentId in :studentIds")
+    int deleteByStudentIdIn(@Param("studentIds") Collection<Long> studentIds);
+
+    // once a class leaves WAITING nobody can be promoted into it anymore
+    @Transactional
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.classRoomId not in " +
+            "(select c.id from ClassRoom c where c.status = :status)")
+    int deleteForClassesNotIn(@Param("status") ClassStatus status);
+}
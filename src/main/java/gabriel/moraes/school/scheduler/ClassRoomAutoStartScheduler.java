@@ -0,0 +1,76 @@
+package gabriel.moraes.school.scheduler;
+
+import gabriel.moraes.school.config.RunOnEachShard;
+import gabriel.moraes.school.service.ClassRoomService;
+import gabriel.moraes.school.service.LeaseLockService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConditionalOnProperty(prefix = "school.auto-start", name = "enabled", havingValue = "true")
+public class ClassRoomAutoStartScheduler {
+
+    static final String LOCK_NAME = "classroom-auto-start";
+
+    private static final Logger log = LoggerFactory.getLogger(ClassRoomAutoStartScheduler.class);
+
+    private final ClassRoomService classRoomService;
+    private final LeaseLockService leaseLockService;
+    private final int batchSize;
+    private final Duration lease;
+    private final Timer runTimer;
+    private final DistributionSummary startedPerRun;
+
+    public ClassRoomAutoStartScheduler(ClassRoomService classRoomService, LeaseLockService leaseLockService,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${school.auto-start.batch-size:100}") int batchSize,
+                                       @Value("${school.auto-start.lease:PT5M}") Duration lease) {
+        this.classRoomService = classRoomService;
+        this.leaseLockService = leaseLockService;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.runTimer = Timer.builder("school.classroom.auto-start.duration")
+                .description("Duration of each auto-start run")
+                .register(meterRegistry);
+        this.startedPerRun = DistributionSummary.builder("school.classroom.auto-start.started")
+                .description("Classes started by each auto-start run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${school.auto-start.fixed-delay:PT1M}",
+            initialDelayString = "${school.auto-start.initial-delay:PT1M}")
+    @RunOnEachShard
+    public void startReadyClasses() {
+        if (!leaseLockService.tryAcquire(LOCK_NAME, lease)) {
+            return;
+        }
+        try {
+            int total = runTimer.record(this::startInBatches);
+            startedPerRun.record(total);
+            if (total > 0) {
+                log.info("Auto-started {} classes", total);
+            }
+        } finally {
+            leaseLockService.release(LOCK_NAME);
+        }
+    }
+
+    private int startInBatches() {
+        int total = 0;
+        int started;
+        do {
+            started = classRoomService.startReadyClasses(batchSize);
+            total += started;
+        } while (started == batchSize);
+        return total;
+    }
+}
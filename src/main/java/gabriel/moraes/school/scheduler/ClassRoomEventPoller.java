@@ -0,0 +1,45 @@
+package gabriel.moraes.school.scheduler;
+
+import gabriel.moraes.school.Model.DtoResponse.ChangeFeedDtoResponse;
+import gabriel.moraes.school.event.ClassRoomEventBroadcaster;
+import gabriel.moraes.school.service.ChangeFeedService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tails the change feed on every node, so a subscriber receives the same events whichever node it is connected to.
+ */
+@Component
+@ConditionalOnProperty(prefix = "school.events", name = "enabled", havingValue = "true")
+public class ClassRoomEventPoller {
+
+    private final ChangeFeedService changeFeedService;
+    private final ClassRoomEventBroadcaster broadcaster;
+    private final int batchSize;
+
+    public ClassRoomEventPoller(ChangeFeedService changeFeedService, ClassRoomEventBroadcaster broadcaster,
+                                @Value("${school.events.batch-size:500}") int batchSize) {
+        this.changeFeedService = changeFeedService;
+        this.broadcaster = broadcaster;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${school.events.poll-interval:PT1S}")
+    public void poll() {
+        if (broadcaster.getCursor() < 0) {
+            broadcaster.startFrom(changeFeedService.settledSequence());
+        }
+        ChangeFeedDtoResponse feed;
+        do {
+            feed = changeFeedService.getChanges(broadcaster.getCursor(), batchSize);
+            broadcaster.publish(feed.getChanges());
+        } while (feed.isHasMore());
+    }
+
+    @Scheduled(fixedDelayString = "${school.events.heartbeat-interval:PT20S}")
+    public void heartbeat() {
+        broadcaster.heartbeat();
+    }
+}
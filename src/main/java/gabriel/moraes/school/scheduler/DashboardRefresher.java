@@ -0,0 +1,47 @@
+package gabriel.moraes.school.scheduler;
+
+import gabriel.moraes.school.Model.DtoResponse.ChangeFeedDtoResponse;
+import gabriel.moraes.school.service.ChangeFeedService;
+import gabriel.moraes.school.service.DashboardService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the dashboard of this node current by tailing the change feed, and rebuilds it from the database from time to
+ * time to catch whatever the feed does not carry.
+ */
+@Component
+@ConditionalOnProperty(prefix = "school.dashboard", name = "enabled", havingValue = "true")
+public class DashboardRefresher {
+
+    private final ChangeFeedService changeFeedService;
+    private final DashboardService dashboardService;
+    private final int batchSize;
+
+    public DashboardRefresher(ChangeFeedService changeFeedService, DashboardService dashboardService,
+                              @Value("${school.dashboard.batch-size:500}") int batchSize) {
+        this.changeFeedService = changeFeedService;
+        this.dashboardService = dashboardService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${school.dashboard.poll-interval:PT1S}")
+    public void poll() {
+        if (dashboardService.getCursor() < 0) {
+            dashboardService.recompute();
+        }
+        ChangeFeedDtoResponse feed;
+        do {
+            feed = changeFeedService.getChanges(dashboardService.getCursor(), batchSize);
+            dashboardService.apply(feed.getChanges());
+        } while (feed.isHasMore());
+    }
+
+    @Scheduled(fixedDelayString = "${school.dashboard.recompute-interval:PT10M}",
+            initialDelayString = "${school.dashboard.recompute-interval:PT10M}")
+    public void recompute() {
+        dashboardService.recompute();
+    }
+}
@@ -0,0 +1,63 @@
+package gabriel.moraes.school.scheduler;
+
+import gabriel.moraes.school.config.RunOnEachShard;
+import gabriel.moraes.school.service.EnrollmentQueueService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Wakes the enrollment workers of classes whose tickets stayed queued, because the node that accepted them died or
+ * its worker found the class locked, and removes completed tickets once clients had time to read them.
+ */
+@Component
+@ConditionalOnProperty(prefix = "school.enrollment-queue.sweeper", name = "enabled", havingValue = "true")
+public class EnrollmentQueueSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentQueueSweeper.class);
+
+    private final EnrollmentQueueService enrollmentQueueService;
+    private final Clock clock;
+    private final Duration staleAfter;
+    private final Duration retention;
+
+    @Autowired
+    public EnrollmentQueueSweeper(EnrollmentQueueService enrollmentQueueService,
+                                  @Value("${school.enrollment-queue.sweeper.stale-after:PT5S}") Duration staleAfter,
+                                  @Value("${school.enrollment-queue.retention:P1D}") Duration retention) {
+        this(enrollmentQueueService, Clock.systemUTC(), staleAfter, retention);
+    }
+
+    EnrollmentQueueSweeper(EnrollmentQueueService enrollmentQueueService, Clock clock, Duration staleAfter,
+                           Duration retention) {
+        this.enrollmentQueueService = enrollmentQueueService;
+        this.clock = clock;
+        this.staleAfter = staleAfter;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${school.enrollment-queue.sweeper.interval:PT5S}",
+            initialDelayString = "${school.enrollment-queue.sweeper.interval:PT5S}")
+    @RunOnEachShard
+    public void sweep() {
+        int signalled = enrollmentQueueService.signalQueuedBefore(clock.instant().minus(staleAfter));
+        if (signalled > 0) {
+            log.info("Resumed the enrollment queues of {} class rooms", signalled);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${school.enrollment-queue.sweeper.purge-interval:PT1H}",
+            initialDelayString = "${school.enrollment-queue.sweeper.purge-interval:PT1H}")
+    @RunOnEachShard
+    public void purgeCompleted() {
+        int purged = enrollmentQueueService.purgeCompletedBefore(clock.instant().minus(retention));
+        log.debug("Purged {} completed enrollment tickets", purged);
+    }
+}
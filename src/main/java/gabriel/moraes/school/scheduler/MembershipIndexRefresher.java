@@ -0,0 +1,35 @@
+package gabriel.moraes.school.scheduler;
+
+import gabriel.moraes.school.config.RunOnEachShard;
+import gabriel.moraes.school.membership.MembershipIndex;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the membership index of every shard at startup, reloads what changed on any node every refresh interval and
+ * rebuilds it from scratch from time to time, in case an invalidation was lost.
+ */
+@Component
+@ConditionalOnProperty(prefix = "school.membership", name = "enabled", havingValue = "true")
+public class MembershipIndexRefresher {
+
+    private final MembershipIndex membershipIndex;
+
+    public MembershipIndexRefresher(MembershipIndex membershipIndex) {
+        this.membershipIndex = membershipIndex;
+    }
+
+    @Scheduled(fixedDelayString = "${school.membership.rebuild-interval:PT1H}")
+    @RunOnEachShard
+    public void rebuild() {
+        membershipIndex.rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${school.membership.refresh-interval:PT1S}",
+            initialDelayString = "${school.membership.refresh-interval:PT1S}")
+    @RunOnEachShard
+    public void refresh() {
+        membershipIndex.refreshStale();
+    }
+}
@@ -0,0 +1,199 @@
+package gabriel.moraes.school.scheduler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gabriel.moraes.school.Model.OutboxEvent;
+import gabriel.moraes.school.config.RunOnEachShard;
+import gabriel.moraes.school.event.DomainEvent;
+import gabriel.moraes.school.event.DomainEventSubscriber;
+import gabriel.moraes.school.repository.OutboxEventRepository;
+import gabriel.moraes.school.service.LeaseLockService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dispatches outbox events to the {@link DomainEventSubscriber} beans. Only the node holding the relay lease
+ * dispatches, and it keeps the lease while it is alive, so committed events are delivered one at a time in id order.
+ * An event is marked dispatched only after every subscriber accepted it; a failure stops the batch and the event is
+ * retried on the next run, until it is parked after the configured number of attempts. Parked events are kept, with
+ * their last error, until someone looks at them; only dispatched events are purged. Without subscribers the relay
+ * stays idle, and {@link gabriel.moraes.school.service.DomainEventPublisher} writes no events at all.
+ */
+@Component
+@ConditionalOnProperty(prefix = "school.outbox", name = "enabled", havingValue = "true")
+public class OutboxRelay {
+
+    static final String LOCK_NAME = "outbox-relay";
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final LeaseLockService leaseLockService;
+    private final List<DomainEventSubscriber> subscribers;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration retention;
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter dispatched;
+    private final Counter failures;
+    private final Counter parked;
+    private final Timer deliveryDelay;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, LeaseLockService leaseLockService,
+                       ObjectProvider<DomainEventSubscriber> subscribers, ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry,
+                       @Value("${school.outbox.batch-size:100}") int batchSize,
+                       @Value("${school.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${school.outbox.lease:PT30S}") Duration lease,
+                       @Value("${school.outbox.retention:P7D}") Duration retention) {
+        this(outboxEventRepository, leaseLockService, subscribers.orderedStream().toList(), objectMapper,
+                meterRegistry, Clock.systemUTC(), batchSize, maxAttempts, lease, retention);
+    }
+
+    OutboxRelay(OutboxEventRepository outboxEventRepository, LeaseLockService leaseLockService,
+                List<DomainEventSubscriber> subscribers, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                Clock clock, int batchSize, int maxAttempts, Duration lease, Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.leaseLockService = leaseLockService;
+        this.subscribers = subscribers;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.retention = retention;
+        Gauge.builder("school.outbox.lag", lagMillis, lag -> lag.get() / 1000.0)
+                .description("Age of the oldest event still waiting in the outbox")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.dispatched = Counter.builder("school.outbox.dispatched")
+                .description("Outbox events delivered to all subscribers")
+                .register(meterRegistry);
+        this.failures = Counter.builder("school.outbox.failures")
+                .description("Failed outbox deliveries")
+                .register(meterRegistry);
+        this.parked = Counter.builder("school.outbox.parked")
+                .description("Outbox events given up after the maximum number of attempts")
+                .register(meterRegistry);
+        this.deliveryDelay = Timer.builder("school.outbox.delivery.delay")
+                .description("Time between writing an event to the outbox and delivering it")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${school.outbox.poll-interval:PT1S}",
+            initialDelayString = "${school.outbox.initial-delay:PT10S}")
+    @RunOnEachShard
+    public void relay() {
+        if (subscribers.isEmpty() || !leaseLockService.tryAcquire(LOCK_NAME, lease)) {
+            lagMillis.set(0);
+            return;
+        }
+        int delivered;
+        do {
+            delivered = relayBatch();
+        } while (delivered == batchSize);
+
+        lagMillis.set(outboxEventRepository.findFirstByDispatchedAtIsNullAndParkedAtIsNullOrderByIdAsc()
+                .map(oldest -> Duration.between(oldest.getCreatedAt(), clock.instant()).toMillis())
+                .orElse(0L));
+    }
+
+    @Scheduled(fixedDelayString = "${school.outbox.purge-interval:PT1H}",
+            initialDelayString = "${school.outbox.purge-interval:PT1H}")
+    @RunOnEachShard
+    public void purgeDispatched() {
+        if (leaseLockService.tryAcquire(LOCK_NAME, lease)) {
+            int purged = outboxEventRepository.deleteDispatchedBefore(clock.instant().minus(retention));
+            log.debug("Purged {} dispatched outbox events", purged);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        leaseLockService.release(LOCK_NAME);
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findByDispatchedAtIsNullAndParkedAtIsNullOrderByIdAsc(
+                PageRequest.of(0, batchSize));
+        List<Long> deliveredIds = new ArrayList<>();
+        int handled = 0;
+        try {
+            for (OutboxEvent event : batch) {
+                Delivery delivery = deliver(event);
+                if (delivery == Delivery.RETRY) {
+                    break;
+                }
+                if (delivery == Delivery.DELIVERED) {
+                    deliveredIds.add(event.getId());
+                }
+                handled++;
+            }
+        } finally {
+            if (!deliveredIds.isEmpty()) {
+                outboxEventRepository.markDispatched(deliveredIds, clock.instant());
+            }
+        }
+        return handled == batch.size() ? batch.size() : 0;
+    }
+
+    private Delivery deliver(OutboxEvent event) {
+        try {
+            DomainEvent domainEvent = new DomainEvent(event.getId(), event.getEventType(), event.getClassRoomId(),
+                    objectMapper.readValue(event.getPayload(), PAYLOAD_TYPE), event.getCreatedAt());
+            for (DomainEventSubscriber subscriber : subscribers) {
+                subscriber.onEvent(domainEvent);
+            }
+            dispatched.increment();
+            deliveryDelay.record(Duration.between(event.getCreatedAt(), clock.instant()));
+            return Delivery.DELIVERED;
+        } catch (JsonProcessingException | RuntimeException e) {
+            failures.increment();
+            if (event.getAttempts() + 1 >= maxAttempts) {
+                log.error("Parking outbox event {} after {} attempts", event.getId(), maxAttempts, e);
+                outboxEventRepository.markParked(event.getId(), describe(e), clock.instant());
+                parked.increment();
+                return Delivery.PARKED;
+            }
+            log.warn("Delivery of outbox event {} failed, will retry", event.getId(), e);
+            outboxEventRepository.markFailed(event.getId(), describe(e));
+            return Delivery.RETRY;
+        }
+    }
+
+    private static String describe(Exception e) {
+        String description = e.getClass().getSimpleName() + ": " + e.getMessage();
+        return description.length() > 255 ? description.substring(0, 255) : description;
+    }
+
+    private enum Delivery {
+        DELIVERED, PARKED, RETRY
+    }
+}
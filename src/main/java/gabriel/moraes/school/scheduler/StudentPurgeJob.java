@@ -0,0 +1,104 @@
+package gabriel.moraes.school.scheduler;
+
+import gabriel.moraes.school.config.RunOnEachShard;
+import gabriel.moraes.school.service.LeaseLockService;
+import gabriel.moraes.school.service.StudentService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Hard-deletes students that were deleted longer ago than the retention period. Each batch is its own transaction
+ * and the job pauses between batches, so purging a whole cohort never holds long locks or floods the database.
+ */
+@Component
+@ConditionalOnProperty(prefix = "school.student-purge", name = "enabled", havingValue = "true")
+public class StudentPurgeJob {
+
+    static final String LOCK_NAME = "student-purge";
+
+    private static final Logger log = LoggerFactory.getLogger(StudentPurgeJob.class);
+
+    private final StudentService studentService;
+    private final LeaseLockService leaseLockService;
+    private final Clock clock;
+    private final Duration retention;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Duration pause;
+    private final Duration lease;
+    private final Counter purged;
+
+    @Autowired
+    public StudentPurgeJob(StudentService studentService, LeaseLockService leaseLockService,
+                           MeterRegistry meterRegistry,
+                           @Value("${school.student-purge.retention:P7D}") Duration retention,
+                           @Value("${school.student-purge.batch-size:500}") int batchSize,
+                           @Value("${school.student-purge.max-batches:20}") int maxBatches,
+                           @Value("${school.student-purge.pause:PT0.5S}") Duration pause,
+                           @Value("${school.student-purge.lease:PT5M}") Duration lease) {
+        this(studentService, leaseLockService, meterRegistry, Clock.systemUTC(), retention, batchSize, maxBatches,
+                pause, lease);
+    }
+
+    StudentPurgeJob(StudentService studentService, LeaseLockService leaseLockService, MeterRegistry meterRegistry,
+                    Clock clock, Duration retention, int batchSize, int maxBatches, Duration pause, Duration lease) {
+        this.studentService = studentService;
+        this.leaseLockService = leaseLockService;
+        this.clock = clock;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.pause = pause;
+        this.lease = lease;
+        this.purged = Counter.builder("school.students.purged")
+                .description("Deleted students removed for good by the purge job")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${school.student-purge.fixed-delay:PT5M}",
+            initialDelayString = "${school.student-purge.initial-delay:PT2M}")
+    @RunOnEachShard
+    public void purge() {
+        if (!leaseLockService.tryAcquire(LOCK_NAME, lease)) {
+            return;
+        }
+        try {
+            Instant deletedBefore = clock.instant().minus(retention);
+            int total = 0;
+            for (int batch = 0; batch < maxBatches; batch++) {
+                int removed = studentService.purgeDeletedStudents(deletedBefore, batchSize);
+                purged.increment(removed);
+                total += removed;
+                if (removed < batchSize || !pause()) {
+                    break;
+                }
+            }
+            if (total > 0) {
+                log.info("Purged {} deleted students", total);
+            }
+        } finally {
+            leaseLockService.release(LOCK_NAME);
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package gabriel.moraes.school.scheduler;
+
+import gabriel.moraes.school.config.RunOnEachShard;
+import gabriel.moraes.school.service.LeaseLockService;
+import gabriel.moraes.school.service.WaitlistService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Enrolls waitlisted students as soon as seats free up in their class, one batch of classes per transaction, and
+ * drops the waitlists of classes that left the WAITING status.
+ */
+@Component
+@ConditionalOnProperty(prefix = "school.waitlist.promoter", name = "enabled", havingValue = "true")
+public class WaitlistPromoter {
+
+    static final String LOCK_NAME = "waitlist-promoter";
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistPromoter.class);
+
+    private final WaitlistService waitlistService;
+    private final LeaseLockService leaseLockService;
+    private final int batchSize;
+    private final Duration lease;
+
+    public WaitlistPromoter(WaitlistService waitlistService, LeaseLockService leaseLockService,
+                            @Value("${school.waitlist.promoter.batch-size:50}") int batchSize,
+                            @Value("${school.waitlist.promoter.lease:PT30S}") Duration lease) {
+        this.waitlistService = waitlistService;
+        this.leaseLockService = leaseLockService;
+        this.batchSize = batchSize;
+        this.lease = lease;
+    }
+
+    @Scheduled(fixedDelayString = "${school.waitlist.promoter.poll-interval:PT1S}",
+            initialDelayString = "${school.waitlist.promoter.initial-delay:PT10S}")
+    @RunOnEachShard
+    public void promote() {
+        if (!leaseLockService.tryAcquire(LOCK_NAME, lease)) {
+            return;
+        }
+        int promoted = waitlistService.promoteWaitlisted(batchSize);
+        if (promoted > 0) {
+            log.info("Enrolled {} waitlisted students", promoted);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${school.waitlist.promoter.cleanup-interval:PT10M}",
+            initialDelayString = "${school.waitlist.promoter.cleanup-interval:PT10M}")
+    @RunOnEachShard
+    public void removeClosedWaitlists() {
+        if (leaseLockService.tryAcquire(LOCK_NAME, lease)) {
+            int removed = waitlistService.removeClosedWaitlists();
+            log.debug("Removed {} waitlist entries of classes no longer waiting", removed);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package gabriel.moraes.school.service;
+
+import gabriel.moraes.school.Model.ClassRoomChange;
+import gabriel.moraes.school.Model.ClassRoomChangeType;
+import gabriel.moraes.school.Model.DtoResponse.ChangeFeedDtoResponse;
+import gabriel.moraes.school.Model.DtoResponse.ClassRoomChangeDtoResponse;
+import gabriel.moraes.school.constants.ClassRoomConstants;
+import gabriel.moraes.school.repository.ClassRoomChangeRepository;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Append-only log of roster changes, written in the same transaction as the change itself. Sequence numbers are
+ * assigned on insert but become visible on commit, so readers only see entries older than the settle delay;
+ * otherwise a client could move its cursor past an entry that is still being committed.
+ */
+@Service
+public class ChangeFeedService {
+
+    private final ClassRoomChangeRepository changeRepository;
+    private final ModelMapper mapper;
+    private final Duration settleDelay;
+    private final Clock clock;
+
+    @Autowired
+    public ChangeFeedService(ClassRoomChangeRepository changeRepository, ModelMapper mapper,
+                             @Value("${school.change-feed.settle-delay:PT5S}") Duration settleDelay) {
+        this(changeRepository, mapper, settleDelay, Clock.systemUTC());
+    }
+
+    ChangeFeedService(ClassRoomChangeRepository changeRepository, ModelMapper mapper, Duration settleDelay, Clock clock) {
+        this.changeRepository = changeRepository;
+        this.mapper = mapper;
+        this.settleDelay = settleDelay;
+        this.clock = clock;
+    }
+
+    @Transactional
+    public void record(Long classRoomId, ClassRoomChangeType changeType, Long entityId, String detail) {
+        changeRepository.save(new ClassRoomChange(classRoomId, changeType, entityId, detail, clock.instant()));
+    }
+
+    @Transactional(readOnly = true)
+    public ChangeFeedDtoResponse getChanges(long since, int limit) {
+        return toFeed(changeRepository.findByIdGreaterThanAndChangedAtBeforeOrderByIdAsc(
+                since, horizon(), page(limit)), since, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public ChangeFeedDtoResponse getChangesForClass(Long classRoomId, long since, int limit) {
+        return toFeed(changeRepository.findByClassRoomIdAndIdGreaterThanAndChangedAtBeforeOrderByIdAsc(
+                classRoomId, since, horizon(), page(limit)), since, limit);
+    }
+
+    /**
+     * Highest sequence number older than the settle delay, a cursor from which a new reader misses nothing: every
+     * entry still being committed gets a higher number and is returned once it has settled.
+     */
+    @Transactional(readOnly = true)
+    public long settledSequence() {
+        return changeRepository.findTopByChangedAtBeforeOrderByIdDesc(horizon()).map(ClassRoomChange::getId).orElse(0L);
+    }
+
+    /**
+     * Sequence numbers above the given one that are already visible to the calling transaction, settled or not.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> sequencesAfter(long sequence) {
+        return changeRepository.findIdsGreaterThan(sequence);
+    }
+
+    private Instant horizon() {
+        return clock.instant().minus(settleDelay);
+    }
+
+    private Pageable page(int limit) {
+        return PageRequest.of(0, clamp(limit) + 1);
+    }
+
+    private ChangeFeedDtoResponse toFeed(List<ClassRoomChange> changes, long since, int limit) {
+        boolean hasMore = changes.size() > clamp(limit);
+        List<ClassRoomChangeDtoResponse> page = changes.stream()
+                .limit(clamp(limit))
+                .map(change -> mapper.map(change, ClassRoomChangeDtoResponse.class))
+                .toList();
+        Long nextCursor = page.isEmpty() ? since : page.get(page.size() - 1).getId();
+        return new ChangeFeedDtoResponse(page, nextCursor, hasMore);
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, ClassRoomConstants.MAX_CHANGE_FEED_PAGE));
+    }
+}
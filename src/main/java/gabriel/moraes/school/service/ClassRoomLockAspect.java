@@ -0,0 +1,49 @@
+package gabriel.moraes.school.service;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies {@link LocksClassRoom}. Ordered just outside the transaction of the method, so the lock is taken before
+ * the transaction reads anything and released only after it committed.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class ClassRoomLockAspect {
+
+    private final ClassRoomLockService classRoomLockService;
+
+    public ClassRoomLockAspect(ClassRoomLockService classRoomLockService) {
+        this.classRoomLockService = classRoomLockService;
+    }
+
+    @Around("@annotation(gabriel.moraes.school.service.LocksClassRoom)")
+    public Object lockClassRoom(ProceedingJoinPoint call) throws Throwable {
+        if (call.getArgs().length == 0 || !(call.getArgs()[0] instanceof Long classRoomId)) {
+            throw new IllegalStateException(call.getSignature().toShortString() + " does not take a class id first");
+        }
+        try {
+            return classRoomLockService.withLock(classRoomId, () -> {
+                try {
+                    return call.proceed();
+                } catch (Throwable e) {
+                    throw new ProceedFailure(e);
+                }
+            });
+        } catch (ProceedFailure failure) {
+            throw failure.getCause();
+        }
+    }
+
+    private static final class ProceedFailure extends RuntimeException {
+
+        private ProceedFailure(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package gabriel.moraes.school.service;
+
+import gabriel.moraes.school.config.NodeIdentity;
+import gabriel.moraes.school.exception.ClassRoomBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Per-class mutual exclusion across nodes, for the changes that validate a class and then modify it. The lock is a
+ * lease lock named after the class and owned by one holder, not one node, so two requests on the same node exclude
+ * each other too. It is taken before the holder's transaction begins and released after it completes, so the next
+ * holder reads what the previous one committed, and a class stays locked for at most one lease if its node dies.
+ * A transaction must not read before it locks: under repeatable read its first read fixes the snapshot, and a
+ * lock taken later would not make it see the previous holder's changes.
+ * Under contention the caller waits briefly and then gets a {@link ClassRoomBusyException} to retry with.
+ */
+@Service
+public class ClassRoomLockService {
+
+    private final LeaseLockService leaseLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+    private final Clock clock;
+    private final Duration lease;
+    private final Duration maxWait;
+    private final Duration retryInterval;
+    private final Timer acquired;
+    private final Timer busy;
+    private final Counter conflicts;
+    private final ThreadLocal<Set<String>> heldByThread = ThreadLocal.withInitial(HashSet::new);
+
+    @Autowired
+    public ClassRoomLockService(LeaseLockService leaseLockService, PlatformTransactionManager transactionManager,
+                                NodeIdentity nodeIdentity, MeterRegistry meterRegistry,
+                                @Value("${school.class-lock.lease:PT30S}") Duration lease,
+                                @Value("${school.class-lock.max-wait:PT0.2S}") Duration maxWait,
+                                @Value("${school.class-lock.retry-interval:PT0.02S}") Duration retryInterval) {
+        this(leaseLockService, transactionManager, nodeIdentity, meterRegistry, Clock.systemUTC(), lease, maxWait,
+                retryInterval);
+    }
+
+    ClassRoomLockService(LeaseLockService leaseLockService, PlatformTransactionManager transactionManager,
+                         NodeIdentity nodeIdentity, MeterRegistry meterRegistry, Clock clock, Duration lease,
+                         Duration maxWait, Duration retryInterval) {
+        this.leaseLockService = leaseLockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nodeId = nodeIdentity.getId();
+        this.clock = clock;
+        this.lease = lease;
+        this.maxWait = maxWait;
+        this.retryInterval = retryInterval;
+        this.acquired = Timer.builder("school.classroom.lock.wait")
+                .description("Time spent waiting for a class lock, by whether it was acquired")
+                .tag("outcome", "acquired")
+                .register(meterRegistry);
+        this.busy = Timer.builder("school.classroom.lock.wait")
+                .description("Time spent waiting for a class lock, by whether it was acquired")
+                .tag("outcome", "busy")
+                .register(meterRegistry);
+        this.conflicts = Counter.builder("school.classroom.lock.conflicts")
+                .description("Attempts to lock a class that another transaction held")
+                .register(meterRegistry);
+    }
+
+    static String lockName(Long classRoomId) {
+        return "classroom:" + classRoomId;
+    }
+
+    /**
+     * Runs the action holding the lock of the class, waiting up to the configured time for another holder. Called
+     * inside a transaction, the lock is kept until that transaction completes.
+     */
+    public <T> T withLock(Long classRoomId, Supplier<T> action) {
+        String name = lockName(classRoomId);
+        Set<String> threadLocks = heldByThread.get();
+        if (threadLocks.contains(name)) {
+            return action.get();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Held held = held();
+            if (!held.names.contains(name)) {
+                acquire(classRoomId, name, held.owner);
+                held.names.add(name);
+            }
+            return action.get();
+        }
+
+        String owner = newOwner();
+        acquire(classRoomId, name, owner);
+        threadLocks.add(name);
+        try {
+            return action.get();
+        } finally {
+            threadLocks.remove(name);
+            leaseLockService.release(name, owner);
+        }
+    }
+
+    /**
+     * For batch jobs that change many classes in one transaction. Starts a transaction, locks those of the classes
+     * nobody holds without waiting, and only then runs the action with the locked classes, so it reads what their
+     * previous holders committed. The locks are released when the transaction completes. Returns 0 without running
+     * the action when every class is busy. Callers select the classes beforehand, outside any transaction.
+     */
+    public int runLockingAvailable(Collection<Long> classRoomIds, ToIntFunction<List<Long>> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Classes of a batch must be locked before its transaction reads anything");
+        }
+        Integer result = transactionTemplate.execute(status -> {
+            Held held = held();
+            List<Long> lockedIds = classRoomIds.stream()
+                    .filter(classRoomId -> tryLock(classRoomId, held))
+                    .toList();
+            return lockedIds.isEmpty() ? 0 : action.applyAsInt(lockedIds);
+        });
+        return result == null ? 0 : result;
+    }
+
+    private boolean tryLock(Long classRoomId, Held held) {
+        String name = lockName(classRoomId);
+        if (held.names.contains(name) || heldByThread.get().contains(name)) {
+            return true;
+        }
+        if (!leaseLockService.tryAcquire(name, held.owner, lease)) {
+            conflicts.increment();
+            return false;
+        }
+        held.names.add(name);
+        return true;
+    }
+
+    private void acquire(Long classRoomId, String name, String owner) {
+        Instant start = clock.instant();
+        Instant deadline = start.plus(maxWait);
+        while (!leaseLockService.tryAcquire(name, owner, lease)) {
+            conflicts.increment();
+            if (!clock.instant().isBefore(deadline) || !pause()) {
+                busy.record(Duration.between(start, clock.instant()));
+                throw new ClassRoomBusyException(
+                        "Class room " + classRoomId + " is being changed by another request, try again");
+            }
+        }
+        acquired.record(Duration.between(start, clock.instant()));
+    }
+
+    private String newOwner() {
+        return nodeId + "#" + UUID.randomUUID();
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(retryInterval.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Held held() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("A class can only be locked until completion inside a transaction");
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Held held && held.service() == this) {
+                return held;
+            }
+        }
+        Held held = new Held(newOwner());
+        TransactionSynchronizationManager.registerSynchronization(held);
+        return held;
+    }
+
+    private class Held implements TransactionSynchronization {
+
+        private final String owner;
+        private final Set<String> names = new LinkedHashSet<>();
+
+        private Held(String owner) {
+            this.owner = owner;
+        }
+
+        private ClassRoomLockService service() {
+            return ClassRoomLockService.this;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            names.forEach(name -> leaseLockService.release(name, owner));
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package gabriel.moraes.school.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import gabriel.moraes.school.Model.DtoResponse.ClassRoomDtoResponse;
+import gabriel.moraes.school.cache.CacheInvalidationBus;
+import gabriel.moraes.school.cache.CacheNames;
+import gabriel.moraes.school.config.ShardContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-flight for class reads: while one request is loading a class, identical requests wait for it and get the
+ * same serialized body instead of loading and encoding the graph again. The body is encoded by the loading request,
+ * while its persistence context is still open, so the waiters never touch the entities.
+ * <p>
+ * Encoded bodies are then kept in the class room cache, per media type, until the class is invalidated by a change
+ * on any node. A read takes the cache entry before loading, so a body loaded while the class changed goes into an
+ * entry that the invalidation has already dropped and is never served.
+ * <p>
+ * Waiters give up on a load after {@code school.cache.coalesce-max-wait} and load the class themselves, so one
+ * stalled load does not hold every read of the class.
+ */
+@Service
+public class ClassRoomReadCoalescer {
+
+    private final ClassRoomService classRoomService;
+    private final List<AbstractJackson2HttpMessageConverter> converters;
+    private final Cache classRooms;
+    private final Map<Flight, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private final Counter loaded;
+    private final Counter coalesced;
+    private final Counter cached;
+    private final Counter abandoned;
+    private final Duration maxWait;
+
+    @Autowired
+    public ClassRoomReadCoalescer(ClassRoomService classRoomService, HttpMessageConverters messageConverters,
+                                  CacheManager cacheManager, MeterRegistry meterRegistry,
+                                  @Value("${school.cache.coalesce-max-wait:PT2S}") Duration maxWait) {
+        this(classRoomService, messageConverters.getConverters(), cacheManager, meterRegistry, maxWait);
+    }
+
+    ClassRoomReadCoalescer(ClassRoomService classRoomService, List<HttpMessageConverter<?>> messageConverters,
+                           CacheManager cacheManager, MeterRegistry meterRegistry, Duration maxWait) {
+        this.classRoomService = classRoomService;
+        this.maxWait = maxWait;
+        this.classRooms = cacheManager.getCache(CacheNames.CLASS_ROOMS);
+        this.converters = messageConverters.stream()
+                .filter(AbstractJackson2HttpMessageConverter.class::isInstance)
+                .map(AbstractJackson2HttpMessageConverter.class::cast)
+                .toList();
+        this.loaded = Counter.builder("school.classroom.reads")
+                .description("Class reads by whether they were cached, loaded the class or joined a load in progress")
+                .tag("result", "loaded")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("school.classroom.reads")
+                .description("Class reads by whether they were cached, loaded the class or joined a load in progress")
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+        this.cached = Counter.builder("school.classroom.reads")
+                .description("Class reads by whether they were cached, loaded the class or joined a load in progress")
+                .tag("result", "cached")
+                .register(meterRegistry);
+        this.abandoned = Counter.builder("school.classroom.reads.abandoned")
+                .description("Class reads that stopped waiting for a slow load and loaded the class themselves")
+                .register(meterRegistry);
+        Gauge.builder("school.classroom.reads.coalescing.ratio", this, ClassRoomReadCoalescer::coalescingRatio)
+                .description("Share of class reads served by a load that was already in progress")
+                .register(meterRegistry);
+        Gauge.builder("school.classroom.reads.in.flight", inFlight, Map::size)
+                .description("Class loads currently in progress")
+                .register(meterRegistry);
+    }
+
+    public byte[] getClassById(Long id, MediaType mediaType) {
+        String shard = ShardContext.currentShard();
+        Map<MediaType, byte[]> bodies = classRooms.get(CacheInvalidationBus.key(shard, id), ConcurrentHashMap::new);
+        byte[] cachedBody = bodies.get(mediaType);
+        if (cachedBody != null) {
+            cached.increment();
+            return cachedBody;
+        }
+
+        Flight key = new Flight(shard, id, mediaType);
+        CompletableFuture<byte[]> flight = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            byte[] body = join(existing);
+            if (body != null) {
+                return body;
+            }
+            // the load is stalled: load alongside it rather than queue behind it, leaving it in flight for others
+            abandoned.increment();
+            return load(id, mediaType, bodies);
+        }
+
+        loaded.increment();
+        try {
+            byte[] body = load(id, mediaType, bodies);
+            flight.complete(body);
+            return body;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private byte[] load(Long id, MediaType mediaType, Map<MediaType, byte[]> bodies) {
+        byte[] body = encode(classRoomService.getClassById(id), mediaType);
+        bodies.put(mediaType, body);
+        return body;
+    }
+
+    private byte[] encode(ClassRoomDtoResponse classRoom, MediaType mediaType) {
+        AbstractJackson2HttpMessageConverter converter = converters.stream()
+                .filter(candidate -> candidate.canWrite(ClassRoomDtoResponse.class, mediaType))
+                .findFirst()
+                .orElseThrow(() -> new HttpMessageNotWritableException("No encoder for " + mediaType));
+        try {
+            return converter.getObjectMapper().writeValueAsBytes(classRoom);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotWritableException("Could not encode class " + classRoom.getId(), e);
+        }
+    }
+
+    private double coalescingRatio() {
+        double total = loaded.count() + coalesced.count();
+        return total == 0 ? 0 : coalesced.count() / total;
+    }
+
+    /**
+     * Waits up to the maximum wait for the load in progress, returning {@code null} if it did not finish in time.
+     */
+    private byte[] join(CompletableFuture<byte[]> flight) {
+        try {
+            return flight.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for class room load", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private record Flight(String shard, Long id, MediaType mediaType) {
+    }
+}
@@ -4,15 +4,24 @@ import gabriel.moraes.school.Model.*;
 import gabriel.moraes.school.Model.DtoRequest.AddStudentsDtoRequest;
 import gabriel.moraes.school.Model.DtoRequest.ClassRoomDtoRequest;
 import gabriel.moraes.school.Model.DtoResponse.ClassRoomDtoResponse;
+import gabriel.moraes.school.cache.CacheInvalidationBus;
+import gabriel.moraes.school.cache.CachedEntity;
+import gabriel.moraes.school.config.ReadFromPrimary;
+import gabriel.moraes.school.config.ShardContext;
 import gabriel.moraes.school.constants.ClassRoomConstants;
 import gabriel.moraes.school.exception.*;
+import gabriel.moraes.school.membership.MembershipIndex;
 import gabriel.moraes.school.repository.*;
 import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class ClassRoomService {
@@ -27,18 +36,34 @@ public class ClassRoomService {
     private final ClassRoomRepository classRoomRepository;
     private final ScrumMasterRepository scrumMasterRepository;
     private final ModelMapper mapper;
+    private final ChangeFeedService changeFeedService;
+    private final DomainEventPublisher eventPublisher;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final ClassRoomLockService classRoomLockService;
+    private final MembershipIndex membershipIndex;
+    private final WaitlistService waitlistService;
 
     public ClassRoomService(InstructorRepository instructorRepository, ModelMapper mapper,
                             ScrumMasterRepository scrumMasterRepository, StudentRepository studentRepository,
-                            CoordinatorRepository coordinatorRepository, ClassRoomRepository classRoomRepository) {
+                            CoordinatorRepository coordinatorRepository, ClassRoomRepository classRoomRepository,
+                            ChangeFeedService changeFeedService, DomainEventPublisher eventPublisher,
+                            CacheInvalidationBus cacheInvalidationBus, ClassRoomLockService classRoomLockService,
+                            MembershipIndex membershipIndex, WaitlistService waitlistService) {
         this.instructorRepository = instructorRepository;
         this.scrumMasterRepository = scrumMasterRepository;
         this.studentRepository = studentRepository;
         this.coordinatorRepository = coordinatorRepository;
         this.classRoomRepository = classRoomRepository;
         this.mapper = mapper;
+        this.changeFeedService = changeFeedService;
+        this.eventPublisher = eventPublisher;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.classRoomLockService = classRoomLockService;
+        this.membershipIndex = membershipIndex;
+        this.waitlistService = waitlistService;
     }
 
+    @ReadFromPrimary
     @Transactional(readOnly = true)
     public ClassRoomDtoResponse getClassById(Long id) {
         ClassRoom classRoom = findClassById(id);
@@ -53,30 +78,55 @@ public class ClassRoomService {
         List<Instructor> instructors = findInstructorsByIds(classDto.getInstructors());
 
         ClassRoom classRoom = new ClassRoom(classDto.getName());
+        classRoom.setProgram(ShardContext.currentProgram());
 
         classRoom.getCoordinators().addAll(coordinators);
         classRoom.getScrumMasters().addAll(scrumMasters);
         classRoom.getInstructors().addAll(instructors);
 
         ClassRoom savedClassRoom = classRoomRepository.save(classRoom);
+        changeFeedService.record(savedClassRoom.getId(), ClassRoomChangeType.CLASS_CREATED,
+                savedClassRoom.getId(), savedClassRoom.getName());
+        cacheInvalidationBus.invalidate(CachedEntity.CLASS_ROOM, savedClassRoom.getId());
+        membershipIndex.classCreated(savedClassRoom.getId());
 
         return mapper.map(savedClassRoom, ClassRoomDtoResponse.class);
     }
 
+    @LocksClassRoom
     @Transactional
-    public ClassRoomDtoResponse addStudentsToClass(Long id, AddStudentsDtoRequest addStudentsDtoRequest) {
+    public EnrollmentOutcome addStudentsToClass(Long id, AddStudentsDtoRequest addStudentsDtoRequest) {
 
         ClassRoom classRoom = findClassById(id);
+        rejectAssignedStudents(addStudentsDtoRequest.getStudents());
         List<Student> students = findStudentsByIds(addStudentsDtoRequest.getStudents());
 
-        validateStudents(classRoom.getStudents());
+        if (mustWaitlist(classRoom, students)) {
+            return EnrollmentOutcome.waitlisted(waitlistService.join(classRoom.getId(),
+                    students.stream().map(Student::getId).toList()));
+        }
+        validateStudents(classRoom, students);
 
         assignClassToStudents(students, classRoom);
 
         classRoom.getStudents().addAll(students);
         classRoomRepository.save(classRoom);
+        students.forEach(student -> changeFeedService.record(classRoom.getId(), ClassRoomChangeType.STUDENT_ENROLLED,
+                student.getId(), null));
+        eventPublisher.publish(DomainEventType.STUDENTS_ENROLLED, classRoom.getId(),
+                Map.of("studentIds", students.stream().map(Student::getId).toList()));
+        cacheInvalidationBus.invalidate(CachedEntity.CLASS_ROOM, classRoom.getId());
+        membershipIndex.studentsEnrolled(classRoom.getId(), students.stream().map(Student::getId).toList());
+
+        return EnrollmentOutcome.enrolled(mapper.map(classRoom, ClassRoomDtoResponse.class));
+    }
 
-        return mapper.map(classRoom, ClassRoomDtoResponse.class);
+    // the index knows most enrolled students, so most conflicts are refused before any student is loaded
+    private void rejectAssignedStudents(List<Long> studentIds) {
+        List<Long> assigned = membershipIndex.findAssigned(studentIds);
+        if (!assigned.isEmpty()) {
+            throw new StudentAlreadyAssignedException("Students " + assigned + " are already assigned to a class.");
+        }
     }
 
     private void assignClassToStudents(List<Student> students, ClassRoom classRoom) {
@@ -98,21 +148,18 @@ public class ClassRoomService {
     }
 
     private List<Coordinator> findCoordinatorById(List<Long> coordinatorIds) {
-        List<Coordinator> coordinators = coordinatorRepository.findAllById(coordinatorIds);
-
-        if (coordinatorIds.size() != coordinators.size()) {
-            List<Long> notFoundIds = new ArrayList<>(coordinatorIds);
-            notFoundIds.removeAll(coordinators.stream().map(Coordinator::getId).toList());
+        List<Coordinator> coordinators = coordinatorRepository.findAllByIdOrLegacyIdIn(coordinatorIds);
+        List<Long> notFoundIds = findMissingStaff(coordinatorIds, coordinators);
+        if (!notFoundIds.isEmpty()) {
             throw new ObjectNotFoundException("Coordinators not found for IDs: " + notFoundIds);
         }
         return coordinators;
     }
 
     private List<ScrumMaster> findScrumMasterById(List<Long> scrumMasterIds) {
-        List<ScrumMaster> scrumMasters = scrumMasterRepository.findAllById(scrumMasterIds);
-        if (scrumMasterIds.size() != scrumMasters.size()) {
-            List<Long> notFoundIds = new ArrayList<>(scrumMasterIds);
-            notFoundIds.removeAll(scrumMasters.stream().map(ScrumMaster::getId).toList());
+        List<ScrumMaster> scrumMasters = scrumMasterRepository.findAllByIdOrLegacyIdIn(scrumMasterIds);
+        List<Long> notFoundIds = findMissingStaff(scrumMasterIds, scrumMasters);
+        if (!notFoundIds.isEmpty()) {
             throw new ObjectNotFoundException("Scrum Masters not found for IDs: " + notFoundIds);
         }
         return scrumMasters;
@@ -122,15 +169,28 @@ public class ClassRoomService {
         if (instructorIds.size() < maxInstructors) {
             throw new MinimumInstructorsException("Requires a minimum of 3 instructors");
         }
-        List<Instructor> instructors = instructorRepository.findAllById(instructorIds);
-        if (instructorIds.size() != instructors.size()) {
-            List<Long> notFoundIds = new ArrayList<>(instructorIds);
-            notFoundIds.removeAll(instructors.stream().map(Instructor::getId).toList());
+        List<Instructor> instructors = instructorRepository.findAllByIdOrLegacyIdIn(instructorIds);
+        List<Long> notFoundIds = findMissingStaff(instructorIds, instructors);
+        if (!notFoundIds.isEmpty()) {
             throw new ObjectNotFoundException("Instructors not found for IDs: " + notFoundIds);
         }
         return instructors;
     }
 
+    // staff may still be referred to by the id they had before the person table
+    private static List<Long> findMissingStaff(List<Long> ids, List<? extends Person> found) {
+        Set<Long> knownIds = new HashSet<>();
+        for (Person person : found) {
+            knownIds.add(person.getId());
+            if (person.getLegacyId() != null) {
+                knownIds.add(person.getLegacyId());
+            }
+        }
+        return ids.stream()
+                .filter(id -> !knownIds.contains(id))
+                .toList();
+    }
+
     private List<Student> findStudentsByIds(List<Long> studentIds) {
         List<Student> students = studentRepository.findAllById(studentIds);
         if (studentIds.size() != students.size()) {
@@ -151,21 +211,43 @@ public class ClassRoomService {
         }
 
         classRoom.setStatus(ClassStatus.STARTED);
+        recordStatusChange(classRoom);
+        eventPublisher.publish(DomainEventType.CLASS_STARTED, classRoom.getId(),
+                Map.of("studentCount", studentsCount));
+    }
+
+    private void recordStatusChange(ClassRoom classRoom) {
+        changeFeedService.record(classRoom.getId(), ClassRoomChangeType.CLASS_STATUS_CHANGED,
+                classRoom.getId(), classRoom.getStatus().name());
+        cacheInvalidationBus.invalidate(CachedEntity.CLASS_ROOM, classRoom.getId());
+    }
+
+    // a full class, or one that students are already waiting for, puts newcomers on its waitlist
+    private boolean mustWaitlist(ClassRoom classRoom, List<Student> students) {
+        return classRoom.getStatus() == ClassStatus.WAITING && waitlistService.isEnabled()
+                && (isFull(classRoom, students) || waitlistService.hasWaitlist(classRoom.getId()))
+                && students.stream().allMatch(student -> student.getClassRoom() == null);
     }
 
-    private void validateStudents(List<Student> students) {
-        int studentsCount = students.size();
-        if (studentsCount >= maxStudent) {
+    private void validateStudents(ClassRoom classRoom, List<Student> students) {
+        if (isFull(classRoom, students)) {
             throw new MaximumStudentsException("A class can have a maximum of 30 students");
         }
     }
 
+    private boolean isFull(ClassRoom classRoom, List<Student> students) {
+        return classRoom.getStudents().size() + students.size() > maxStudent;
+    }
+
+    @LocksClassRoom
     @Transactional
     public void finish(Long id) {
         ClassRoom classRoom = findClassById(id);
 
         if (classRoom.getStatus() == ClassStatus.STARTED) {
             classRoom.setStatus(ClassStatus.FINISHED);
+            recordStatusChange(classRoom);
+            eventPublisher.publish(DomainEventType.CLASS_FINISHED, classRoom.getId(), Map.of());
         } else if (classRoom.getStatus() == ClassStatus.FINISHED) {
             throw new InvalidClassStatusException("Class room is already finished.");
         } else {
@@ -173,9 +255,33 @@ public class ClassRoomService {
         }
     }
 
+    @LocksClassRoom
     @Transactional
     public void startClass(Long id) {
         ClassRoom classRoom = findClassById(id);
         validateStartStatus(classRoom);
     }
+
+    // selected outside the transaction, which locks the classes before it reads their rosters
+    public int startReadyClasses(int batchSize) {
+        List<Long> readyIds = classRoomRepository.findIdsByStatusAndStudentCountBetween(
+                ClassStatus.WAITING, minStudent, maxStudent, PageRequest.of(0, batchSize));
+        if (readyIds.isEmpty()) {
+            return 0;
+        }
+
+        // classes a request is changing are skipped; the next run picks them up again if still ready
+        return classRoomLockService.runLockingAvailable(readyIds, lockedIds -> {
+            int started = 0;
+            for (ClassRoom classRoom : classRoomRepository.lockAllByIdIn(lockedIds)) {
+                try {
+                    validateStartStatus(classRoom);
+                    started++;
+                } catch (InsufficientStudentsException | InvalidClassStatusException ex) {
+                    // the class changed since it was selected; the next run will pick it up again if still ready
+                }
+            }
+            return started;
+        });
+    }
 }
\ No newline at end of file
@@ -3,9 +3,14 @@ package gabriel.moraes.school.service;
 import gabriel.moraes.school.Model.Coordinator;
 import gabriel.moraes.school.Model.DtoRequest.CoordinatorDtoRequest;
 import gabriel.moraes.school.Model.DtoResponse.CoordinatorDtoResponse;
+import gabriel.moraes.school.cache.CacheInvalidationBus;
+import gabriel.moraes.school.cache.CacheNames;
+import gabriel.moraes.school.cache.CachedEntity;
+import gabriel.moraes.school.config.ReadFromPrimary;
 import gabriel.moraes.school.exception.ObjectNotFoundException;
 import gabriel.moraes.school.repository.CoordinatorRepository;
 import org.modelmapper.ModelMapper;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,15 +22,20 @@ public class CoordinatorService {
 
     private final CoordinatorRepository coordinatorRepository;
     private final ModelMapper mapper;
+    private final CacheInvalidationBus cacheInvalidationBus;
 
-    public CoordinatorService(CoordinatorRepository coordinatorRepository, ModelMapper mapper) {
+    public CoordinatorService(CoordinatorRepository coordinatorRepository, ModelMapper mapper,
+                              CacheInvalidationBus cacheInvalidationBus) {
         this.coordinatorRepository = coordinatorRepository;
         this.mapper = mapper;
+        this.cacheInvalidationBus = cacheInvalidationBus;
     }
 
+    @Cacheable(cacheNames = CacheNames.COORDINATORS, sync = true)
+    @ReadFromPrimary
     @Transactional(readOnly = true)
     public CoordinatorDtoResponse getCoordinatorById(Long id) {
-        Coordinator coordinator = coordinatorRepository.findById(id)
+        Coordinator coordinator = coordinatorRepository.findByIdOrLegacyId(id)
                 .orElseThrow(() -> new ObjectNotFoundException("Coordinator not found with id: " + id));
 
         return mapper.map(coordinator, CoordinatorDtoResponse.class);
@@ -43,6 +53,7 @@ public class CoordinatorService {
     public CoordinatorDtoResponse save(CoordinatorDtoRequest coordinatorDtoRequest) {
         Coordinator coordinator = mapper.map(coordinatorDtoRequest, Coordinator.class);
         Coordinator coordinatorSaved = coordinatorRepository.save(coordinator);
+        cacheInvalidationBus.invalidate(CachedEntity.COORDINATOR, coordinatorSaved.getId());
         return mapper.map(coordinatorSaved, CoordinatorDtoResponse.class);
     }
 }
@@ -0,0 +1,247 @@
+package gabriel.moraes.school.service;
+
+import gabriel.moraes.school.Model.ClassRoomChangeType;
+import gabriel.moraes.school.Model.ClassStatus;
+import gabriel.moraes.school.Model.DtoResponse.ClassRoomChangeDtoResponse;
+import gabriel.moraes.school.Model.DtoResponse.DashboardDtoResponse;
+import gabriel.moraes.school.constants.ClassRoomConstants;
+import gabriel.moraes.school.repository.ClassRoomRepository;
+import gabriel.moraes.school.repository.StudentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Program-wide numbers kept in memory, so the dashboard never loads a class graph. Every node applies the change
+ * feed to its own copy; a periodic recompute rebuilds it from two grouped queries and counts any difference as drift.
+ * Students created, or deleted while outside a class, are not in the feed and only show up after a recompute.
+ * <p>
+ * A rebuild reads the counts and the feed from one snapshot and starts its cursor at the last settled change, like
+ * any feed reader. Changes above the cursor that were already visible are counted in the snapshot; they are
+ * remembered and skipped when the feed returns them, while changes committed after the snapshot are applied.
+ */
+@Service
+@ConditionalOnProperty(prefix = "school.dashboard", name = "enabled", havingValue = "true")
+public class DashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardService.class);
+
+    private final ClassRoomRepository classRoomRepository;
+    private final StudentRepository studentRepository;
+    private final ChangeFeedService changeFeedService;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final Counter drift;
+    private final Timer recomputeTimer;
+    private Aggregate aggregate;
+
+    @Autowired
+    public DashboardService(ClassRoomRepository classRoomRepository, StudentRepository studentRepository,
+                            ChangeFeedService changeFeedService, PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this(classRoomRepository, studentRepository, changeFeedService, transactionManager, meterRegistry,
+                Clock.systemUTC());
+    }
+
+    DashboardService(ClassRoomRepository classRoomRepository, StudentRepository studentRepository,
+                     ChangeFeedService changeFeedService, PlatformTransactionManager transactionManager,
+                     MeterRegistry meterRegistry, Clock clock) {
+        this.classRoomRepository = classRoomRepository;
+        this.studentRepository = studentRepository;
+        this.changeFeedService = changeFeedService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // the counts and the changes they include must come from the same snapshot
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.clock = clock;
+        this.drift = Counter.builder("school.dashboard.drift")
+                .description("Recomputes that found the incrementally maintained dashboard out of date")
+                .register(meterRegistry);
+        this.recomputeTimer = Timer.builder("school.dashboard.recompute")
+                .description("Time to rebuild the dashboard from the database")
+                .register(meterRegistry);
+    }
+
+    public DashboardDtoResponse getDashboard() {
+        synchronized (this) {
+            if (aggregate != null) {
+                return aggregate.toResponse();
+            }
+        }
+        recompute();
+        synchronized (this) {
+            return aggregate.toResponse();
+        }
+    }
+
+    /**
+     * Cursor of the last change applied, or -1 before the first recompute.
+     */
+    public synchronized long getCursor() {
+        return aggregate == null ? -1 : aggregate.cursor;
+    }
+
+    public synchronized void apply(List<ClassRoomChangeDtoResponse> changes) {
+        if (aggregate != null) {
+            changes.forEach(aggregate::apply);
+        }
+    }
+
+    /**
+     * Rebuilds the aggregate and replaces the incremental one. Both can only be compared when they stand at the same
+     * change with nothing counted beyond it, which is the case whenever the program was idle since the feed settled.
+     */
+    public void recompute() {
+        Aggregate rebuilt = recomputeTimer.record(this::load);
+        synchronized (this) {
+            if (aggregate != null && aggregate.isSettledAt(rebuilt.cursor) && rebuilt.isSettledAt(rebuilt.cursor)
+                    && !aggregate.sameCounts(rebuilt)) {
+                drift.increment();
+                log.warn("Dashboard drifted from the database at change {}, replacing it", rebuilt.cursor);
+            }
+            aggregate = rebuilt;
+        }
+    }
+
+    private Aggregate load() {
+        return transactionTemplate.execute(status -> {
+            long cursor = changeFeedService.settledSequence();
+            Aggregate loaded = new Aggregate(cursor, changeFeedService.sequencesAfter(cursor), clock.instant(),
+                    studentRepository.countByClassRoomIsNull());
+            classRoomRepository.findSummaries().forEach(summary -> loaded.classes.put(summary.getId(),
+                    new ClassSummary(summary.getStatus(), summary.getStudents(), summary.getSquads())));
+            return loaded;
+        });
+    }
+
+    private static final class Aggregate {
+
+        private final Map<Long, ClassSummary> classes = new HashMap<>();
+        // changes above the cursor that the counts already include
+        private final Set<Long> counted;
+        private final Instant recomputedAt;
+        private long cursor;
+        private long unassignedStudents;
+
+        private Aggregate(long cursor, List<Long> counted, Instant recomputedAt, long unassignedStudents) {
+            this.cursor = cursor;
+            this.counted = new HashSet<>(counted);
+            this.recomputedAt = recomputedAt;
+            this.unassignedStudents = unassignedStudents;
+        }
+
+        private boolean isSettledAt(long sequence) {
+            return cursor == sequence && counted.isEmpty();
+        }
+
+        private void apply(ClassRoomChangeDtoResponse change) {
+            if (change.getId() <= cursor) {
+                return;
+            }
+            cursor = change.getId();
+            if (counted.remove(change.getId())) {
+                return;
+            }
+            if (change.getChangeType() == ClassRoomChangeType.CLASS_CREATED) {
+                classes.putIfAbsent(change.getClassRoomId(), new ClassSummary(ClassStatus.WAITING, 0, 0));
+                return;
+            }
+            ClassSummary summary = classes.get(change.getClassRoomId());
+            if (summary == null) {
+                return;
+            }
+            switch (change.getChangeType()) {
+                case CLASS_STATUS_CHANGED -> summary.status = ClassStatus.valueOf(change.getDetail());
+                case STUDENT_ENROLLED -> {
+                    summary.students++;
+                    unassignedStudents = Math.max(0, unassignedStudents - 1);
+                }
+                // removal from a class only happens when the student is deleted
+                case STUDENT_REMOVED -> summary.students = Math.max(0, summary.students - 1);
+                case SQUAD_CREATED -> summary.squads++;
+                default -> {
+                }
+            }
+        }
+
+        private boolean sameCounts(Aggregate other) {
+            return unassignedStudents == other.unassignedStudents && classes.equals(other.classes);
+        }
+
+        private DashboardDtoResponse toResponse() {
+            Map<ClassStatus, Long> byStatus = new EnumMap<>(ClassStatus.class);
+            for (ClassStatus status : ClassStatus.values()) {
+                byStatus.put(status, 0L);
+            }
+            int open = 0;
+            int minSize = 0;
+            int maxSize = 0;
+            long openStudents = 0;
+            long openSquads = 0;
+            long readyToStart = 0;
+            long enrolled = 0;
+            long squads = 0;
+            for (ClassSummary summary : classes.values()) {
+                byStatus.merge(summary.status, 1L, Long::sum);
+                enrolled += summary.students;
+                squads += summary.squads;
+                if (summary.status == ClassStatus.FINISHED) {
+                    continue;
+                }
+                minSize = open == 0 ? summary.students : Math.min(minSize, summary.students);
+                maxSize = Math.max(maxSize, summary.students);
+                openStudents += summary.students;
+                openSquads += summary.squads;
+                open++;
+                if (summary.status == ClassStatus.WAITING && summary.students >= ClassRoomConstants.MIN_STUDENTS) {
+                    readyToStart++;
+                }
+            }
+            double averageSize = open == 0 ? 0 : (double) openStudents / open;
+            return new DashboardDtoResponse(byStatus, minSize, maxSize, averageSize,
+                    averageSize / ClassRoomConstants.MAX_STUDENTS, readyToStart, enrolled, unassignedStudents, squads,
+                    open == 0 ? 0 : (double) openSquads / open, cursor, recomputedAt);
+        }
+    }
+
+    private static final class ClassSummary {
+
+        private ClassStatus status;
+        private int students;
+        private int squads;
+
+        private ClassSummary(ClassStatus status, int students, int squads) {
+            this.status = status;
+            this.students = students;
+            this.squads = squads;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof ClassSummary summary
+                    && status == summary.status && students == summary.students && squads == summary.squads;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * status.hashCode() + students) + squads;
+        }
+    }
+}
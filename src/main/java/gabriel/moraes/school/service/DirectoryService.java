@@ -0,0 +1,110 @@
+package gabriel.moraes.school.service;
+
+import gabriel.moraes.school.Model.DtoResponse.DirectoryDtoResponse;
+import gabriel.moraes.school.Model.DtoResponse.PersonDtoResponse;
+import gabriel.moraes.school.Model.Person;
+import gabriel.moraes.school.Model.PersonRole;
+import gabriel.moraes.school.config.ShardRouter;
+import gabriel.moraes.school.constants.ClassRoomConstants;
+import gabriel.moraes.school.repository.PersonRepository;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Searches every role at once. The query is a prefix match on email, first name or last name, run as one index range
+ * scan per column whose matches are merged, and pages are slices: one query per page, no count. Without a query the
+ * directory is listed in name order. With sharding enabled every shard is searched in parallel for the people up to
+ * the end of the page, and the results are merged in directory order.
+ */
+@Service
+public class DirectoryService {
+
+    private static final Comparator<PersonDtoResponse> DIRECTORY_ORDER = Comparator
+            .comparing(PersonDtoResponse::getLastName, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(PersonDtoResponse::getFirstName, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(PersonDtoResponse::getId)
+            .thenComparing(PersonDtoResponse::getShard);
+
+    private final PersonRepository personRepository;
+    private final ModelMapper mapper;
+    private final ShardRouter shardRouter;
+
+    @Autowired
+    public DirectoryService(PersonRepository personRepository, ModelMapper mapper,
+                            ObjectProvider<ShardRouter> shardRouter) {
+        this(personRepository, mapper, shardRouter.getIfAvailable());
+    }
+
+    DirectoryService(PersonRepository personRepository, ModelMapper mapper, ShardRouter shardRouter) {
+        this.personRepository = personRepository;
+        this.mapper = mapper;
+        this.shardRouter = shardRouter;
+    }
+
+    @Transactional(readOnly = true)
+    public DirectoryDtoResponse search(String query, PersonRole role, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, ClassRoomConstants.MAX_DIRECTORY_PAGE));
+        int pageNumber = Math.max(page, 0);
+        if (shardRouter != null) {
+            return searchShards(toPrefix(query), role, pageNumber, pageSize);
+        }
+        Slice<Person> people = find(role, toPrefix(query), PageRequest.of(pageNumber, pageSize));
+
+        List<PersonDtoResponse> content = people.getContent().stream()
+                .map(person -> mapper.map(person, PersonDtoResponse.class))
+                .toList();
+        return new DirectoryDtoResponse(content, pageNumber, pageSize, people.hasNext());
+    }
+
+    private DirectoryDtoResponse searchShards(String prefix, PersonRole role, int pageNumber, int pageSize) {
+        int end = (pageNumber + 1) * pageSize;
+        Map<String, Slice<Person>> slices = shardRouter.fanOut(() ->
+                find(role, prefix, PageRequest.of(0, end)));
+
+        List<PersonDtoResponse> merged = new ArrayList<>();
+        boolean hasMore = false;
+        for (Map.Entry<String, Slice<Person>> slice : slices.entrySet()) {
+            hasMore |= slice.getValue().hasNext();
+            for (Person person : slice.getValue().getContent()) {
+                PersonDtoResponse dto = mapper.map(person, PersonDtoResponse.class);
+                dto.setShard(slice.getKey());
+                merged.add(dto);
+            }
+        }
+        merged.sort(DIRECTORY_ORDER);
+        hasMore |= merged.size() > end;
+        List<PersonDtoResponse> content = merged.stream()
+                .skip((long) pageNumber * pageSize)
+                .limit(pageSize)
+                .toList();
+        return new DirectoryDtoResponse(content, pageNumber, pageSize, hasMore);
+    }
+
+    private Slice<Person> find(PersonRole role, String prefix, Pageable pageable) {
+        if (prefix == null) {
+            return personRepository.findByRoleInDirectoryOrder(role, pageable);
+        }
+        return personRepository.searchByPrefix(role == null ? null : role.name(), prefix, pageable);
+    }
+
+    private static String toPrefix(String query) {
+        if (query == null || query.isBlank()) {
+            return null;
+        }
+        return query.trim()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+    }
+}
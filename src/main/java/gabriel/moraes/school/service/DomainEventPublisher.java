@@ -0,0 +1,62 @@
+package gabriel.moraes.school.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gabriel.moraes.school.Model.DomainEventType;
+import gabriel.moraes.school.Model.OutboxEvent;
+import gabriel.moraes.school.event.DomainEventSubscriber;
+import gabriel.moraes.school.repository.OutboxEventRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.util.Map;
+
+/**
+ * Writes domain events to the outbox in the caller's transaction. Events are only written while the outbox relay is
+ * enabled and at least one {@link DomainEventSubscriber} is there to receive them; otherwise publishing is a no-op.
+ */
+@Service
+public class DomainEventPublisher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final boolean enabled;
+
+    @Autowired
+    public DomainEventPublisher(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper,
+                                ObjectProvider<DomainEventSubscriber> subscribers,
+                                @Value("${school.outbox.enabled:false}") boolean outboxEnabled) {
+        this(outboxEventRepository, objectMapper, Clock.systemUTC(),
+                outboxEnabled && subscribers.stream().findAny().isPresent());
+    }
+
+    DomainEventPublisher(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper, Clock clock,
+                         boolean enabled) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.enabled = enabled;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(DomainEventType type, Long classRoomId, Map<String, Object> payload) {
+        if (!enabled) {
+            return;
+        }
+        outboxEventRepository.save(new OutboxEvent(type, classRoomId, toJson(payload), clock.instant()));
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Event payload is not serializable", e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package gabriel.moraes.school.service;
+
+import gabriel.moraes.school.Model.DtoResponse.ClassRoomDtoResponse;
+import gabriel.moraes.school.Model.DtoResponse.WaitlistPositionDtoResponse;
+
+import java.util.List;
+
+/**
+ * Result of adding students to a class: either they were enrolled, or the class was full and they were put on its
+ * waitlist at the given positions.
+ */
+public record EnrollmentOutcome(ClassRoomDtoResponse classRoom, List<WaitlistPositionDtoResponse> waitlistPositions) {
+
+    public static EnrollmentOutcome enrolled(ClassRoomDtoResponse classRoom) {
+        return new EnrollmentOutcome(classRoom, List.of());
+    }
+
+    public static EnrollmentOutcome waitlisted(List<WaitlistPositionDtoResponse> waitlistPositions) {
+        return new EnrollmentOutcome(null, waitlistPositions);
+    }
+
+    public boolean isWaitlisted() {
+        return classRoom == null;
+    }
+}
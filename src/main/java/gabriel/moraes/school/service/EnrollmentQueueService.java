@@ -0,0 +1,356 @@
+package gabriel.moraes.school.service;
+
+import gabriel.moraes.school.Model.*;
+import gabriel.moraes.school.Model.DtoRequest.AddStudentsDtoRequest;
+import gabriel.moraes.school.Model.DtoResponse.EnrollmentTicketDtoResponse;
+import gabriel.moraes.school.cache.CacheInvalidationBus;
+import gabriel.moraes.school.cache.CachedEntity;
+import gabriel.moraes.school.config.ShardContext;
+import gabriel.moraes.school.constants.ClassRoomConstants;
+import gabriel.moraes.school.exception.NoRegisteredStudentsException;
+import gabriel.moraes.school.exception.ObjectNotFoundException;
+import gabriel.moraes.school.exception.StudentAlreadyAssignedException;
+import gabriel.moraes.school.membership.MembershipIndex;
+import gabriel.moraes.school.repository.ClassRoomRepository;
+import gabriel.moraes.school.repository.EnrollmentTicketRepository;
+import gabriel.moraes.school.repository.StudentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous enrollment. A request is stored as a queued ticket and answered at once; a single worker per class on
+ * each node then takes the class lock and applies the queued tickets in id order, one batch per transaction, so a
+ * burst of enrollments into a hot class costs one lock and one commit per batch instead of one per request. Each
+ * ticket is accepted, rejected or waitlisted as a whole, with the rules of a synchronous enrollment applied to the
+ * class as the earlier tickets of the batch left it. Its outcome is polled through the ticket, or followed through
+ * the {@code STUDENTS_ENROLLED}, {@code ENROLLMENT_REJECTED} and {@code STUDENTS_WAITLISTED} domain events.
+ */
+@Service
+public class EnrollmentQueueService {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentQueueService.class);
+    private static final int maxStudent = ClassRoomConstants.MAX_STUDENTS;
+    private static final String WAITLISTED_REASON = "The class is full, the students were put on its waitlist";
+
+    private final EnrollmentTicketRepository ticketRepository;
+    private final ClassRoomRepository classRoomRepository;
+    private final StudentRepository studentRepository;
+    private final ChangeFeedService changeFeedService;
+    private final DomainEventPublisher eventPublisher;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final ClassRoomLockService classRoomLockService;
+    private final MembershipIndex membershipIndex;
+    private final WaitlistService waitlistService;
+    private final ModelMapper mapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor workers;
+    private final Clock clock;
+    private final int batchSize;
+    private final Map<String, Drain> drains = new ConcurrentHashMap<>();
+    private final Map<EnrollmentStatus, Counter> completed = new EnumMap<>(EnrollmentStatus.class);
+    private final Timer queueTime;
+
+    @Autowired
+    public EnrollmentQueueService(EnrollmentTicketRepository ticketRepository,
+                                  ClassRoomRepository classRoomRepository, StudentRepository studentRepository,
+                                  ChangeFeedService changeFeedService, DomainEventPublisher eventPublisher,
+                                  CacheInvalidationBus cacheInvalidationBus,
+                                  ClassRoomLockService classRoomLockService, MembershipIndex membershipIndex,
+                                  WaitlistService waitlistService, ModelMapper mapper,
+                                  PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                  @Value("${school.enrollment-queue.workers:4}") int workers,
+                                  @Value("${school.enrollment-queue.batch-size:100}") int batchSize) {
+        this(ticketRepository, classRoomRepository, studentRepository, changeFeedService, eventPublisher,
+                cacheInvalidationBus, classRoomLockService, membershipIndex, waitlistService, mapper,
+                transactionManager, meterRegistry, Executors.newFixedThreadPool(workers, new WorkerThreadFactory()),
+                Clock.systemUTC(), batchSize);
+    }
+
+    EnrollmentQueueService(EnrollmentTicketRepository ticketRepository, ClassRoomRepository classRoomRepository,
+                           StudentRepository studentRepository, ChangeFeedService changeFeedService,
+                           DomainEventPublisher eventPublisher, CacheInvalidationBus cacheInvalidationBus,
+                           ClassRoomLockService classRoomLockService, MembershipIndex membershipIndex,
+                           WaitlistService waitlistService, ModelMapper mapper,
+                           PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                           Executor workers, Clock clock, int batchSize) {
+        this.ticketRepository = ticketRepository;
+        this.classRoomRepository = classRoomRepository;
+        this.studentRepository = studentRepository;
+        this.changeFeedService = changeFeedService;
+        this.eventPublisher = eventPublisher;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.classRoomLockService = classRoomLockService;
+        this.membershipIndex = membershipIndex;
+        this.waitlistService = waitlistService;
+        this.mapper = mapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = workers;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        for (EnrollmentStatus status : EnrollmentStatus.values()) {
+            if (status != EnrollmentStatus.QUEUED) {
+                completed.put(status, Counter.builder("school.enrollment.tickets")
+                        .description("Queued enrollments completed, by outcome")
+                        .tag("outcome", status.name().toLowerCase(Locale.ROOT))
+                        .register(meterRegistry));
+            }
+        }
+        this.queueTime = Timer.builder("school.enrollment.queue.time")
+                .description("Time between queueing an enrollment and completing it")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the enrollment and wakes the worker of the class once the ticket is committed. Unknown classes and
+     * students the membership index already knows as assigned are refused right away.
+     */
+    @Transactional
+    public EnrollmentTicketDtoResponse submit(Long classRoomId, AddStudentsDtoRequest addStudentsDtoRequest) {
+        if (!classRoomRepository.existsById(classRoomId)) {
+            throw new ObjectNotFoundException("Class room not found with id: " + classRoomId);
+        }
+        List<Long> studentIds = addStudentsDtoRequest.getStudents() == null ? List.of()
+                : addStudentsDtoRequest.getStudents().stream().distinct().toList();
+        if (studentIds.isEmpty()) {
+            throw new NoRegisteredStudentsException("There are no students to enroll.");
+        }
+        List<Long> assigned = membershipIndex.findAssigned(studentIds);
+        if (!assigned.isEmpty()) {
+            throw new StudentAlreadyAssignedException("Students " + assigned + " are already assigned to a class.");
+        }
+
+        EnrollmentTicket ticket = ticketRepository.save(new EnrollmentTicket(classRoomId, studentIds, clock.instant()));
+        String shard = ShardContext.currentShard();
+        afterCommit(() -> signal(shard, classRoomId));
+        return mapper.map(ticket, EnrollmentTicketDtoResponse.class);
+    }
+
+    @Transactional(readOnly = true)
+    public EnrollmentTicketDtoResponse getTicket(Long classRoomId, Long ticketId) {
+        EnrollmentTicket ticket = ticketRepository.findByIdAndClassRoomId(ticketId, classRoomId)
+                .orElseThrow(() -> new ObjectNotFoundException(
+                        "Enrollment ticket " + ticketId + " not found for class room " + classRoomId));
+        return mapper.map(ticket, EnrollmentTicketDtoResponse.class);
+    }
+
+    /**
+     * Makes sure a worker drains the queue of the class. At most one worker runs per class and shard on this node;
+     * a signal that arrives while it runs makes it look at the queue once more before it stops.
+     */
+    public void signal(String shard, Long classRoomId) {
+        Drain drain = drains.computeIfAbsent(shard + ":" + classRoomId, key -> new Drain(shard, classRoomId));
+        if (drain.signals.getAndIncrement() > 0) {
+            return;
+        }
+        try {
+            workers.execute(() -> run(drain));
+        } catch (RejectedExecutionException ex) {
+            drain.signals.set(0);
+            log.warn("Enrollment queue of class room {} not drained, the workers are shut down", classRoomId);
+        }
+    }
+
+    /**
+     * Signals every class of the current shard with tickets queued before the given instant, for tickets whose
+     * signal was lost with the node that accepted them.
+     */
+    public int signalQueuedBefore(Instant before) {
+        List<Long> classRoomIds = ticketRepository.findClassRoomIdsByStatusCreatedBefore(EnrollmentStatus.QUEUED,
+                before);
+        classRoomIds.forEach(classRoomId -> signal(ShardContext.currentShard(), classRoomId));
+        return classRoomIds.size();
+    }
+
+    public int purgeCompletedBefore(Instant cutoff) {
+        return ticketRepository.deleteCompletedBefore(cutoff);
+    }
+
+    /**
+     * Applies the queued tickets of the class, one batch per transaction, until none are left, and returns how many
+     * were completed.
+     */
+    public int drain(Long classRoomId) {
+        int total = 0;
+        int completed;
+        do {
+            Integer batch = transactionTemplate.execute(status ->
+                    classRoomLockService.withLock(classRoomId, () -> applyBatch(classRoomId)));
+            completed = batch == null ? 0 : batch;
+            total += completed;
+        } while (completed == batchSize);
+        return total;
+    }
+
+    private int applyBatch(Long classRoomId) {
+        List<EnrollmentTicket> tickets = ticketRepository.findByClassRoomIdAndStatusOrderByIdAsc(classRoomId,
+                EnrollmentStatus.QUEUED, PageRequest.of(0, batchSize));
+        if (tickets.isEmpty()) {
+            return 0;
+        }
+        Instant now = clock.instant();
+        Optional<ClassRoom> found = classRoomRepository.findById(classRoomId);
+        if (found.isEmpty()) {
+            tickets.forEach(ticket -> reject(ticket, "Class room not found with id: " + classRoomId, now));
+            return tickets.size();
+        }
+        ClassRoom classRoom = found.get();
+
+        // one query for the whole batch; the students enrolled by an earlier ticket are seen as assigned by later ones
+        Map<Long, Student> students = studentRepository.findAllById(tickets.stream()
+                        .flatMap(ticket -> ticket.getStudentIds().stream())
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+
+        List<Long> enrolled = new ArrayList<>();
+        boolean waitlisting = waitlistService.hasWaitlist(classRoomId);
+        for (EnrollmentTicket ticket : tickets) {
+            String reason = rejectionReason(classRoom, ticket.getStudentIds(), students);
+            boolean full = classRoom.getStudents().size() + ticket.getStudentIds().size() > maxStudent;
+            // once someone is waiting, later tickets queue up behind them
+            if (reason == null && waitlistService.isEnabled() && (full || waitlisting)) {
+                waitlistService.join(classRoomId, ticket.getStudentIds());
+                complete(ticket, EnrollmentStatus.WAITLISTED, WAITLISTED_REASON, now);
+                waitlisting = true;
+                continue;
+            }
+            if (reason == null && full) {
+                reason = "A class can have a maximum of 30 students";
+            }
+            if (reason != null) {
+                reject(ticket, reason, now);
+                continue;
+            }
+            for (Long studentId : ticket.getStudentIds()) {
+                Student student = students.get(studentId);
+                student.setClassRoom(classRoom);
+                classRoom.getStudents().add(student);
+                changeFeedService.record(classRoomId, ClassRoomChangeType.STUDENT_ENROLLED, studentId, null);
+            }
+            complete(ticket, EnrollmentStatus.ACCEPTED, null, now);
+            eventPublisher.publish(DomainEventType.STUDENTS_ENROLLED, classRoomId,
+                    Map.of("studentIds", ticket.getStudentIds(), "ticketId", ticket.getId()));
+            enrolled.addAll(ticket.getStudentIds());
+        }
+
+        if (!enrolled.isEmpty()) {
+            classRoomRepository.save(classRoom);
+            cacheInvalidationBus.invalidate(CachedEntity.CLASS_ROOM, classRoomId);
+            membershipIndex.studentsEnrolled(classRoomId, enrolled);
+        }
+        return tickets.size();
+    }
+
+    private static String rejectionReason(ClassRoom classRoom, List<Long> studentIds, Map<Long, Student> students) {
+        if (classRoom.getStatus() != ClassStatus.WAITING) {
+            return "It is only possible to add new students when the class room status is in WAITING";
+        }
+        List<Long> notFoundIds = studentIds.stream().filter(id -> !students.containsKey(id)).toList();
+        if (!notFoundIds.isEmpty()) {
+            return "Students not found for IDs: " + notFoundIds;
+        }
+        List<Long> assignedIds = studentIds.stream().filter(id -> students.get(id).getClassRoom() != null).toList();
+        if (!assignedIds.isEmpty()) {
+            return "Students " + assignedIds + " are already assigned to a class.";
+        }
+        return null;
+    }
+
+    private void reject(EnrollmentTicket ticket, String reason, Instant now) {
+        complete(ticket, EnrollmentStatus.REJECTED, reason, now);
+        eventPublisher.publish(DomainEventType.ENROLLMENT_REJECTED, ticket.getClassRoomId(),
+                Map.of("studentIds", ticket.getStudentIds(), "ticketId", ticket.getId(), "reason", reason));
+    }
+
+    private void complete(EnrollmentTicket ticket, EnrollmentStatus status, String reason, Instant now) {
+        ticket.complete(status, reason, now);
+        completed.get(status).increment();
+        queueTime.record(Duration.between(ticket.getCreatedAt(), now));
+    }
+
+    private void run(Drain drain) {
+        int seen;
+        do {
+            seen = drain.signals.get();
+            try {
+                ShardContext.callOn(drain.shard, () -> drain(drain.classRoomId));
+            } catch (RuntimeException ex) {
+                // the tickets stay queued; the next signal or the sweeper picks them up again
+                log.warn("Could not drain the enrollment queue of class room {}: {}", drain.classRoomId,
+                        ex.getMessage());
+            }
+        } while (!drain.signals.compareAndSet(seen, 0));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        if (workers instanceof ExecutorService executor) {
+            executor.shutdown();
+        }
+    }
+
+    private static final class Drain {
+
+        private final String shard;
+        private final Long classRoomId;
+        private final AtomicInteger signals = new AtomicInteger();
+
+        private Drain(String shard, Long classRoomId) {
+            this.shard = shard;
+            this.classRoomId = classRoomId;
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "enrollment-worker-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -3,9 +3,14 @@ package gabriel.moraes.school.service;
 import gabriel.moraes.school.Model.DtoRequest.InstructorDtoRequest;
 import gabriel.moraes.school.Model.DtoResponse.InstructorDtoResponse;
 import gabriel.moraes.school.Model.Instructor;
+import gabriel.moraes.school.cache.CacheInvalidationBus;
+import gabriel.moraes.school.cache.CacheNames;
+import gabriel.moraes.school.cache.CachedEntity;
+import gabriel.moraes.school.config.ReadFromPrimary;
 import gabriel.moraes.school.exception.ObjectNotFoundException;
 import gabriel.moraes.school.repository.InstructorRepository;
 import org.modelmapper.ModelMapper;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,14 +22,19 @@ public class InstructorService {
 
     private final InstructorRepository instructorRepository;
     private final ModelMapper mapper;
+    private final CacheInvalidationBus cacheInvalidationBus;
 
-    public InstructorService(InstructorRepository instructorRepository, ModelMapper mapper) {
+    public InstructorService(InstructorRepository instructorRepository, ModelMapper mapper,
+                             CacheInvalidationBus cacheInvalidationBus) {
         this.instructorRepository = instructorRepository;
         this.mapper = mapper;
+        this.cacheInvalidationBus = cacheInvalidationBus;
     }
+    @Cacheable(cacheNames = CacheNames.INSTRUCTORS, sync = true)
+    @ReadFromPrimary
     @Transactional(readOnly = true)
     public InstructorDtoResponse getInstructorById(Long id) {
-        Instructor instructor = instructorRepository.findById(id)
+        Instructor instructor = instructorRepository.findByIdOrLegacyId(id)
                 .orElseThrow(() -> new ObjectNotFoundException("Instructor not found with id: " + id));
 
         return mapper.map(instructor, InstructorDtoResponse.class);
@@ -41,6 +51,7 @@ public class InstructorService {
     public InstructorDtoResponse save(InstructorDtoRequest instructorDtoRequest) {
         Instructor instructor = mapper.map(instructorDtoRequest, Instructor.class);
         Instructor instructorSaved = instructorRepository.save(instructor);
+        cacheInvalidationBus.invalidate(CachedEntity.INSTRUCTOR, instructorSaved.getId());
         return mapper.map(instructorSaved, InstructorDtoResponse.class);
     }
 }
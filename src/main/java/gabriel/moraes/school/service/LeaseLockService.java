@@ -0,0 +1,87 @@
+package gabriel.moraes.school.service;
+
+import gabriel.moraes.school.Model.LeaseLock;
+import gabriel.moraes.school.config.NodeIdentity;
+import gabriel.moraes.school.repository.LeaseLockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Cluster-wide named locks backed by the lease_lock table. A lock expires with its lease, so a crashed node
+ * blocks the others for at most one lease.
+ */
+@Service
+public class LeaseLockService {
+
+    private final LeaseLockRepository leaseLockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String owner;
+    private final Clock clock;
+
+    @Autowired
+    public LeaseLockService(LeaseLockRepository leaseLockRepository, PlatformTransactionManager transactionManager,
+                            NodeIdentity nodeIdentity) {
+        this(leaseLockRepository, transactionManager, nodeIdentity, Clock.systemUTC());
+    }
+
+    LeaseLockService(LeaseLockRepository leaseLockRepository, PlatformTransactionManager transactionManager,
+                     NodeIdentity nodeIdentity, Clock clock) {
+        this.leaseLockRepository = leaseLockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.owner = nodeIdentity.getId();
+        this.clock = clock;
+    }
+
+    public boolean tryAcquire(String name, Duration lease) {
+        return tryAcquire(name, owner, lease);
+    }
+
+    /**
+     * Acquires the lock for an owner other than this node, such as one transaction on it. Renewing is only possible
+     * for the same owner, so two owners on one node exclude each other like two nodes do.
+     */
+    public boolean tryAcquire(String name, String owner, Duration lease) {
+        Instant now = clock.instant();
+        Instant lockedUntil = now.plus(lease);
+
+        Integer updated = transactionTemplate.execute(status ->
+                leaseLockRepository.acquire(name, owner, lockedUntil, now));
+        if (updated != null && updated > 0) {
+            return true;
+        }
+
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (leaseLockRepository.existsById(name)) {
+                    return false;
+                }
+                leaseLockRepository.saveAndFlush(new LeaseLock(name, owner, lockedUntil));
+                return true;
+            }));
+        } catch (DataIntegrityViolationException ex) {
+            return false;
+        }
+    }
+
+    public void release(String name) {
+        release(name, owner);
+    }
+
+    public void release(String name, String owner) {
+        transactionTemplate.executeWithoutResult(status ->
+                leaseLockRepository.release(name, owner, clock.instant()));
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+}
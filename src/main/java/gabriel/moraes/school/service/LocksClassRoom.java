@@ -0,0 +1,17 @@
+package gabriel.moraes.school.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a change to one class that must not run on two nodes at once. The first argument of the method is the id of
+ * the class; the lock is held around the whole call, transaction included.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LocksClassRoom {
+}
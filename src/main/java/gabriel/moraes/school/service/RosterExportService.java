@@ -0,0 +1,92 @@
+package gabriel.moraes.school.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gabriel.moraes.school.Model.ClassStatus;
+import gabriel.moraes.school.Model.DtoResponse.RosterEntryDtoResponse;
+import gabriel.moraes.school.Model.RosterFormat;
+import gabriel.moraes.school.exception.ObjectNotFoundException;
+import gabriel.moraes.school.repository.ClassRoomRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes class rosters straight from one joined query to the response, row by row. Nothing but the current row is
+ * held in memory, whatever the number of classes exported.
+ */
+@Service
+public class RosterExportService {
+
+    static final String CSV_HEADER =
+            "class_id,class_name,class_status,student_id,first_name,last_name,email,squad_id,squad_name\n";
+
+    private final ClassRoomRepository classRoomRepository;
+    private final ObjectMapper objectMapper;
+
+    public RosterExportService(ClassRoomRepository classRoomRepository, ObjectMapper objectMapper) {
+        this.classRoomRepository = classRoomRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void checkClassExists(Long id) {
+        if (!classRoomRepository.existsById(id)) {
+            throw new ObjectNotFoundException("Class room not found with id: " + id);
+        }
+    }
+
+    /**
+     * Exports the given classes, or every class when no ids are given, optionally only those in one status.
+     */
+    @Transactional(readOnly = true)
+    public int export(List<Long> classRoomIds, ClassStatus status, RosterFormat format, OutputStream out)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == RosterFormat.CSV) {
+            writer.write(CSV_HEADER);
+        }
+        int rows = 0;
+        try (Stream<RosterEntryDtoResponse> roster = classRoomIds == null || classRoomIds.isEmpty()
+                ? classRoomRepository.streamRoster(status)
+                : classRoomRepository.streamRosterByIdIn(classRoomIds, status)) {
+            for (Iterator<RosterEntryDtoResponse> entries = roster.iterator(); entries.hasNext(); rows++) {
+                RosterEntryDtoResponse entry = entries.next();
+                if (format == RosterFormat.CSV) {
+                    writeCsv(writer, entry);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(entry));
+                    writer.write('\n');
+                }
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static void writeCsv(Writer writer, RosterEntryDtoResponse entry) throws IOException {
+        writer.write(String.join(",", csv(entry.getClassRoomId()), csv(entry.getClassName()),
+                csv(entry.getClassStatus()), csv(entry.getStudentId()), csv(entry.getFirstName()),
+                csv(entry.getLastName()), csv(entry.getEmail()), csv(entry.getSquadId()), csv(entry.getSquadName())));
+        writer.write('\n');
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
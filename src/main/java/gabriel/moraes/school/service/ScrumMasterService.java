@@ -3,9 +3,14 @@ package gabriel.moraes.school.service;
 import gabriel.moraes.school.Model.DtoRequest.ScrumMasterDtoRequest;
 import gabriel.moraes.school.Model.DtoResponse.ScrumMasterDtoResponse;
 import gabriel.moraes.school.Model.ScrumMaster;
+import gabriel.moraes.school.cache.CacheInvalidationBus;
+import gabriel.moraes.school.cache.CacheNames;
+import gabriel.moraes.school.cache.CachedEntity;
+import gabriel.moraes.school.config.ReadFromPrimary;
 import gabriel.moraes.school.exception.ObjectNotFoundException;
 import gabriel.moraes.school.repository.ScrumMasterRepository;
 import org.modelmapper.ModelMapper;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,14 +22,19 @@ public class ScrumMasterService {
 
     private final ScrumMasterRepository scrumMasterRepository;
     private final ModelMapper mapper;
+    private final CacheInvalidationBus cacheInvalidationBus;
 
-    public ScrumMasterService(ScrumMasterRepository scrumMasterRepository, ModelMapper mapper) {
+    public ScrumMasterService(ScrumMasterRepository scrumMasterRepository, ModelMapper mapper,
+                              CacheInvalidationBus cacheInvalidationBus) {
         this.scrumMasterRepository = scrumMasterRepository;
         this.mapper = mapper;
+        this.cacheInvalidationBus = cacheInvalidationBus;
     }
+    @Cacheable(cacheNames = CacheNames.SCRUM_MASTERS, sync = true)
+    @ReadFromPrimary
     @Transactional(readOnly = true)
     public ScrumMasterDtoResponse getScrumMasterById(Long id) {
-        ScrumMaster scrumMaster = scrumMasterRepository.findById(id)
+        ScrumMaster scrumMaster = scrumMasterRepository.findByIdOrLegacyId(id)
                 .orElseThrow(() -> new ObjectNotFoundException("Scrum Master not found with id: " + id));
 
         return mapper.map(scrumMaster, ScrumMasterDtoResponse.class);
@@ -41,6 +51,7 @@ public class ScrumMasterService {
     public ScrumMasterDtoResponse save(ScrumMasterDtoRequest scrumMasterDtoRequest) {
         ScrumMaster scrumMaster = mapper.map(scrumMasterDtoRequest, ScrumMaster.class);
         ScrumMaster scrumMasterSaved = scrumMasterRepository.save(scrumMaster);
+        cacheInvalidationBus.invalidate(CachedEntity.SCRUM_MASTER, scrumMasterSaved.getId());
         return mapper.map(scrumMasterSaved, ScrumMasterDtoResponse.class);
     }
 }
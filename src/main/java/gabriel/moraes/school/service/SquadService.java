@@ -1,13 +1,18 @@
 package gabriel.moraes.school.service;
 
 import gabriel.moraes.school.Model.ClassRoom;
+import gabriel.moraes.school.Model.ClassRoomChangeType;
 import gabriel.moraes.school.Model.ClassStatus;
+import gabriel.moraes.school.Model.DomainEventType;
 import gabriel.moraes.school.Model.DtoResponse.SquadDtoResponse;
 import gabriel.moraes.school.Model.Squad;
 import gabriel.moraes.school.Model.Student;
+import gabriel.moraes.school.cache.CacheInvalidationBus;
+import gabriel.moraes.school.cache.CachedEntity;
 import gabriel.moraes.school.exception.InvalidClassStatusException;
 import gabriel.moraes.school.exception.NoRegisteredStudentsException;
 import gabriel.moraes.school.exception.ObjectNotFoundException;
+import gabriel.moraes.school.membership.MembershipIndex;
 import gabriel.moraes.school.repository.ClassRoomRepository;
 import gabriel.moraes.school.repository.SquadRepository;
 import org.modelmapper.ModelMapper;
@@ -16,7 +21,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,20 +32,37 @@ public class SquadService {
     private final ClassRoomRepository classRoomRepository;
     private final SquadRepository squadRepository;
     private final ModelMapper mapper;
+    private final ChangeFeedService changeFeedService;
+    private final DomainEventPublisher eventPublisher;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final MembershipIndex membershipIndex;
 
     @Autowired
-    public SquadService(ClassRoomRepository classRoomRepository, SquadRepository squadRepository, ModelMapper mapper) {
+    public SquadService(ClassRoomRepository classRoomRepository, SquadRepository squadRepository, ModelMapper mapper,
+                        ChangeFeedService changeFeedService, DomainEventPublisher eventPublisher,
+                        CacheInvalidationBus cacheInvalidationBus, MembershipIndex membershipIndex) {
         this.classRoomRepository = classRoomRepository;
         this.squadRepository = squadRepository;
         this.mapper = mapper;
+        this.changeFeedService = changeFeedService;
+        this.eventPublisher = eventPublisher;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.membershipIndex = membershipIndex;
     }
 
+    @LocksClassRoom
     @Transactional
     public List<SquadDtoResponse> createSquad(Long classId) {
         ClassRoom classRoom = getClassRoomById(classId);
         List<Squad> squads = createSquadsFromClassRoom(classRoom);
         updateClassRoomWithSquads(classRoom, squads);
         setSquadForStudents(squads);
+        squads.forEach(squad -> changeFeedService.record(classId, ClassRoomChangeType.SQUAD_CREATED,
+                squad.getId(), squad.getName()));
+        eventPublisher.publish(DomainEventType.SQUADS_CREATED, classId,
+                Map.of("squadIds", squads.stream().map(Squad::getId).toList()));
+        cacheInvalidationBus.invalidate(CachedEntity.CLASS_ROOM, classId);
+        membershipIndex.squadsCreated(classId, studentIdsBySquad(squads));
         return mapSquadsToDtoResponse(squads);
     }
 
@@ -80,6 +104,11 @@ public class SquadService {
         squadToUpdate.setName(newName);
 
         Squad updatedSquad = squadRepository.save(squadToUpdate);
+        if (updatedSquad.getClassRoom() != null) {
+            changeFeedService.record(updatedSquad.getClassRoom().getId(), ClassRoomChangeType.SQUAD_RENAMED,
+                    updatedSquad.getId(), updatedSquad.getName());
+            cacheInvalidationBus.invalidate(CachedEntity.CLASS_ROOM, updatedSquad.getClassRoom().getId());
+        }
 
         return mapper.map(updatedSquad, SquadDtoResponse.class);
     }
@@ -92,6 +121,13 @@ public class SquadService {
         squads.forEach(squad -> squad.getStudents().forEach(student -> student.setSquad(squad)));
     }
 
+    private Map<Long, List<Long>> studentIdsBySquad(List<Squad> squads) {
+        Map<Long, List<Long>> studentIds = new LinkedHashMap<>();
+        squads.forEach(squad -> studentIds.put(squad.getId(),
+                squad.getStudents().stream().map(Student::getId).toList()));
+        return studentIds;
+    }
+
     private List<SquadDtoResponse> mapSquadsToDtoResponse(List<Squad> squads) {
         return squads.stream()
                 .map(squad -> mapper.map(squad, SquadDtoResponse.class))
@@ -1,15 +1,30 @@
 package gabriel.moraes.school.service;
 
+import gabriel.moraes.school.Model.ClassRoomChangeType;
 import gabriel.moraes.school.Model.DtoRequest.StudentDtoRequest;
+import gabriel.moraes.school.Model.DtoResponse.DeleteStudentsDtoResponse;
 import gabriel.moraes.school.Model.DtoResponse.StudentDtoResponse;
 import gabriel.moraes.school.Model.Student;
+import gabriel.moraes.school.cache.CacheInvalidationBus;
+import gabriel.moraes.school.cache.CacheNames;
+import gabriel.moraes.school.cache.CachedEntity;
+import gabriel.moraes.school.config.ReadFromPrimary;
 import gabriel.moraes.school.exception.ObjectNotFoundException;
+import gabriel.moraes.school.membership.MembershipIndex;
 import gabriel.moraes.school.repository.StudentRepository;
+import gabriel.moraes.school.repository.StudentRepository.StudentMembership;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,12 +32,29 @@ public class StudentService {
 
     private final StudentRepository studentRepository;
     private final ModelMapper mapper;
+    private final ChangeFeedService changeFeedService;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final MembershipIndex membershipIndex;
+    private final Clock clock;
 
-    public StudentService(StudentRepository studentRepository, ModelMapper mapper) {
+    @Autowired
+    public StudentService(StudentRepository studentRepository, ModelMapper mapper, ChangeFeedService changeFeedService,
+                          CacheInvalidationBus cacheInvalidationBus, MembershipIndex membershipIndex) {
+        this(studentRepository, mapper, changeFeedService, cacheInvalidationBus, membershipIndex, Clock.systemUTC());
+    }
+
+    StudentService(StudentRepository studentRepository, ModelMapper mapper, ChangeFeedService changeFeedService,
+                   CacheInvalidationBus cacheInvalidationBus, MembershipIndex membershipIndex, Clock clock) {
         this.studentRepository = studentRepository;
         this.mapper = mapper;
+        this.changeFeedService = changeFeedService;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.membershipIndex = membershipIndex;
+        this.clock = clock;
     }
 
+    @Cacheable(cacheNames = CacheNames.STUDENTS, sync = true)
+    @ReadFromPrimary
     @Transactional(readOnly = true)
     public StudentDtoResponse getStudentById(Long id) {
         Student student = studentRepository.findById(id)
@@ -43,13 +75,52 @@ public class StudentService {
     public StudentDtoResponse save(StudentDtoRequest studentDtoRequest) {
         Student student = mapper.map(studentDtoRequest, Student.class);
         Student studentSaved = studentRepository.save(student);
+        cacheInvalidationBus.invalidate(CachedEntity.STUDENT, studentSaved.getId());
+        membershipIndex.studentCreated(studentSaved.getId());
         return mapper.map(studentSaved, StudentDtoResponse.class);
     }
 
+    @Transactional
     public void deleteStudentById(Long id) {
-        Student student = studentRepository.findById(id)
-                        .orElseThrow(() -> new ObjectNotFoundException("Student not found"));
+        if (deleteStudents(List.of(id)).getDeleted() == 0) {
+            throw new ObjectNotFoundException("Student not found");
+        }
+    }
 
-        studentRepository.delete(student);
+    /**
+     * Marks the students deleted and takes them out of their classes and squads with one update, so class and squad
+     * rosters are right immediately. The rows themselves are removed later by the purge job.
+     */
+    @Transactional
+    public DeleteStudentsDtoResponse deleteStudents(List<Long> studentIds) {
+        Set<Long> ids = new LinkedHashSet<>(studentIds);
+        List<StudentMembership> memberships = studentRepository.findMembershipsByIdIn(ids);
+        if (memberships.isEmpty()) {
+            return new DeleteStudentsDtoResponse(0, List.copyOf(ids));
+        }
+
+        for (StudentMembership membership : memberships) {
+            ids.remove(membership.getId());
+            if (membership.getClassRoomId() != null) {
+                changeFeedService.record(membership.getClassRoomId(), ClassRoomChangeType.STUDENT_REMOVED,
+                        membership.getId(), null);
+            }
+        }
+        List<Long> deletedIds = memberships.stream().map(StudentMembership::getId).toList();
+        int deleted = studentRepository.softDeleteByIdIn(deletedIds, clock.instant());
+        cacheInvalidationBus.invalidate(CachedEntity.STUDENT, deletedIds);
+        cacheInvalidationBus.invalidate(CachedEntity.CLASS_ROOM, memberships.stream()
+                .map(StudentMembership::getClassRoomId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList());
+        membershipIndex.studentsDeleted(memberships);
+        return new DeleteStudentsDtoResponse(deleted, List.copyOf(ids));
+    }
+
+    @Transactional
+    public int purgeDeletedStudents(Instant deletedBefore, int batchSize) {
+        List<Long> ids = studentRepository.findIdsDeletedBefore(deletedBefore, batchSize);
+        return ids.isEmpty() ? 0 : studentRepository.purgeByIdIn(ids);
     }
 }
@@ -0,0 +1,207 @@
+package gabriel.moraes.school.service;
+
+import gabriel.moraes.school.Model.*;
+import gabriel.moraes.school.Model.DtoResponse.WaitlistPositionDtoResponse;
+import gabriel.moraes.school.cache.CacheInvalidationBus;
+import gabriel.moraes.school.cache.CachedEntity;
+import gabriel.moraes.school.constants.ClassRoomConstants;
+import gabriel.moraes.school.exception.ObjectNotFoundException;
+import gabriel.moraes.school.membership.MembershipIndex;
+import gabriel.moraes.school.repository.ClassRoomRepository;
+import gabriel.moraes.school.repository.StudentRepository;
+import gabriel.moraes.school.repository.WaitlistEntryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * First come, first served waitlists of full classes. Students that find a class full are put on its waitlist, and
+ * whenever a waiting class has free seats again the students at the head of its waitlist are enrolled, many classes
+ * per transaction. A student enrolled anywhere leaves every waitlist.
+ */
+@Service
+public class WaitlistService {
+
+    private static final int maxStudent = ClassRoomConstants.MAX_STUDENTS;
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final ClassRoomRepository classRoomRepository;
+    private final StudentRepository studentRepository;
+    private final ChangeFeedService changeFeedService;
+    private final DomainEventPublisher eventPublisher;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final ClassRoomLockService classRoomLockService;
+    private final MembershipIndex membershipIndex;
+    private final Clock clock;
+    private final boolean enabled;
+    private final Counter joined;
+    private final Counter promoted;
+
+    @Autowired
+    public WaitlistService(WaitlistEntryRepository waitlistEntryRepository, ClassRoomRepository classRoomRepository,
+                           StudentRepository studentRepository, ChangeFeedService changeFeedService,
+                           DomainEventPublisher eventPublisher, CacheInvalidationBus cacheInvalidationBus,
+                           ClassRoomLockService classRoomLockService, MembershipIndex membershipIndex,
+                           MeterRegistry meterRegistry, @Value("${school.waitlist.enabled:true}") boolean enabled) {
+        this(waitlistEntryRepository, classRoomRepository, studentRepository, changeFeedService, eventPublisher,
+                cacheInvalidationBus, classRoomLockService, membershipIndex, meterRegistry, Clock.systemUTC(),
+                enabled);
+    }
+
+    WaitlistService(WaitlistEntryRepository waitlistEntryRepository, ClassRoomRepository classRoomRepository,
+                    StudentRepository studentRepository, ChangeFeedService changeFeedService,
+                    DomainEventPublisher eventPublisher, CacheInvalidationBus cacheInvalidationBus,
+                    ClassRoomLockService classRoomLockService, MembershipIndex membershipIndex,
+                    MeterRegistry meterRegistry, Clock clock, boolean enabled) {
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.classRoomRepository = classRoomRepository;
+        this.studentRepository = studentRepository;
+        this.changeFeedService = changeFeedService;
+        this.eventPublisher = eventPublisher;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.classRoomLockService = classRoomLockService;
+        this.membershipIndex = membershipIndex;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.joined = Counter.builder("school.waitlist.joined")
+                .description("Students put on the waitlist of a full class")
+                .register(meterRegistry);
+        this.promoted = Counter.builder("school.waitlist.promoted")
+                .description("Waitlisted students enrolled once a seat freed up")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether students are waiting for the class, in which case newcomers queue up behind them even if seats are
+     * free until the next promotion.
+     */
+    @Transactional(readOnly = true)
+    public boolean hasWaitlist(Long classRoomId) {
+        return enabled && waitlistEntryRepository.existsByClassRoomId(classRoomId);
+    }
+
+    /**
+     * Appends the students to the waitlist of the class and returns their positions. Students already on it keep
+     * their place. Callers hold the lock of the class.
+     */
+    @Transactional
+    public List<WaitlistPositionDtoResponse> join(Long classRoomId, List<Long> studentIds) {
+        Set<Long> waiting = waitlistEntryRepository.findByClassRoomIdAndStudentIdIn(classRoomId, studentIds).stream()
+                .map(WaitlistEntry::getStudentId)
+                .collect(Collectors.toSet());
+        List<WaitlistEntry> entries = studentIds.stream()
+                .distinct()
+                .filter(studentId -> !waiting.contains(studentId))
+                .map(studentId -> new WaitlistEntry(classRoomId, studentId, clock.instant()))
+                .toList();
+        if (!entries.isEmpty()) {
+            waitlistEntryRepository.saveAll(entries);
+            joined.increment(entries.size());
+            eventPublisher.publish(DomainEventType.STUDENTS_WAITLISTED, classRoomId,
+                    Map.of("studentIds", entries.stream().map(WaitlistEntry::getStudentId).toList()));
+        }
+
+        long size = waitlistEntryRepository.countByClassRoomId(classRoomId);
+        return waitlistEntryRepository.findByClassRoomIdAndStudentIdIn(classRoomId, studentIds).stream()
+                .sorted(Comparator.comparing(WaitlistEntry::getId))
+                .map(entry -> toPosition(entry, size))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public WaitlistPositionDtoResponse getPosition(Long classRoomId, Long studentId) {
+        WaitlistEntry entry = waitlistEntryRepository.findByClassRoomIdAndStudentId(classRoomId, studentId)
+                .orElseThrow(() -> new ObjectNotFoundException(
+                        "Student " + studentId + " is not on the waitlist of class room " + classRoomId));
+        return toPosition(entry, waitlistEntryRepository.countByClassRoomId(classRoomId));
+    }
+
+    /**
+     * Fills the free seats of up to {@code batchSize} waiting classes from their waitlists, in one transaction, and
+     * returns how many students were enrolled. Classes a request is changing are skipped until the next run.
+     * <p>
+     * The classes are selected outside the transaction, which locks them before reading their rosters and students.
+     */
+    public int promoteWaitlisted(int batchSize) {
+        List<Long> classRoomIds = classRoomRepository.findIdsByStatusWithWaitlistAndStudentCountBelow(
+                ClassStatus.WAITING, maxStudent, PageRequest.of(0, batchSize));
+        if (classRoomIds.isEmpty()) {
+            return 0;
+        }
+
+        int total = classRoomLockService.runLockingAvailable(classRoomIds, lockedIds -> {
+            int enrolled = 0;
+            for (ClassRoom classRoom : classRoomRepository.lockAllByIdIn(lockedIds)) {
+                if (classRoom.getStatus() == ClassStatus.WAITING) {
+                    enrolled += promote(classRoom);
+                }
+            }
+            return enrolled;
+        });
+        promoted.increment(total);
+        return total;
+    }
+
+    public int removeClosedWaitlists() {
+        return waitlistEntryRepository.deleteForClassesNotIn(ClassStatus.WAITING);
+    }
+
+    private int promote(ClassRoom classRoom) {
+        Long classRoomId = classRoom.getId();
+        List<Long> enrolled = new ArrayList<>();
+        int free = maxStudent - classRoom.getStudents().size();
+        List<WaitlistEntry> entries;
+        while (free > 0 && !(entries = waitlistEntryRepository.findByClassRoomIdOrderByIdAsc(classRoomId,
+                PageRequest.of(0, free))).isEmpty()) {
+            Map<Long, Student> students = studentRepository.findAllById(entries.stream()
+                            .map(WaitlistEntry::getStudentId)
+                            .toList())
+                    .stream()
+                    .collect(Collectors.toMap(Student::getId, Function.identity()));
+            for (WaitlistEntry entry : entries) {
+                Student student = students.get(entry.getStudentId());
+                // deleted since, or enrolled in another class
+                if (student == null || student.getClassRoom() != null) {
+                    continue;
+                }
+                student.setClassRoom(classRoom);
+                classRoom.getStudents().add(student);
+                changeFeedService.record(classRoomId, ClassRoomChangeType.STUDENT_ENROLLED, student.getId(), null);
+                enrolled.add(student.getId());
+                free--;
+            }
+            waitlistEntryRepository.deleteAll(entries);
+        }
+        if (enrolled.isEmpty()) {
+            return 0;
+        }
+
+        waitlistEntryRepository.deleteByStudentIdIn(enrolled);
+        classRoomRepository.save(classRoom);
+        eventPublisher.publish(DomainEventType.STUDENTS_ENROLLED, classRoomId,
+                Map.of("studentIds", enrolled, "waitlist", true));
+        cacheInvalidationBus.invalidate(CachedEntity.CLASS_ROOM, classRoomId);
+        membershipIndex.studentsEnrolled(classRoomId, enrolled);
+        return enrolled.size();
+    }
+
+    private WaitlistPositionDtoResponse toPosition(WaitlistEntry entry, long size) {
+        long position = waitlistEntryRepository.countByClassRoomIdAndIdLessThanEqual(entry.getClassRoomId(),
+                entry.getId());
+        return new WaitlistPositionDtoResponse(entry.getClassRoomId(), entry.getStudentId(), position, size,
+                entry.getJoinedAt());
+    }
+}
@@ -1,49 +1,72 @@
-INSERT INTO coordinator (first_name, last_name, email, phone)
-VALUES ('Ana', 'Lima', 'ana.lima@example.com', '123-456-7890');
-INSERT INTO coordinator (first_name, last_name, email, phone)
-VALUES ('Paulo', 'Silva', 'paulo.silva@example.com', '987-654-3210');
-INSERT INTO coordinator (first_name, last_name, email, phone)
-VALUES ('Maria', 'Santos', 'maria.santos@example.com', '567-890-1234');
+INSERT INTO person (role, first_name, last_name, email, phone)
+SELECT 'COORDINATOR', 'Ana', 'Lima', 'ana.lima@example.com', '123-456-7890' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM person WHERE email = 'ana.lima@example.com' AND role = 'COORDINATOR');
+INSERT INTO person (role, first_name, last_name, email, phone)
+SELECT 'COORDINATOR', 'Paulo', 'Silva', 'paulo.silva@example.com', '987-654-3210' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM person WHERE email = 'paulo.silva@example.com' AND role = 'COORDINATOR');
+INSERT INTO person (role, first_name, last_name, email, phone)
+SELECT 'COORDINATOR', 'Maria', 'Santos', 'maria.santos@example.com', '567-890-1234' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM person WHERE email = 'maria.santos@example.com' AND role = 'COORDINATOR');
 
-INSERT INTO scrum_master (first_name, last_name, email, phone)
-VALUES ('Pedro', 'Santos', 'pedro.santos@example.com', '234-567-8901');
-INSERT INTO scrum_master (first_name, last_name, email, phone)
-VALUES ('Carolina', 'Oliveira', 'carolina.oliveira@example.com', '678-901-2345');
-INSERT INTO scrum_master (first_name, last_name, email, phone)
-VALUES ('Fernando', 'Silva', 'fernando.silva@example.com', '890-123-4567');
+INSERT INTO person (role, first_name, last_name, email, phone)
+SELECT 'SCRUM_MASTER', 'Pedro', 'Santos', 'pedro.santos@example.com', '234-567-8901' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM person WHERE email = 'pedro.santos@example.com' AND role = 'SCRUM_MASTER');
+INSERT INTO person (role, first_name, last_name, email, phone)
+SELECT 'SCRUM_MASTER', 'Carolina', 'Oliveira', 'carolina.oliveira@example.com', '678-901-2345' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM person WHERE email = 'carolina.oliveira@example.com' AND role = 'SCRUM_MASTER');
+INSERT INTO person (role, first_name, last_name, email, phone)
+SELECT 'SCRUM_MASTER', 'Fernando', 'Silva', 'fernando.silva@example.com', '890-123-4567' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM person WHERE email = 'fernando.silva@example.com' AND role = 'SCRUM_MASTER');
 
-INSERT INTO instructor (first_name, last_name, email, phone)
-VALUES ('Lucas', 'Pereira', 'lucas.pereira@example.com', '456-789-0123');
-INSERT INTO instructor (first_name, last_name, email, phone)
-VALUES ('Mariana', 'Fernandes', 'mariana.fernandes@example.com', '890-123-4567');
-INSERT INTO instructor (first_name, last_name, email, phone)
-VALUES ('Rafael', 'Almeida', 'rafael.almeida@example.com', '234-567-8901');
+INSERT INTO person (role, first_name, last_name, email, phone)
+SELECT 'INSTRUCTOR', 'Lucas', 'Pereira', 'lucas.pereira@example.com', '456-789-0123' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM person WHERE email = 'lucas.pereira@example.com' AND role = 'INSTRUCTOR');
+INSERT INTO person (role, first_name, last_name, email, phone)
+SELECT 'INSTRUCTOR', 'Mariana', 'Fernandes', 'mariana.fernandes@example.com', '890-123-4567' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM person WHERE email = 'mariana.fernandes@example.com' AND role = 'INSTRUCTOR');
+INSERT INTO person (role, first_name, last_name, email, phone)
+SELECT 'INSTRUCTOR', 'Rafael', 'Almeida', 'rafael.almeida@example.com', '234-567-8901' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM person WHERE email = 'rafael.almeida@example.com' AND role = 'INSTRUCTOR');
 
-INSERT INTO student (first_name, last_name, email, phone)
-VALUES ('Amanda', 'Almeida', 'amanda.almeida@example.com', '123-456-7890');
-INSERT INTO student (first_name, last_name, email, phone)
-VALUES ('Gabriel', 'Santos', 'gabriel.santos@example.com', '987-654-3210');
-INSERT INTO student (first_name, last_name, email, phone)
-VALUES ('Camila', 'Fernandes', 'camila.fernandes@example.com', '345-678-9012');
-INSERT INTO student (first_name, last_name, email, phone)
-VALUES ('João', 'Almeida', 'joao.almeida@example.com', '567-890-1234');
-INSERT INTO student (first_name, last_name, email, phone)
-VALUES ('Bianca', 'Santos', 'bianca.santos@example.com', '789-012-3456');
-INSERT INTO student (first_name, last_name, email, phone)
-VALUES ('Guilherme', 'Lima', 'guilherme.lima@example.com', '890-123-4567');
-INSERT INTO student (first_name, last_name, email, phone)
-VALUES ('Isabela', 'Oliveira', 'isabela.oliveira@example.com', '901-234-5678');
-INSERT INTO student (first_name, last_name, email, phone)
-VALUES ('Fernando', 'Silva', 'fernando.silva@example.com', '123-456-7890');
-INSERT INTO student (first_name, last_name, email, phone)
-VALUES ('Laura', 'Pereira', 'laura.pereira@example.com', '234-567-8901');
-INSERT INTO student (first_name, last_name, email, phone)
-VALUES ('Matheus', 'Fernandes', 'matheus.fernandes@example.com', '345-678-9012');
-INSERT INTO student (first_name, last_name, email, phone)
-VALUES ('Júlia', 'Silva', 'julia.silva@example.com', '567-890-1234');
-INSERT INTO student (first_name, last_name, email, phone)
-VALUES ('Enzo', 'Pereira', 'enzo.pereira@example.com', '789-012-3456');
-INSERT INTO student (first_name, last_name, email, phone)
-VALUES ('João', 'Almeida', 'joao.almeida@example.com', '567-890-1234');
-INSERT INTO student (first_name, last_name, email, phone)
-VALUES ('Bianca', 'Santos', 'bianca.santos@example.com', '789-012-3456');
\ No newline at end of file
+INSERT INTO person (role, first_name, last_name, email, phone)
+SELECT 'STUDENT', 'Amanda', 'Almeida', 'amanda.almeida@example.com', '123-456-7890' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM person WHERE email = 'amanda.almeida@example.com' AND role = 'STUDENT');
+INSERT INTO person (role, first_name, last_name, email, phone)
+SELECT 'STUDENT', 'Gabriel', 'Santos', 'gabriel.santos@example.com', '987-654-3210' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM person WHERE email = 'gabriel.santos@example.com' AND role = 'STUDENT');
+INSERT INTO person (role, first_name, last_name, email, phone)
+SELECT 'STUDENT', 'Camila', 'Fernandes', 'camila.fernandes@example.com', '345-678-9012' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM person WHERE email = 'camila.fernandes@example.com' AND role = 'STUDENT');
+INSERT INTO person (role, first_name, last_name, email, phone)
+SELECT 'STUDENT', 'João', 'Almeida', 'joao.almeida@example.com', '567-890-1234' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM person WHERE email = 'joao.almeida@example.com' AND role = 'STUDENT');
+INSERT INTO person (role, first_name, last_name, email, phone)
+SELECT 'STUDENT', 'Bianca', 'Santos', 'bianca.santos@example.com', '789-012-3456' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM person WHERE email = 'bianca.santos@example.com' AND role = 'STUDENT');
+INSERT INTO person (role, first_name, last_name, email, phone)
+SELECT 'STUDENT', 'Guilherme', 'Lima', 'guilherme.lima@example.com', '890-123-4567' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM person WHERE email = 'guilherme.lima@example.com' AND role = 'STUDENT');
+INSERT INTO person (role, first_name, last_name, email, phone)
+SELECT 'STUDENT', 'Isabela', 'Oliveira', 'isabela.oliveira@example.com', '901-234-5678' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM person WHERE email = 'isabela.oliveira@example.com' AND role = 'STUDENT');
+INSERT INTO person (role, first_name, last_name, email, phone)
+SELECT 'STUDENT', 'Fernando', 'Silva', 'fernando.silva@example.com', '123-456-7890' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM person WHERE email = 'fernando.silva@example.com' AND role = 'STUDENT');
+INSERT INTO person (role, first_name, last_name, email, phone)
+SELECT 'STUDENT', 'Laura', 'Pereira', 'laura.pereira@example.com', '234-567-8901' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM person WHERE email = 'laura.pereira@example.com' AND role = 'STUDENT');
+INSERT INTO person (role, first_name, last_name, email, phone)
+SELECT 'STUDENT', 'Matheus', 'Fernandes', 'matheus.fernandes@example.com', '345-678-9012' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM person WHERE email = 'matheus.fernandes@example.com' AND role = 'STUDENT');
+INSERT INTO person (role, first_name, last_name, email, phone)
+SELECT 'STUDENT', 'Júlia', 'Silva', 'julia.silva@example.com', '567-890-1234' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM person WHERE email = 'julia.silva@example.com' AND role = 'STUDENT');
+INSERT INTO person (role, first_name, last_name, email, phone)
+SELECT 'STUDENT', 'Enzo', 'Pereira', 'enzo.pereira@example.com', '789-012-3456' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM person WHERE email = 'enzo.pereira@example.com' AND role = 'STUDENT');
+INSERT INTO person (role, first_name, last_name, email, phone)
+SELECT 'STUDENT', 'João', 'Almeida', 'joao.almeida@example.com', '567-890-1234' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM person WHERE email = 'joao.almeida@example.com' AND role = 'STUDENT');
+INSERT INTO person (role, first_name, last_name, email, phone)
+SELECT 'STUDENT', 'Bianca', 'Santos', 'bianca.santos@example.com', '789-012-3456' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM person WHERE email = 'bianca.santos@example.com' AND role = 'STUDENT');
\ No newline at end of file
@@ -0,0 +1,4 @@
+create table waitlist_entry (id bigint not null auto_increment, class_room_id bigint not null, joined_at datetime(6), student_id bigint not null, primary key (id)) engine=InnoDB;
+alter table waitlist_entry add constraint uk_waitlist_entry_class_room_student unique (class_room_id, student_id);
+create index idx_waitlist_entry_class_room_id on waitlist_entry (class_room_id, id);
+create index idx_waitlist_entry_student_id on waitlist_entry (student_id);
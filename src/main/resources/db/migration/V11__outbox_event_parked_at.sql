@@ -0,0 +1,2 @@
+-- Events the relay gave up on are parked instead of marked dispatched, so the purge keeps them.
+alter table outbox_event add column parked_at datetime(6);
@@ -0,0 +1,2 @@
+create index idx_person_first_name on person (first_name);
+create index idx_person_last_name on person (last_name);
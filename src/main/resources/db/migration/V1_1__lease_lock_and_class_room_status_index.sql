@@ -0,0 +1,3 @@
+-- Added after the baseline: the lease table of the scheduled jobs and the index the auto-start job scans.
+create table lease_lock (name varchar(255) not null, locked_until datetime(6), owner varchar(255), primary key (name)) engine=InnoDB;
+create index idx_class_room_status on class_room (status);
@@ -0,0 +1,19 @@
+-- Baseline: the schema previously created by Hibernate (ddl-auto: update).
+create table class_room (id bigint not null auto_increment, name varchar(255), status smallint, primary key (id)) engine=InnoDB;
+create table classroom_coordinators (classroom_id bigint not null, coordinator_id bigint not null) engine=InnoDB;
+create table classroom_instructors (classroom_id bigint not null, instructor_id bigint not null) engine=InnoDB;
+create table classroom_scrum_masters (classroom_id bigint not null, scrum_master_id bigint not null) engine=InnoDB;
+create table coordinator (id bigint not null auto_increment, email varchar(255), first_name varchar(255), last_name varchar(255), phone varchar(255), primary key (id)) engine=InnoDB;
+create table instructor (id bigint not null auto_increment, email varchar(255), first_name varchar(255), last_name varchar(255), phone varchar(255), primary key (id)) engine=InnoDB;
+create table scrum_master (id bigint not null auto_increment, email varchar(255), first_name varchar(255), last_name varchar(255), phone varchar(255), primary key (id)) engine=InnoDB;
+create table squad (id bigint not null auto_increment, name varchar(255), classroom_id bigint, primary key (id)) engine=InnoDB;
+create table student (id bigint not null auto_increment, email varchar(255), first_name varchar(255), last_name varchar(255), phone varchar(255), classroom_id bigint, squad_id bigint, primary key (id)) engine=InnoDB;
+alter table classroom_coordinators add constraint FKafkqrenjrygvxgkvjodw4oywh foreign key (coordinator_id) references coordinator (id);
+alter table classroom_coordinators add constraint FKoe8n4vnwd0vpxhgo81knr6gcr foreign key (classroom_id) references class_room (id);
+alter table classroom_instructors add constraint FKti3phg6gttxa6cwlq9eg6jcs8 foreign key (instructor_id) references instructor (id);
+alter table classroom_instructors add constraint FKlt5m74lbn9bdfvvb663quho6y foreign key (classroom_id) references class_room (id);
+alter table classroom_scrum_masters add constraint FKaslloyvpdo4l4igwj85eomylb foreign key (scrum_master_id) references scrum_master (id);
+alter table classroom_scrum_masters add constraint FKawvq0ycl9wa9jhdfld94dg8cf foreign key (classroom_id) references class_room (id);
+alter table squad add constraint FKmxlfxf4o6vf1aef6gl5qfqamm foreign key (classroom_id) references class_room (id);
+alter table student add constraint FKpv05xrmxutkprimgr4pgxw1ly foreign key (classroom_id) references class_room (id);
+alter table student add constraint FKqb9u78ufj65h65nif5p2v16n7 foreign key (squad_id) references squad (id);
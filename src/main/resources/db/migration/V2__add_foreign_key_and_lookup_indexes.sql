@@ -0,0 +1,13 @@
+create index idx_student_classroom_id on student (classroom_id);
+create index idx_student_squad_id on student (squad_id);
+create index idx_student_email on student (email);
+create index idx_squad_classroom_id on squad (classroom_id);
+
+alter table classroom_coordinators add primary key (classroom_id, coordinator_id);
+create index idx_classroom_coordinators_coordinator_id on classroom_coordinators (coordinator_id);
+
+alter table classroom_instructors add primary key (classroom_id, instructor_id);
+create index idx_classroom_instructors_instructor_id on classroom_instructors (instructor_id);
+
+alter table classroom_scrum_masters add primary key (classroom_id, scrum_master_id);
+create index idx_classroom_scrum_masters_scrum_master_id on classroom_scrum_masters (scrum_master_id);
@@ -0,0 +1,2 @@
+create table class_room_change (id bigint not null auto_increment, change_type varchar(32), changed_at datetime(6), class_room_id bigint, detail varchar(255), entity_id bigint, primary key (id)) engine=InnoDB;
+create index idx_class_room_change_class_room_id on class_room_change (class_room_id, id);
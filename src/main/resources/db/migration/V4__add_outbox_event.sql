@@ -0,0 +1,2 @@
+create table outbox_event (id bigint not null auto_increment, attempts integer not null, class_room_id bigint, created_at datetime(6), dispatched_at datetime(6), event_type varchar(32), last_error varchar(255), payload varchar(4000), primary key (id)) engine=InnoDB;
+create index idx_outbox_event_dispatched_at on outbox_event (dispatched_at, id);
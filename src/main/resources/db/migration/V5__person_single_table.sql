@@ -0,0 +1,65 @@
+-- Students, coordinators, instructors and scrum masters move into one person table with a role discriminator.
+-- Student ids are kept. The other roles cannot keep theirs, as they overlap the student ids, so each role is moved
+-- up by its own offset: coordinators above every old id, instructors above the coordinators, scrum masters above the
+-- instructors. Their old id stays in legacy_id and the staff endpoints still resolve it; since every staff id is
+-- above every old id, an id always means the same person. The class membership tables are rebuilt against them.
+create table person (id bigint not null auto_increment, role varchar(16) not null, email varchar(255), first_name varchar(255), last_name varchar(255), phone varchar(255), classroom_id bigint, squad_id bigint, legacy_id bigint, primary key (id)) engine=InnoDB;
+
+insert into person (id, role, email, first_name, last_name, phone, classroom_id, squad_id)
+select id, 'STUDENT', email, first_name, last_name, phone, classroom_id, squad_id from student order by id;
+
+create table person_id_offset (role varchar(16) not null, id_offset bigint not null, primary key (role)) engine=InnoDB;
+insert into person_id_offset (role, id_offset) values ('COORDINATOR', (select greatest((select coalesce(max(id), 0) from student), (select coalesce(max(id), 0) from coordinator), (select coalesce(max(id), 0) from instructor), (select coalesce(max(id), 0) from scrum_master))));
+insert into person_id_offset (role, id_offset)
+select 'INSTRUCTOR', o.id_offset + (select coalesce(max(id), 0) from coordinator) from person_id_offset o where o.role = 'COORDINATOR';
+insert into person_id_offset (role, id_offset)
+select 'SCRUM_MASTER', o.id_offset + (select coalesce(max(id), 0) from instructor) from person_id_offset o where o.role = 'INSTRUCTOR';
+
+insert into person (id, role, email, first_name, last_name, phone, legacy_id)
+select c.id + o.id_offset, 'COORDINATOR', c.email, c.first_name, c.last_name, c.phone, c.id from coordinator c join person_id_offset o on o.role = 'COORDINATOR' order by c.id;
+insert into person (id, role, email, first_name, last_name, phone, legacy_id)
+select i.id + o.id_offset, 'INSTRUCTOR', i.email, i.first_name, i.last_name, i.phone, i.id from instructor i join person_id_offset o on o.role = 'INSTRUCTOR' order by i.id;
+insert into person (id, role, email, first_name, last_name, phone, legacy_id)
+select s.id + o.id_offset, 'SCRUM_MASTER', s.email, s.first_name, s.last_name, s.phone, s.id from scrum_master s join person_id_offset o on o.role = 'SCRUM_MASTER' order by s.id;
+
+create table classroom_coordinators_v5 (classroom_id bigint not null, coordinator_id bigint not null, primary key (classroom_id, coordinator_id)) engine=InnoDB;
+insert into classroom_coordinators_v5 (classroom_id, coordinator_id)
+select cc.classroom_id, p.id from classroom_coordinators cc join person p on p.role = 'COORDINATOR' and p.legacy_id = cc.coordinator_id;
+drop table classroom_coordinators;
+alter table classroom_coordinators_v5 rename to classroom_coordinators;
+
+create table classroom_instructors_v5 (classroom_id bigint not null, instructor_id bigint not null, primary key (classroom_id, instructor_id)) engine=InnoDB;
+insert into classroom_instructors_v5 (classroom_id, instructor_id)
+select ci.classroom_id, p.id from classroom_instructors ci join person p on p.role = 'INSTRUCTOR' and p.legacy_id = ci.instructor_id;
+drop table classroom_instructors;
+alter table classroom_instructors_v5 rename to classroom_instructors;
+
+create table classroom_scrum_masters_v5 (classroom_id bigint not null, scrum_master_id bigint not null, primary key (classroom_id, scrum_master_id)) engine=InnoDB;
+insert into classroom_scrum_masters_v5 (classroom_id, scrum_master_id)
+select cs.classroom_id, p.id from classroom_scrum_masters cs join person p on p.role = 'SCRUM_MASTER' and p.legacy_id = cs.scrum_master_id;
+drop table classroom_scrum_masters;
+alter table classroom_scrum_masters_v5 rename to classroom_scrum_masters;
+
+drop table student;
+drop table coordinator;
+drop table instructor;
+drop table scrum_master;
+drop table person_id_offset;
+
+create index idx_person_email on person (email);
+create index idx_person_role_last_name on person (role, last_name);
+create index idx_person_classroom_id on person (classroom_id);
+create index idx_person_squad_id on person (squad_id);
+create index idx_person_legacy_id on person (legacy_id);
+alter table person add constraint fk_person_classroom foreign key (classroom_id) references class_room (id);
+alter table person add constraint fk_person_squad foreign key (squad_id) references squad (id);
+
+create index idx_classroom_coordinators_coordinator_id on classroom_coordinators (coordinator_id);
+alter table classroom_coordinators add constraint fk_classroom_coordinators_classroom foreign key (classroom_id) references class_room (id);
+alter table classroom_coordinators add constraint fk_classroom_coordinators_person foreign key (coordinator_id) references person (id);
+create index idx_classroom_instructors_instructor_id on classroom_instructors (instructor_id);
+alter table classroom_instructors add constraint fk_classroom_instructors_classroom foreign key (classroom_id) references class_room (id);
+alter table classroom_instructors add constraint fk_classroom_instructors_person foreign key (instructor_id) references person (id);
+create index idx_classroom_scrum_masters_scrum_master_id on classroom_scrum_masters (scrum_master_id);
+alter table classroom_scrum_masters add constraint fk_classroom_scrum_masters_classroom foreign key (classroom_id) references class_room (id);
+alter table classroom_scrum_masters add constraint fk_classroom_scrum_masters_person foreign key (scrum_master_id) references person (id);
@@ -0,0 +1,2 @@
+alter table person add column deleted_at datetime(6);
+create index idx_person_deleted_at on person (deleted_at);
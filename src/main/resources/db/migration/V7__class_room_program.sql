@@ -0,0 +1,2 @@
+alter table class_room add column program varchar(64);
+create index idx_class_room_program on class_room (program);
@@ -0,0 +1,2 @@
+create table cache_invalidation_event (id bigint not null auto_increment, created_at datetime(6), entity_id bigint, entity_type varchar(32), origin varchar(64), primary key (id)) engine=InnoDB;
+create index idx_cache_invalidation_event_created_at on cache_invalidation_event (created_at);
@@ -0,0 +1,3 @@
+create table enrollment_ticket (id bigint not null auto_increment, class_room_id bigint not null, completed_at datetime(6), created_at datetime(6), reason varchar(255), status varchar(16), student_ids varchar(4000), primary key (id)) engine=InnoDB;
+create index idx_enrollment_ticket_class_room_id on enrollment_ticket (class_room_id, status, id);
+create index idx_enrollment_ticket_status on enrollment_ticket (status, created_at);
@@ -0,0 +1,117 @@
+package gabriel.moraes.school;
+
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import gabriel.moraes.school.Model.ClassStatus;
+import gabriel.moraes.school.Model.DtoRequest.*;
+import gabriel.moraes.school.Model.DtoResponse.*;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("native")
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class SchoolApiEndToEndTests {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void classLifecycle_FromCreationToFinish() {
+        Long coordinatorId = restTemplate.postForEntity("/api/v1/coordinators",
+                new CoordinatorDtoRequest("Ana", "Lima", nextEmail(), "+55 11 99999-0000"), CoordinatorDtoResponse.class)
+                .getBody().getId();
+        Long scrumMasterId = restTemplate.postForEntity("/api/v1/scrum-masters",
+                new ScrumMasterDtoRequest("Bruno", "Costa", nextEmail(), "+55 11 99999-0001"), ScrumMasterDtoResponse.class)
+                .getBody().getId();
+        List<Long> instructorIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            instructorIds.add(restTemplate.postForEntity("/api/v1/instructors",
+                    new InstructorDtoRequest("Carla", "Souza", nextEmail(), "+55 11 99999-0002"), InstructorDtoResponse.class)
+                    .getBody().getId());
+        }
+        List<Long> studentIds = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            ResponseEntity<StudentDtoResponse> student = restTemplate.postForEntity("/api/v1/students",
+                    new StudentDtoRequest("Diego", "Alves", nextEmail(), "+55 11 99999-0003"), StudentDtoResponse.class);
+            assertEquals(HttpStatus.CREATED, student.getStatusCode());
+            studentIds.add(student.getBody().getId());
+        }
+
+        ResponseEntity<ClassRoomDtoResponse> created = restTemplate.postForEntity("/api/v1/classes",
+                new ClassRoomDtoRequest("native class", List.of(coordinatorId), List.of(scrumMasterId), instructorIds),
+                ClassRoomDtoResponse.class);
+        assertEquals(HttpStatus.CREATED, created.getStatusCode());
+        Long classId = created.getBody().getId();
+
+        ResponseEntity<ClassRoomDtoResponse> withStudents = restTemplate.exchange("/api/v1/classes/{id}/add-students",
+                HttpMethod.PATCH, new HttpEntity<>(new AddStudentsDtoRequest(studentIds)), ClassRoomDtoResponse.class, classId);
+        assertEquals(HttpStatus.OK, withStudents.getStatusCode());
+        assertEquals(15, withStudents.getBody().getStudents().size());
+
+        assertEquals(HttpStatus.NO_CONTENT, patch("/api/v1/classes/{id}/start", classId).getStatusCode());
+
+        ResponseEntity<SquadDtoResponse[]> squads = restTemplate.postForEntity("/api/v1/squads/{id}/create-squad",
+                null, SquadDtoResponse[].class, classId);
+        assertEquals(HttpStatus.CREATED, squads.getStatusCode());
+        assertEquals(3, squads.getBody().length);
+
+        assertEquals(HttpStatus.NO_CONTENT, patch("/api/v1/classes/{id}/finish", classId).getStatusCode());
+
+        ClassRoomDtoResponse finished = restTemplate.getForObject("/api/v1/classes/{id}", ClassRoomDtoResponse.class, classId);
+        assertEquals(ClassStatus.FINISHED, finished.getStatus());
+        assertEquals("native class", finished.getName());
+    }
+
+    @Test
+    void getClassById_UnexistingId_ReturnsNotFound() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/v1/classes/{id}", String.class, Long.MAX_VALUE);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void saveStudent_InvalidEmail_ReturnsBadRequest() {
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/v1/students",
+                new StudentDtoRequest("Diego", "Alves", "not-an-email", "+55 11 99999-0003"), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void getStudentById_AcceptCbor_ReturnsCborEncodedStudent() throws Exception {
+        Long studentId = restTemplate.postForEntity("/api/v1/students",
+                new StudentDtoRequest("Elisa", "Rocha", nextEmail(), "+55 11 99999-0004"), StudentDtoResponse.class)
+                .getBody().getId();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.parseMediaType("application/cbor")));
+        ResponseEntity<byte[]> response = restTemplate.exchange("/api/v1/students/{id}", HttpMethod.GET,
+                new HttpEntity<>(headers), byte[].class, studentId);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        StudentDtoResponse decoded = new CBORMapper().readValue(response.getBody(), StudentDtoResponse.class);
+        assertEquals(studentId, decoded.getId());
+        assertEquals("Elisa", decoded.getFirstName());
+    }
+
+    private ResponseEntity<Void> patch(String url, Long id) {
+        return restTemplate.exchange(url, HttpMethod.PATCH, HttpEntity.EMPTY, Void.class, id);
+    }
+
+    private static String nextEmail() {
+        return "person" + SEQUENCE.incrementAndGet() + "@school.test";
+    }
+}
@@ -0,0 +1,124 @@
+package gabriel.moraes.school.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdmissionFilterTest {
+
+    private static final String PROXY = "10.0.0.1";
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final AtomicInteger executions = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private Bulkhead lists;
+    private AdmissionFilter filter;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        lists = new Bulkhead("lists", 1, Duration.ZERO, List.of("GET"), List.of("/api/v1/students"));
+        Bulkhead writes = new Bulkhead("writes", 1, Duration.ZERO, List.of("POST", "PATCH"), List.of("/api/**"));
+        filter = new AdmissionFilter(new ClientRateLimiter(2, 1, 100, nanoTime::get), List.of(lists, writes),
+                List.of("/api/v1/classes/*/events"), "X-Client-Id", List.of(PROXY),
+                new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry);
+    }
+
+    @Test
+    void clientOverItsRate_IsRefusedWith429UntilTokensRefill() throws Exception {
+        assertEquals(200, perform(request("GET", "/api/v1/students/1", "a")).getStatus());
+        assertEquals(200, perform(request("GET", "/api/v1/students/1", "a")).getStatus());
+
+        MockHttpServletResponse refused = perform(request("GET", "/api/v1/students/1", "a"));
+        assertEquals(429, refused.getStatus());
+        assertEquals("1", refused.getHeader("Retry-After"));
+        assertEquals(200, perform(request("GET", "/api/v1/students/1", "b")).getStatus());
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(200, perform(request("GET", "/api/v1/students/1", "a")).getStatus());
+        assertEquals(4, executions.get());
+        assertEquals(1.0, meterRegistry.get("school.admission.rejected").tag("reason", "rate-limit").counter().count());
+    }
+
+    @Test
+    void clientHeaderFromUntrustedAddress_IsIgnored() throws Exception {
+        for (String clientId : List.of("a", "b", "c")) {
+            MockHttpServletRequest request = request("GET", "/api/v1/students/1", clientId);
+            request.setRemoteAddr("203.0.113.7");
+            perform(request);
+        }
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void authenticatedUser_IsLimitedWhateverItsHeader() throws Exception {
+        for (String clientId : List.of("a", "b", "c")) {
+            MockHttpServletRequest request = request("GET", "/api/v1/students/1", clientId);
+            request.setUserPrincipal(() -> "integration");
+            perform(request);
+        }
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void fullBulkhead_ShedsOnlyItsOwnKindWith503() throws Exception {
+        FilterChain nested = (request, response) -> {
+            executions.incrementAndGet();
+            assertEquals(1.0, meterRegistry.get("school.admission.bulkhead.active").tag("bulkhead", "lists")
+                    .gauge().value());
+            MockHttpServletResponse list = perform(request("GET", "/api/v1/students", "b"));
+            assertEquals(503, list.getStatus());
+            assertEquals("1", list.getHeader("Retry-After"));
+            assertEquals(201, perform(request("POST", "/api/v1/students", "c")).getStatus());
+        };
+
+        filter.doFilter(request("GET", "/api/v1/students", "a"), new MockHttpServletResponse(), nested);
+
+        assertEquals(0, lists.getActive());
+        assertEquals(1.0, meterRegistry.get("school.admission.rejected").tag("reason", "bulkhead-lists")
+                .counter().count());
+    }
+
+    @Test
+    void longLivedStreams_NeverHoldABulkheadPermit() throws Exception {
+        Bulkhead everything = new Bulkhead("reads", 0, Duration.ZERO, List.of(), List.of("/api/**"));
+        filter = new AdmissionFilter(null, List.of(everything), List.of("/api/v1/classes/*/events"), "X-Client-Id",
+                List.of(), new ObjectMapper().registerModule(new JavaTimeModule()), new SimpleMeterRegistry());
+
+        assertEquals(200, perform(request("GET", "/api/v1/classes/1/events", "a")).getStatus());
+        assertEquals(503, perform(request("GET", "/api/v1/classes/1", "a")).getStatus());
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws IOException, ServletException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            executions.incrementAndGet();
+            ((MockHttpServletResponse) res).setStatus("POST".equals(request.getMethod()) ? 201 : 200);
+        });
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String clientId) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(PROXY);
+        request.addHeader("X-Client-Id", clientId);
+        return request;
+    }
+}
@@ -0,0 +1,38 @@
+package gabriel.moraes.school.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientRateLimiterTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Test
+    void tryAcquire_MoreClientsThanTheBound_EvictsLeastRecentlySeenClient() {
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(1, 0.001, 2, nanoTime::get);
+
+        assertEquals(0, rateLimiter.tryAcquire("a"));
+        assertEquals(0, rateLimiter.tryAcquire("b"));
+        assertTrue(rateLimiter.tryAcquire("a") > 0);
+        assertEquals(0, rateLimiter.tryAcquire("c"));
+
+        assertEquals(2, rateLimiter.trackedClients());
+        // "a" was seen after "b", so it kept its drained bucket and "b" starts over
+        assertTrue(rateLimiter.tryAcquire("a") > 0);
+        assertEquals(0, rateLimiter.tryAcquire("b"));
+    }
+
+    @Test
+    void tryAcquire_NewClientWhenFull_GetsItsOwnBucket() {
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(1, 0.001, 1, nanoTime::get);
+
+        assertEquals(0, rateLimiter.tryAcquire("a"));
+        assertEquals(0, rateLimiter.tryAcquire("b"));
+        assertEquals(0, rateLimiter.tryAcquire("c"));
+        assertTrue(rateLimiter.tryAcquire("c") > 0);
+    }
+}
@@ -0,0 +1,45 @@
+package gabriel.moraes.school.benchmark;
+
+import gabriel.moraes.school.Model.*;
+import gabriel.moraes.school.Model.DtoResponse.ClassRoomDtoResponse;
+import gabriel.moraes.school.Model.DtoResponse.StudentDtoResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static ClassRoomDtoResponse classRoomResponse() {
+        List<Student> students = new ArrayList<>();
+        LongStream.rangeClosed(1, 30).forEach(id ->
+                students.add(new Student(id, "First" + id, "Last" + id, "student" + id + "@example.com", "123-456-7890")));
+
+        List<Squad> squads = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Squad squad = new Squad("Squad " + i, null, new ArrayList<>(students.subList(i * 5, i * 5 + 5)));
+            squad.setId((long) i + 1);
+            squads.add(squad);
+        }
+
+        ClassRoomDtoResponse response = new ClassRoomDtoResponse(1L, "Benchmark", ClassStatus.STARTED,
+                List.of(new Coordinator(1L, "Ana", "Lima", "ana@example.com", "123")),
+                List.of(new ScrumMaster(1L, "Pedro", "Santos", "pedro@example.com", "123")),
+                List.of(new Instructor(1L, "Lucas", "Pereira", "lucas@example.com", "123"),
+                        new Instructor(2L, "Mariana", "Fernandes", "mariana@example.com", "123"),
+                        new Instructor(3L, "Rafael", "Almeida", "rafael@example.com", "123")),
+                students);
+        response.setSquads(squads);
+        return response;
+    }
+
+    static List<StudentDtoResponse> studentResponses(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> new StudentDtoResponse(id, "First" + id, "Last" + id,
+                        "student" + id + "@example.com", "123-456-7890"))
+                .toList();
+    }
+}
@@ -0,0 +1,85 @@
+package gabriel.moraes.school.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import gabriel.moraes.school.Model.DtoResponse.ClassRoomDtoResponse;
+import gabriel.moraes.school.Model.DtoResponse.StudentDtoResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Payload size and encode/decode time of the negotiable encodings for the two hottest responses.
+ * Run with: ./mvnw test -Dtest=BinaryEncodingBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BinaryEncodingBenchmark {
+
+    private static final int ROUNDS = 7;
+    private static final int ITERATIONS = 2_000;
+
+    private static final Map<String, ObjectMapper> MAPPERS = Map.of(
+            "json", new ObjectMapper(),
+            "cbor", new CBORMapper(),
+            "smile", new SmileMapper());
+
+    @Test
+    void studentList() throws Exception {
+        List<StudentDtoResponse> students = BenchmarkData.studentResponses(1_000);
+
+        for (String format : List.of("json", "cbor", "smile")) {
+            ObjectMapper mapper = MAPPERS.get(format);
+            report("GET /api/v1/students (1000)", format, students,
+                    mapper.getTypeFactory().constructCollectionType(List.class, StudentDtoResponse.class));
+        }
+    }
+
+    @Test
+    void classRoom() throws Exception {
+        ClassRoomDtoResponse classRoom = BenchmarkData.classRoomResponse();
+
+        for (String format : List.of("json", "cbor", "smile")) {
+            ObjectMapper mapper = MAPPERS.get(format);
+            report("GET /api/v1/classes/{id}", format, classRoom, mapper.constructType(ClassRoomDtoResponse.class));
+        }
+    }
+
+    private void report(String label, String format, Object value, JavaType type) throws Exception {
+        ObjectMapper mapper = MAPPERS.get(format);
+        ObjectWriter writer = mapper.writerFor(type);
+        ObjectReader reader = mapper.readerFor(type);
+        byte[] payload = writer.writeValueAsBytes(value);
+
+        double[] encode = new double[ROUNDS];
+        double[] decode = new double[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                writer.writeValueAsBytes(value);
+            }
+            encode[round] = (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+
+            start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                reader.readValue(payload);
+            }
+            decode[round] = (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+        }
+
+        System.out.printf("%-28s %-5s %8d bytes  encode %8.1f us  decode %8.1f us%n",
+                label, format, payload.length, median(encode), median(decode));
+    }
+
+    private double median(double[] rounds) {
+        double[] sorted = rounds.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,69 @@
+package gabriel.moraes.school.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import gabriel.moraes.school.Model.DtoResponse.ClassRoomDtoResponse;
+import gabriel.moraes.school.Model.DtoResponse.StudentDtoResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the default Jackson setup with the optimized one registered by JacksonConfig.
+ * Run with: ./mvnw test -Dtest=JsonSerializationBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class JsonSerializationBenchmark {
+
+    private static final int ROUNDS = 7;
+    private static final int ITERATIONS = 50_000;
+
+    @Test
+    void classRoomResponse() throws Exception {
+        ClassRoomDtoResponse classRoom = BenchmarkData.classRoomResponse();
+
+        compare("ClassRoomDtoResponse (30 students, 6 squads)", classRoom, ITERATIONS);
+    }
+
+    @Test
+    void studentList() throws Exception {
+        List<StudentDtoResponse> students = BenchmarkData.studentResponses(1_000);
+
+        compare("List<StudentDtoResponse> (1000 students)", students, ITERATIONS / 100);
+    }
+
+    private void compare(String label, Object value, int iterations) throws Exception {
+        ObjectWriter defaultWriter = new ObjectMapper().writerFor(value.getClass());
+        ObjectWriter optimizedWriter = new ObjectMapper().registerModule(new BlackbirdModule()).writerFor(value.getClass());
+
+        double[] defaultRounds = new double[ROUNDS];
+        double[] optimizedRounds = new double[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            defaultRounds[round] = measure(defaultWriter, value, iterations);
+            optimizedRounds[round] = measure(optimizedWriter, value, iterations);
+        }
+        double defaultOps = median(defaultRounds);
+        double optimizedOps = median(optimizedRounds);
+
+        System.out.printf("%s: default %.0f ops/s, optimized %.0f ops/s (%+.1f%%)%n",
+                label, defaultOps, optimizedOps, (optimizedOps / defaultOps - 1) * 100);
+    }
+
+    private double median(double[] rounds) {
+        double[] sorted = rounds.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private double measure(ObjectWriter writer, Object value, int iterations) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            writer.writeValue(OutputStream.nullOutputStream(), value);
+        }
+        return iterations / ((System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,108 @@
+package gabriel.moraes.school.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheInvalidationBusTest {
+
+    private SimpleCacheManager cacheManager;
+    private final List<List<CacheInvalidation>> published = new ArrayList<>();
+    private CacheInvalidationBus bus;
+
+    @BeforeEach
+    void setup() {
+        cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                new ExpiringCache(CacheNames.STUDENTS, 100, Duration.ofMinutes(10), Clock.systemUTC()),
+                new ExpiringCache(CacheNames.CLASS_ROOMS, 100, Duration.ofMinutes(10), Clock.systemUTC())));
+        cacheManager.afterPropertiesSet();
+        LoopbackInvalidationTransport transport = new LoopbackInvalidationTransport();
+        transport.subscribe(published::add);
+        bus = new CacheInvalidationBus(cacheManager, transport, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void invalidate_NoTransaction_EvictsRightAway() {
+        students().put(CacheInvalidationBus.key(null, 1L), "student");
+
+        bus.invalidate(CachedEntity.STUDENT, 1L);
+
+        assertNull(students().get(CacheInvalidationBus.key(null, 1L)));
+        assertEquals(List.of(List.of(new CacheInvalidation(CachedEntity.STUDENT, null, 1L))), published);
+    }
+
+    @Test
+    void invalidate_InTransaction_PublishesOnceAfterCommit() {
+        students().put(CacheInvalidationBus.key(null, 1L), "student");
+        TransactionSynchronizationManager.initSynchronization();
+
+        bus.invalidate(CachedEntity.STUDENT, List.of(1L, 2L));
+        bus.invalidate(CachedEntity.CLASS_ROOM, 7L);
+        bus.invalidate(CachedEntity.STUDENT, 1L);
+
+        assertTrue(published.isEmpty());
+        assertEquals("student", students().get(CacheInvalidationBus.key(null, 1L)).get());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, synchronizations.size());
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(List.of(List.of(
+                new CacheInvalidation(CachedEntity.STUDENT, null, 1L),
+                new CacheInvalidation(CachedEntity.STUDENT, null, 2L),
+                new CacheInvalidation(CachedEntity.CLASS_ROOM, null, 7L))), published);
+        assertNull(students().get(CacheInvalidationBus.key(null, 1L)));
+    }
+
+    @Test
+    void invalidate_RolledBack_PublishesNothing() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        bus.invalidate(CachedEntity.STUDENT, 1L);
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    void get_InvalidatedWhileLoading_DoesNotStoreTheLoadedValue() {
+        Object key = CacheInvalidationBus.key(null, 1L);
+
+        Object loaded = students().get(key, () -> {
+            bus.invalidate(CachedEntity.STUDENT, 1L);
+            return "stale";
+        });
+
+        assertEquals("stale", loaded);
+        assertNull(students().get(key));
+        assertEquals("fresh", students().get(key, () -> "fresh"));
+        assertEquals("fresh", students().get(key).get());
+    }
+
+    private Cache students() {
+        return cacheManager.getCache(CacheNames.STUDENTS);
+    }
+}
@@ -0,0 +1,87 @@
+package gabriel.moraes.school.cache;
+
+import gabriel.moraes.school.Model.CacheInvalidationEvent;
+import gabriel.moraes.school.repository.CacheInvalidationEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseInvalidationTransportTest {
+
+    private static final Instant STARTED = Instant.parse("2023-08-01T10:00:00Z");
+    private static final Duration SETTLE = Duration.ofSeconds(5);
+    private static final String NODE = "node-a";
+
+    @Mock
+    private CacheInvalidationEventRepository repository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private Clock clock;
+    private final List<List<CacheInvalidation>> delivered = new ArrayList<>();
+    private DatabaseInvalidationTransport transport;
+
+    @BeforeEach
+    void setup() {
+        when(clock.instant()).thenReturn(STARTED);
+        transport = new DatabaseInvalidationTransport(repository, transactionManager, NODE, clock, SETTLE,
+                Duration.ofHours(1));
+        transport.subscribe(delivered::add);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publish_WritesRowsAndAppliesThemLocallyAtOnce() {
+        List<CacheInvalidation> invalidations = List.of(new CacheInvalidation(CachedEntity.STUDENT, null, 4L));
+
+        transport.publish(invalidations);
+
+        ArgumentCaptor<List<CacheInvalidationEvent>> rows = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(rows.capture());
+        assertEquals(List.of(new CacheInvalidationEvent(CachedEntity.STUDENT, 4L, NODE, STARTED)), rows.getValue());
+        assertEquals(List.of(invalidations), delivered);
+    }
+
+    @Test
+    void poll_DeliversRowsOfOtherNodesOnceAcrossOverlappingWindows() {
+        CacheInvalidationEvent own = event(1L, CachedEntity.STUDENT, 4L, NODE, STARTED.plusMillis(100));
+        CacheInvalidationEvent first = event(2L, CachedEntity.CLASS_ROOM, 7L, "node-b", STARTED.plusMillis(200));
+        CacheInvalidationEvent late = event(3L, CachedEntity.CLASS_ROOM, 8L, "node-b", STARTED.plusMillis(150));
+        when(clock.instant()).thenReturn(STARTED.plusSeconds(1));
+        when(repository.findByCreatedAtAfterOrderByIdAsc(STARTED.minus(SETTLE))).thenReturn(List.of(own, first));
+
+        transport.poll();
+
+        when(clock.instant()).thenReturn(STARTED.plusSeconds(2));
+        when(repository.findByCreatedAtAfterOrderByIdAsc(STARTED.plusSeconds(1).minus(SETTLE)))
+                .thenReturn(List.of(own, first, late));
+
+        transport.poll();
+
+        assertEquals(List.of(
+                List.of(new CacheInvalidation(CachedEntity.CLASS_ROOM, null, 7L)),
+                List.of(new CacheInvalidation(CachedEntity.CLASS_ROOM, null, 8L))), delivered);
+    }
+
+    private static CacheInvalidationEvent event(Long id, CachedEntity entity, Long entityId, String origin,
+                                                Instant createdAt) {
+        CacheInvalidationEvent event = new CacheInvalidationEvent(entity, entityId, origin, createdAt);
+        event.setId(id);
+        return event;
+    }
+}
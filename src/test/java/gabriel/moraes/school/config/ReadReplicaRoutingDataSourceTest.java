@@ -0,0 +1,131 @@
+package gabriel.moraes.school.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReadReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+    @Mock
+    private DataSource replicaOne;
+    @Mock
+    private DataSource replicaTwo;
+    @Mock
+    private Connection primaryConnection;
+    @Mock
+    private Connection replicaOneConnection;
+    @Mock
+    private Connection replicaTwoConnection;
+
+    private ReadYourWritesTracker tracker;
+    private ReadReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setup() {
+        tracker = new ReadYourWritesTracker(Duration.ofSeconds(5));
+        routingDataSource = new ReadReplicaRoutingDataSource(primary, List.of(replicaOne, replicaTwo), tracker);
+    }
+
+    @AfterEach
+    void cleanup() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        tracker.unbind();
+    }
+
+    @Test
+    void getConnection_WithoutReadOnlyTransaction_ReturnPrimary() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void getConnection_WithReadOnlyTransaction_RoundRobinsReplicas() throws SQLException {
+        when(replicaOne.getConnection()).thenReturn(replicaOneConnection);
+        when(replicaTwo.getConnection()).thenReturn(replicaTwoConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(replicaOneConnection, routingDataSource.getConnection());
+        assertSame(replicaTwoConnection, routingDataSource.getConnection());
+        assertSame(replicaOneConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void getConnection_WhenReplicaFails_FallsBackToPrimary() throws SQLException {
+        when(replicaOne.getConnection()).thenThrow(new SQLException("replica down"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void getConnection_ForPrimaryReads_UsesPrimaryWithoutPinningClient() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replicaOne.getConnection()).thenReturn(replicaOneConnection);
+        tracker.bind("client-1");
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(primaryConnection, PrimaryReads.call(this::connection));
+        assertSame(replicaOneConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void getConnection_AfterClientWrite_PinsReadsToPrimary() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        tracker.bind("client-1");
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        routingDataSource.getConnection();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        tracker.unbind();
+
+        tracker.bind("client-1");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void getConnection_ForOtherClientAfterWrite_UsesReplica() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replicaOne.getConnection()).thenReturn(replicaOneConnection);
+
+        tracker.bind("client-1");
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        routingDataSource.getConnection();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        tracker.unbind();
+
+        tracker.bind("client-2");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(replicaOneConnection, routingDataSource.getConnection());
+    }
+
+    private Connection connection() {
+        try {
+            return routingDataSource.getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
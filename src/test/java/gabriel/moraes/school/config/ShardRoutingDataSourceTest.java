@@ -0,0 +1,90 @@
+package gabriel.moraes.school.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ShardRoutingDataSourceTest {
+
+    @Mock
+    private DataSource shardA;
+    @Mock
+    private DataSource shardB;
+    @Mock
+    private Connection shardAConnection;
+    @Mock
+    private Connection shardBConnection;
+
+    private ShardRoutingDataSource routingDataSource;
+    private ShardRouter shardRouter;
+
+    @BeforeEach
+    void setup() {
+        routingDataSource = new ShardRoutingDataSource();
+        routingDataSource.setTargetDataSources(Map.of("a", shardA, "b", shardB));
+        routingDataSource.setDefaultTargetDataSource(shardA);
+        routingDataSource.setLenientFallback(false);
+        routingDataSource.afterPropertiesSet();
+        shardRouter = new ShardRouter(List.of("a", "b"), "a", Map.of("compass-2023", "b"),
+                Executors.newFixedThreadPool(2));
+    }
+
+    @AfterEach
+    void cleanup() {
+        ShardContext.clear();
+    }
+
+    @Test
+    void getConnection_ShardOfBoundProgram_UsesThatShard() throws SQLException {
+        when(shardB.getConnection()).thenReturn(shardBConnection);
+        ShardContext.bind("compass-2023", shardRouter.shardFor("compass-2023"));
+
+        assertSame(shardBConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void getConnection_NothingBound_UsesDefaultShard() throws SQLException {
+        when(shardA.getConnection()).thenReturn(shardAConnection);
+
+        assertSame(shardAConnection, routingDataSource.getConnection());
+        assertEquals("a", shardRouter.shardFor("unmapped-program"));
+    }
+
+    @Test
+    void getConnection_UnknownShard_Fails() {
+        ShardContext.bind(null, "c");
+
+        assertThrows(IllegalStateException.class, () -> routingDataSource.getConnection());
+    }
+
+    @Test
+    void fanOut_RunsOnEveryShardAndRestoresContext() {
+        ShardContext.bind("compass-2023", "b");
+
+        Map<String, String> seen = shardRouter.fanOut(ShardContext::currentShard);
+
+        assertEquals(Map.of("a", "a", "b", "b"), seen);
+        assertEquals(List.of("a", "b"), List.copyOf(seen.keySet()));
+        assertEquals("b", ShardContext.currentShard());
+    }
+
+    @Test
+    void shardRouter_ProgramMappedToUnknownShard_IsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ShardRouter(List.of("a"), "a", Map.of("compass-2023", "b"), Runnable::run));
+    }
+}
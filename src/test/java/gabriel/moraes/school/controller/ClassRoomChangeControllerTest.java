@@ -0,0 +1,54 @@
+package gabriel.moraes.school.controller;
+
+import gabriel.moraes.school.Model.ClassRoomChangeType;
+import gabriel.moraes.school.Model.DtoResponse.ChangeFeedDtoResponse;
+import gabriel.moraes.school.Model.DtoResponse.ClassRoomChangeDtoResponse;
+import gabriel.moraes.school.service.ChangeFeedService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ClassRoomChangeController.class)
+class ClassRoomChangeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ChangeFeedService changeFeedService;
+
+    @Test
+    void getChanges_ReturnChangesSinceCursor() throws Exception {
+        ClassRoomChangeDtoResponse change = new ClassRoomChangeDtoResponse(42L, 1L, ClassRoomChangeType.STUDENT_ENROLLED,
+                5L, null, Instant.parse("2023-08-01T10:00:00Z"));
+        when(changeFeedService.getChanges(41L, 100)).thenReturn(new ChangeFeedDtoResponse(List.of(change), 42L, false));
+
+        mockMvc.perform(get("/api/v1/classes/changes").param("since", "41"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].id").value(42))
+                .andExpect(jsonPath("$.changes[0].changeType").value("STUDENT_ENROLLED"))
+                .andExpect(jsonPath("$.changes[0].detail").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value(42))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void getClassChanges_ReturnChangesOfThatClass() throws Exception {
+        when(changeFeedService.getChangesForClass(1L, 0L, 10)).thenReturn(new ChangeFeedDtoResponse(List.of(), 0L, false));
+
+        mockMvc.perform(get("/api/v1/classes/{id}/changes", 1L).param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes").isEmpty())
+                .andExpect(jsonPath("$.nextCursor").value(0));
+    }
+}
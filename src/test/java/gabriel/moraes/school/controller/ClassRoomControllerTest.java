@@ -1,33 +1,48 @@
 package gabriel.moraes.school.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import gabriel.moraes.school.Model.*;
 import gabriel.moraes.school.Model.DtoRequest.AddStudentsDtoRequest;
 import gabriel.moraes.school.Model.DtoRequest.ClassRoomDtoRequest;
 import gabriel.moraes.school.Model.DtoResponse.ClassRoomDtoResponse;
+import gabriel.moraes.school.Model.DtoResponse.EnrollmentTicketDtoResponse;
+import gabriel.moraes.school.Model.DtoResponse.WaitlistPositionDtoResponse;
 import gabriel.moraes.school.exception.ObjectNotFoundException;
+import gabriel.moraes.school.service.ClassRoomReadCoalescer;
 import gabriel.moraes.school.service.ClassRoomService;
+import gabriel.moraes.school.service.EnrollmentOutcome;
+import gabriel.moraes.school.service.EnrollmentQueueService;
+import gabriel.moraes.school.service.RosterExportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 
 @WebMvcTest(ClassRoomController.class)
+@Import({ClassRoomReadCoalescer.class, SimpleMeterRegistry.class, NoOpCacheManager.class})
 class ClassRoomControllerTest {
 
     @Autowired
@@ -38,6 +53,10 @@ class ClassRoomControllerTest {
 
     @MockBean
     private ClassRoomService classRoomService;
+    @MockBean
+    private RosterExportService rosterExportService;
+    @MockBean
+    private EnrollmentQueueService enrollmentQueueService;
     private ClassRoomDtoRequest classRoomDtoRequest;
     private ClassRoomDtoResponse classRoomDtoResponse;
     private AddStudentsDtoRequest addStudentsDtoRequest;
@@ -62,6 +81,34 @@ class ClassRoomControllerTest {
                 .andExpect(jsonPath("$.id").value(classId));
     }
 
+    @Test
+    void getClassById_AcceptCbor_ReturnCborEncodedClass() throws Exception {
+        Long classId = 1L;
+
+        Mockito.when(classRoomService.getClassById(classId)).thenReturn(classRoomDtoResponse);
+
+        byte[] body = mockMvc.perform(get("/api/v1/classes/{id}", classId).accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ClassRoomDtoResponse decoded = new CBORMapper().readValue(body, ClassRoomDtoResponse.class);
+        assertEquals(classId, decoded.getId());
+        assertEquals("the fofoca brockers", decoded.getName());
+        assertEquals(ClassStatus.WAITING, decoded.getStatus());
+    }
+
+    @Test
+    void getClassById_AcceptJsonWithLowerQuality_ReturnCbor() throws Exception {
+        Long classId = 1L;
+
+        Mockito.when(classRoomService.getClassById(classId)).thenReturn(classRoomDtoResponse);
+
+        mockMvc.perform(get("/api/v1/classes/{id}", classId).accept("application/json;q=0.1, application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"));
+    }
+
     @Test
     void getClassById_UnexistingId_ReturnsObjectNotFound() throws Exception {
         when(classRoomService.getClassById(anyLong())).thenThrow(new ObjectNotFoundException("Class room not found"));
@@ -93,7 +140,8 @@ class ClassRoomControllerTest {
 
         ClassRoomDtoResponse classRoomDtoResponseWithStudents = new ClassRoomDtoResponse(1L, "the fofoca brockers", ClassStatus.WAITING, List.of(new Coordinator()), List.of(new ScrumMaster()), List.of(new Instructor()), List.of(new Student()));
 
-        Mockito.when(classRoomService.addStudentsToClass(classId, addStudentsDtoRequest)).thenReturn(classRoomDtoResponseWithStudents);
+        Mockito.when(classRoomService.addStudentsToClass(classId, addStudentsDtoRequest)).thenReturn(
+                EnrollmentOutcome.enrolled(classRoomDtoResponseWithStudents));
 
         mockMvc.perform(patch("/api/v1/classes/{id}/add-students", classId)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -104,6 +152,54 @@ class ClassRoomControllerTest {
                 .andExpect(jsonPath("$.students").isArray());
     }
 
+    @Test
+    void addStudentsToClass_ClassFull_ReturnsAcceptedWaitlistPositions() throws Exception {
+        Long classId = 1L;
+        Mockito.when(classRoomService.addStudentsToClass(classId, addStudentsDtoRequest)).thenReturn(
+                EnrollmentOutcome.waitlisted(List.of(new WaitlistPositionDtoResponse(classId, 1L, 3, 3, null))));
+
+        mockMvc.perform(patch("/api/v1/classes/{id}/add-students", classId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(addStudentsDtoRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$[0].studentId").value(1))
+                .andExpect(jsonPath("$[0].position").value(3));
+    }
+
+    @Test
+    void addStudentsToClass_RespondAsync_ReturnsAcceptedTicket() throws Exception {
+        Long classId = 1L;
+        EnrollmentTicketDtoResponse ticket = new EnrollmentTicketDtoResponse(7L, classId, List.of(1L),
+                EnrollmentStatus.QUEUED, null, Instant.parse("2026-10-19T10:00:00Z"), null);
+
+        when(enrollmentQueueService.submit(classId, addStudentsDtoRequest)).thenReturn(ticket);
+
+        mockMvc.perform(patch("/api/v1/classes/{id}/add-students", classId)
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(addStudentsDtoRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/api/v1/classes/1/enrollment-tickets/7"))
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.id").value(7))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+        verify(classRoomService, never()).addStudentsToClass(anyLong(), any());
+    }
+
+    @Test
+    void getEnrollmentTicket_Completed_ReturnsOutcome() throws Exception {
+        EnrollmentTicketDtoResponse ticket = new EnrollmentTicketDtoResponse(7L, 1L, List.of(1L),
+                EnrollmentStatus.REJECTED, "A class can have a maximum of 30 students",
+                Instant.parse("2026-10-19T10:00:00Z"), Instant.parse("2026-10-19T10:00:01Z"));
+
+        when(enrollmentQueueService.getTicket(1L, 7L)).thenReturn(ticket);
+
+        mockMvc.perform(get("/api/v1/classes/{id}/enrollment-tickets/{ticketId}", 1L, 7L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("REJECTED"))
+                .andExpect(jsonPath("$.reason").value("A class can have a maximum of 30 students"));
+    }
+
     @Test
     public void startClass_ReturnSuccess() throws Exception {
         Long classId = 1L;
@@ -118,4 +214,27 @@ class ClassRoomControllerTest {
         mockMvc.perform(patch("/api/v1/classes/{id}/finish", classId))
                 .andExpect(status().isNoContent());
     }
-}
\ No newline at end of file
+
+    @Test
+    void exportRosters_WithStatusFilter_StreamsCsvAttachment() throws Exception {
+        mockMvc.perform(get("/api/v1/classes/roster").param("status", "FINISHED"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"roster.csv\""));
+
+        Mockito.verify(rosterExportService).export(Mockito.isNull(), Mockito.eq(ClassStatus.FINISHED),
+                Mockito.eq(RosterFormat.CSV), Mockito.any());
+    }
+
+    @Test
+    void exportRoster_UnknownClass_ReturnNotFoundWithoutExporting() throws Exception {
+        Mockito.doThrow(new ObjectNotFoundException("Class room not found with id: 9"))
+                .when(rosterExportService).checkClassExists(9L);
+
+        mockMvc.perform(get("/api/v1/classes/{id}/roster", 9L).param("format", "NDJSON"))
+                .andExpect(status().isNotFound());
+
+        Mockito.verify(rosterExportService, Mockito.never()).export(Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any());
+    }
+}
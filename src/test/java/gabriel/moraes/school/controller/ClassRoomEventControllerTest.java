@@ -0,0 +1,47 @@
+package gabriel.moraes.school.controller;
+
+import gabriel.moraes.school.event.ClassRoomEventBroadcaster;
+import gabriel.moraes.school.exception.TooManySubscribersException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ClassRoomEventController.class)
+@TestPropertySource(properties = "school.events.enabled=true")
+class ClassRoomEventControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ClassRoomEventBroadcaster broadcaster;
+
+    @Test
+    void streamClassEvents_WithLastEventId_ResumesSubscription() throws Exception {
+        when(broadcaster.subscribe(1L, 41L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/v1/classes/{id}/events", 1L)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Last-Event-ID", "41"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void streamEvents_TooManySubscribers_ReturnsServiceUnavailable() throws Exception {
+        when(broadcaster.subscribe(null, null)).thenThrow(new TooManySubscribersException("Too many"));
+
+        mockMvc.perform(get("/api/v1/classes/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "30"));
+    }
+}
@@ -0,0 +1,45 @@
+package gabriel.moraes.school.controller;
+
+import gabriel.moraes.school.Model.ClassStatus;
+import gabriel.moraes.school.Model.DtoResponse.DashboardDtoResponse;
+import gabriel.moraes.school.service.DashboardService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(DashboardController.class)
+@TestPropertySource(properties = "school.dashboard.enabled=true")
+class DashboardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DashboardService dashboardService;
+
+    @Test
+    void getDashboard_ReturnAggregatedNumbers() throws Exception {
+        DashboardDtoResponse dashboard = new DashboardDtoResponse(
+                Map.of(ClassStatus.WAITING, 2L, ClassStatus.STARTED, 1L, ClassStatus.FINISHED, 0L),
+                12, 20, 16.0, 16.0 / 30, 1, 48, 7, 4, 1.33, 42, Instant.parse("2023-08-01T10:00:00Z"));
+        when(dashboardService.getDashboard()).thenReturn(dashboard);
+
+        mockMvc.perform(get("/api/v1/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.classesByStatus.WAITING").value(2))
+                .andExpect(jsonPath("$.maxClassSize").value(20))
+                .andExpect(jsonPath("$.unassignedStudents").value(7))
+                .andExpect(jsonPath("$.cursor").value(42));
+    }
+}
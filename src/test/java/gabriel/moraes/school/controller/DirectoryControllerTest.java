@@ -0,0 +1,53 @@
+package gabriel.moraes.school.controller;
+
+import gabriel.moraes.school.Model.DtoResponse.DirectoryDtoResponse;
+import gabriel.moraes.school.Model.DtoResponse.PersonDtoResponse;
+import gabriel.moraes.school.Model.PersonRole;
+import gabriel.moraes.school.service.DirectoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(DirectoryController.class)
+class DirectoryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DirectoryService directoryService;
+
+    @Test
+    void search_ByEmail_ReturnMatchingPeopleWithTheirRole() throws Exception {
+        PersonDtoResponse person = new PersonDtoResponse(4L, PersonRole.INSTRUCTOR, "Lucas", "Pereira",
+                "lucas.pereira@example.com", "123");
+        when(directoryService.search("lucas.pereira@example.com", null, 0, 20))
+                .thenReturn(new DirectoryDtoResponse(List.of(person), 0, 20, false));
+
+        mockMvc.perform(get("/api/v1/people").param("query", "lucas.pereira@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.people[0].id").value(4))
+                .andExpect(jsonPath("$.people[0].role").value("INSTRUCTOR"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void search_ByRoleAndPage_PassFiltersThrough() throws Exception {
+        when(directoryService.search(null, PersonRole.SCRUM_MASTER, 2, 10))
+                .thenReturn(new DirectoryDtoResponse(List.of(), 2, 10, false));
+
+        mockMvc.perform(get("/api/v1/people").param("role", "SCRUM_MASTER").param("page", "2").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.people").isEmpty())
+                .andExpect(jsonPath("$.page").value(2));
+    }
+}
@@ -0,0 +1,58 @@
+package gabriel.moraes.school.controller;
+
+import gabriel.moraes.school.Model.DtoResponse.MembershipDtoResponse;
+import gabriel.moraes.school.exception.ObjectNotFoundException;
+import gabriel.moraes.school.membership.MembershipIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(MembershipController.class)
+class MembershipControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private MembershipIndex membershipIndex;
+
+    @Test
+    void getUnassignedStudents_ReturnCountAndPage() throws Exception {
+        when(membershipIndex.getUnassignedStudents(10, 2))
+                .thenReturn(new MembershipDtoResponse(7, List.of(11L, 12L), true));
+
+        mockMvc.perform(get("/api/v1/membership/students/unassigned?after=10&limit=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(7))
+                .andExpect(jsonPath("$.studentIds[1]").value(12))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void getClassStudentsWithoutSquad_ReturnStudents() throws Exception {
+        when(membershipIndex.getClassStudentsWithoutSquad(1L, 0, 1000))
+                .thenReturn(new MembershipDtoResponse(1, List.of(15L), false));
+
+        mockMvc.perform(get("/api/v1/membership/classes/1/students/without-squad"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.studentIds[0]").value(15));
+    }
+
+    @Test
+    void getSquadStudents_UnknownSquad_ReturnNotFound() throws Exception {
+        when(membershipIndex.getSquadStudents(9L, 0, 1000))
+                .thenThrow(new ObjectNotFoundException("Squad not found with id: 9"));
+
+        mockMvc.perform(get("/api/v1/membership/squads/9/students"))
+                .andExpect(status().isNotFound());
+    }
+}
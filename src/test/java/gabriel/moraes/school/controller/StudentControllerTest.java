@@ -1,7 +1,10 @@
 package gabriel.moraes.school.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import gabriel.moraes.school.Model.DtoRequest.StudentDtoRequest;
+import gabriel.moraes.school.Model.DtoResponse.DeleteStudentsDtoResponse;
 import gabriel.moraes.school.Model.DtoResponse.StudentDtoResponse;
 import gabriel.moraes.school.exception.ObjectNotFoundException;
 import gabriel.moraes.school.service.StudentService;
@@ -25,6 +28,7 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 @WebMvcTest(StudentController.class)
@@ -99,6 +103,39 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$.phone").value(PHONE));
     }
 
+    @Test
+    void getStudentById_AcceptCbor_ReturnCborEncodedStudent() throws Exception {
+        when(studentService.getStudentById(anyLong())).thenReturn(studentDtoResponse);
+
+        byte[] body = mockMvc.perform(get("/api/v1/students/{id}", ID).accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(studentDtoResponse, new CBORMapper().readValue(body, StudentDtoResponse.class));
+    }
+
+    @Test
+    void getAllStudents_AcceptSmile_ReturnSmileEncodedStudents() throws Exception {
+        when(studentService.getAllStudents()).thenReturn(List.of(studentDtoResponse));
+
+        byte[] body = mockMvc.perform(get("/api/v1/students").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(studentDtoResponse, new SmileMapper().readValue(body, StudentDtoResponse[].class)[0]);
+    }
+
+    @Test
+    void getStudentById_WithoutAccept_ReturnJson() throws Exception {
+        when(studentService.getStudentById(anyLong())).thenReturn(studentDtoResponse);
+
+        mockMvc.perform(get("/api/v1/students/{id}", ID))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
     @Test
     void getStudentById_UnexistingId_ReturnsObjectNotFound() throws Exception {
         when(studentService.getStudentById(anyLong())).thenThrow(new ObjectNotFoundException("Student not found"));
@@ -149,6 +186,23 @@ class StudentControllerTest {
 
     }
 
+    @Test
+    void deleteStudents_ReturnDeletedCountAndMissingIds() throws Exception {
+        when(studentService.deleteStudents(List.of(1L, 2L, 9L))).thenReturn(new DeleteStudentsDtoResponse(2, List.of(9L)));
 
+        mockMvc.perform(post("/api/v1/students/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"students\":[1,2,9]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2))
+                .andExpect(jsonPath("$.notFound[0]").value(9));
+    }
 
-}
\ No newline at end of file
+    @Test
+    void deleteStudents_WithoutIds_ReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/students/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"students\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+}
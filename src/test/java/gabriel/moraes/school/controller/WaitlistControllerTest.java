@@ -0,0 +1,47 @@
+package gabriel.moraes.school.controller;
+
+import gabriel.moraes.school.Model.DtoResponse.WaitlistPositionDtoResponse;
+import gabriel.moraes.school.exception.ObjectNotFoundException;
+import gabriel.moraes.school.service.WaitlistService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(WaitlistController.class)
+class WaitlistControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private WaitlistService waitlistService;
+
+    @Test
+    void getPosition_Waitlisted_ReturnPosition() throws Exception {
+        when(waitlistService.getPosition(1L, 12L)).thenReturn(
+                new WaitlistPositionDtoResponse(1L, 12L, 3, 8, Instant.parse("2026-10-19T10:00:00Z")));
+
+        mockMvc.perform(get("/api/v1/classes/1/waitlist/12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.position").value(3))
+                .andExpect(jsonPath("$.waiting").value(8));
+    }
+
+    @Test
+    void getPosition_NotWaitlisted_ReturnNotFound() throws Exception {
+        when(waitlistService.getPosition(1L, 12L))
+                .thenThrow(new ObjectNotFoundException("Student 12 is not on the waitlist of class room 1"));
+
+        mockMvc.perform(get("/api/v1/classes/1/waitlist/12"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,167 @@
+package gabriel.moraes.school.event;
+
+import gabriel.moraes.school.Model.ClassRoomChangeType;
+import gabriel.moraes.school.Model.DtoResponse.ChangeFeedDtoResponse;
+import gabriel.moraes.school.Model.DtoResponse.ClassRoomChangeDtoResponse;
+import gabriel.moraes.school.exception.TooManySubscribersException;
+import gabriel.moraes.school.service.ChangeFeedService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClassRoomEventBroadcasterTest {
+
+    @Mock
+    private ChangeFeedService changeFeedService;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void publish_SendsToGlobalAndMatchingClassSubscribersOnly() {
+        ClassRoomEventBroadcaster broadcaster = broadcaster(new DirectExecutor(true), 10, 10);
+        broadcaster.startFrom(0);
+        broadcaster.subscribe(null, null);
+        broadcaster.subscribe(1L, null);
+        broadcaster.subscribe(2L, null);
+
+        broadcaster.publish(List.of(change(1L, 1L), change(2L, 1L)));
+
+        assertEquals(4.0, meterRegistry.get("school.events.sent").counter().count());
+        assertEquals(2L, broadcaster.getCursor());
+    }
+
+    @Test
+    void publish_SubscriberQueueFull_EvictsOnlyThatSubscriber() {
+        ClassRoomEventBroadcaster broadcaster = broadcaster(new DirectExecutor(false), 2, 10);
+        broadcaster.startFrom(0);
+        broadcaster.subscribe(1L, null);
+
+        broadcaster.publish(List.of(change(1L, 1L), change(2L, 1L), change(3L, 1L)));
+
+        assertEquals(1.0, meterRegistry.get("school.events.evicted").counter().count());
+        assertEquals(0.0, meterRegistry.get("school.events.subscribers").gauge().value());
+    }
+
+    @Test
+    void subscribe_WithLastEventId_ReplaysMissedChangesUpToCursor() {
+        ClassRoomEventBroadcaster broadcaster = broadcaster(new DirectExecutor(true), 10, 10);
+        broadcaster.startFrom(3);
+        when(changeFeedService.getChangesForClass(1L, 1L, 11))
+                .thenReturn(new ChangeFeedDtoResponse(List.of(change(2L, 1L), change(3L, 1L), change(4L, 1L)), 4L, false));
+
+        broadcaster.subscribe(1L, 1L);
+
+        assertEquals(2.0, meterRegistry.get("school.events.sent").counter().count());
+    }
+
+    @Test
+    void subscribe_ChangesPublishedDuringReplay_ReplayedOnceWithoutBlockingPublish() {
+        ClassRoomEventBroadcaster broadcaster = broadcaster(new DirectExecutor(true), 10, 10);
+        broadcaster.startFrom(3);
+        when(changeFeedService.getChanges(1L, 11)).thenAnswer(invocation -> {
+            CompletableFuture.runAsync(() -> broadcaster.publish(List.of(change(4L, 1L))))
+                    .get(5, TimeUnit.SECONDS);
+            return new ChangeFeedDtoResponse(List.of(change(2L, 1L), change(3L, 1L), change(4L, 1L)), 4L, false);
+        });
+        when(changeFeedService.getChanges(3L, 9))
+                .thenReturn(new ChangeFeedDtoResponse(List.of(change(4L, 1L)), 4L, false));
+
+        broadcaster.subscribe(null, 1L);
+        broadcaster.publish(List.of(change(5L, 1L)));
+
+        assertEquals(4.0, meterRegistry.get("school.events.sent").counter().count());
+    }
+
+    @Test
+    void subscribe_BacklogLargerThanQueue_SendsResetInsteadOfReplaying() {
+        ClassRoomEventBroadcaster broadcaster = broadcaster(new DirectExecutor(true), 3, 10);
+        broadcaster.startFrom(10);
+        when(changeFeedService.getChanges(0L, 4)).thenReturn(new ChangeFeedDtoResponse(
+                List.of(change(1L, 1L), change(2L, 1L), change(3L, 1L), change(4L, 1L)), 4L, true));
+
+        broadcaster.subscribe(null, 0L);
+        broadcaster.publish(List.of(change(11L, 1L)));
+
+        verify(changeFeedService, times(1)).getChanges(anyLong(), anyInt());
+        assertEquals(2.0, meterRegistry.get("school.events.sent").counter().count());
+        assertEquals(0.0, meterRegistry.get("school.events.evicted").counter().count());
+        assertEquals(1.0, meterRegistry.get("school.events.subscribers").gauge().value());
+    }
+
+    @Test
+    void subscribe_AboveMaximum_ThrowsTooManySubscribers() {
+        ClassRoomEventBroadcaster broadcaster = broadcaster(new DirectExecutor(true), 10, 1);
+        broadcaster.subscribe(null, null);
+
+        assertThrows(TooManySubscribersException.class, () -> broadcaster.subscribe(1L, null));
+        assertEquals(1.0, meterRegistry.get("school.events.subscribers").gauge().value());
+    }
+
+    private ClassRoomEventBroadcaster broadcaster(ExecutorService sender, int queueCapacity, int maxSubscribers) {
+        return new ClassRoomEventBroadcaster(changeFeedService, meterRegistry, sender, queueCapacity, maxSubscribers,
+                Duration.ofMinutes(1));
+    }
+
+    private static ClassRoomChangeDtoResponse change(Long id, Long classRoomId) {
+        return new ClassRoomChangeDtoResponse(id, classRoomId, ClassRoomChangeType.STUDENT_ENROLLED, 5L, null,
+                Instant.parse("2023-08-01T10:00:00Z"));
+    }
+
+    private static final class DirectExecutor extends AbstractExecutorService {
+
+        private final boolean run;
+
+        private DirectExecutor(boolean run) {
+            this.run = run;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            if (run) {
+                command.run();
+            }
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package gabriel.moraes.school.event;
+
+import gabriel.moraes.school.Model.DomainEventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class WebhookEventSubscriberTest {
+
+    private static final URI URL = URI.create("http://events.example.com/school");
+
+    private MockRestServiceServer server;
+    private WebhookEventSubscriber subscriber;
+
+    @BeforeEach
+    void setup() {
+        RestTemplate restTemplate = new RestTemplateBuilder().build();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+        subscriber = new WebhookEventSubscriber(restTemplate, URL);
+    }
+
+    @Test
+    void onEvent_EndpointAccepts_PostsEventAsJson() {
+        server.expect(requestTo(URL))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.id").value(7))
+                .andExpect(jsonPath("$.type").value("STUDENTS_ENROLLED"))
+                .andExpect(jsonPath("$.payload.studentIds[0]").value(5))
+                .andRespond(withSuccess());
+
+        subscriber.onEvent(event());
+
+        server.verify();
+    }
+
+    @Test
+    void onEvent_EndpointFails_ThrowsSoTheRelayRetries() {
+        server.expect(requestTo(URL)).andRespond(withServerError());
+
+        assertThrows(HttpServerErrorException.class, () -> subscriber.onEvent(event()));
+    }
+
+    private static DomainEvent event() {
+        return new DomainEvent(7L, DomainEventType.STUDENTS_ENROLLED, 1L, Map.of("studentIds", List.of(5)),
+                Instant.parse("2023-08-01T10:00:00Z"));
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.MockitoAnnotations;
 import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -133,6 +134,20 @@ class ExceptionHandlerControllerTest {
         assertEquals("Requires a minimum of 3 instructors", response.getBody().getMessage());
     }
 
+    @Test
+    void classRoomBusyException() {
+        ResponseEntity<ErrorResponse> response = exceptionHandlerController
+                .classRoomBusyException(
+                        new ClassRoomBusyException("Class room 1 is being changed by another request, try again")
+                );
+
+        assertNotNull(response);
+        assertNotNull(response.getBody());
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("Class room 1 is being changed by another request, try again", response.getBody().getMessage());
+    }
+
     @Test
     void testHandleValidationException() {
         FieldError fieldError = new FieldError("objectName", "fieldName", "Field is required");
@@ -0,0 +1,200 @@
+package gabriel.moraes.school.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyFilterTest {
+
+    private static final String KEY = "7f1c2a34-retry";
+
+    private final AtomicInteger executions = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotencyStore store;
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new IdempotencyStore(100, Duration.ofHours(1), Clock.fixed(Instant.parse("2023-08-01T10:00:00Z"),
+                ZoneOffset.UTC));
+        filter = new IdempotencyFilter(store, new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry,
+                "Idempotency-Key", 1024, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void retry_WithSameKey_ReplaysStoredResponseWithoutRunningAgain() throws Exception {
+        MockHttpServletResponse first = perform(post("{\"firstName\":\"Ana\"}", KEY), created(null));
+        MockHttpServletResponse retry = perform(post("{\"firstName\":\"Ana\"}", KEY), created(null));
+
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals("application/json", retry.getContentType());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1.0, meterRegistry.get("school.idempotency.replayed").counter().count());
+    }
+
+    @Test
+    void requestsWithoutKeyOrNotMutating_AlwaysRun() throws Exception {
+        perform(post("{}", null), created(null));
+        perform(post("{}", null), created(null));
+        MockHttpServletRequest get = new MockHttpServletRequest("GET", "/api/v1/students");
+        get.addHeader("Idempotency-Key", KEY);
+        perform(get, created(null));
+        perform(get, created(null));
+
+        assertEquals(4, executions.get());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void sameKey_WithDifferentBody_IsRejected() throws Exception {
+        perform(post("{\"firstName\":\"Ana\"}", KEY), created(null));
+        MockHttpServletResponse response = perform(post("{\"firstName\":\"Bia\"}", KEY), created(null));
+
+        assertEquals(422, response.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void serverError_IsNotStoredSoTheRetryRuns() throws Exception {
+        FilterChain failing = (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(500);
+        };
+        perform(post("{}", KEY), failing);
+        MockHttpServletResponse retry = perform(post("{}", KEY), created(null));
+
+        assertEquals(2, executions.get());
+        assertEquals(201, retry.getStatus());
+    }
+
+    @Test
+    void conflictWithRetryAfter_IsNotStoredSoTheRetryRuns() throws Exception {
+        FilterChain busy = (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(409);
+            ((HttpServletResponse) response).setHeader("Retry-After", "1");
+        };
+        perform(post("{}", KEY), busy);
+        MockHttpServletResponse retry = perform(post("{}", KEY), created(null));
+
+        assertEquals(2, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertNull(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void rateLimitedOrRetryAfter_IsNotStored() throws Exception {
+        FilterChain limited = (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(429);
+        };
+        FilterChain accepted = (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(202);
+            ((HttpServletResponse) response).setHeader("Retry-After", "5");
+        };
+        perform(post("{}", KEY), limited);
+        perform(post("{}", KEY), accepted);
+        perform(post("{}", KEY), created(null));
+
+        assertEquals(3, executions.get());
+    }
+
+    @Test
+    void concurrentDuplicates_AreCoalescedIntoOneExecution() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slow = created(() -> {
+            running.countDown();
+            await(release);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<MockHttpServletResponse> first = executor.submit(() -> perform(post("{}", KEY), slow));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            Future<MockHttpServletResponse> second = executor.submit(() -> perform(post("{}", KEY), slow));
+            Future<MockHttpServletResponse> third = executor.submit(() -> perform(post("{}", KEY), slow));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals(201, first.get(5, TimeUnit.SECONDS).getStatus());
+            assertEquals(201, second.get(5, TimeUnit.SECONDS).getStatus());
+            assertEquals("true", third.get(5, TimeUnit.SECONDS).getHeader(IdempotencyFilter.REPLAYED_HEADER));
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void store_IsBoundedByMaxEntries() throws Exception {
+        store = new IdempotencyStore(2, Duration.ofHours(1), Clock.systemUTC());
+        filter = new IdempotencyFilter(store, new ObjectMapper(), meterRegistry, "Idempotency-Key", 1024,
+                Duration.ofSeconds(5));
+
+        perform(post("{}", "a"), created(null));
+        perform(post("{}", "b"), created(null));
+        perform(post("{}", "c"), created(null));
+        perform(post("{}", "a"), created(null));
+
+        assertEquals(2, store.size());
+        assertEquals(4, executions.get());
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private FilterChain created(Runnable during) {
+        return (request, response) -> {
+            int execution = executions.incrementAndGet();
+            request.getInputStream().readAllBytes();
+            if (during != null) {
+                during.run();
+            }
+            ((HttpServletResponse) response).setStatus(201);
+            response.setContentType("application/json");
+            response.getOutputStream().write(("{\"id\":" + execution + "}").getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static MockHttpServletRequest post(String body, String key) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/students");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        request.setContentType("application/json");
+        if (key != null) {
+            request.addHeader("Idempotency-Key", key);
+        }
+        return request;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package gabriel.moraes.school.membership;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdBitmapTest {
+
+    @Test
+    void addRemoveContains_AcrossContainers() {
+        IdBitmap bitmap = IdBitmap.of(1, 70_000, 3);
+
+        assertTrue(bitmap.add(5));
+        assertFalse(bitmap.add(5));
+        assertTrue(bitmap.contains(70_000));
+        assertFalse(bitmap.contains(2));
+        assertEquals(4, bitmap.cardinality());
+
+        assertTrue(bitmap.remove(70_000));
+        assertFalse(bitmap.remove(70_000));
+        assertEquals(List.of(1L, 3L, 5L), bitmap.ids(0, 10));
+    }
+
+    @Test
+    void denseGroup_SwitchesToBitmapAndBack() {
+        IdBitmap bitmap = new IdBitmap();
+        for (int id = 0; id <= IdBitmap.ARRAY_MAX; id++) {
+            bitmap.add(id * 2L);
+        }
+        assertEquals(IdBitmap.ARRAY_MAX + 1, bitmap.cardinality());
+        assertTrue(bitmap.contains(IdBitmap.ARRAY_MAX * 2L));
+        assertFalse(bitmap.contains(1));
+
+        bitmap.remove(0);
+        bitmap.remove(2);
+        assertEquals(IdBitmap.ARRAY_MAX - 1, bitmap.cardinality());
+        assertEquals(List.of(4L, 6L), bitmap.ids(0, 2));
+    }
+
+    @Test
+    void and_IntersectsAndCounts() {
+        IdBitmap dense = new IdBitmap();
+        for (int id = 0; id < 10_000; id++) {
+            dense.add(id);
+        }
+        IdBitmap sparse = IdBitmap.of(5, 9_999, 10_000, 200_000);
+
+        assertEquals(2, dense.andCardinality(sparse));
+        assertEquals(List.of(5L, 9_999L), dense.and(sparse).ids(0, 10));
+        assertEquals(dense.copy(), dense);
+    }
+
+    @Test
+    void ids_PagesAfterTheGivenId() {
+        IdBitmap bitmap = IdBitmap.of(2, 4, 6, 65_536, 65_538);
+
+        assertEquals(List.of(6L, 65_536L), bitmap.ids(4, 2));
+        assertEquals(List.of(65_538L), bitmap.ids(65_536, 10));
+        assertEquals(List.of(), bitmap.ids(65_538, 10));
+    }
+
+    @Test
+    void add_IdOutOfRange_Rejected() {
+        IdBitmap bitmap = new IdBitmap();
+
+        assertThrows(IllegalArgumentException.class, () -> bitmap.add(-1));
+        assertThrows(IllegalArgumentException.class, () -> bitmap.add(Integer.MAX_VALUE + 1L));
+        assertFalse(bitmap.contains(-1));
+    }
+}
@@ -0,0 +1,167 @@
+package gabriel.moraes.school.membership;
+
+import gabriel.moraes.school.Model.DtoResponse.MembershipDtoResponse;
+import gabriel.moraes.school.cache.CacheInvalidation;
+import gabriel.moraes.school.cache.CachedEntity;
+import gabriel.moraes.school.cache.LoopbackInvalidationTransport;
+import gabriel.moraes.school.exception.ObjectNotFoundException;
+import gabriel.moraes.school.repository.ClassRoomRepository;
+import gabriel.moraes.school.repository.SquadRepository;
+import gabriel.moraes.school.repository.SquadRepository.SquadPlacement;
+import gabriel.moraes.school.repository.StudentRepository;
+import gabriel.moraes.school.repository.StudentRepository.StudentMembership;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MembershipIndexTest {
+
+    @Mock
+    private StudentRepository studentRepository;
+    @Mock
+    private ClassRoomRepository classRoomRepository;
+    @Mock
+    private SquadRepository squadRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private final LoopbackInvalidationTransport transport = new LoopbackInvalidationTransport();
+    private MembershipIndex membershipIndex;
+
+    @BeforeEach
+    void setup() {
+        membershipIndex = new MembershipIndex(studentRepository, classRoomRepository, squadRepository,
+                transactionManager, new SimpleMeterRegistry(), null, transport);
+    }
+
+    @Test
+    void rebuild_AnswersMembershipFromMemory() {
+        stubDatabase();
+
+        membershipIndex.rebuild();
+
+        assertEquals(List.of(1L, 2L, 3L), membershipIndex.getClassStudents(10L, 0, 100).getStudentIds());
+        assertEquals(List.of(3L), membershipIndex.getClassStudentsWithoutSquad(10L, 0, 100).getStudentIds());
+        assertEquals(List.of(1L, 2L), membershipIndex.getSquadStudents(100L, 0, 100).getStudentIds());
+        assertEquals(0, membershipIndex.getClassStudents(11L, 0, 100).getCount());
+        assertEquals(List.of(1L, 2L), membershipIndex.findAssigned(List.of(1L, 2L, 4L, 99L)));
+        verify(studentRepository, times(1)).streamMemberships();
+    }
+
+    @Test
+    void unassignedStudents_PagedWithTotalCount() {
+        stubDatabase();
+
+        MembershipDtoResponse page = membershipIndex.getUnassignedStudents(0, 1);
+
+        assertEquals(2, page.getCount());
+        assertEquals(List.of(4L), page.getStudentIds());
+        assertTrue(page.isHasMore());
+        assertEquals(List.of(5L), membershipIndex.getUnassignedStudents(4, 1).getStudentIds());
+    }
+
+    @Test
+    void committedChanges_AppliedWithoutQueries() {
+        stubDatabase();
+        membershipIndex.rebuild();
+
+        membershipIndex.studentsEnrolled(11L, List.of(4L, 5L));
+        membershipIndex.squadsCreated(11L, Map.of(101L, List.of(4L)));
+        membershipIndex.studentCreated(6L);
+        membershipIndex.studentsDeleted(List.of(membership(1L, 10L, 100L)));
+
+        assertEquals(List.of(4L, 5L), membershipIndex.getClassStudents(11L, 0, 100).getStudentIds());
+        assertEquals(List.of(5L), membershipIndex.getClassStudentsWithoutSquad(11L, 0, 100).getStudentIds());
+        assertEquals(List.of(6L), membershipIndex.getUnassignedStudents(0, 100).getStudentIds());
+        assertEquals(List.of(2L), membershipIndex.getSquadStudents(100L, 0, 100).getStudentIds());
+        assertEquals(List.of(2L, 3L), membershipIndex.getClassStudents(10L, 0, 100).getStudentIds());
+        verify(studentRepository, times(1)).streamMemberships();
+    }
+
+    @Test
+    void invalidatedClass_ReloadedOnRefresh() {
+        stubDatabase();
+        membershipIndex.rebuild();
+        when(classRoomRepository.findExistingIds(Set.of(11L))).thenReturn(List.of(11L));
+        when(squadRepository.findPlacementsByClassRoomIdIn(Set.of(11L))).thenReturn(List.of());
+        when(studentRepository.findMembershipsByClassRoomIdIn(Set.of(11L)))
+                .thenReturn(List.of(membership(4L, 11L, null)));
+
+        transport.publish(List.of(new CacheInvalidation(CachedEntity.CLASS_ROOM, null, 11L)));
+        membershipIndex.refreshStale();
+
+        assertEquals(List.of(4L), membershipIndex.getClassStudents(11L, 0, 100).getStudentIds());
+        assertEquals(List.of(5L), membershipIndex.getUnassignedStudents(0, 100).getStudentIds());
+    }
+
+    @Test
+    void unknownClass_LoadedOnceThenNotFound() {
+        stubDatabase();
+        membershipIndex.rebuild();
+        when(classRoomRepository.findExistingIds(Set.of(12L))).thenReturn(List.of());
+        when(squadRepository.findPlacementsByClassRoomIdIn(Set.of(12L))).thenReturn(List.of());
+        when(studentRepository.findMembershipsByClassRoomIdIn(Set.of(12L))).thenReturn(List.of());
+
+        assertThrows(ObjectNotFoundException.class, () -> membershipIndex.getClassStudents(12L, 0, 100));
+        verify(classRoomRepository, times(1)).findExistingIds(Set.of(12L));
+    }
+
+    @Test
+    void findAssigned_BeforeFirstBuild_AnswersNothing() {
+        assertEquals(List.of(), membershipIndex.findAssigned(List.of(1L)));
+        verifyNoInteractions(studentRepository);
+    }
+
+    private void stubDatabase() {
+        when(classRoomRepository.findAllIds()).thenReturn(List.of(10L, 11L));
+        when(squadRepository.findPlacements()).thenReturn(List.of(squad(100L, 10L)));
+        when(studentRepository.streamMemberships()).thenAnswer(invocation -> Stream.of(
+                membership(1L, 10L, 100L), membership(2L, 10L, 100L), membership(3L, 10L, null),
+                membership(4L, null, null), membership(5L, null, null)));
+    }
+
+    private static StudentMembership membership(Long id, Long classRoomId, Long squadId) {
+        return new StudentMembership() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getClassRoomId() {
+                return classRoomId;
+            }
+
+            @Override
+            public Long getSquadId() {
+                return squadId;
+            }
+        };
+    }
+
+    private static SquadPlacement squad(Long id, Long classRoomId) {
+        return new SquadPlacement() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getClassRoomId() {
+                return classRoomId;
+            }
+        };
+    }
+}
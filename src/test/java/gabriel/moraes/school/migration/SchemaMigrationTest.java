@@ -0,0 +1,91 @@
+package gabriel.moraes.school.migration;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SchemaMigrationTest {
+
+    private JdbcDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void migrate_DatabaseCreatedBeforeFlyway_BaselinedAndUpgraded() {
+        flyway("1").migrate();
+        assertEquals(0, tableCount("lease_lock"));
+        // a database created by Hibernate has the baseline tables but no migration history
+        jdbcTemplate.execute("drop table \"flyway_schema_history\"");
+
+        flyway(null).migrate();
+
+        assertEquals(1, tableCount("lease_lock"));
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from information_schema.indexes "
+                + "where index_name = 'idx_class_room_status'", Integer.class));
+    }
+
+    @Test
+    void migrate_StaffBeforePersonTable_OldIdsStillResolve() {
+        flyway("4").migrate();
+        jdbcTemplate.update("insert into class_room (id, name, status) values (1, 'The Fofoca Brokers', 0)");
+        jdbcTemplate.update("insert into student (id, email) values (1, 'amanda.almeida@example.com'), "
+                + "(2, 'gabriel.santos@example.com')");
+        jdbcTemplate.update("insert into coordinator (id, email) values (1, 'ana.lima@example.com'), "
+                + "(3, 'paulo.silva@example.com')");
+        jdbcTemplate.update("insert into instructor (id, email) values (1, 'lucas.pereira@example.com')");
+        jdbcTemplate.update("insert into scrum_master (id, email) values (1, 'pedro.santos@example.com')");
+        jdbcTemplate.update("insert into classroom_coordinators (classroom_id, coordinator_id) values (1, 3)");
+
+        flyway(null).migrate();
+
+        // the lookup of StaffRepository.findByIdOrLegacyId
+        String staffById = "select email from person where role = ? and (id = ? or legacy_id = ?)";
+        assertEquals(List.of("paulo.silva@example.com"),
+                jdbcTemplate.queryForList(staffById, String.class, "COORDINATOR", 3L, 3L));
+        assertEquals(List.of("lucas.pereira@example.com"),
+                jdbcTemplate.queryForList(staffById, String.class, "INSTRUCTOR", 1L, 1L));
+        assertEquals(List.of("pedro.santos@example.com"),
+                jdbcTemplate.queryForList(staffById, String.class, "SCRUM_MASTER", 1L, 1L));
+        assertEquals("gabriel.santos@example.com",
+                jdbcTemplate.queryForObject("select email from person where id = 2", String.class));
+        assertEquals("paulo.silva@example.com", jdbcTemplate.queryForObject("select p.email from "
+                + "classroom_coordinators cc join person p on p.id = cc.coordinator_id where cc.classroom_id = 1",
+                String.class));
+
+        jdbcTemplate.update("insert into person (role, email) values ('COORDINATOR', 'maria.santos@example.com')");
+        Long newId = jdbcTemplate.queryForObject("select id from person where email = 'maria.santos@example.com'",
+                Long.class);
+        assertEquals(List.of("maria.santos@example.com"),
+                jdbcTemplate.queryForList(staffById, String.class, "COORDINATOR", newId, newId));
+    }
+
+    private Flyway flyway(String target) {
+        var configuration = Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("1");
+        if (target != null) {
+            configuration.target(target);
+        }
+        return configuration.load();
+    }
+
+    private int tableCount(String name) {
+        return jdbcTemplate.queryForObject("select count(*) from information_schema.tables where table_name = ?",
+                Integer.class, name);
+    }
+}
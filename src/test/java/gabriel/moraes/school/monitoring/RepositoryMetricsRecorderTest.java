@@ -0,0 +1,44 @@
+package gabriel.moraes.school.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryMetricsRecorderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RepositoryMetricsRecorder recorder = new RepositoryMetricsRecorder(registry);
+
+    @Test
+    void query_RecordedUnderIssuingRepository() {
+        recorder.afterStatement(new SqlStatementEvent("select * from class_room", SqlStatementKind.QUERY,
+                2_000_000, 3, 1, "ClassRoomService.getClassById", "ClassRoomRepository.findById"));
+
+        Timer statements = registry.get("school.jdbc.statements")
+                .tags("repository", "ClassRoomRepository", "kind", "query").timer();
+        DistributionSummary rows = registry.get("school.jdbc.rows")
+                .tags("repository", "ClassRoomRepository", "kind", "query").summary();
+        assertEquals(1, statements.count());
+        assertEquals(3, rows.totalAmount());
+        assertEquals(0, registry.get("school.jdbc.batch.size")
+                .tags("repository", "ClassRoomRepository").summary().count());
+    }
+
+    @Test
+    void batchOutsideRepository_RecordsBatchSizeUnderNone() {
+        recorder.afterStatement(new SqlStatementEvent("insert into person values (?)", SqlStatementKind.BATCH,
+                1_000_000, 25, 25, "StudentService.createStudents", null));
+        recorder.afterStatement(new SqlStatementEvent("insert into person values (?)", SqlStatementKind.UPDATE,
+                1_000_000, 1, 1, "StudentService.createStudent", null));
+
+        DistributionSummary batchSize = registry.get("school.jdbc.batch.size")
+                .tags("repository", RepositoryMetricsRecorder.NO_REPOSITORY).summary();
+        assertEquals(2, batchSize.count());
+        assertEquals(25, batchSize.max());
+        assertEquals(1, registry.get("school.jdbc.statements")
+                .tags("repository", RepositoryMetricsRecorder.NO_REPOSITORY, "kind", "batch").timer().count());
+    }
+}
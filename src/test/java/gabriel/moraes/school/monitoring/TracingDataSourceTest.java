@@ -0,0 +1,78 @@
+package gabriel.moraes.school.monitoring;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TracingDataSourceTest {
+
+    private final List<SqlStatementEvent> events = new ArrayList<>();
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("recorder", (SqlStatementListener) events::add);
+        beanFactory.addBean("context", new SqlTraceContext());
+
+        DriverManagerDataSource target = new DriverManagerDataSource("jdbc:h2:mem:tracing;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(new TracingDataSource(target, beanFactory.getBeanProvider(SqlStatementListener.class)));
+        jdbcTemplate.execute("drop table if exists traced");
+        jdbcTemplate.execute("create table traced (id int primary key, name varchar(20))");
+        events.clear();
+    }
+
+    @Test
+    void update_ReportsAffectedRows() {
+        jdbcTemplate.update("insert into traced values (?, ?)", 1, "one");
+
+        assertEquals(1, events.size());
+        assertEquals("insert into traced values (?, ?)", events.get(0).getSql());
+        assertEquals(SqlStatementKind.UPDATE, events.get(0).getKind());
+        assertEquals(1, events.get(0).getRowCount());
+        assertTrue(events.get(0).getElapsedNanos() >= 0);
+    }
+
+    @Test
+    void query_ReportsRowsReadWhenResultSetCloses() {
+        jdbcTemplate.update("insert into traced values (?, ?)", 1, "one");
+        jdbcTemplate.update("insert into traced values (?, ?)", 2, "two");
+        events.clear();
+
+        List<String> names = jdbcTemplate.queryForList("select name from traced order by id", String.class);
+
+        assertEquals(List.of("one", "two"), names);
+        assertEquals(1, events.size());
+        assertEquals(SqlStatementKind.QUERY, events.get(0).getKind());
+        assertEquals(2, events.get(0).getRowCount());
+    }
+
+    @Test
+    void batchUpdate_ReportsBatchSize() {
+        jdbcTemplate.batchUpdate("insert into traced values (?, ?)", List.of(
+                new Object[]{1, "one"}, new Object[]{2, "two"}, new Object[]{3, "three"}));
+
+        assertEquals(1, events.size());
+        assertEquals(SqlStatementKind.BATCH, events.get(0).getKind());
+        assertEquals(3, events.get(0).getBatchSize());
+        assertEquals(3, events.get(0).getRowCount());
+    }
+
+    @Test
+    void requestContext_AccumulatesQueryCount() {
+        SqlTraceContext.begin();
+        jdbcTemplate.update("insert into traced values (?, ?)", 1, "one");
+        jdbcTemplate.queryForObject("select count(*) from traced", Integer.class);
+        SqlTraceContext.Summary summary = SqlTraceContext.end();
+
+        assertEquals(2, summary.getQueryCount());
+        assertNull(SqlTraceContext.current());
+    }
+}
@@ -0,0 +1,73 @@
+package gabriel.moraes.school.scheduler;
+
+import gabriel.moraes.school.service.ClassRoomService;
+import gabriel.moraes.school.service.LeaseLockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClassRoomAutoStartSchedulerTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    @Mock
+    private ClassRoomService classRoomService;
+    @Mock
+    private LeaseLockService leaseLockService;
+    private SimpleMeterRegistry meterRegistry;
+    private ClassRoomAutoStartScheduler scheduler;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new ClassRoomAutoStartScheduler(classRoomService, leaseLockService, meterRegistry,
+                BATCH_SIZE, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void startReadyClasses_WithLock_StartsInBatchesUntilExhausted() {
+        when(leaseLockService.tryAcquire(eq(ClassRoomAutoStartScheduler.LOCK_NAME), any())).thenReturn(true);
+        when(classRoomService.startReadyClasses(BATCH_SIZE)).thenReturn(2, 2, 1);
+
+        scheduler.startReadyClasses();
+
+        verify(classRoomService, times(3)).startReadyClasses(BATCH_SIZE);
+        verify(leaseLockService).release(ClassRoomAutoStartScheduler.LOCK_NAME);
+        assertEquals(5.0, meterRegistry.get("school.classroom.auto-start.started").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("school.classroom.auto-start.duration").timer().count());
+    }
+
+    @Test
+    void startReadyClasses_WithoutLock_DoesNothing() {
+        when(leaseLockService.tryAcquire(eq(ClassRoomAutoStartScheduler.LOCK_NAME), any())).thenReturn(false);
+
+        scheduler.startReadyClasses();
+
+        verify(classRoomService, never()).startReadyClasses(anyInt());
+        verify(leaseLockService, never()).release(any());
+    }
+
+    @Test
+    void startReadyClasses_WhenServiceFails_ReleasesLock() {
+        when(leaseLockService.tryAcquire(eq(ClassRoomAutoStartScheduler.LOCK_NAME), any())).thenReturn(true);
+        when(classRoomService.startReadyClasses(BATCH_SIZE)).thenThrow(new IllegalStateException("db down"));
+
+        try {
+            scheduler.startReadyClasses();
+        } catch (IllegalStateException ignored) {
+        }
+
+        verify(leaseLockService).release(ClassRoomAutoStartScheduler.LOCK_NAME);
+    }
+}
@@ -0,0 +1,135 @@
+package gabriel.moraes.school.scheduler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gabriel.moraes.school.Model.DomainEventType;
+import gabriel.moraes.school.Model.OutboxEvent;
+import gabriel.moraes.school.event.DomainEvent;
+import gabriel.moraes.school.event.DomainEventSubscriber;
+import gabriel.moraes.school.repository.OutboxEventRepository;
+import gabriel.moraes.school.service.LeaseLockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private static final Instant NOW = Instant.parse("2023-08-01T10:00:00Z");
+    private static final int BATCH_SIZE = 2;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private LeaseLockService leaseLockService;
+    @Mock
+    private DomainEventSubscriber subscriber;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OutboxRelay(outboxEventRepository, leaseLockService, List.of(subscriber), new ObjectMapper(),
+                meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC), BATCH_SIZE, 3, Duration.ofSeconds(30),
+                Duration.ofDays(7));
+    }
+
+    @Test
+    void relay_WithLease_DeliversInBatchesAndMarksDispatched() {
+        when(leaseLockService.tryAcquire(eq(OutboxRelay.LOCK_NAME), any())).thenReturn(true);
+        when(outboxEventRepository.findByDispatchedAtIsNullAndParkedAtIsNullOrderByIdAsc(any()))
+                .thenReturn(List.of(event(1L, 0), event(2L, 0)), List.of(event(3L, 0)));
+        when(outboxEventRepository.findFirstByDispatchedAtIsNullAndParkedAtIsNullOrderByIdAsc())
+                .thenReturn(Optional.empty());
+
+        relay.relay();
+
+        ArgumentCaptor<DomainEvent> delivered = ArgumentCaptor.forClass(DomainEvent.class);
+        verify(subscriber, times(3)).onEvent(delivered.capture());
+        assertEquals(List.of(1L, 2L, 3L), delivered.getAllValues().stream().map(DomainEvent::getId).toList());
+        assertEquals(List.of(5, 6), delivered.getValue().getPayload().get("studentIds"));
+        verify(outboxEventRepository).markDispatched(List.of(1L, 2L), NOW);
+        verify(outboxEventRepository).markDispatched(List.of(3L), NOW);
+        assertEquals(3.0, meterRegistry.get("school.outbox.dispatched").counter().count());
+        assertEquals(0.0, meterRegistry.get("school.outbox.lag").gauge().value());
+    }
+
+    @Test
+    void relay_SubscriberFails_StopsAtFailedEventAndReportsLag() {
+        when(leaseLockService.tryAcquire(eq(OutboxRelay.LOCK_NAME), any())).thenReturn(true);
+        OutboxEvent failing = event(2L, 0);
+        when(outboxEventRepository.findByDispatchedAtIsNullAndParkedAtIsNullOrderByIdAsc(any()))
+                .thenReturn(List.of(event(1L, 0), failing));
+        doNothing().doThrow(new IllegalStateException("boom")).when(subscriber).onEvent(any());
+        when(outboxEventRepository.findFirstByDispatchedAtIsNullAndParkedAtIsNullOrderByIdAsc())
+                .thenReturn(Optional.of(failing));
+
+        relay.relay();
+
+        verify(outboxEventRepository).markDispatched(List.of(1L), NOW);
+        verify(outboxEventRepository).markFailed(2L, "IllegalStateException: boom");
+        assertEquals(60.0, meterRegistry.get("school.outbox.lag").gauge().value());
+        assertEquals(1.0, meterRegistry.get("school.outbox.failures").counter().count());
+    }
+
+    @Test
+    void relay_FailsOnLastAttempt_ParksEventWithoutMarkingItDispatched() {
+        when(leaseLockService.tryAcquire(eq(OutboxRelay.LOCK_NAME), any())).thenReturn(true);
+        when(outboxEventRepository.findByDispatchedAtIsNullAndParkedAtIsNullOrderByIdAsc(any()))
+                .thenReturn(List.of(event(1L, 2), event(2L, 0)), List.of());
+        doThrow(new IllegalStateException("boom")).doNothing().when(subscriber).onEvent(any());
+        when(outboxEventRepository.findFirstByDispatchedAtIsNullAndParkedAtIsNullOrderByIdAsc())
+                .thenReturn(Optional.empty());
+
+        relay.relay();
+
+        verify(outboxEventRepository).markParked(1L, "IllegalStateException: boom", NOW);
+        verify(outboxEventRepository).markDispatched(List.of(2L), NOW);
+        verify(outboxEventRepository, never()).markFailed(any(), any());
+        assertEquals(1.0, meterRegistry.get("school.outbox.parked").counter().count());
+        assertEquals(1.0, meterRegistry.get("school.outbox.dispatched").counter().count());
+    }
+
+    @Test
+    void relay_WithoutSubscribers_DoesNothing() {
+        relay = new OutboxRelay(outboxEventRepository, leaseLockService, List.of(), new ObjectMapper(),
+                meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC), BATCH_SIZE, 3, Duration.ofSeconds(30),
+                Duration.ofDays(7));
+
+        relay.relay();
+
+        verifyNoInteractions(outboxEventRepository, leaseLockService);
+    }
+
+    @Test
+    void relay_WithoutLease_DoesNothing() {
+        when(leaseLockService.tryAcquire(eq(OutboxRelay.LOCK_NAME), any())).thenReturn(false);
+
+        relay.relay();
+
+        verifyNoInteractions(outboxEventRepository, subscriber);
+    }
+
+    private static OutboxEvent event(Long id, int attempts) {
+        OutboxEvent event = new OutboxEvent(DomainEventType.STUDENTS_ENROLLED, 1L, "{\"studentIds\":[5,6]}",
+                NOW.minusSeconds(60));
+        event.setId(id);
+        event.setAttempts(attempts);
+        return event;
+    }
+}
@@ -0,0 +1,74 @@
+package gabriel.moraes.school.scheduler;
+
+import gabriel.moraes.school.service.LeaseLockService;
+import gabriel.moraes.school.service.StudentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StudentPurgeJobTest {
+
+    private static final Instant NOW = Instant.parse("2023-08-08T10:00:00Z");
+    private static final Instant CUTOFF = Instant.parse("2023-08-01T10:00:00Z");
+    private static final int BATCH_SIZE = 2;
+
+    @Mock
+    private StudentService studentService;
+    @Mock
+    private LeaseLockService leaseLockService;
+    private SimpleMeterRegistry meterRegistry;
+    private StudentPurgeJob job;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        job = new StudentPurgeJob(studentService, leaseLockService, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC),
+                Duration.ofDays(7), BATCH_SIZE, 3, Duration.ZERO, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void purge_WithLock_PurgesInBatchesUntilExhausted() {
+        when(leaseLockService.tryAcquire(eq(StudentPurgeJob.LOCK_NAME), any())).thenReturn(true);
+        when(studentService.purgeDeletedStudents(CUTOFF, BATCH_SIZE)).thenReturn(2, 1);
+
+        job.purge();
+
+        verify(studentService, times(2)).purgeDeletedStudents(CUTOFF, BATCH_SIZE);
+        verify(leaseLockService).release(StudentPurgeJob.LOCK_NAME);
+        assertEquals(3.0, meterRegistry.get("school.students.purged").counter().count());
+    }
+
+    @Test
+    void purge_StopsAfterMaxBatchesPerRun() {
+        when(leaseLockService.tryAcquire(eq(StudentPurgeJob.LOCK_NAME), any())).thenReturn(true);
+        when(studentService.purgeDeletedStudents(CUTOFF, BATCH_SIZE)).thenReturn(2);
+
+        job.purge();
+
+        verify(studentService, times(3)).purgeDeletedStudents(CUTOFF, BATCH_SIZE);
+        assertEquals(6.0, meterRegistry.get("school.students.purged").counter().count());
+    }
+
+    @Test
+    void purge_WithoutLock_DoesNothing() {
+        when(leaseLockService.tryAcquire(eq(StudentPurgeJob.LOCK_NAME), any())).thenReturn(false);
+
+        job.purge();
+
+        verifyNoInteractions(studentService);
+        verify(leaseLockService, never()).release(any());
+    }
+}
@@ -0,0 +1,111 @@
+package gabriel.moraes.school.service;
+
+import gabriel.moraes.school.Model.ClassRoomChange;
+import gabriel.moraes.school.Model.ClassRoomChangeType;
+import gabriel.moraes.school.Model.DtoResponse.ChangeFeedDtoResponse;
+import gabriel.moraes.school.repository.ClassRoomChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedServiceTest {
+
+    private static final Instant NOW = Instant.parse("2023-08-01T10:00:00Z");
+    private static final Instant HORIZON = NOW.minusSeconds(5);
+
+    @Mock
+    private ClassRoomChangeRepository changeRepository;
+    private ChangeFeedService changeFeedService;
+
+    @BeforeEach
+    void setup() {
+        changeFeedService = new ChangeFeedService(changeRepository, new ModelMapper(), Duration.ofSeconds(5),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void record_SavesChangeStampedWithCurrentTime() {
+        changeFeedService.record(1L, ClassRoomChangeType.SQUAD_RENAMED, 7L, "Squad A");
+
+        ArgumentCaptor<ClassRoomChange> captor = ArgumentCaptor.forClass(ClassRoomChange.class);
+        verify(changeRepository).save(captor.capture());
+        assertEquals(1L, captor.getValue().getClassRoomId());
+        assertEquals(ClassRoomChangeType.SQUAD_RENAMED, captor.getValue().getChangeType());
+        assertEquals(7L, captor.getValue().getEntityId());
+        assertEquals("Squad A", captor.getValue().getDetail());
+        assertEquals(NOW, captor.getValue().getChangedAt());
+    }
+
+    @Test
+    void getChanges_MoreThanLimit_ReturnPageWithCursorAtLastEntry() {
+        when(changeRepository.findByIdGreaterThanAndChangedAtBeforeOrderByIdAsc(10L, HORIZON, PageRequest.of(0, 3)))
+                .thenReturn(List.of(change(11L), change(12L), change(13L)));
+
+        ChangeFeedDtoResponse feed = changeFeedService.getChanges(10L, 2);
+
+        assertEquals(2, feed.getChanges().size());
+        assertEquals(11L, feed.getChanges().get(0).getId());
+        assertEquals(12L, feed.getNextCursor());
+        assertTrue(feed.isHasMore());
+    }
+
+    @Test
+    void getChangesForClass_NoNewChanges_ReturnSameCursor() {
+        when(changeRepository.findByClassRoomIdAndIdGreaterThanAndChangedAtBeforeOrderByIdAsc(1L, 10L, HORIZON,
+                PageRequest.of(0, 101))).thenReturn(List.of());
+
+        ChangeFeedDtoResponse feed = changeFeedService.getChangesForClass(1L, 10L, 100);
+
+        assertTrue(feed.getChanges().isEmpty());
+        assertEquals(10L, feed.getNextCursor());
+        assertFalse(feed.isHasMore());
+    }
+
+    @Test
+    void getChanges_LimitAboveMaximum_ReturnAtMostOneThousand() {
+        when(changeRepository.findByIdGreaterThanAndChangedAtBeforeOrderByIdAsc(0L, HORIZON, PageRequest.of(0, 1001)))
+                .thenReturn(List.of(change(1L)));
+
+        ChangeFeedDtoResponse feed = changeFeedService.getChanges(0L, 50_000);
+
+        assertEquals(1, feed.getChanges().size());
+        assertFalse(feed.isHasMore());
+    }
+
+    @Test
+    void settledSequence_EntriesInsideSettleDelay_ReturnHighestSettledId() {
+        when(changeRepository.findTopByChangedAtBeforeOrderByIdDesc(HORIZON)).thenReturn(Optional.of(change(12L)));
+
+        assertEquals(12L, changeFeedService.settledSequence());
+    }
+
+    @Test
+    void settledSequence_NothingSettled_ReturnZero() {
+        when(changeRepository.findTopByChangedAtBeforeOrderByIdDesc(HORIZON)).thenReturn(Optional.empty());
+
+        assertEquals(0L, changeFeedService.settledSequence());
+    }
+
+    private static ClassRoomChange change(Long id) {
+        ClassRoomChange change = new ClassRoomChange(1L, ClassRoomChangeType.STUDENT_ENROLLED, 5L, null, HORIZON);
+        change.setId(id);
+        return change;
+    }
+}
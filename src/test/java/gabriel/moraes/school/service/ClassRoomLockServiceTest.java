@@ -0,0 +1,144 @@
+package gabriel.moraes.school.service;
+
+import gabriel.moraes.school.config.NodeIdentity;
+import gabriel.moraes.school.exception.ClassRoomBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClassRoomLockServiceTest {
+
+    private static final Long ID = 1L;
+    private static final String LOCK = "classroom:1";
+    private static final Duration LEASE = Duration.ofSeconds(30);
+
+    @Mock
+    private LeaseLockService leaseLockService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private ClassRoomLockService classRoomLockService;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        classRoomLockService = new ClassRoomLockService(leaseLockService, transactionManager,
+                new NodeIdentity("node-1"), meterRegistry, Clock.systemUTC(), LEASE, Duration.ofMillis(50),
+                Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void withLock_FreeClass_RunsActionAndReleasesForItsOwner() {
+        ArgumentCaptor<String> owner = ArgumentCaptor.forClass(String.class);
+        when(leaseLockService.tryAcquire(eq(LOCK), owner.capture(), eq(LEASE))).thenReturn(true);
+
+        assertEquals("done", classRoomLockService.withLock(ID, () -> "done"));
+
+        assertTrue(owner.getValue().startsWith("node-1#"));
+        verify(leaseLockService).release(LOCK, owner.getValue());
+        assertEquals(1, meterRegistry.get("school.classroom.lock.wait").tag("outcome", "acquired").timer().count());
+    }
+
+    @Test
+    void withLock_HeldElsewhere_FailsAfterMaxWaitWithoutRunningAction() {
+        when(leaseLockService.tryAcquire(eq(LOCK), anyString(), eq(LEASE))).thenReturn(false);
+
+        assertThrows(ClassRoomBusyException.class, () -> classRoomLockService.withLock(ID, () -> fail("ran")));
+
+        verify(leaseLockService, never()).release(anyString(), anyString());
+        assertTrue(meterRegistry.get("school.classroom.lock.conflicts").counter().count() >= 2);
+        assertEquals(1, meterRegistry.get("school.classroom.lock.wait").tag("outcome", "busy").timer().count());
+    }
+
+    @Test
+    void withLock_NestedOnSameThread_AcquiresOnce() {
+        when(leaseLockService.tryAcquire(eq(LOCK), anyString(), eq(LEASE))).thenReturn(true);
+
+        classRoomLockService.withLock(ID, () -> classRoomLockService.withLock(ID, () -> "inner"));
+
+        verify(leaseLockService, times(1)).tryAcquire(eq(LOCK), anyString(), any());
+        verify(leaseLockService, times(1)).release(eq(LOCK), anyString());
+    }
+
+    @Test
+    void withLock_InsideTransaction_ReleasesWhenTransactionCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+        when(leaseLockService.tryAcquire(eq(LOCK), anyString(), eq(LEASE))).thenReturn(true);
+
+        classRoomLockService.withLock(ID, () -> "done");
+        verify(leaseLockService, never()).release(anyString(), anyString());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        verify(leaseLockService).release(eq(LOCK), anyString());
+    }
+
+    @Test
+    void runLockingAvailable_SomeHeldElsewhere_LocksTheOthersBeforeRunningAction() {
+        // a mocked transaction manager does not synchronize, as the real one does on begin
+        TransactionSynchronizationManager.initSynchronization();
+        when(leaseLockService.tryAcquire(eq(LOCK), anyString(), eq(LEASE))).thenReturn(true);
+        when(leaseLockService.tryAcquire(eq("classroom:2"), anyString(), eq(LEASE))).thenReturn(false);
+        List<Long> ran = new ArrayList<>();
+
+        int result = classRoomLockService.runLockingAvailable(List.of(ID, 2L), lockedIds -> {
+            verify(leaseLockService).tryAcquire(eq(LOCK), anyString(), eq(LEASE));
+            verify(leaseLockService).tryAcquire(eq("classroom:2"), anyString(), eq(LEASE));
+            ran.addAll(lockedIds);
+            return 7;
+        });
+
+        assertEquals(7, result);
+        assertEquals(List.of(ID), ran);
+        assertEquals(1.0, meterRegistry.get("school.classroom.lock.conflicts").counter().count());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void runLockingAvailable_AllHeldElsewhere_SkipsAction() {
+        TransactionSynchronizationManager.initSynchronization();
+        when(leaseLockService.tryAcquire(eq(LOCK), anyString(), eq(LEASE))).thenReturn(false);
+
+        assertEquals(0, classRoomLockService.runLockingAvailable(List.of(ID), lockedIds -> fail("ran")));
+
+        verify(leaseLockService, times(1)).tryAcquire(eq(LOCK), anyString(), any());
+    }
+
+    @Test
+    void runLockingAvailable_InsideTransaction_IsRejected() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertThrows(IllegalStateException.class,
+                () -> classRoomLockService.runLockingAvailable(List.of(ID), lockedIds -> 1));
+
+        verifyNoInteractions(leaseLockService, transactionManager);
+    }
+}
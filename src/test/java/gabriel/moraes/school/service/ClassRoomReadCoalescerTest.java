@@ -0,0 +1,169 @@
+package gabriel.moraes.school.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gabriel.moraes.school.Model.ClassStatus;
+import gabriel.moraes.school.Model.DtoResponse.ClassRoomDtoResponse;
+import gabriel.moraes.school.cache.CacheInvalidationBus;
+import gabriel.moraes.school.cache.CacheNames;
+import gabriel.moraes.school.cache.CachedEntity;
+import gabriel.moraes.school.cache.ExpiringCache;
+import gabriel.moraes.school.cache.LoopbackInvalidationTransport;
+import gabriel.moraes.school.exception.ObjectNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClassRoomReadCoalescerTest {
+
+    private static final Long ID = 1L;
+
+    @Mock
+    private ClassRoomService classRoomService;
+    private SimpleMeterRegistry meterRegistry;
+    private SimpleCacheManager cacheManager;
+    private CacheInvalidationBus cacheInvalidationBus;
+    private ClassRoomReadCoalescer coalescer;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                new ExpiringCache(CacheNames.CLASS_ROOMS, 100, Duration.ofMinutes(10), Clock.systemUTC())));
+        cacheManager.afterPropertiesSet();
+        cacheInvalidationBus = new CacheInvalidationBus(cacheManager, new LoopbackInvalidationTransport(),
+                meterRegistry);
+        coalescer = coalescer(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void concurrentReads_ShareOneLoadAndOneEncodedBody() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(classRoomService.getClassById(ID)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return classRoom();
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<byte[]> first = executor.submit(() -> coalescer.getClassById(ID, MediaType.APPLICATION_JSON));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            List<Future<byte[]>> joined = List.of(
+                    executor.submit(() -> coalescer.getClassById(ID, MediaType.APPLICATION_JSON)),
+                    executor.submit(() -> coalescer.getClassById(ID, MediaType.APPLICATION_JSON)),
+                    executor.submit(() -> coalescer.getClassById(ID, MediaType.APPLICATION_JSON)));
+            while (meterRegistry.get("school.classroom.reads").tag("result", "coalesced").counter().count() < 3) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            byte[] body = first.get(5, TimeUnit.SECONDS);
+            assertTrue(new String(body, StandardCharsets.UTF_8).contains("\"name\":\"Java\""));
+            for (Future<byte[]> read : joined) {
+                assertSame(body, read.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(classRoomService, times(1)).getClassById(ID);
+        assertEquals(0.75, meterRegistry.get("school.classroom.reads.coalescing.ratio").gauge().value());
+        assertEquals(0.0, meterRegistry.get("school.classroom.reads.in.flight").gauge().value());
+    }
+
+    @Test
+    void stalledLoad_WaiterGivesUpAndLoadsItself() throws Exception {
+        coalescer = coalescer(Duration.ofMillis(100));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(classRoomService.getClassById(ID)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return classRoom();
+        }).thenReturn(classRoom());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<byte[]> stalled = executor.submit(() -> coalescer.getClassById(ID, MediaType.APPLICATION_JSON));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            byte[] body = coalescer.getClassById(ID, MediaType.APPLICATION_JSON);
+
+            assertTrue(new String(body, StandardCharsets.UTF_8).contains("\"name\":\"Java\""));
+            assertFalse(stalled.isDone());
+            assertEquals(1.0, meterRegistry.get("school.classroom.reads.abandoned").counter().count());
+            release.countDown();
+            assertNotNull(stalled.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(classRoomService, times(2)).getClassById(ID);
+    }
+
+    @Test
+    void sequentialReads_ServedFromCacheUntilInvalidated() {
+        when(classRoomService.getClassById(ID)).thenReturn(classRoom());
+
+        byte[] first = coalescer.getClassById(ID, MediaType.APPLICATION_JSON);
+        assertSame(first, coalescer.getClassById(ID, MediaType.APPLICATION_JSON));
+        verify(classRoomService, times(1)).getClassById(ID);
+
+        cacheInvalidationBus.invalidate(CachedEntity.CLASS_ROOM, ID);
+        coalescer.getClassById(ID, MediaType.APPLICATION_JSON);
+
+        verify(classRoomService, times(2)).getClassById(ID);
+        assertEquals(1.0, meterRegistry.get("school.classroom.reads").tag("result", "cached").counter().count());
+        assertEquals(0.0, meterRegistry.get("school.classroom.reads.coalescing.ratio").gauge().value());
+    }
+
+    @Test
+    void invalidatedWhileLoading_LoadedBodyIsNotCached() {
+        when(classRoomService.getClassById(ID)).thenAnswer(invocation -> {
+            cacheInvalidationBus.invalidate(CachedEntity.CLASS_ROOM, ID);
+            return classRoom();
+        }).thenReturn(classRoom());
+
+        coalescer.getClassById(ID, MediaType.APPLICATION_JSON);
+        coalescer.getClassById(ID, MediaType.APPLICATION_JSON);
+        coalescer.getClassById(ID, MediaType.APPLICATION_JSON);
+
+        verify(classRoomService, times(2)).getClassById(ID);
+    }
+
+    @Test
+    void failedLoad_IsRethrownAndNotRemembered() {
+        when(classRoomService.getClassById(ID)).thenThrow(new ObjectNotFoundException("Class room not found"));
+
+        assertThrows(ObjectNotFoundException.class, () -> coalescer.getClassById(ID, MediaType.APPLICATION_JSON));
+        assertThrows(ObjectNotFoundException.class, () -> coalescer.getClassById(ID, MediaType.APPLICATION_JSON));
+
+        verify(classRoomService, times(2)).getClassById(ID);
+    }
+
+    private ClassRoomReadCoalescer coalescer(Duration maxWait) {
+        return new ClassRoomReadCoalescer(classRoomService,
+                List.of(new MappingJackson2HttpMessageConverter(new ObjectMapper())), cacheManager, meterRegistry,
+                maxWait);
+    }
+
+    private static ClassRoomDtoResponse classRoom() {
+        return new ClassRoomDtoResponse(ID, "Java", ClassStatus.WAITING, List.of(), List.of(), List.of());
+    }
+}
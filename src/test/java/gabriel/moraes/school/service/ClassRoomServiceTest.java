@@ -4,8 +4,11 @@ import gabriel.moraes.school.Model.*;
 import gabriel.moraes.school.Model.DtoRequest.AddStudentsDtoRequest;
 import gabriel.moraes.school.Model.DtoRequest.ClassRoomDtoRequest;
 import gabriel.moraes.school.Model.DtoResponse.ClassRoomDtoResponse;
+import gabriel.moraes.school.Model.DtoResponse.WaitlistPositionDtoResponse;
 import gabriel.moraes.school.Utils.JsonUtils;
+import gabriel.moraes.school.cache.CacheInvalidationBus;
 import gabriel.moraes.school.exception.*;
+import gabriel.moraes.school.membership.MembershipIndex;
 import gabriel.moraes.school.repository.*;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,7 +23,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.ToIntFunction;
 
 import static org.hibernate.validator.internal.util.Contracts.assertNotNull;
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,6 +37,14 @@ class ClassRoomServiceTest {
     public static final Long ID = 1L;
     @Mock
     private ClassRoomRepository classRoomRepository;
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+    @Mock
+    private ClassRoomLockService classRoomLockService;
+    @Mock
+    private MembershipIndex membershipIndex;
+    @Mock
+    private WaitlistService waitlistService;
     @InjectMocks
     private ClassRoomService classRoomService;
     @Mock
@@ -42,6 +55,10 @@ class ClassRoomServiceTest {
     private StudentRepository studentRepository;
     @Mock
     private ScrumMasterRepository scrumMasterRepository;
+    @Mock
+    private ChangeFeedService changeFeedService;
+    @Mock
+    private DomainEventPublisher eventPublisher;
     @Spy
     private ModelMapper mapper;
 
@@ -67,9 +84,9 @@ class ClassRoomServiceTest {
         ScrumMaster[] scrumMasters = JsonUtils.getObjectFromFile(SCRUM_MASTER, ScrumMaster[].class);
 
 
-        when(coordinatorRepository.findAllById(any())).thenReturn(List.of(coordinators));
-        when(scrumMasterRepository.findAllById(any())).thenReturn(List.of(scrumMasters));
-        when(instructorRepository.findAllById((any()))).thenReturn(List.of(instructors));
+        when(coordinatorRepository.findAllByIdOrLegacyIdIn(any())).thenReturn(List.of(coordinators));
+        when(scrumMasterRepository.findAllByIdOrLegacyIdIn(any())).thenReturn(List.of(scrumMasters));
+        when(instructorRepository.findAllByIdOrLegacyIdIn((any()))).thenReturn(List.of(instructors));
         when(classRoomRepository.save(any(ClassRoom.class))).thenReturn(classRoom);
 
         ClassRoomDtoResponse response = classRoomService.createClass(classRoomDtoRequest);
@@ -86,7 +103,7 @@ class ClassRoomServiceTest {
     public void createClass_WithNotFoundCoordinator_ReturnObjectNotFoundException() throws IOException {
         ClassRoomDtoRequest classRoomDtoRequest = JsonUtils.getObjectFromFile(CLASSROOM_DTO_REQUEST, ClassRoomDtoRequest.class);
 
-        when(coordinatorRepository.findAllById(any())).thenReturn(List.of());
+        when(coordinatorRepository.findAllByIdOrLegacyIdIn(any())).thenReturn(List.of());
 
         assertThrows(ObjectNotFoundException.class, () -> classRoomService.createClass(classRoomDtoRequest));
     }
@@ -95,8 +112,8 @@ class ClassRoomServiceTest {
     public void createClass_WithNotFoundScrumMaster_ReturnObjectNotFoundException() throws IOException {
         ClassRoomDtoRequest classRoomDtoRequest = JsonUtils.getObjectFromFile(CLASSROOM_DTO_REQUEST, ClassRoomDtoRequest.class);
 
-        when(coordinatorRepository.findAllById(any())).thenReturn(List.of(new Coordinator()));
-        when(scrumMasterRepository.findAllById(any())).thenReturn(List.of());
+        when(coordinatorRepository.findAllByIdOrLegacyIdIn(any())).thenReturn(List.of(new Coordinator(1L, null, null, null, null)));
+        when(scrumMasterRepository.findAllByIdOrLegacyIdIn(any())).thenReturn(List.of());
 
         assertThrows(ObjectNotFoundException.class, () -> classRoomService.createClass(classRoomDtoRequest));
     }
@@ -105,9 +122,9 @@ class ClassRoomServiceTest {
     public void createClass_WithNotFoundInstructor_ReturnObjectNotFoundException() throws IOException {
         ClassRoomDtoRequest classRoomDtoRequest = JsonUtils.getObjectFromFile(CLASSROOM_DTO_REQUEST, ClassRoomDtoRequest.class);
 
-        when(coordinatorRepository.findAllById(any())).thenReturn(List.of(new Coordinator()));
-        when(scrumMasterRepository.findAllById(any())).thenReturn(List.of(new ScrumMaster()));
-        when(instructorRepository.findAllById((any()))).thenReturn(List.of());
+        when(coordinatorRepository.findAllByIdOrLegacyIdIn(any())).thenReturn(List.of(new Coordinator(1L, null, null, null, null)));
+        when(scrumMasterRepository.findAllByIdOrLegacyIdIn(any())).thenReturn(List.of(new ScrumMaster(1L, null, null, null, null)));
+        when(instructorRepository.findAllByIdOrLegacyIdIn((any()))).thenReturn(List.of());
 
         assertThrows(ObjectNotFoundException.class, () -> classRoomService.createClass(classRoomDtoRequest));
     }
@@ -142,6 +159,9 @@ class ClassRoomServiceTest {
 
         assertDoesNotThrow(() -> classRoomService.finish(ID));
         assertEquals(ClassStatus.FINISHED, classRoom.getStatus());
+        verify(changeFeedService).record(classRoom.getId(), ClassRoomChangeType.CLASS_STATUS_CHANGED,
+                classRoom.getId(), "FINISHED");
+        verify(eventPublisher).publish(DomainEventType.CLASS_FINISHED, classRoom.getId(), Map.of());
     }
 
     @Test
@@ -177,6 +197,8 @@ class ClassRoomServiceTest {
         assertDoesNotThrow(() -> classRoomService.startClass(ID));
 
         verify(classRoomRepository, times(1)).findById(ID);
+        verify(changeFeedService).record(classRoom.getId(), ClassRoomChangeType.CLASS_STATUS_CHANGED,
+                classRoom.getId(), "STARTED");
     }
 
     @Test
@@ -220,8 +242,10 @@ class ClassRoomServiceTest {
         when(studentRepository.findAllById(studentIds.getStudents())).thenReturn(List.of(students));
         when(classRoomRepository.save(classRoom)).thenReturn(classRoom);
 
-        ClassRoomDtoResponse response = classRoomService.addStudentsToClass(ID, studentIds);
+        EnrollmentOutcome outcome = classRoomService.addStudentsToClass(ID, studentIds);
+        ClassRoomDtoResponse response = outcome.classRoom();
 
+        assertFalse(outcome.isWaitlisted());
         assertNotNull(response);
 
         assertEquals(studentIds.getStudents().size(), response.getStudents().size());
@@ -258,6 +282,30 @@ class ClassRoomServiceTest {
 
     }
 
+    @Test
+    public void addStudentsToClass_ClassFull_StudentsWaitlisted() throws IOException {
+        ClassRoom classRoom = JsonUtils.getObjectFromFile(CLASSROOM_WITH_STUDENTS, ClassRoom.class);
+        classRoom.setStatus(ClassStatus.WAITING);
+        for (long id = 100; id < 115; id++) {
+            classRoom.getStudents().add(new Student(id));
+        }
+        Student student = new Student(50L);
+        AddStudentsDtoRequest studentIds = new AddStudentsDtoRequest(List.of(50L));
+        List<WaitlistPositionDtoResponse> positions = List.of(new WaitlistPositionDtoResponse(ID, 50L, 1, 1, null));
+
+        when(classRoomRepository.findById(ID)).thenReturn(Optional.of(classRoom));
+        when(studentRepository.findAllById(studentIds.getStudents())).thenReturn(List.of(student));
+        when(waitlistService.isEnabled()).thenReturn(true);
+        when(waitlistService.join(ID, List.of(50L))).thenReturn(positions);
+
+        EnrollmentOutcome outcome = classRoomService.addStudentsToClass(ID, studentIds);
+
+        assertTrue(outcome.isWaitlisted());
+        assertEquals(positions, outcome.waitlistPositions());
+        assertNull(student.getClassRoom());
+        verify(classRoomRepository, never()).save(any());
+    }
+
     @Test
     public void addStudentsToClass_WithInvalidStudents_ReturnStudentAlreadyAssignedException() throws IOException {
         ClassRoom classRoom = JsonUtils.getObjectFromFile(CLASSROOM_WITH_STUDENTS, ClassRoom.class);
@@ -273,5 +321,73 @@ class ClassRoomServiceTest {
 
         assertThrows(StudentAlreadyAssignedException.class, () -> classRoomService.addStudentsToClass(ID, studentIds));
     }
-}
 
+    @Test
+    public void addStudentsToClass_StudentsAssignedInIndex_RejectedBeforeLoadingStudents() throws IOException {
+        ClassRoom classRoom = JsonUtils.getObjectFromFile(CLASSROOM, ClassRoom.class);
+        AddStudentsDtoRequest studentIds = JsonUtils.getObjectFromFile(ADDSTUDENTSDTOREQUEST, AddStudentsDtoRequest.class);
+
+        when(classRoomRepository.findById(ID)).thenReturn(Optional.of(classRoom));
+        when(membershipIndex.findAssigned(studentIds.getStudents())).thenReturn(List.of(studentIds.getStudents().get(0)));
+
+        assertThrows(StudentAlreadyAssignedException.class, () -> classRoomService.addStudentsToClass(ID, studentIds));
+        verify(studentRepository, never()).findAllById(any());
+    }
+
+    @Test
+    public void startReadyClasses_StartsOnlyClassesThatStillQualify() throws IOException {
+        ClassRoom ready = JsonUtils.getObjectFromFile(CLASSROOM_WITH_STUDENTS, ClassRoom.class);
+        ready.setStatus(ClassStatus.WAITING);
+        ClassRoom alreadyStarted = JsonUtils.getObjectFromFile(CLASSROOM_WITH_STUDENTS, ClassRoom.class);
+        alreadyStarted.setId(2L);
+        alreadyStarted.setStatus(ClassStatus.STARTED);
+
+        when(classRoomRepository.findIdsByStatusAndStudentCountBetween(eq(ClassStatus.WAITING), eq(15), eq(30), any()))
+                .thenReturn(List.of(ID, 2L));
+        lockAvailable(ID, 2L);
+        when(classRoomRepository.lockAllByIdIn(List.of(ID, 2L))).thenReturn(List.of(ready, alreadyStarted));
+
+        int started = classRoomService.startReadyClasses(10);
+
+        assertEquals(1, started);
+        assertEquals(ClassStatus.STARTED, ready.getStatus());
+    }
+
+    @Test
+    public void startReadyClasses_SkipsClassesLockedByARequest() throws IOException {
+        ClassRoom ready = JsonUtils.getObjectFromFile(CLASSROOM_WITH_STUDENTS, ClassRoom.class);
+        ready.setStatus(ClassStatus.WAITING);
+
+        when(classRoomRepository.findIdsByStatusAndStudentCountBetween(eq(ClassStatus.WAITING), eq(15), eq(30), any()))
+                .thenReturn(List.of(ID, 2L));
+        lockAvailable(ID);
+        when(classRoomRepository.lockAllByIdIn(List.of(ID))).thenReturn(List.of(ready));
+
+        assertEquals(1, classRoomService.startReadyClasses(10));
+    }
+
+    @Test
+    public void startReadyClasses_StudentsDeletedAfterSelection_ClassNotStarted() throws IOException {
+        ClassRoom ready = JsonUtils.getObjectFromFile(CLASSROOM_WITH_STUDENTS, ClassRoom.class);
+        ready.setStatus(ClassStatus.WAITING);
+
+        when(classRoomRepository.findIdsByStatusAndStudentCountBetween(eq(ClassStatus.WAITING), eq(15), eq(30), any()))
+                .thenReturn(List.of(ID));
+        when(classRoomLockService.runLockingAvailable(eq(List.of(ID)), any())).thenAnswer(invocation -> {
+            // a delete commits between the selection and the lock; the roster is only read once locked
+            verify(classRoomRepository, never()).lockAllByIdIn(any());
+            ready.getStudents().remove(0);
+            return invocation.<ToIntFunction<List<Long>>>getArgument(1).applyAsInt(List.of(ID));
+        });
+        when(classRoomRepository.lockAllByIdIn(List.of(ID))).thenReturn(List.of(ready));
+
+        assertEquals(0, classRoomService.startReadyClasses(10));
+
+        assertEquals(ClassStatus.WAITING, ready.getStatus());
+    }
+
+    private void lockAvailable(Long... lockedIds) {
+        when(classRoomLockService.runLockingAvailable(any(), any())).thenAnswer(invocation ->
+                invocation.<ToIntFunction<List<Long>>>getArgument(1).applyAsInt(List.of(lockedIds)));
+    }
+}
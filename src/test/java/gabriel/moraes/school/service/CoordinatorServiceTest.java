@@ -3,6 +3,7 @@ package gabriel.moraes.school.service;
 import gabriel.moraes.school.Model.Coordinator;
 import gabriel.moraes.school.Model.DtoRequest.CoordinatorDtoRequest;
 import gabriel.moraes.school.Model.DtoResponse.CoordinatorDtoResponse;
+import gabriel.moraes.school.cache.CacheInvalidationBus;
 import gabriel.moraes.school.exception.ObjectNotFoundException;
 import gabriel.moraes.school.repository.CoordinatorRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -35,6 +36,8 @@ class CoordinatorServiceTest {
 
     @Mock
     private CoordinatorRepository coordinatorRepository;
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
     @InjectMocks
     private CoordinatorService coordinatorService;
     @Spy
@@ -50,7 +53,7 @@ class CoordinatorServiceTest {
 
     @Test
     public void getCoordinatorById_ReturnAnCoordinatorDtoResponse() {
-        Mockito.when(coordinatorRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(coordinator));
+        Mockito.when(coordinatorRepository.findByIdOrLegacyId(Mockito.anyLong())).thenReturn(Optional.of(coordinator));
 
         CoordinatorDtoResponse response = coordinatorService.getCoordinatorById(ID);
 
@@ -64,7 +67,7 @@ class CoordinatorServiceTest {
 
     @Test
     public void getCoordinatorById_WithInvalidId_ReturnAnObjectNotFoundException() {
-        Mockito.when(coordinatorRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
+        Mockito.when(coordinatorRepository.findByIdOrLegacyId(Mockito.anyLong())).thenReturn(Optional.empty());
 
         assertThrows(ObjectNotFoundException.class, () -> coordinatorService.getCoordinatorById(anyLong()));
     }
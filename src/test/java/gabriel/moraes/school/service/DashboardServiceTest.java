@@ -0,0 +1,199 @@
+package gabriel.moraes.school.service;
+
+import gabriel.moraes.school.Model.ClassRoomChangeType;
+import gabriel.moraes.school.Model.ClassStatus;
+import gabriel.moraes.school.Model.DtoResponse.ClassRoomChangeDtoResponse;
+import gabriel.moraes.school.Model.DtoResponse.DashboardDtoResponse;
+import gabriel.moraes.school.repository.ClassRoomRepository;
+import gabriel.moraes.school.repository.ClassRoomRepository.ClassRoomSummary;
+import gabriel.moraes.school.repository.StudentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+
+    private static final Instant NOW = Instant.parse("2023-08-01T10:00:00Z");
+
+    @Mock
+    private ClassRoomRepository classRoomRepository;
+    @Mock
+    private StudentRepository studentRepository;
+    @Mock
+    private ChangeFeedService changeFeedService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        dashboardService = new DashboardService(classRoomRepository, studentRepository, changeFeedService,
+                transactionManager, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void getDashboard_FirstCall_LoadsSummariesFromDatabase() {
+        stubDatabase(10L, 5L);
+
+        DashboardDtoResponse dashboard = dashboardService.getDashboard();
+
+        assertEquals(1L, dashboard.getClassesByStatus().get(ClassStatus.WAITING));
+        assertEquals(1L, dashboard.getClassesByStatus().get(ClassStatus.STARTED));
+        assertEquals(1L, dashboard.getClassesByStatus().get(ClassStatus.FINISHED));
+        assertEquals(16, dashboard.getMinClassSize());
+        assertEquals(20, dashboard.getMaxClassSize());
+        assertEquals(18.0, dashboard.getAverageClassSize());
+        assertEquals(0.6, dashboard.getAverageFill(), 1e-9);
+        assertEquals(1L, dashboard.getClassesReadyToStart());
+        assertEquals(66L, dashboard.getEnrolledStudents());
+        assertEquals(5L, dashboard.getUnassignedStudents());
+        assertEquals(10L, dashboard.getSquads());
+        assertEquals(2.0, dashboard.getAverageSquadsPerClass());
+        assertEquals(10L, dashboard.getCursor());
+        assertEquals(NOW, dashboard.getRecomputedAt());
+    }
+
+    @Test
+    void apply_FeedChanges_UpdateAggregateIncrementallyAndSkipSeenChanges() {
+        stubDatabase(10L, 5L);
+        dashboardService.recompute();
+
+        dashboardService.apply(List.of(
+                change(9L, 1L, ClassRoomChangeType.STUDENT_ENROLLED, null),
+                change(11L, 4L, ClassRoomChangeType.CLASS_CREATED, "New"),
+                change(12L, 4L, ClassRoomChangeType.STUDENT_ENROLLED, null),
+                change(12L, 4L, ClassRoomChangeType.STUDENT_ENROLLED, null),
+                change(13L, 1L, ClassRoomChangeType.CLASS_STATUS_CHANGED, "STARTED"),
+                change(14L, 1L, ClassRoomChangeType.SQUAD_CREATED, "Uninformed"),
+                change(15L, 2L, ClassRoomChangeType.STUDENT_REMOVED, null)));
+        DashboardDtoResponse dashboard = dashboardService.getDashboard();
+
+        assertEquals(1L, dashboard.getClassesByStatus().get(ClassStatus.WAITING));
+        assertEquals(2L, dashboard.getClassesByStatus().get(ClassStatus.STARTED));
+        assertEquals(1, dashboard.getMinClassSize());
+        assertEquals(19, dashboard.getMaxClassSize());
+        assertEquals(0L, dashboard.getClassesReadyToStart());
+        assertEquals(66L, dashboard.getEnrolledStudents());
+        assertEquals(4L, dashboard.getUnassignedStudents());
+        assertEquals(11L, dashboard.getSquads());
+        assertEquals(15L, dashboardService.getCursor());
+        verify(classRoomRepository, times(1)).findSummaries();
+    }
+
+    @Test
+    void apply_ChangesCommittedOutOfOrderAroundRecompute_EachCountedOnce() {
+        // 12 committed before the rebuild and is in its counts, 11 was still being committed
+        stubDatabase(10L, List.of(12L), 5L);
+        dashboardService.recompute();
+
+        dashboardService.apply(List.of(
+                change(11L, 1L, ClassRoomChangeType.STUDENT_ENROLLED, null),
+                change(12L, 2L, ClassRoomChangeType.STUDENT_ENROLLED, null),
+                change(13L, 2L, ClassRoomChangeType.STUDENT_ENROLLED, null)));
+        DashboardDtoResponse dashboard = dashboardService.getDashboard();
+
+        assertEquals(17, dashboard.getMinClassSize());
+        assertEquals(21, dashboard.getMaxClassSize());
+        assertEquals(68L, dashboard.getEnrolledStudents());
+        assertEquals(13L, dashboardService.getCursor());
+    }
+
+    @Test
+    void recompute_WithChangesNotYetSettled_DoesNotCountDrift() {
+        stubDatabase(10L, 5L);
+        dashboardService.recompute();
+        when(changeFeedService.sequencesAfter(10L)).thenReturn(List.of(11L));
+        when(studentRepository.countByClassRoomIsNull()).thenReturn(4L);
+
+        dashboardService.recompute();
+
+        assertEquals(0.0, meterRegistry.get("school.dashboard.drift").counter().count());
+        assertEquals(10L, dashboardService.getCursor());
+    }
+
+    @Test
+    void recompute_AtSameCursorWithDifferentCounts_CountsDriftAndReplacesAggregate() {
+        stubDatabase(10L, 5L);
+        dashboardService.recompute();
+        when(studentRepository.countByClassRoomIsNull()).thenReturn(7L);
+
+        dashboardService.recompute();
+
+        assertEquals(1.0, meterRegistry.get("school.dashboard.drift").counter().count());
+        assertEquals(7L, dashboardService.getDashboard().getUnassignedStudents());
+    }
+
+    @Test
+    void recompute_AfterNewerChanges_DoesNotCountDrift() {
+        stubDatabase(10L, 5L);
+        dashboardService.recompute();
+        when(changeFeedService.settledSequence()).thenReturn(12L);
+        when(changeFeedService.sequencesAfter(12L)).thenReturn(List.of());
+        when(studentRepository.countByClassRoomIsNull()).thenReturn(3L);
+
+        dashboardService.recompute();
+
+        assertEquals(0.0, meterRegistry.get("school.dashboard.drift").counter().count());
+        assertEquals(12L, dashboardService.getCursor());
+    }
+
+    private void stubDatabase(long settledSequence, long unassignedStudents) {
+        stubDatabase(settledSequence, List.of(), unassignedStudents);
+    }
+
+    private void stubDatabase(long settledSequence, List<Long> visibleAfter, long unassignedStudents) {
+        when(changeFeedService.settledSequence()).thenReturn(settledSequence);
+        when(changeFeedService.sequencesAfter(settledSequence)).thenReturn(visibleAfter);
+        when(studentRepository.countByClassRoomIsNull()).thenReturn(unassignedStudents);
+        when(classRoomRepository.findSummaries()).thenReturn(List.of(
+                summary(1L, ClassStatus.WAITING, 16, 0),
+                summary(2L, ClassStatus.STARTED, 20, 4),
+                summary(3L, ClassStatus.FINISHED, 30, 6)));
+    }
+
+    private static ClassRoomChangeDtoResponse change(Long id, Long classRoomId, ClassRoomChangeType type,
+                                                     String detail) {
+        return new ClassRoomChangeDtoResponse(id, classRoomId, type, null, detail, NOW);
+    }
+
+    private static ClassRoomSummary summary(Long id, ClassStatus status, int students, int squads) {
+        return new ClassRoomSummary() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public ClassStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public Integer getStudents() {
+                return students;
+            }
+
+            @Override
+            public Integer getSquads() {
+                return squads;
+            }
+        };
+    }
+}
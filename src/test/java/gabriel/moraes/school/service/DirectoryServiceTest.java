@@ -0,0 +1,100 @@
+package gabriel.moraes.school.service;
+
+import gabriel.moraes.school.Model.Coordinator;
+import gabriel.moraes.school.Model.DtoResponse.DirectoryDtoResponse;
+import gabriel.moraes.school.Model.Person;
+import gabriel.moraes.school.Model.PersonRole;
+import gabriel.moraes.school.Model.Student;
+import gabriel.moraes.school.config.ShardContext;
+import gabriel.moraes.school.config.ShardRouter;
+import gabriel.moraes.school.repository.PersonRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DirectoryServiceTest {
+
+    @Mock
+    private PersonRepository personRepository;
+    private DirectoryService directoryService;
+
+    @BeforeEach
+    void setup() {
+        directoryService = new DirectoryService(personRepository, new ModelMapper(), (ShardRouter) null);
+    }
+
+    @Test
+    void search_MixedRoles_ReturnEveryRoleInOnePage() {
+        List<Person> people = List.of(
+                new Coordinator(1L, "Ana", "Lima", "ana.lima@example.com", "123"),
+                new Student(2L, "Ana", "Souza", "ana.souza@example.com", "456"));
+        when(personRepository.searchByPrefix(null, "ana%", PageRequest.of(0, 20)))
+                .thenReturn(new SliceImpl<>(people, PageRequest.of(0, 20), true));
+
+        DirectoryDtoResponse directory = directoryService.search(" ana ", null, 0, 20);
+
+        assertEquals(2, directory.getPeople().size());
+        assertEquals(PersonRole.COORDINATOR, directory.getPeople().get(0).getRole());
+        assertEquals(PersonRole.STUDENT, directory.getPeople().get(1).getRole());
+        assertEquals("ana.souza@example.com", directory.getPeople().get(1).getEmail());
+        assertTrue(directory.isHasMore());
+    }
+
+    @Test
+    void search_WildcardsInQuery_AreMatchedLiterally() {
+        when(personRepository.searchByPrefix("STUDENT", "50\\%\\_off%", PageRequest.of(0, 20)))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        DirectoryDtoResponse directory = directoryService.search("50%_off", PersonRole.STUDENT, 0, 20);
+
+        assertTrue(directory.getPeople().isEmpty());
+        assertFalse(directory.isHasMore());
+    }
+
+    @Test
+    void search_BlankQueryAndOversizedPage_ListEveryoneWithClampedPage() {
+        when(personRepository.findByRoleInDirectoryOrder(isNull(), any())).thenReturn(new SliceImpl<>(List.of()));
+
+        DirectoryDtoResponse directory = directoryService.search("  ", null, -1, 5000);
+
+        verify(personRepository).findByRoleInDirectoryOrder(null, PageRequest.of(0, 100));
+        assertEquals(0, directory.getPage());
+        assertEquals(100, directory.getSize());
+    }
+
+    @Test
+    void search_Sharded_MergesShardsInDirectoryOrderAndTagsShard() {
+        ShardRouter shardRouter = new ShardRouter(List.of("a", "b"), "a", Map.of(), Runnable::run);
+        directoryService = new DirectoryService(personRepository, new ModelMapper(), shardRouter);
+        when(personRepository.findByRoleInDirectoryOrder(null, PageRequest.of(0, 4))).thenAnswer(invocation ->
+                "a".equals(ShardContext.currentShard())
+                        ? new SliceImpl<>(List.<Person>of(
+                        new Student(1L, "Ana", "Lima", "ana@example.com", "1"),
+                        new Student(3L, "Rui", "Souza", "rui@example.com", "1")), PageRequest.of(0, 4), false)
+                        : new SliceImpl<>(List.<Person>of(
+                        new Student(1L, "Bia", "Alves", "bia@example.com", "1"),
+                        new Student(2L, "Caio", "Moura", "caio@example.com", "1"),
+                        new Coordinator(5L, "Davi", "Silva", "davi@example.com", "1")), PageRequest.of(0, 4), true));
+
+        DirectoryDtoResponse directory = directoryService.search(null, null, 1, 2);
+
+        assertEquals(List.of("Moura", "Silva"), directory.getPeople().stream().map(p -> p.getLastName()).toList());
+        assertEquals("b", directory.getPeople().get(0).getShard());
+        assertTrue(directory.isHasMore());
+    }
+}
@@ -0,0 +1,192 @@
+package gabriel.moraes.school.service;
+
+import gabriel.moraes.school.Model.*;
+import gabriel.moraes.school.Model.DtoRequest.AddStudentsDtoRequest;
+import gabriel.moraes.school.Model.DtoResponse.EnrollmentTicketDtoResponse;
+import gabriel.moraes.school.cache.CacheInvalidationBus;
+import gabriel.moraes.school.cache.CachedEntity;
+import gabriel.moraes.school.exception.StudentAlreadyAssignedException;
+import gabriel.moraes.school.membership.MembershipIndex;
+import gabriel.moraes.school.repository.ClassRoomRepository;
+import gabriel.moraes.school.repository.EnrollmentTicketRepository;
+import gabriel.moraes.school.repository.StudentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EnrollmentQueueServiceTest {
+
+    private static final Long ID = 1L;
+    private static final Instant NOW = Instant.parse("2026-10-19T10:00:00Z");
+
+    @Mock
+    private EnrollmentTicketRepository ticketRepository;
+    @Mock
+    private ClassRoomRepository classRoomRepository;
+    @Mock
+    private StudentRepository studentRepository;
+    @Mock
+    private ChangeFeedService changeFeedService;
+    @Mock
+    private DomainEventPublisher eventPublisher;
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+    @Mock
+    private ClassRoomLockService classRoomLockService;
+    @Mock
+    private MembershipIndex membershipIndex;
+    @Mock
+    private WaitlistService waitlistService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private EnrollmentQueueService enrollmentQueueService;
+
+    @BeforeEach
+    void setup() {
+        enrollmentQueueService = new EnrollmentQueueService(ticketRepository, classRoomRepository,
+                studentRepository, changeFeedService, eventPublisher, cacheInvalidationBus, classRoomLockService,
+                membershipIndex, waitlistService, new ModelMapper(), transactionManager, new SimpleMeterRegistry(),
+                Runnable::run, Clock.fixed(NOW, ZoneOffset.UTC), 100);
+    }
+
+    @Test
+    void drain_QueuedTickets_AppliedInOrderUpToCapacity() {
+        ClassRoom classRoom = classWithStudents(28);
+        EnrollmentTicket first = ticket(10L, List.of(1L, 2L));
+        EnrollmentTicket full = ticket(11L, List.of(3L));
+        EnrollmentTicket taken = ticket(12L, List.of(1L));
+        lockPassesThrough();
+        when(ticketRepository.findByClassRoomIdAndStatusOrderByIdAsc(eq(ID), eq(EnrollmentStatus.QUEUED), any()))
+                .thenReturn(List.of(first, full, taken));
+        when(classRoomRepository.findById(ID)).thenReturn(Optional.of(classRoom));
+        when(studentRepository.findAllById(any()))
+                .thenReturn(List.of(new Student(1L), new Student(2L), new Student(3L)));
+
+        assertEquals(3, enrollmentQueueService.drain(ID));
+
+        assertEquals(EnrollmentStatus.ACCEPTED, first.getStatus());
+        assertEquals(NOW, first.getCompletedAt());
+        assertEquals(EnrollmentStatus.REJECTED, full.getStatus());
+        assertEquals("A class can have a maximum of 30 students", full.getReason());
+        assertEquals(EnrollmentStatus.REJECTED, taken.getStatus());
+        assertEquals("Students [1] are already assigned to a class.", taken.getReason());
+        assertEquals(30, classRoom.getStudents().size());
+        verify(eventPublisher).publish(DomainEventType.STUDENTS_ENROLLED, ID,
+                Map.of("studentIds", List.of(1L, 2L), "ticketId", 10L));
+        verify(eventPublisher, times(2)).publish(eq(DomainEventType.ENROLLMENT_REJECTED), eq(ID), anyMap());
+        verify(classRoomRepository).save(classRoom);
+        verify(cacheInvalidationBus).invalidate(CachedEntity.CLASS_ROOM, ID);
+        verify(membershipIndex).studentsEnrolled(ID, List.of(1L, 2L));
+    }
+
+    @Test
+    void drain_ClassFullWithWaitlist_WaitlistsTicket() {
+        ClassRoom classRoom = classWithStudents(30);
+        EnrollmentTicket ticket = ticket(10L, List.of(1L));
+        lockPassesThrough();
+        when(ticketRepository.findByClassRoomIdAndStatusOrderByIdAsc(eq(ID), eq(EnrollmentStatus.QUEUED), any()))
+                .thenReturn(List.of(ticket));
+        when(classRoomRepository.findById(ID)).thenReturn(Optional.of(classRoom));
+        when(studentRepository.findAllById(any())).thenReturn(List.of(new Student(1L)));
+        when(waitlistService.isEnabled()).thenReturn(true);
+
+        enrollmentQueueService.drain(ID);
+
+        assertEquals(EnrollmentStatus.WAITLISTED, ticket.getStatus());
+        verify(waitlistService).join(ID, List.of(1L));
+        verify(eventPublisher, never()).publish(eq(DomainEventType.ENROLLMENT_REJECTED), any(), anyMap());
+        verify(classRoomRepository, never()).save(any());
+    }
+
+    @Test
+    void drain_ClassAlreadyStarted_RejectsEveryTicket() {
+        ClassRoom classRoom = classWithStudents(15);
+        classRoom.setStatus(ClassStatus.STARTED);
+        EnrollmentTicket ticket = ticket(10L, List.of(1L));
+        lockPassesThrough();
+        when(ticketRepository.findByClassRoomIdAndStatusOrderByIdAsc(eq(ID), eq(EnrollmentStatus.QUEUED), any()))
+                .thenReturn(List.of(ticket));
+        when(classRoomRepository.findById(ID)).thenReturn(Optional.of(classRoom));
+        when(studentRepository.findAllById(any())).thenReturn(List.of(new Student(1L)));
+
+        enrollmentQueueService.drain(ID);
+
+        assertEquals(EnrollmentStatus.REJECTED, ticket.getStatus());
+        assertEquals(15, classRoom.getStudents().size());
+        verify(classRoomRepository, never()).save(any());
+        verifyNoInteractions(membershipIndex, cacheInvalidationBus);
+    }
+
+    @Test
+    void submit_ValidRequest_QueuesTicketAndWakesWorker() {
+        lockPassesThrough();
+        when(classRoomRepository.existsById(ID)).thenReturn(true);
+        when(ticketRepository.save(any(EnrollmentTicket.class))).thenAnswer(invocation -> {
+            EnrollmentTicket saved = invocation.getArgument(0);
+            saved.setId(10L);
+            return saved;
+        });
+        when(ticketRepository.findByClassRoomIdAndStatusOrderByIdAsc(eq(ID), eq(EnrollmentStatus.QUEUED), any()))
+                .thenReturn(List.of());
+
+        EnrollmentTicketDtoResponse response = enrollmentQueueService.submit(ID,
+                new AddStudentsDtoRequest(List.of(1L, 2L, 1L)));
+
+        assertEquals(10L, response.getId());
+        assertEquals(EnrollmentStatus.QUEUED, response.getStatus());
+        assertEquals(List.of(1L, 2L), response.getStudentIds());
+        verify(ticketRepository).findByClassRoomIdAndStatusOrderByIdAsc(eq(ID), eq(EnrollmentStatus.QUEUED), any());
+    }
+
+    @Test
+    void submit_StudentsAssignedInIndex_RejectedWithoutQueueing() {
+        when(classRoomRepository.existsById(ID)).thenReturn(true);
+        when(membershipIndex.findAssigned(List.of(1L))).thenReturn(List.of(1L));
+
+        assertThrows(StudentAlreadyAssignedException.class,
+                () -> enrollmentQueueService.submit(ID, new AddStudentsDtoRequest(List.of(1L))));
+
+        verify(ticketRepository, never()).save(any());
+    }
+
+    private void lockPassesThrough() {
+        when(classRoomLockService.withLock(eq(ID), any())).thenAnswer(invocation ->
+                invocation.<Supplier<?>>getArgument(1).get());
+    }
+
+    private static ClassRoom classWithStudents(int count) {
+        ClassRoom classRoom = new ClassRoom("The Fofoca Brokers");
+        classRoom.setId(ID);
+        List<Student> students = new ArrayList<>();
+        for (long id = 100; id < 100 + count; id++) {
+            students.add(new Student(id));
+        }
+        classRoom.setStudents(students);
+        return classRoom;
+    }
+
+    private static EnrollmentTicket ticket(Long id, List<Long> studentIds) {
+        EnrollmentTicket ticket = new EnrollmentTicket(ID, studentIds, NOW.minusSeconds(1));
+        ticket.setId(id);
+        return ticket;
+    }
+}
@@ -3,6 +3,7 @@ package gabriel.moraes.school.service;
 import gabriel.moraes.school.Model.DtoRequest.InstructorDtoRequest;
 import gabriel.moraes.school.Model.DtoResponse.InstructorDtoResponse;
 import gabriel.moraes.school.Model.Instructor;
+import gabriel.moraes.school.cache.CacheInvalidationBus;
 import gabriel.moraes.school.exception.ObjectNotFoundException;
 import gabriel.moraes.school.repository.InstructorRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -36,6 +37,8 @@ class InstructorServiceTest {
 
     @Mock
     private InstructorRepository instructorRepository;
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
     @InjectMocks
     private InstructorService instructorService;
 
@@ -50,7 +53,7 @@ class InstructorServiceTest {
     }
     @Test
     public void getInstructorById_ReturnAnInstructorDtoResponse() {
-        when(instructorRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(instructor));
+        when(instructorRepository.findByIdOrLegacyId(Mockito.anyLong())).thenReturn(Optional.of(instructor));
 
         InstructorDtoResponse response = instructorService.getInstructorById(ID);
 
@@ -64,7 +67,7 @@ class InstructorServiceTest {
 
     @Test
     public void getInstructorById_WithInvalidId_ReturnAnObjectNotFoundException() {
-        when(instructorRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
+        when(instructorRepository.findByIdOrLegacyId(Mockito.anyLong())).thenReturn(Optional.empty());
 
         assertThrows(ObjectNotFoundException.class, () -> instructorService.getInstructorById(anyLong()));
     }
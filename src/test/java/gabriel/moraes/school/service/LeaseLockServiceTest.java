@@ -0,0 +1,83 @@
+package gabriel.moraes.school.service;
+
+import gabriel.moraes.school.Model.LeaseLock;
+import gabriel.moraes.school.config.NodeIdentity;
+import gabriel.moraes.school.repository.LeaseLockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LeaseLockServiceTest {
+
+    private static final String LOCK = "lock";
+    private static final String OWNER = "node-1";
+    private static final Instant NOW = Instant.parse("2023-08-01T10:00:00Z");
+
+    @Mock
+    private LeaseLockRepository leaseLockRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private LeaseLockService leaseLockService;
+
+    @BeforeEach
+    void setup() {
+        leaseLockService = new LeaseLockService(leaseLockRepository, transactionManager, new NodeIdentity(OWNER),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void tryAcquire_WithExpiredLease_ReturnTrue() {
+        when(leaseLockRepository.acquire(LOCK, OWNER, NOW.plusSeconds(60), NOW)).thenReturn(1);
+
+        assertTrue(leaseLockService.tryAcquire(LOCK, Duration.ofSeconds(60)));
+        verify(leaseLockRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void tryAcquire_WithMissingLock_CreatesItAndReturnTrue() {
+        when(leaseLockRepository.acquire(LOCK, OWNER, NOW.plusSeconds(60), NOW)).thenReturn(0);
+        when(leaseLockRepository.existsById(LOCK)).thenReturn(false);
+
+        assertTrue(leaseLockService.tryAcquire(LOCK, Duration.ofSeconds(60)));
+        verify(leaseLockRepository).saveAndFlush(new LeaseLock(LOCK, OWNER, NOW.plusSeconds(60)));
+    }
+
+    @Test
+    void tryAcquire_WithLockHeldByOtherNode_ReturnFalse() {
+        when(leaseLockRepository.acquire(LOCK, OWNER, NOW.plusSeconds(60), NOW)).thenReturn(0);
+        when(leaseLockRepository.existsById(LOCK)).thenReturn(true);
+
+        assertFalse(leaseLockService.tryAcquire(LOCK, Duration.ofSeconds(60)));
+    }
+
+    @Test
+    void tryAcquire_WhenOtherNodeCreatesLockConcurrently_ReturnFalse() {
+        when(leaseLockRepository.acquire(LOCK, OWNER, NOW.plusSeconds(60), NOW)).thenReturn(0);
+        when(leaseLockRepository.existsById(LOCK)).thenReturn(false);
+        when(leaseLockRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertFalse(leaseLockService.tryAcquire(LOCK, Duration.ofSeconds(60)));
+    }
+
+    @Test
+    void release_ExpiresOwnLease() {
+        leaseLockService.release(LOCK);
+
+        verify(leaseLockRepository).release(LOCK, OWNER, NOW);
+    }
+}
@@ -0,0 +1,72 @@
+package gabriel.moraes.school.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gabriel.moraes.school.Model.ClassStatus;
+import gabriel.moraes.school.Model.DtoResponse.RosterEntryDtoResponse;
+import gabriel.moraes.school.Model.RosterFormat;
+import gabriel.moraes.school.exception.ObjectNotFoundException;
+import gabriel.moraes.school.repository.ClassRoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RosterExportServiceTest {
+
+    @Mock
+    private ClassRoomRepository classRoomRepository;
+    private RosterExportService rosterExportService;
+
+    @BeforeEach
+    void setup() {
+        rosterExportService = new RosterExportService(classRoomRepository, new ObjectMapper());
+    }
+
+    @Test
+    void export_Csv_WritesHeaderAndQuotesSpecialCharacters() throws Exception {
+        when(classRoomRepository.streamRoster(ClassStatus.FINISHED)).thenReturn(Stream.of(
+                new RosterEntryDtoResponse(1L, "Java, Spring", ClassStatus.FINISHED, 10L, "Ana", "O\"Neil",
+                        "ana@example.com", 3L, "Squad A"),
+                new RosterEntryDtoResponse(2L, "Empty", ClassStatus.FINISHED, null, null, null, null, null, null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int rows = rosterExportService.export(null, ClassStatus.FINISHED, RosterFormat.CSV, out);
+
+        assertEquals(2, rows);
+        assertEquals(RosterExportService.CSV_HEADER
+                + "1,\"Java, Spring\",FINISHED,10,Ana,\"O\"\"Neil\",ana@example.com,3,Squad A\n"
+                + "2,Empty,FINISHED,,,,,,\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void export_NdjsonForClassIds_WritesOneObjectPerLine() throws Exception {
+        when(classRoomRepository.streamRosterByIdIn(List.of(1L), null)).thenReturn(Stream.of(
+                new RosterEntryDtoResponse(1L, "Java", ClassStatus.STARTED, 10L, "Ana", "Lima", "ana@example.com",
+                        null, null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        rosterExportService.export(List.of(1L), null, RosterFormat.NDJSON, out);
+
+        assertEquals("{\"classRoomId\":1,\"className\":\"Java\",\"classStatus\":\"STARTED\",\"studentId\":10,"
+                + "\"firstName\":\"Ana\",\"lastName\":\"Lima\",\"email\":\"ana@example.com\"}\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void checkClassExists_UnknownClass_ThrowsObjectNotFound() {
+        when(classRoomRepository.existsById(9L)).thenReturn(false);
+
+        assertThrows(ObjectNotFoundException.class, () -> rosterExportService.checkClassExists(9L));
+    }
+}
@@ -3,6 +3,7 @@ package gabriel.moraes.school.service;
 import gabriel.moraes.school.Model.DtoRequest.ScrumMasterDtoRequest;
 import gabriel.moraes.school.Model.DtoResponse.ScrumMasterDtoResponse;
 import gabriel.moraes.school.Model.ScrumMaster;
+import gabriel.moraes.school.cache.CacheInvalidationBus;
 import gabriel.moraes.school.exception.ObjectNotFoundException;
 import gabriel.moraes.school.repository.ScrumMasterRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -36,6 +37,8 @@ class ScrumMasterServiceTest {
 
     @Mock
     private ScrumMasterRepository scrumMasterRepository;
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
     @InjectMocks
     private ScrumMasterService scrumMasterService;
 
@@ -50,7 +53,7 @@ class ScrumMasterServiceTest {
     }
     @Test
     public void getScrumMasterById_ReturnAnScrumMasterDtoResponse() {
-        Mockito.when(scrumMasterRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(scrumMaster));
+        Mockito.when(scrumMasterRepository.findByIdOrLegacyId(Mockito.anyLong())).thenReturn(Optional.of(scrumMaster));
 
         ScrumMasterDtoResponse response = scrumMasterService.getScrumMasterById(ID);
 
@@ -64,7 +67,7 @@ class ScrumMasterServiceTest {
 
     @Test
     public void getScrumMasterById_WithInvalidId_ReturnAnObjectNotFoundException() {
-        Mockito.when(scrumMasterRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
+        Mockito.when(scrumMasterRepository.findByIdOrLegacyId(Mockito.anyLong())).thenReturn(Optional.empty());
 
         assertThrows(ObjectNotFoundException.class, () -> scrumMasterService.getScrumMasterById(anyLong()));
     }
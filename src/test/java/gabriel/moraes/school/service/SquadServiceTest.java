@@ -1,13 +1,17 @@
 package gabriel.moraes.school.service;
 
 import gabriel.moraes.school.Model.ClassRoom;
+import gabriel.moraes.school.Model.ClassRoomChangeType;
 import gabriel.moraes.school.Model.ClassStatus;
+import gabriel.moraes.school.Model.DomainEventType;
 import gabriel.moraes.school.Model.DtoResponse.SquadDtoResponse;
 import gabriel.moraes.school.Model.Squad;
 import gabriel.moraes.school.Utils.JsonUtils;
+import gabriel.moraes.school.cache.CacheInvalidationBus;
 import gabriel.moraes.school.exception.InvalidClassStatusException;
 import gabriel.moraes.school.exception.NoRegisteredStudentsException;
 import gabriel.moraes.school.exception.ObjectNotFoundException;
+import gabriel.moraes.school.membership.MembershipIndex;
 import gabriel.moraes.school.repository.ClassRoomRepository;
 import gabriel.moraes.school.repository.SquadRepository;
 import org.junit.jupiter.api.Test;
@@ -21,6 +25,7 @@ import org.modelmapper.ModelMapper;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,6 +40,14 @@ class SquadServiceTest {
     private SquadRepository squadRepository;
     @Mock
     private ClassRoomRepository classRoomRepository;
+    @Mock
+    private ChangeFeedService changeFeedService;
+    @Mock
+    private DomainEventPublisher eventPublisher;
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+    @Mock
+    private MembershipIndex membershipIndex;
     @InjectMocks
     private SquadService squadService;
     @Spy
@@ -61,6 +74,8 @@ class SquadServiceTest {
         assertEquals(response.get(0).getName(), "Uninformed");
         assertEquals(response.get(1).getId(), 2L);
         assertEquals(response.get(2).getId(), 3L);
+        verify(changeFeedService).record(1L, ClassRoomChangeType.SQUAD_CREATED, 1L, "Uninformed");
+        verify(eventPublisher).publish(DomainEventType.SQUADS_CREATED, 1L, Map.of("squadIds", List.of(1L, 2L, 3L)));
     }
 
     @Test
@@ -1,10 +1,16 @@
 package gabriel.moraes.school.service;
 
+import gabriel.moraes.school.Model.ClassRoomChangeType;
 import gabriel.moraes.school.Model.DtoRequest.StudentDtoRequest;
+import gabriel.moraes.school.Model.DtoResponse.DeleteStudentsDtoResponse;
 import gabriel.moraes.school.Model.DtoResponse.StudentDtoResponse;
 import gabriel.moraes.school.Model.Student;
+import gabriel.moraes.school.cache.CacheInvalidationBus;
+import gabriel.moraes.school.cache.CachedEntity;
 import gabriel.moraes.school.exception.ObjectNotFoundException;
+import gabriel.moraes.school.membership.MembershipIndex;
 import gabriel.moraes.school.repository.StudentRepository;
+import gabriel.moraes.school.repository.StudentRepository.StudentMembership;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,8 +21,11 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatCode;
 import static org.hibernate.validator.internal.util.Contracts.assertNotNull;
@@ -24,8 +33,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class StudentServiceTest {
@@ -35,9 +43,18 @@ class StudentServiceTest {
     public static final String LASTNAME = "Moraes";
     public static final String EMAIL = "gabriel@moraes";
     public static final String PHONE = "81984458436";
+    private static final Instant NOW = Instant.parse("2023-08-01T10:00:00Z");
 
     @Mock
     private StudentRepository studentRepository;
+    @Mock
+    private ChangeFeedService changeFeedService;
+    @Mock
+    private Clock clock;
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+    @Mock
+    private MembershipIndex membershipIndex;
     @InjectMocks
     private StudentService studentService;
     private Student student;
@@ -102,19 +119,73 @@ class StudentServiceTest {
 
     @Test
     void deleteStudent_WithExistingId_doesNotThrowAnyException(){
-        when(studentRepository.findById(1L)).thenReturn(java.util.Optional.of(student));
-        doNothing().when(studentRepository).delete(student);
+        when(clock.instant()).thenReturn(NOW);
+        when(studentRepository.findMembershipsByIdIn(Set.of(ID))).thenReturn(List.of(membership(ID, 3L)));
+        when(studentRepository.softDeleteByIdIn(List.of(ID), NOW)).thenReturn(1);
 
-        assertThatCode(() -> studentService.deleteStudentById(1L)).doesNotThrowAnyException();
+        assertThatCode(() -> studentService.deleteStudentById(ID)).doesNotThrowAnyException();
+        verify(changeFeedService).record(3L, ClassRoomChangeType.STUDENT_REMOVED, ID, null);
     }
 
     @Test
     void deleteStudent_WithUnexistingId_ReturnNotFound(){
-        when(studentRepository.findById(Mockito.anyLong())).thenReturn(java.util.Optional.empty());
+        when(studentRepository.findMembershipsByIdIn(any())).thenReturn(List.of());
+
+        assertThrows(ObjectNotFoundException.class, () -> studentService.deleteStudentById(ID));
+        verify(studentRepository, never()).softDeleteByIdIn(any(), any());
+    }
+
+    @Test
+    void deleteStudents_TombstonesFoundStudentsInOneUpdateAndReportsMissing() {
+        when(clock.instant()).thenReturn(NOW);
+        when(studentRepository.findMembershipsByIdIn(Set.of(1L, 2L, 3L)))
+                .thenReturn(List.of(membership(1L, 7L), membership(2L, null)));
+        when(studentRepository.softDeleteByIdIn(List.of(1L, 2L), NOW)).thenReturn(2);
+
+        DeleteStudentsDtoResponse response = studentService.deleteStudents(List.of(1L, 2L, 3L, 2L));
+
+        assertEquals(2, response.getDeleted());
+        assertEquals(List.of(3L), response.getNotFound());
+        verify(changeFeedService).record(7L, ClassRoomChangeType.STUDENT_REMOVED, 1L, null);
+        verifyNoMoreInteractions(changeFeedService);
+        verify(cacheInvalidationBus).invalidate(CachedEntity.STUDENT, List.of(1L, 2L));
+        verify(cacheInvalidationBus).invalidate(CachedEntity.CLASS_ROOM, List.of(7L));
+    }
+
+    @Test
+    void purgeDeletedStudents_RemovesOneBatch() {
+        when(studentRepository.findIdsDeletedBefore(NOW, 2)).thenReturn(List.of(4L, 5L));
+        when(studentRepository.purgeByIdIn(List.of(4L, 5L))).thenReturn(2);
+
+        assertEquals(2, studentService.purgeDeletedStudents(NOW, 2));
+    }
+
+    @Test
+    void purgeDeletedStudents_NothingToPurge_SkipsDelete() {
+        when(studentRepository.findIdsDeletedBefore(NOW, 2)).thenReturn(List.of());
 
-        assertThrows(ObjectNotFoundException.class, () -> studentService.deleteStudentById(anyLong()));
+        assertEquals(0, studentService.purgeDeletedStudents(NOW, 2));
+        verify(studentRepository, never()).purgeByIdIn(any());
     }
 
+    private static StudentMembership membership(Long id, Long classRoomId) {
+        return new StudentMembership() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getClassRoomId() {
+                return classRoomId;
+            }
+
+            @Override
+            public Long getSquadId() {
+                return null;
+            }
+        };
+    }
 
     private void setupTestData(){
         student = new Student(ID, FIRSTNAME, LASTNAME, EMAIL, PHONE);
@@ -0,0 +1,174 @@
+package gabriel.moraes.school.service;
+
+import gabriel.moraes.school.Model.*;
+import gabriel.moraes.school.Model.DtoResponse.WaitlistPositionDtoResponse;
+import gabriel.moraes.school.cache.CacheInvalidationBus;
+import gabriel.moraes.school.cache.CachedEntity;
+import gabriel.moraes.school.membership.MembershipIndex;
+import gabriel.moraes.school.repository.ClassRoomRepository;
+import gabriel.moraes.school.repository.StudentRepository;
+import gabriel.moraes.school.repository.WaitlistEntryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistServiceTest {
+
+    private static final Long ID = 1L;
+    private static final Instant NOW = Instant.parse("2026-10-19T10:00:00Z");
+
+    @Mock
+    private WaitlistEntryRepository waitlistEntryRepository;
+    @Mock
+    private ClassRoomRepository classRoomRepository;
+    @Mock
+    private StudentRepository studentRepository;
+    @Mock
+    private ChangeFeedService changeFeedService;
+    @Mock
+    private DomainEventPublisher eventPublisher;
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+    @Mock
+    private ClassRoomLockService classRoomLockService;
+    @Mock
+    private MembershipIndex membershipIndex;
+    private WaitlistService waitlistService;
+
+    @BeforeEach
+    void setup() {
+        waitlistService = new WaitlistService(waitlistEntryRepository, classRoomRepository, studentRepository,
+                changeFeedService, eventPublisher, cacheInvalidationBus, classRoomLockService, membershipIndex,
+                new SimpleMeterRegistry(), Clock.fixed(NOW, ZoneOffset.UTC), true);
+    }
+
+    @Test
+    void join_StudentAlreadyWaiting_KeepsPlaceAndAppendsOthers() {
+        WaitlistEntry waiting = entry(5L, 2L);
+        WaitlistEntry appended = entry(9L, 3L);
+        when(waitlistEntryRepository.findByClassRoomIdAndStudentIdIn(ID, List.of(3L, 2L)))
+                .thenReturn(List.of(waiting), List.of(appended, waiting));
+        when(waitlistEntryRepository.countByClassRoomId(ID)).thenReturn(4L);
+        when(waitlistEntryRepository.countByClassRoomIdAndIdLessThanEqual(ID, 5L)).thenReturn(2L);
+        when(waitlistEntryRepository.countByClassRoomIdAndIdLessThanEqual(ID, 9L)).thenReturn(4L);
+
+        List<WaitlistPositionDtoResponse> positions = waitlistService.join(ID, List.of(3L, 2L));
+
+        verify(waitlistEntryRepository).saveAll(argThat(entries -> {
+            List<WaitlistEntry> saved = new ArrayList<>();
+            entries.forEach(saved::add);
+            return saved.size() == 1 && saved.get(0).getStudentId() == 3L && NOW.equals(saved.get(0).getJoinedAt());
+        }));
+        verify(eventPublisher).publish(DomainEventType.STUDENTS_WAITLISTED, ID, Map.of("studentIds", List.of(3L)));
+        assertEquals(2L, positions.get(0).getStudentId());
+        assertEquals(2, positions.get(0).getPosition());
+        assertEquals(3L, positions.get(1).getStudentId());
+        assertEquals(4, positions.get(1).getPosition());
+        assertEquals(4, positions.get(1).getWaiting());
+    }
+
+    @Test
+    void promoteWaitlisted_FreeSeat_EnrollsHeadOfWaitlistSkippingStaleEntries() {
+        ClassRoom classRoom = new ClassRoom("The Fofoca Brokers");
+        classRoom.setId(ID);
+        for (long id = 100; id < 129; id++) {
+            classRoom.getStudents().add(new Student(id));
+        }
+        Student enrolledElsewhere = new Student(2L);
+        enrolledElsewhere.setClassRoom(new ClassRoom("Other"));
+        Student next = new Student(3L);
+        when(classRoomRepository.findIdsByStatusWithWaitlistAndStudentCountBelow(eq(ClassStatus.WAITING), eq(30),
+                any())).thenReturn(List.of(ID));
+        lockAvailable(ID);
+        when(classRoomRepository.lockAllByIdIn(List.of(ID))).thenReturn(List.of(classRoom));
+        when(waitlistEntryRepository.findByClassRoomIdOrderByIdAsc(eq(ID), any()))
+                .thenReturn(List.of(entry(5L, 2L)), List.of(entry(6L, 3L)));
+        when(studentRepository.findAllById(List.of(2L))).thenReturn(List.of(enrolledElsewhere));
+        when(studentRepository.findAllById(List.of(3L))).thenReturn(List.of(next));
+
+        assertEquals(1, waitlistService.promoteWaitlisted(10));
+
+        assertSame(classRoom, next.getClassRoom());
+        assertEquals(30, classRoom.getStudents().size());
+        verify(waitlistEntryRepository, times(2)).deleteAll(any());
+        verify(waitlistEntryRepository).deleteByStudentIdIn(List.of(3L));
+        verify(changeFeedService).record(ID, ClassRoomChangeType.STUDENT_ENROLLED, 3L, null);
+        verify(eventPublisher).publish(DomainEventType.STUDENTS_ENROLLED, ID,
+                Map.of("studentIds", List.of(3L), "waitlist", true));
+        verify(cacheInvalidationBus).invalidate(CachedEntity.CLASS_ROOM, ID);
+        verify(membershipIndex).studentsEnrolled(ID, List.of(3L));
+    }
+
+    @Test
+    void promoteWaitlisted_ClassLockedByRequest_Skipped() {
+        when(classRoomRepository.findIdsByStatusWithWaitlistAndStudentCountBelow(eq(ClassStatus.WAITING), eq(30),
+                any())).thenReturn(List.of(ID));
+        when(classRoomLockService.runLockingAvailable(eq(List.of(ID)), any())).thenReturn(0);
+
+        assertEquals(0, waitlistService.promoteWaitlisted(10));
+
+        verify(classRoomRepository, never()).lockAllByIdIn(any());
+    }
+
+    @Test
+    void promoteWaitlisted_ChangesCommittedAfterSelection_ReadOnlyOnceLocked() {
+        ClassRoom classRoom = new ClassRoom("The Fofoca Brokers");
+        classRoom.setId(ID);
+        for (long id = 100; id < 128; id++) {
+            classRoom.getStudents().add(new Student(id));
+        }
+        Student enrolledMeanwhile = new Student(2L);
+        Student next = new Student(3L);
+        ClassRoom other = new ClassRoom("Other");
+        when(classRoomRepository.findIdsByStatusWithWaitlistAndStudentCountBelow(eq(ClassStatus.WAITING), eq(30),
+                any())).thenReturn(List.of(ID));
+        when(classRoomLockService.runLockingAvailable(eq(List.of(ID)), any())).thenAnswer(invocation -> {
+            // requests commit between the selection and the lock: one fills a seat, one enrolls student 2 elsewhere
+            verify(classRoomRepository, never()).lockAllByIdIn(any());
+            verifyNoInteractions(studentRepository, waitlistEntryRepository);
+            classRoom.getStudents().add(new Student(99L));
+            enrolledMeanwhile.setClassRoom(other);
+            return invocation.<ToIntFunction<List<Long>>>getArgument(1).applyAsInt(List.of(ID));
+        });
+        when(classRoomRepository.lockAllByIdIn(List.of(ID))).thenReturn(List.of(classRoom));
+        when(waitlistEntryRepository.findByClassRoomIdOrderByIdAsc(eq(ID), any()))
+                .thenReturn(List.of(entry(5L, 2L)), List.of(entry(6L, 3L)));
+        when(studentRepository.findAllById(List.of(2L))).thenReturn(List.of(enrolledMeanwhile));
+        when(studentRepository.findAllById(List.of(3L))).thenReturn(List.of(next));
+
+        assertEquals(1, waitlistService.promoteWaitlisted(10));
+
+        assertEquals(30, classRoom.getStudents().size());
+        assertSame(other, enrolledMeanwhile.getClassRoom());
+        assertSame(classRoom, next.getClassRoom());
+        verify(waitlistEntryRepository, times(2)).findByClassRoomIdOrderByIdAsc(ID, PageRequest.of(0, 1));
+    }
+
+    private void lockAvailable(Long... lockedIds) {
+        when(classRoomLockService.runLockingAvailable(any(), any())).thenAnswer(invocation ->
+                invocation.<ToIntFunction<List<Long>>>getArgument(1).applyAsInt(List.of(lockedIds)));
+    }
+
+    private static WaitlistEntry entry(Long id, Long studentId) {
+        WaitlistEntry entry = new WaitlistEntry(ID, studentId, NOW.minusSeconds(60));
+        entry.setId(id);
+        return entry;
+    }
+}